@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс измерения времени парсинга специально составленных и случайных длинных строк user-agent.
+ * <p>
+ * Строка {@link #hostile} вызывает квадратичный перебор с возвратами в правилах устройств вида
+ * {@code .*Android ...(?<model>(?!Build)[...]+)Build/.*\).*}. Строки {@link #fuzzed} собираются
+ * из фрагментов литералов правил в случайном порядке. Время парсинга обеих строк с бюджетом проверки
+ * правил и автоматом правил должно расти не быстрее длины строки.
+ *
+ * @author Алексей Каленчуков
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdversarialBenchmark
+{
+	/**
+	 * Фрагменты литералов правил, из которых собираются случайные строки.
+	 */
+	private static final String[] FRAGMENTS = {
+		"Android ", "4.0", ";", " ", "en-us", "Build/", ")", "(", "AppleWebKit/", "Mobile", "Safari/",
+		"Version/", "a", "1", "_", "Linux", "Windows NT ", "Chrome/", "Presto/"
+	};
+
+	/**
+	 * Длина строки user-agent.
+	 */
+	@Param({"1024", "4096", "16384"})
+	public int length;
+
+	/**
+	 * Способ проверки правил.
+	 */
+	@Param({"REGEX", "AUTOMATON"})
+	public ParserSettings.Engine engine;
+
+	/**
+	 * Бюджет проверки правил, или {@code 0} если проверка не ограничена.
+	 */
+	@Param({"0", "1000000"})
+	public long matchBudget;
+
+	/**
+	 * Специально составленная строка user-agent.
+	 */
+	private String hostile;
+
+	/**
+	 * Случайные строки user-agent.
+	 */
+	private String[] fuzzed;
+
+	/**
+	 * Парсер строки user-agent.
+	 */
+	private UserAgentParsing userAgentParser;
+
+	/**
+	 * Создаёт парсер и строки user-agent указанной длины.
+	 */
+	@Setup
+	public void setUp()
+	{
+		ParserSettings settings = new ParserSettings();
+		settings.setEngine(this.engine);
+		settings.setMatchBudget(this.matchBudget);
+		this.userAgentParser = new UserAgentParser(settings);
+
+		String prefix = "Mozilla/5.0 (Linux; Android 4.0; en-us; ";
+		String suffix = " AppleWebKit";
+		this.hostile = prefix + "A Build/".repeat((this.length - prefix.length() - suffix.length()) / 8) + suffix;
+
+		Random random = new Random(this.length);
+		this.fuzzed = new String[16];
+
+		for (int index = 0; index < this.fuzzed.length; index++)
+		{
+			StringBuilder userAgent = new StringBuilder(this.length + 16);
+
+			while (userAgent.length() < this.length) {
+				userAgent.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+			}
+
+			this.fuzzed[index] = userAgent.toString();
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence)} со специально составленной строкой.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	public void hostile(final Blackhole blackhole)
+	{
+		blackhole.consume(this.userAgentParser.parse(this.hostile));
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence)} со случайными строками.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(16)
+	public void fuzzed(final Blackhole blackhole)
+	{
+		for (String userAgent : this.fuzzed) {
+			blackhole.consume(this.userAgentParser.parse(userAgent));
+		}
+	}
+}
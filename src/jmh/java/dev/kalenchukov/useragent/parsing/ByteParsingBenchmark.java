@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс измерения производительности парсинга строк user-agent, полученных в виде байтов.
+ * <p>
+ * Одна операция — парсинг одной строки из {@link BenchmarkCorpus}. Путь через {@link String}
+ * декодирует байты в строку, как при вызове {@link UserAgentParser#setUserAgent(String)},
+ * остальные пути читают байты через {@link AsciiCharSequence} без копирования.
+ *
+ * @author Алексей Каленчуков
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteParsingBenchmark
+{
+	/**
+	 * Строки user-agent в кодировке US-ASCII.
+	 */
+	private final byte[][] bytes = BenchmarkCorpus.USER_AGENTS.stream()
+		.map(userAgent -> userAgent.getBytes(StandardCharsets.ISO_8859_1))
+		.toArray(byte[][]::new);
+
+	/**
+	 * Строки user-agent в прямых буферах.
+	 */
+	private final ByteBuffer[] buffers = new ByteBuffer[this.bytes.length];
+
+	/**
+	 * Парсер строки user-agent.
+	 */
+	private final UserAgentParsing userAgentParser = new UserAgentParser();
+
+	/**
+	 * Повторно используемая информация о клиенте.
+	 */
+	private final MutableUserAgentInfo userAgentInfo = new MutableUserAgentInfo();
+
+	/**
+	 * Копирует строки user-agent в прямые буферы.
+	 */
+	@Setup
+	public void setUp()
+	{
+		for (int index = 0; index < this.bytes.length; index++)
+		{
+			this.buffers[index] = ByteBuffer.allocateDirect(this.bytes[index].length);
+			this.buffers[index].put(this.bytes[index]).flip();
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence)} с декодированием байтов в строку.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void string(final Blackhole blackhole)
+	{
+		for (byte[] userAgent : this.bytes) {
+			blackhole.consume(this.userAgentParser.parse(new String(userAgent, StandardCharsets.US_ASCII)));
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(byte[], int, int)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void bytes(final Blackhole blackhole)
+	{
+		for (byte[] userAgent : this.bytes) {
+			blackhole.consume(this.userAgentParser.parse(userAgent, 0, userAgent.length));
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(ByteBuffer)} с прямыми буферами.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void directBuffer(final Blackhole blackhole)
+	{
+		for (ByteBuffer userAgent : this.buffers) {
+			blackhole.consume(this.userAgentParser.parse(userAgent));
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence, MutableUserAgentInfo)}
+	 * с декодированием байтов в строку.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void stringMutable(final Blackhole blackhole)
+	{
+		for (byte[] userAgent : this.bytes)
+		{
+			this.userAgentParser.parse(new String(userAgent, StandardCharsets.US_ASCII), this.userAgentInfo);
+			blackhole.consume(this.userAgentInfo.getBrowser());
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence, MutableUserAgentInfo)}
+	 * с прямыми буферами.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void directBufferMutable(final Blackhole blackhole)
+	{
+		for (ByteBuffer userAgent : this.buffers)
+		{
+			this.userAgentParser.parse(new AsciiCharSequence(userAgent), this.userAgentInfo);
+			blackhole.consume(this.userAgentInfo.getBrowser());
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс измерения производительности классов определения браузера, устройства и операционной системы.
+ * <p>
+ * Одна операция — определение по одной отформатированной строке из {@link BenchmarkCorpus}.
+ *
+ * @author Алексей Каленчуков
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetectorBenchmark
+{
+	/**
+	 * Отформатированные строки user-agent.
+	 */
+	private final String[] userAgents = BenchmarkCorpus.formatted();
+
+	/**
+	 * Объект определения браузера.
+	 */
+	private final Browser browser = new Browser();
+
+	/**
+	 * Объект определения устройства.
+	 */
+	private final Device device = new Device();
+
+	/**
+	 * Объект определения операционной системы.
+	 */
+	private final OperatingSystem operatingSystem = new OperatingSystem();
+
+	/**
+	 * Измерение метода {@link Browser#setUserAgent(String)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void browser(final Blackhole blackhole)
+	{
+		for (String userAgent : this.userAgents)
+		{
+			this.browser.setUserAgent(userAgent);
+			blackhole.consume(this.browser.getVersion());
+		}
+	}
+
+	/**
+	 * Измерение метода {@link Device#setUserAgent(String)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void device(final Blackhole blackhole)
+	{
+		for (String userAgent : this.userAgents)
+		{
+			this.device.setUserAgent(userAgent);
+			blackhole.consume(this.device.getModel());
+		}
+	}
+
+	/**
+	 * Измерение метода {@link OperatingSystem#setUserAgent(String)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void operatingSystem(final Blackhole blackhole)
+	{
+		for (String userAgent : this.userAgents)
+		{
+			this.operatingSystem.setUserAgent(userAgent);
+			blackhole.consume(this.operatingSystem.getVersion());
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс измерения времени до первого парсинга строки user-agent в новой JVM.
+ * <p>
+ * Каждое измерение выполняется однократно в отдельной JVM и включает загрузку классов парсера,
+ * встроенного набора правил и создание парсера. Для JVM с архивом классов AppCDS измерение
+ * запускается с параметром {@code -jvmArgsAppend -XX:SharedArchiveFile=<архив>}.
+ *
+ * @author Алексей Каленчуков
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class FirstParseBenchmark
+{
+	/**
+	 * Строка user-agent первого парсинга.
+	 */
+	private static final String USER_AGENT =
+		"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) " +
+			"Chrome/118.0.0.0 Safari/537.36";
+
+	/**
+	 * Способ проверки правил.
+	 */
+	@Param({"REGEX", "AUTOMATON"})
+	public ParserSettings.Engine engine;
+
+	/**
+	 * Измерение создания парсера и первого парсинга строки user-agent.
+	 *
+	 * @return информация о клиенте.
+	 */
+	@Benchmark
+	public UserAgentInfo parse()
+	{
+		ParserSettings settings = new ParserSettings();
+		settings.setEngine(this.engine);
+
+		return new UserAgentParser(settings).parse(USER_AGENT);
+	}
+}
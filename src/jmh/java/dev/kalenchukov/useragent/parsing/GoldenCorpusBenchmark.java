@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Класс измерения пропускной способности парсинга на эталонном наборе строк user-agent.
+ * <p>
+ * Одна операция — парсинг одной строки набора {@code golden-corpus.tsv.gz} из ресурсов тестов.
+ * Результаты сравнивает с базовыми значениями {@link ThroughputGuard}.
+ *
+ * @author Алексей Каленчуков
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoldenCorpusBenchmark
+{
+	/**
+	 * Имя ресурса эталонного набора.
+	 */
+	private static final String CORPUS = "golden-corpus.tsv.gz";
+
+	/**
+	 * Способ проверки правил.
+	 */
+	@Param({"REGEX", "AUTOMATON"})
+	public ParserSettings.Engine engine;
+
+	/**
+	 * Строки user-agent эталонного набора.
+	 */
+	private String[] userAgents;
+
+	/**
+	 * Индекс следующей строки user-agent.
+	 */
+	private int index;
+
+	/**
+	 * Парсер строки user-agent.
+	 */
+	private UserAgentParsing userAgentParser;
+
+	/**
+	 * Повторно используемая информация о клиенте.
+	 */
+	private MutableUserAgentInfo userAgentInfo;
+
+	/**
+	 * Загружает эталонный набор и создаёт парсер с проверяемым способом проверки правил.
+	 *
+	 * @throws IOException если набор не удалось прочитать.
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		try (InputStream stream = Objects.requireNonNull(GoldenCorpusBenchmark.class.getResourceAsStream(CORPUS)))
+		{
+			BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new GZIPInputStream(stream), StandardCharsets.UTF_8)
+			);
+
+			this.userAgents = reader.lines()
+				.filter(line -> !line.isEmpty() && !line.startsWith("#"))
+				.map(line -> line.substring(0, line.indexOf('\t')))
+				.toArray(String[]::new);
+		}
+
+		ParserSettings settings = new ParserSettings();
+		settings.setEngine(this.engine);
+		this.userAgentParser = new UserAgentParser(settings);
+		this.userAgentInfo = new MutableUserAgentInfo();
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	public void parse(final Blackhole blackhole)
+	{
+		blackhole.consume(this.userAgentParser.parse(this.next()));
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence, MutableUserAgentInfo)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	public void parseMutable(final Blackhole blackhole)
+	{
+		this.userAgentParser.parse(this.next(), this.userAgentInfo);
+		blackhole.consume(this.userAgentInfo.getPackedBrowserVersion());
+	}
+
+	/**
+	 * Возвращает следующую строку user-agent набора по кругу.
+	 *
+	 * @return строка user-agent.
+	 */
+	private String next()
+	{
+		String userAgent = this.userAgents[this.index];
+		this.index = (this.index + 1) % this.userAgents.length;
+
+		return userAgent;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс измерения производительности и выделения памяти при парсинге
+ * в повторно используемую {@link MutableUserAgentInfo}.
+ * <p>
+ * Одна операция — парсинг одной строки из {@link BenchmarkCorpus}. Выделение памяти
+ * на операцию показывает профилировщик {@code -prof gc} профиля {@code benchmark}.
+ *
+ * @author Алексей Каленчуков
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutableUserAgentInfoBenchmark
+{
+	/**
+	 * Строки user-agent.
+	 */
+	private final String[] userAgents = BenchmarkCorpus.USER_AGENTS.toArray(String[]::new);
+
+	/**
+	 * Используется ли кэш результатов парсинга.
+	 */
+	@Param({"false", "true"})
+	public boolean cached;
+
+	/**
+	 * Парсер строки user-agent.
+	 */
+	private UserAgentParsing userAgentParser;
+
+	/**
+	 * Повторно используемая информация о клиенте.
+	 */
+	private MutableUserAgentInfo userAgentInfo;
+
+	/**
+	 * Создаёт парсер с кэшем или без него.
+	 */
+	@Setup
+	public void setUp()
+	{
+		ParserSettings settings = new ParserSettings();
+
+		if (this.cached) {
+			settings.setCache(new UserAgentCache(1024));
+		}
+
+		this.userAgentParser = new UserAgentParser(settings);
+		this.userAgentInfo = new MutableUserAgentInfo();
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void parse(final Blackhole blackhole)
+	{
+		for (String userAgent : this.userAgents) {
+			blackhole.consume(this.userAgentParser.parse(userAgent));
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence, MutableUserAgentInfo)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void parseMutable(final Blackhole blackhole)
+	{
+		for (String userAgent : this.userAgents)
+		{
+			this.userAgentParser.parse(userAgent, this.userAgentInfo);
+			blackhole.consume(this.userAgentInfo.getPackedBrowserVersion());
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс измерения времени запуска: загрузки встроенного набора правил и первого парсинга в новой JVM.
+ * <p>
+ * Каждое измерение выполняется однократно в отдельной JVM, поэтому учитывает загрузку классов,
+ * разбор правил и компиляцию регулярных выражений. Набор правил загружается из файла правил
+ * ({@code TEXT}) или из двоичного снимка, созданного при сборке ({@code SNAPSHOT}).
+ * Содержимое ресурсов читается до измерения.
+ *
+ * @author Алексей Каленчуков
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark
+{
+	/**
+	 * Строка user-agent первого парсинга.
+	 */
+	private static final String USER_AGENT =
+		"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) " +
+			"Chrome/118.0.0.0 Safari/537.36";
+
+	/**
+	 * Источник набора правил.
+	 */
+	@Param({"TEXT", "SNAPSHOT"})
+	public String source;
+
+	/**
+	 * Содержимое файла правил.
+	 */
+	private byte[] rules;
+
+	/**
+	 * Содержимое снимка набора правил.
+	 */
+	private byte[] snapshot;
+
+	/**
+	 * Читает ресурсы набора правил.
+	 *
+	 * @throws IOException если ресурсы не удалось прочитать.
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		this.rules = StartupBenchmark.read("rules.txt");
+		this.snapshot = StartupBenchmark.read(RuleSnapshot.RESOURCE);
+	}
+
+	/**
+	 * Измерение загрузки набора правил.
+	 *
+	 * @return набор правил.
+	 * @throws IOException если набор правил не удалось загрузить.
+	 */
+	@Benchmark
+	public UserAgentRules load() throws IOException
+	{
+		if (this.source.equals("TEXT")) {
+			return UserAgentRules.load(new ByteArrayInputStream(this.rules));
+		}
+
+		return RuleSnapshot.read(ByteBuffer.wrap(this.snapshot), RuleSnapshot.checksum(this.rules));
+	}
+
+	/**
+	 * Измерение загрузки набора правил и первого парсинга строки user-agent.
+	 *
+	 * @return информация о клиенте.
+	 * @throws IOException если набор правил не удалось загрузить.
+	 */
+	@Benchmark
+	public UserAgentInfo loadAndParse() throws IOException
+	{
+		ParserSettings settings = new ParserSettings();
+		settings.setRules(this.load());
+
+		return new UserAgentParser(settings).parse(USER_AGENT);
+	}
+
+	/**
+	 * Читает ресурс целиком.
+	 *
+	 * @param name название ресурса.
+	 * @return содержимое ресурса.
+	 * @throws IOException если ресурс не найден или его не удалось прочитать.
+	 */
+	private static byte[] read(final String name) throws IOException
+	{
+		try (InputStream stream = UserAgentRules.class.getResourceAsStream(name))
+		{
+			return Objects.requireNonNull(stream, name).readAllBytes();
+		}
+	}
+}
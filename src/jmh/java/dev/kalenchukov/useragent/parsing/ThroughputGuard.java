@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Класс проверки пропускной способности парсинга относительно базовых значений.
+ * <p>
+ * Запускает {@link GoldenCorpusBenchmark} для каждого способа проверки правил и каждого метода парсинга
+ * и сравнивает результат со значением из {@code throughput-baseline.properties}.
+ * Завершает процесс с кодом 1, если пропускная способность хотя бы одного измерения упала
+ * больше допустимого.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class ThroughputGuard
+{
+	/**
+	 * Имя ресурса базовых значений.
+	 */
+	private static final String BASELINE = "throughput-baseline.properties";
+
+	/**
+	 * Конструктор для {@code ThroughputGuard}.
+	 */
+	private ThroughputGuard()
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Запускает измерения и сравнивает их с базовыми значениями.
+	 *
+	 * @param args аргументы командной строки, не используются.
+	 * @throws IOException если базовые значения не удалось прочитать.
+	 * @throws RunnerException если измерения не удалось выполнить.
+	 */
+	public static void main(@NotNull final String @NotNull [] args) throws IOException, RunnerException
+	{
+		Properties baseline = new Properties();
+
+		try (InputStream stream = Objects.requireNonNull(ThroughputGuard.class.getResourceAsStream(BASELINE)))
+		{
+			baseline.load(stream);
+		}
+
+		double maxDropPercent = Double.parseDouble(baseline.getProperty("maxDropPercent"));
+
+		Runner runner = new Runner(
+			new OptionsBuilder().include(GoldenCorpusBenchmark.class.getName()).build()
+		);
+
+		List<String> failures = new ArrayList<>();
+
+		for (RunResult result : runner.run())
+		{
+			String benchmark = result.getParams().getBenchmark();
+			String key = result.getParams().getParam("engine") + "." +
+				benchmark.substring(benchmark.lastIndexOf('.') + 1);
+			String expected = baseline.getProperty(key);
+
+			if (expected == null) {
+				throw new IllegalStateException("Нет базового значения для измерения " + key + ".");
+			}
+
+			double actual = result.getPrimaryResult().getScore();
+			double min = Double.parseDouble(expected) * (100 - maxDropPercent) / 100;
+
+			System.out.printf("%s: %.0f строк в секунду, допустимо не меньше %.0f%n", key, actual, min);
+
+			if (actual < min) {
+				failures.add(key);
+			}
+		}
+
+		if (!failures.isEmpty())
+		{
+			System.err.println("Пропускная способность упала больше чем на " + maxDropPercent + "%: " + failures);
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Класс измерения производительности полного парсинга строки user-agent.
+ * <p>
+ * Одна операция — парсинг одной строки из {@link BenchmarkCorpus}.
+ *
+ * @author Алексей Каленчуков
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserAgentParserBenchmark
+{
+	/**
+	 * Строки user-agent.
+	 */
+	private final String[] userAgents = BenchmarkCorpus.USER_AGENTS.toArray(String[]::new);
+
+	/**
+	 * Пакет строк user-agent, в котором каждая строка набора повторяется с разными суффиксами.
+	 */
+	private final List<String> batch = IntStream.range(0, 21 * 1000)
+		.mapToObj(index -> this.userAgents[index % 21] + " #" + (index / 21))
+		.toList();
+
+	/**
+	 * Способ проверки правил.
+	 */
+	@Param({"REGEX", "AUTOMATON"})
+	public ParserSettings.Engine engine;
+
+	/**
+	 * Парсер строки user-agent.
+	 */
+	private UserAgentParsing userAgentParser;
+
+	/**
+	 * Создаёт парсер с проверяемым способом проверки правил.
+	 */
+	@Setup
+	public void setUp()
+	{
+		ParserSettings settings = new ParserSettings();
+		settings.setEngine(this.engine);
+		this.userAgentParser = new UserAgentParser(settings);
+	}
+
+	/**
+	 * Измерение методов {@link UserAgentParser#setUserAgent(String)} и {@link UserAgentParser#getAll()}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void getAll(final Blackhole blackhole)
+	{
+		for (String userAgent : this.userAgents)
+		{
+			this.userAgentParser.setUserAgent(userAgent);
+			blackhole.consume(this.userAgentParser.getAll());
+		}
+	}
+
+	/**
+	 * Измерение методов {@link UserAgentParser#setUserAgent(String)} и {@link UserAgentParser#getDeviceType()}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void getDeviceType(final Blackhole blackhole)
+	{
+		for (String userAgent : this.userAgents)
+		{
+			this.userAgentParser.setUserAgent(userAgent);
+			blackhole.consume(this.userAgentParser.getDeviceType());
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parse(CharSequence)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21)
+	public void parse(final Blackhole blackhole)
+	{
+		for (String userAgent : this.userAgents) {
+			blackhole.consume(this.userAgentParser.parse(userAgent));
+		}
+	}
+
+	/**
+	 * Измерение метода {@link UserAgentParser#parseAll(java.util.List)}.
+	 *
+	 * @param blackhole приёмник результатов.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(21 * 1000)
+	public void parseAll(final Blackhole blackhole)
+	{
+		blackhole.consume(this.userAgentParser.parseAll(this.batch));
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Класс представления последовательности байтов буфера в виде последовательности символов.
+ * <p>
+ * Каждый байт соответствует одному символу ISO-8859-1, поэтому строки US-ASCII
+ * представляются без преобразования и копирования.
+ * Позиция и границы буфера не изменяются.
+ * <p>
+ * Представление позволяет передавать в {@link UserAgentParsing} значения заголовков,
+ * прочитанные в массив байтов или в буфер, в том числе прямой, без создания строк.
+ * Изменение байтов после создания представления изменяет и его символы.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class AsciiCharSequence implements CharSequence
+{
+	/**
+	 * Буфер.
+	 */
+	@NotNull
+	private final ByteBuffer buffer;
+
+	/**
+	 * Индекс первого байта в буфере.
+	 */
+	private final int offset;
+
+	/**
+	 * Количество байтов.
+	 */
+	private final int length;
+
+	/**
+	 * Конструктор для {@code AsciiCharSequence} по байтам массива.
+	 *
+	 * @param bytes массив байтов.
+	 * @param offset индекс первого байта в массиве.
+	 * @param length количество байтов.
+	 * @throws NullPointerException если в качестве {@code bytes} передан {@code null}.
+	 * @throws IndexOutOfBoundsException если {@code offset} и {@code length} выходят за границы массива.
+	 */
+	public AsciiCharSequence(final byte @NotNull [] bytes, final int offset, final int length)
+	{
+		this(ByteBuffer.wrap(bytes), offset, length);
+	}
+
+	/**
+	 * Конструктор для {@code AsciiCharSequence} по байтам буфера от позиции до границы.
+	 *
+	 * @param buffer буфер.
+	 * @throws NullPointerException если в качестве {@code buffer} передан {@code null}.
+	 */
+	public AsciiCharSequence(@NotNull final ByteBuffer buffer)
+	{
+		this(buffer, buffer.position(), buffer.remaining());
+	}
+
+	/**
+	 * Конструктор для {@code AsciiCharSequence}.
+	 *
+	 * @param buffer буфер.
+	 * @param offset индекс первого байта в буфере.
+	 * @param length количество байтов.
+	 * @throws NullPointerException если в качестве {@code buffer} передан {@code null}.
+	 * @throws IndexOutOfBoundsException если {@code offset} и {@code length} выходят за границы буфера.
+	 */
+	public AsciiCharSequence(@NotNull final ByteBuffer buffer, final int offset, final int length)
+	{
+		Objects.requireNonNull(buffer);
+		Objects.checkFromIndexSize(offset, length, buffer.limit());
+
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public int length()
+	{
+		return this.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param index {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public char charAt(final int index)
+	{
+		Objects.checkIndex(index, this.length);
+
+		return (char) (this.buffer.get(this.offset + index) & 0xFF);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param start {@inheritDoc}
+	 * @param end {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public CharSequence subSequence(final int start, final int end)
+	{
+		Objects.checkFromToIndex(start, end, this.length);
+
+		return new AsciiCharSequence(this.buffer, this.offset + start, end - start);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public String toString()
+	{
+		byte[] bytes = new byte[this.length];
+		this.buffer.get(this.offset, bytes);
+
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Класс механизма определения, проверяющего правила-кандидаты всех характеристик
+ * за один проход объединённого автомата {@link RuleAutomaton}.
+ * <p>
+ * Время определения линейно зависит от длины строки user-agent, если все правила набора
+ * компилируются в программу автомата, как правила встроенного набора.
+ *
+ * @author Алексей Каленчуков
+ */
+final class AutomatonEngine extends DetectionEngine
+{
+	/**
+	 * Индекс таблицы правил браузеров в автомате.
+	 */
+	private static final int BROWSER = 0;
+
+	/**
+	 * Индекс таблицы правил устройств в автомате.
+	 */
+	private static final int DEVICE = 1;
+
+	/**
+	 * Индекс таблицы правил операционных систем в автомате.
+	 */
+	private static final int OPERATING_SYSTEM = 2;
+
+	/**
+	 * Набор правил.
+	 */
+	@NotNull
+	private final UserAgentRules rules;
+
+	/**
+	 * Автомат правил браузеров, устройств и операционных систем.
+	 */
+	@NotNull
+	private final RuleAutomaton automaton;
+
+	/**
+	 * Конструктор для {@code AutomatonEngine}.
+	 *
+	 * @param rules набор правил.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 */
+	AutomatonEngine(@NotNull final UserAgentRules rules)
+	{
+		Objects.requireNonNull(rules);
+
+		this.rules = rules;
+		this.automaton = rules.getAutomaton();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentRules getRules()
+	{
+		return this.rules;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull BrowserType> detectBrowser(@NotNull final CharSequence userAgent)
+	{
+		int[] result = this.automaton.run(userAgent, new BitSet[] { this.rules.getBrowserRules().candidates(userAgent), null, null });
+
+		return this.browser(userAgent, result);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull DeviceType> detectDevice(@NotNull final CharSequence userAgent)
+	{
+		int[] result = this.automaton.run(userAgent, new BitSet[] { null, this.rules.getDeviceRules().candidates(userAgent), null });
+
+		return this.device(userAgent, result);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull OperatingSystemType> detectOperatingSystem(@NotNull final CharSequence userAgent)
+	{
+		int[] result = this.automaton.run(
+			userAgent, new BitSet[] { null, null, this.rules.getOperatingSystemRules().candidates(userAgent) }
+		);
+
+		return this.operatingSystem(userAgent, result);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Все указанные характеристики определяются за один проход автомата.
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @param dimensions {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentInfo detect(@NotNull final CharSequence userAgent, @NotNull final Set<@NotNull UserAgentDimension> dimensions)
+	{
+		boolean browser = dimensions.contains(UserAgentDimension.BROWSER);
+		boolean device = dimensions.contains(UserAgentDimension.DEVICE);
+		boolean operatingSystem = dimensions.contains(UserAgentDimension.OPERATING_SYSTEM);
+
+		int[] result = this.automaton.run(userAgent, new BitSet[] {
+			browser ? this.rules.getBrowserRules().candidates(userAgent) : null,
+			device ? this.rules.getDeviceRules().candidates(userAgent) : null,
+			operatingSystem ? this.rules.getOperatingSystemRules().candidates(userAgent) : null
+		});
+
+		return new UserAgentInfo(
+			this.browser(userAgent, result),
+			this.device(userAgent, result),
+			this.operatingSystem(userAgent, result)
+		);
+	}
+
+	/**
+	 * Возвращает результат определения браузера по результату автомата.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param result результат автомата.
+	 * @return результат определения браузера.
+	 */
+	@NotNull
+	private Detection<@NotNull BrowserType> browser(@NotNull final CharSequence userAgent, final int @NotNull [] result)
+	{
+		int rule = result[3 * BROWSER];
+
+		if (rule < 0) {
+			return UNKNOWN_BROWSER;
+		}
+
+		return Browser.detection(
+			this.rules.getBrowserRules().getRules().get(rule).getType(), AutomatonEngine.group(userAgent, result, BROWSER)
+		);
+	}
+
+	/**
+	 * Возвращает результат определения устройства по результату автомата.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param result результат автомата.
+	 * @return результат определения устройства.
+	 */
+	@NotNull
+	private Detection<@NotNull DeviceType> device(@NotNull final CharSequence userAgent, final int @NotNull [] result)
+	{
+		int rule = result[3 * DEVICE];
+
+		if (rule < 0) {
+			return UNKNOWN_DEVICE;
+		}
+
+		return Device.detection(
+			this.rules.getDeviceRules().getRules().get(rule).getType(), AutomatonEngine.group(userAgent, result, DEVICE)
+		);
+	}
+
+	/**
+	 * Возвращает результат определения операционной системы по результату автомата.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param result результат автомата.
+	 * @return результат определения операционной системы.
+	 */
+	@NotNull
+	private Detection<@NotNull OperatingSystemType> operatingSystem(@NotNull final CharSequence userAgent,
+																	final int @NotNull [] result)
+	{
+		int rule = result[3 * OPERATING_SYSTEM];
+
+		if (rule < 0) {
+			return UNKNOWN_OPERATING_SYSTEM;
+		}
+
+		return OperatingSystem.detection(
+			this.rules.getOperatingSystemRules().getRules().get(rule).getType(),
+			AutomatonEngine.group(userAgent, result, OPERATING_SYSTEM)
+		);
+	}
+
+	/**
+	 * Возвращает значение группы по результату автомата.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param result результат автомата.
+	 * @param table индекс таблицы правил.
+	 * @return значение группы, или {@code null} если группа не участвовала в совпадении.
+	 */
+	@Nullable
+	private static String group(@NotNull final CharSequence userAgent, final int @NotNull [] result, final int table)
+	{
+		int start = result[3 * table + 1];
+		int end = result[3 * table + 2];
+
+		return start < 0 || end < 0 ? null : userAgent.subSequence(start, end).toString();
+	}
+}
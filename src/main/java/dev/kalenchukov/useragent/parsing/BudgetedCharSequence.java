@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Класс последовательности символов, ограничивающей количество обращений к символам.
+ * <p>
+ * Регулярные выражения читают строку только через {@link #charAt(int)}, поэтому количество
+ * обращений к символам ограничивает объём работы при проверке правил, в том числе при катастрофическом
+ * переборе с возвратами. Автомат правил читает каждый символ один раз, но на каждом символе проверяет
+ * все свои состояния, поэтому дополнительно списывает с бюджета свои шаги методом {@link #charge(long)}.
+ * Когда бюджет исчерпан, очередное обращение к символу или списание выбрасывает
+ * {@link MatchBudgetExceededException}.
+ * <p>
+ * Объект предназначен для одного парсинга и не может использоваться из нескольких потоков.
+ *
+ * @author Алексей Каленчуков
+ */
+final class BudgetedCharSequence implements CharSequence
+{
+	/**
+	 * Исходная последовательность символов.
+	 */
+	@NotNull
+	private final CharSequence sequence;
+
+	/**
+	 * Оставшееся количество обращений к символам.
+	 */
+	private long remaining;
+
+	/**
+	 * Конструктор для {@code BudgetedCharSequence}.
+	 *
+	 * @param sequence исходная последовательность символов.
+	 * @param budget количество обращений к символам.
+	 * @throws NullPointerException если в качестве {@code sequence} передан {@code null}.
+	 * @throws IllegalArgumentException если значение {@code budget} отрицательное.
+	 */
+	BudgetedCharSequence(@NotNull final CharSequence sequence, final long budget)
+	{
+		Objects.requireNonNull(sequence);
+
+		if (budget < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.sequence = sequence;
+		this.remaining = budget;
+	}
+
+	/**
+	 * Возвращает оставшееся количество обращений к символам.
+	 *
+	 * @return оставшееся количество обращений к символам.
+	 */
+	long getRemaining()
+	{
+		return this.remaining;
+	}
+
+	/**
+	 * Списывает с бюджета шаги проверки правил, выполненные без обращения к символам.
+	 *
+	 * @param steps количество шагов.
+	 * @throws MatchBudgetExceededException если бюджет меньше количества шагов.
+	 */
+	void charge(final long steps)
+	{
+		if (steps > this.remaining)
+		{
+			this.remaining = 0;
+
+			throw new MatchBudgetExceededException();
+		}
+
+		this.remaining -= steps;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public int length()
+	{
+		return this.sequence.length();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param index {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws MatchBudgetExceededException если бюджет обращений к символам исчерпан.
+	 */
+	@Override
+	public char charAt(final int index)
+	{
+		if (this.remaining == 0) {
+			throw new MatchBudgetExceededException();
+		}
+
+		this.remaining--;
+
+		return this.sequence.charAt(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Обращения к символам возвращаемой последовательности не ограничиваются.
+	 *
+	 * @param start {@inheritDoc}
+	 * @param end {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public CharSequence subSequence(final int start, final int end)
+	{
+		return this.sequence.subSequence(start, end);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public String toString()
+	{
+		return this.sequence.toString();
+	}
+}
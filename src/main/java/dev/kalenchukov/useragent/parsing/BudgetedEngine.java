@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Класс механизма определения, ограничивающего объём работы другого механизма.
+ * <p>
+ * Строка user-agent передаётся механизму через {@link BudgetedCharSequence}. При определении
+ * нескольких характеристик за один вызов бюджет общий для всех характеристик, и при его исчерпании
+ * возвращается неопределённая информация о клиенте с признаком {@link UserAgentInfo#isBudgetExceeded()}.
+ * При определении характеристики по отдельности бюджет действует на каждую характеристику,
+ * и при его исчерпании характеристика не определяется, а результат определения получает признак
+ * исчерпания бюджета, который возвращает {@link UserAgentParser#isBudgetExceeded()}.
+ *
+ * @author Алексей Каленчуков
+ */
+final class BudgetedEngine extends DetectionEngine
+{
+	/**
+	 * Информация о клиенте, бюджет проверки правил которого исчерпан.
+	 */
+	@NotNull
+	private static final UserAgentInfo EXCEEDED = new UserAgentInfo(
+		UNKNOWN_BROWSER, UNKNOWN_DEVICE, UNKNOWN_OPERATING_SYSTEM, true
+	);
+
+	/**
+	 * Неопределённый браузер, бюджет проверки правил которого исчерпан.
+	 */
+	@NotNull
+	private static final Detection<@NotNull BrowserType> EXCEEDED_BROWSER =
+		new Detection<>(BrowserType.UNKNOWN, null, true);
+
+	/**
+	 * Неопределённое устройство, бюджет проверки правил которого исчерпан.
+	 */
+	@NotNull
+	private static final Detection<@NotNull DeviceType> EXCEEDED_DEVICE =
+		new Detection<>(DeviceType.UNKNOWN, null, true);
+
+	/**
+	 * Неопределённая операционная система, бюджет проверки правил которой исчерпан.
+	 */
+	@NotNull
+	private static final Detection<@NotNull OperatingSystemType> EXCEEDED_OPERATING_SYSTEM =
+		new Detection<>(OperatingSystemType.UNKNOWN, null, true);
+
+	/**
+	 * Механизм определения.
+	 */
+	@NotNull
+	private final DetectionEngine engine;
+
+	/**
+	 * Количество обращений к символам строки и шагов автомата правил за один вызов.
+	 */
+	private final long budget;
+
+	/**
+	 * Конструктор для {@code BudgetedEngine}.
+	 *
+	 * @param engine механизм определения.
+	 * @param budget количество обращений к символам строки и шагов автомата правил за один вызов.
+	 * @throws NullPointerException если в качестве {@code engine} передан {@code null}.
+	 * @throws IllegalArgumentException если значение {@code budget} отрицательное.
+	 */
+	BudgetedEngine(@NotNull final DetectionEngine engine, final long budget)
+	{
+		Objects.requireNonNull(engine);
+
+		if (budget < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.engine = engine;
+		this.budget = budget;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentRules getRules()
+	{
+		return this.engine.getRules();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull BrowserType> detectBrowser(@NotNull final CharSequence userAgent)
+	{
+		try
+		{
+			return this.engine.detectBrowser(new BudgetedCharSequence(userAgent, this.budget));
+		}
+		catch (MatchBudgetExceededException exception)
+		{
+			return EXCEEDED_BROWSER;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull DeviceType> detectDevice(@NotNull final CharSequence userAgent)
+	{
+		try
+		{
+			return this.engine.detectDevice(new BudgetedCharSequence(userAgent, this.budget));
+		}
+		catch (MatchBudgetExceededException exception)
+		{
+			return EXCEEDED_DEVICE;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull OperatingSystemType> detectOperatingSystem(@NotNull final CharSequence userAgent)
+	{
+		try
+		{
+			return this.engine.detectOperatingSystem(new BudgetedCharSequence(userAgent, this.budget));
+		}
+		catch (MatchBudgetExceededException exception)
+		{
+			return EXCEEDED_OPERATING_SYSTEM;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @param dimensions {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentInfo detect(@NotNull final CharSequence userAgent, @NotNull final Set<@NotNull UserAgentDimension> dimensions)
+	{
+		try
+		{
+			return this.engine.detect(new BudgetedCharSequence(userAgent, this.budget), dimensions);
+		}
+		catch (MatchBudgetExceededException exception)
+		{
+			return EXCEEDED;
+		}
+	}
+}
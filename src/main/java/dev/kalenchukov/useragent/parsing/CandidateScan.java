@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Класс общего поиска правил-кандидатов нескольких таблиц правил за один проход по строке user-agent.
+ * <p>
+ * Литералы правил всех таблиц объединяются в один {@link LiteralIndex}, где правила каждой таблицы
+ * занимают непрерывный диапазон идентификаторов со своим смещением. Вместо отдельного прохода
+ * по строке для каждой таблицы строка просматривается один раз, а индексы кандидатов таблицы
+ * находятся в её диапазоне.
+ *
+ * @author Алексей Каленчуков
+ */
+final class CandidateScan
+{
+	/**
+	 * Смещения диапазонов идентификаторов таблиц правил.
+	 * <p>
+	 * Последний элемент равен общему количеству правил.
+	 */
+	private final int @NotNull [] offsets;
+
+	/**
+	 * Общий индекс литералов правил всех таблиц.
+	 */
+	@NotNull
+	private final LiteralIndex literalIndex;
+
+	/**
+	 * Идентификаторы правил без литерала, которые являются кандидатами для любой строки.
+	 */
+	@NotNull
+	private final BitSet unconditional;
+
+	/**
+	 * Конструктор для {@code CandidateScan}.
+	 *
+	 * @param tables таблицы правил.
+	 * @throws NullPointerException если в качестве {@code tables} передан {@code null}.
+	 */
+	CandidateScan(@NotNull final List<@NotNull RuleTable<?>> tables)
+	{
+		Objects.requireNonNull(tables);
+
+		this.offsets = new int[tables.size() + 1];
+
+		List<String> literals = new ArrayList<>();
+
+		for (int table = 0; table < tables.size(); table++)
+		{
+			this.offsets[table] = literals.size();
+
+			for (Rule<?> rule : tables.get(table).getRules()) {
+				literals.add(rule.getLiteral());
+			}
+		}
+
+		this.offsets[tables.size()] = literals.size();
+		this.unconditional = new BitSet(literals.size());
+
+		for (int id = 0; id < literals.size(); id++)
+		{
+			if (literals.get(id) == null) {
+				this.unconditional.set(id);
+			}
+		}
+
+		this.literalIndex = new LiteralIndex(literals);
+	}
+
+	/**
+	 * Возвращает смещение диапазона идентификаторов таблицы правил.
+	 *
+	 * @param table номер таблицы правил в порядке передачи в конструктор.
+	 * @return идентификатор первого правила таблицы.
+	 * @throws IndexOutOfBoundsException если таблицы с номером {@code table} нет.
+	 */
+	int offset(final int table)
+	{
+		Objects.checkIndex(table, this.offsets.length - 1);
+
+		return this.offsets[table];
+	}
+
+	/**
+	 * Записывает идентификаторы правил-кандидатов всех таблиц для строки user-agent в указанное множество.
+	 * <p>
+	 * Прежнее содержимое множества удаляется. Индекс правила-кандидата в таблице равен его
+	 * идентификатору за вычетом {@link #offset(int) смещения} таблицы.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param candidates множество, в которое записываются идентификаторы правил-кандидатов.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code candidates} передан {@code null}.
+	 */
+	void candidates(@NotNull final CharSequence userAgent, @NotNull final BitSet candidates)
+	{
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(candidates);
+
+		candidates.clear();
+		candidates.or(this.unconditional);
+		this.literalIndex.collect(userAgent, candidates);
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+
+/**
+ * Класс механизма определения, проверяющего все правила каждой таблицы регулярными выражениями
+ * поочерёдно в порядке приоритета.
+ * <p>
+ * Правила-кандидаты не отбираются ни по литералам {@link LiteralIndex}, ни общим проходом
+ * {@link CandidateScan}, поэтому механизм используется как эталон в {@link ShadowMode}:
+ * ошибка отбора кандидатов проявляется как расхождение результатов.
+ *
+ * @author Алексей Каленчуков
+ */
+final class CascadeEngine extends DetectionEngine
+{
+	/**
+	 * Набор правил.
+	 */
+	@NotNull
+	private final UserAgentRules rules;
+
+	/**
+	 * Конструктор для {@code CascadeEngine}.
+	 *
+	 * @param rules набор правил.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 */
+	CascadeEngine(@NotNull final UserAgentRules rules)
+	{
+		Objects.requireNonNull(rules);
+
+		this.rules = rules;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentRules getRules()
+	{
+		return this.rules;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull BrowserType> detectBrowser(@NotNull final CharSequence userAgent)
+	{
+		return CascadeEngine.detect(
+			this.rules.getBrowserRules(), userAgent, Browser.GROUP, Browser::detection, UNKNOWN_BROWSER
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull DeviceType> detectDevice(@NotNull final CharSequence userAgent)
+	{
+		return CascadeEngine.detect(
+			this.rules.getDeviceRules(), userAgent, Device.GROUP, Device::detection, UNKNOWN_DEVICE
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull OperatingSystemType> detectOperatingSystem(@NotNull final CharSequence userAgent)
+	{
+		return CascadeEngine.detect(
+			this.rules.getOperatingSystemRules(), userAgent, OperatingSystem.GROUP,
+			OperatingSystem::detection, UNKNOWN_OPERATING_SYSTEM
+		);
+	}
+
+	/**
+	 * Определяет значение по первому в порядке приоритета правилу таблицы, которому соответствует строка.
+	 *
+	 * @param rules таблица правил.
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param group название группы регулярного выражения, содержащей значение.
+	 * @param detection создание результата определения по типу и значению группы.
+	 * @param unknown результат, если ни одно правило не совпало.
+	 * @param <T> тип значения, которое определяют правила.
+	 * @return результат определения.
+	 */
+	@NotNull
+	private static <T extends Enum<T>> Detection<@NotNull T> detect(@NotNull final RuleTable<T> rules,
+																	  @NotNull final CharSequence userAgent,
+																	  @NotNull final String group,
+																	  @NotNull final BiFunction<@NotNull T, @Nullable String, @NotNull Detection<@NotNull T>> detection,
+																	  @NotNull final Detection<@NotNull T> unknown)
+	{
+		for (Rule<T> rule : rules.getRules())
+		{
+			Matcher matcher = rule.matcher(userAgent);
+
+			if (matcher.matches()) {
+				return detection.apply(rule.getType(), matcher.groupCount() > 0 ? matcher.group(group) : null);
+			}
+		}
+
+		return unknown;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Класс результата определения по строке user-agent одной из характеристик клиента.
+ *
+ * @param <T> тип определённого значения.
+ * @author Алексей Каленчуков
+ */
+final class Detection<T extends Enum<T>>
+{
+	/**
+	 * Определённое значение.
+	 */
+	@NotNull
+	private final T type;
+
+	/**
+	 * Уточнение значения (версия или модель).
+	 */
+	@Nullable
+	private final String value;
+
+	/**
+	 * Исчерпан ли бюджет проверки правил.
+	 */
+	private final boolean budgetExceeded;
+
+	/**
+	 * Конструктор для {@code Detection}.
+	 *
+	 * @param type определённое значение.
+	 * @param value уточнение значения (версия или модель).
+	 * @throws NullPointerException если в качестве {@code type} передан {@code null}.
+	 */
+	Detection(@NotNull final T type, @Nullable final String value)
+	{
+		this(type, value, false);
+	}
+
+	/**
+	 * Конструктор для {@code Detection}.
+	 *
+	 * @param type определённое значение.
+	 * @param value уточнение значения (версия или модель).
+	 * @param budgetExceeded исчерпан ли бюджет проверки правил.
+	 * @throws NullPointerException если в качестве {@code type} передан {@code null}.
+	 */
+	Detection(@NotNull final T type, @Nullable final String value, final boolean budgetExceeded)
+	{
+		Objects.requireNonNull(type);
+
+		this.type = type;
+		this.value = value;
+		this.budgetExceeded = budgetExceeded;
+	}
+
+	/**
+	 * Возвращает определённое значение.
+	 *
+	 * @return определённое значение.
+	 */
+	@NotNull
+	T getType()
+	{
+		return this.type;
+	}
+
+	/**
+	 * Возвращает уточнение значения (версию или модель).
+	 *
+	 * @return уточнение значения, или {@code null} если уточнение не определено.
+	 */
+	@Nullable
+	String getValue()
+	{
+		return this.value;
+	}
+
+	/**
+	 * Проверяет, исчерпан ли бюджет проверки правил при определении.
+	 *
+	 * @return {@code true} если бюджет исчерпан и значение не определено, иначе {@code false}.
+	 */
+	boolean isBudgetExceeded()
+	{
+		return this.budgetExceeded;
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Класс механизма определения браузера, устройства и операционной системы по строке user-agent.
+ * <p>
+ * Механизм получает отформатированную непустую строку user-agent и не хранит состояния между вызовами,
+ * поэтому может использоваться одновременно из нескольких потоков.
+ *
+ * @author Алексей Каленчуков
+ */
+abstract class DetectionEngine
+{
+	/**
+	 * Все характеристики клиента.
+	 */
+	@NotNull
+	static final Set<@NotNull UserAgentDimension> ALL_DIMENSIONS = Collections.unmodifiableSet(
+		EnumSet.allOf(UserAgentDimension.class)
+	);
+
+	/**
+	 * Неопределённый браузер.
+	 */
+	@NotNull
+	static final Detection<@NotNull BrowserType> UNKNOWN_BROWSER = new Detection<>(BrowserType.UNKNOWN, null);
+
+	/**
+	 * Неопределённое устройство.
+	 */
+	@NotNull
+	static final Detection<@NotNull DeviceType> UNKNOWN_DEVICE = new Detection<>(DeviceType.UNKNOWN, null);
+
+	/**
+	 * Неопределённая операционная система.
+	 */
+	@NotNull
+	static final Detection<@NotNull OperatingSystemType> UNKNOWN_OPERATING_SYSTEM =
+		new Detection<>(OperatingSystemType.UNKNOWN, null);
+
+	/**
+	 * Возвращает набор правил, по которому выполняется определение.
+	 *
+	 * @return набор правил.
+	 */
+	@NotNull
+	abstract UserAgentRules getRules();
+
+	/**
+	 * Определяет браузер.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @return результат определения браузера.
+	 */
+	@NotNull
+	abstract Detection<@NotNull BrowserType> detectBrowser(@NotNull CharSequence userAgent);
+
+	/**
+	 * Определяет устройство.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @return результат определения устройства.
+	 */
+	@NotNull
+	abstract Detection<@NotNull DeviceType> detectDevice(@NotNull CharSequence userAgent);
+
+	/**
+	 * Определяет операционную систему.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @return результат определения операционной системы.
+	 */
+	@NotNull
+	abstract Detection<@NotNull OperatingSystemType> detectOperatingSystem(@NotNull CharSequence userAgent);
+
+	/**
+	 * Определяет указанные характеристики клиента.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param dimensions определяемые характеристики.
+	 * @return информация о клиенте, где не указанные характеристики не определены.
+	 */
+	@NotNull
+	UserAgentInfo detect(@NotNull final CharSequence userAgent, @NotNull final Set<@NotNull UserAgentDimension> dimensions)
+	{
+		return new UserAgentInfo(
+			dimensions.contains(UserAgentDimension.BROWSER) ? this.detectBrowser(userAgent) : UNKNOWN_BROWSER,
+			dimensions.contains(UserAgentDimension.DEVICE) ? this.detectDevice(userAgent) : UNKNOWN_DEVICE,
+			dimensions.contains(UserAgentDimension.OPERATING_SYSTEM)
+				? this.detectOperatingSystem(userAgent)
+				: UNKNOWN_OPERATING_SYSTEM
+		);
+	}
+
+	/**
+	 * Определяет браузер, устройство и операционную систему и записывает их в изменяемую информацию о клиенте.
+	 * <p>
+	 * Буфер информации о клиенте содержит только отформатированную строку user-agent,
+	 * а значения дописываются в него после определения. Реализация по умолчанию получает
+	 * результат методом {@link #detect(CharSequence, Set)}, поэтому создаёт объекты.
+	 *
+	 * @param userAgentInfo очищенная информация о клиенте с отформатированной строкой user-agent в буфере.
+	 */
+	void detect(@NotNull final MutableUserAgentInfo userAgentInfo)
+	{
+		userAgentInfo.set(this.detect(userAgentInfo.getBuffer(), ALL_DIMENSIONS));
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Класс вероятностной оценки частоты появления элементов (Count-Min Sketch с 4-битными счётчиками).
+ * <p>
+ * Используется политикой {@link UserAgentCache.EvictionPolicy#TINY_LFU} для решения о допуске
+ * нового элемента в заполненный кэш. Чтобы оценка отражала недавнюю частоту, после
+ * определённого количества увеличений все счётчики уменьшаются вдвое.
+ * <p>
+ * Класс не является потокобезопасным.
+ *
+ * @author Алексей Каленчуков
+ */
+final class FrequencySketch
+{
+	/**
+	 * Множители хеш-функций счётчиков.
+	 */
+	private static final int @NotNull [] SEEDS = {0x97CB3127, 0xB7AEF6C9, 0x6C9A54E5, 0xC2B2AE35};
+
+	/**
+	 * Маска для уменьшения вдвое всех счётчиков одного элемента таблицы.
+	 */
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	/**
+	 * Таблица 4-битных счётчиков, по 16 счётчиков в каждом элементе.
+	 */
+	private final long @NotNull [] table;
+
+	/**
+	 * Количество увеличений, после которого счётчики уменьшаются вдвое.
+	 */
+	private final int sampleSize;
+
+	/**
+	 * Количество увеличений с момента последнего уменьшения счётчиков.
+	 */
+	private int size;
+
+	/**
+	 * Конструктор для {@code FrequencySketch}.
+	 *
+	 * @param capacity ожидаемое количество различных элементов.
+	 * @throws IllegalArgumentException если {@code capacity} меньше единицы.
+	 */
+	FrequencySketch(final int capacity)
+	{
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Ёмкость должна быть больше нуля.");
+		}
+
+		int length = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+
+		this.table = new long[Math.min(length, 1 << 24)];
+		this.sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+		this.size = 0;
+	}
+
+	/**
+	 * Возвращает оценку частоты появления элемента.
+	 *
+	 * @param hash хеш-код элемента.
+	 * @return оценку частоты от {@code 0} до {@code 15}.
+	 */
+	int frequency(final int hash)
+	{
+		int frequency = 15;
+
+		for (int seed : SEEDS)
+		{
+			int position = this.position(hash, seed);
+			int counter = (int) ((this.table[position >>> 4] >>> ((position & 15) << 2)) & 15L);
+
+			frequency = Math.min(frequency, counter);
+		}
+
+		return frequency;
+	}
+
+	/**
+	 * Увеличивает оценку частоты появления элемента.
+	 *
+	 * @param hash хеш-код элемента.
+	 */
+	void increment(final int hash)
+	{
+		boolean added = false;
+
+		for (int seed : SEEDS)
+		{
+			int position = this.position(hash, seed);
+			int index = position >>> 4;
+			int offset = (position & 15) << 2;
+
+			if (((this.table[index] >>> offset) & 15L) != 15L)
+			{
+				this.table[index] += 1L << offset;
+				added = true;
+			}
+		}
+
+		if (added && ++this.size >= this.sampleSize) {
+			this.reset();
+		}
+	}
+
+	/**
+	 * Уменьшает вдвое все счётчики.
+	 */
+	private void reset()
+	{
+		for (int index = 0; index < this.table.length; index++) {
+			this.table[index] = (this.table[index] >>> 1) & RESET_MASK;
+		}
+
+		this.size /= 2;
+	}
+
+	/**
+	 * Возвращает позицию счётчика элемента для хеш-функции.
+	 *
+	 * @param hash хеш-код элемента.
+	 * @param seed множитель хеш-функции.
+	 * @return позицию счётчика в таблице.
+	 */
+	private int position(final int hash, final int seed)
+	{
+		int position = hash * seed;
+		position ^= position >>> 17;
+		position *= 0xED5AD4BB;
+		position ^= position >>> 11;
+
+		return position & ((this.table.length << 4) - 1);
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Класс механизма определения, заменяющего версии и модели в результатах другого механизма
+ * равными строками из {@link StringPool}.
+ * <p>
+ * При определении в {@link MutableUserAgentInfo} строки не создаются, поэтому такое определение
+ * передаётся механизму без изменений.
+ *
+ * @author Алексей Каленчуков
+ */
+final class InterningEngine extends DetectionEngine
+{
+	/**
+	 * Механизм определения.
+	 */
+	@NotNull
+	private final DetectionEngine engine;
+
+	/**
+	 * Пул строк.
+	 */
+	@NotNull
+	private final StringPool stringPool;
+
+	/**
+	 * Конструктор для {@code InterningEngine}.
+	 *
+	 * @param engine механизм определения.
+	 * @param stringPool пул строк.
+	 * @throws NullPointerException если в качестве {@code engine} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code stringPool} передан {@code null}.
+	 */
+	InterningEngine(@NotNull final DetectionEngine engine, @NotNull final StringPool stringPool)
+	{
+		Objects.requireNonNull(engine);
+		Objects.requireNonNull(stringPool);
+
+		this.engine = engine;
+		this.stringPool = stringPool;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentRules getRules()
+	{
+		return this.engine.getRules();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull BrowserType> detectBrowser(@NotNull final CharSequence userAgent)
+	{
+		return this.intern(this.engine.detectBrowser(userAgent));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull DeviceType> detectDevice(@NotNull final CharSequence userAgent)
+	{
+		return this.intern(this.engine.detectDevice(userAgent));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull OperatingSystemType> detectOperatingSystem(@NotNull final CharSequence userAgent)
+	{
+		return this.intern(this.engine.detectOperatingSystem(userAgent));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @param dimensions {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentInfo detect(@NotNull final CharSequence userAgent, @NotNull final Set<@NotNull UserAgentDimension> dimensions)
+	{
+		UserAgentInfo userAgentInfo = this.engine.detect(userAgent, dimensions);
+
+		return new UserAgentInfo(
+			new Detection<>(userAgentInfo.getBrowser(), this.stringPool.intern(userAgentInfo.getBrowserVersion())),
+			new Detection<>(userAgentInfo.getDevice(), this.stringPool.intern(userAgentInfo.getDeviceModel())),
+			new Detection<>(
+				userAgentInfo.getOperatingSystem(), this.stringPool.intern(userAgentInfo.getOperatingSystemVersion())
+			),
+			userAgentInfo.isBudgetExceeded()
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgentInfo {@inheritDoc}
+	 */
+	@Override
+	void detect(@NotNull final MutableUserAgentInfo userAgentInfo)
+	{
+		this.engine.detect(userAgentInfo);
+	}
+
+	/**
+	 * Заменяет значение результата определения равной строкой из пула.
+	 *
+	 * @param detection результат определения.
+	 * @param <T> тип определённого значения.
+	 * @return результат определения со строкой из пула.
+	 */
+	@NotNull
+	private <T extends Enum<T>> Detection<T> intern(@NotNull final Detection<T> detection)
+	{
+		String value = detection.getValue();
+
+		if (value == null) {
+			return detection;
+		}
+
+		return new Detection<>(detection.getType(), this.stringPool.intern(value));
+	}
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Класс индекса литералов для одновременного поиска всех литералов в строке (алгоритм Ахо — Корасик).
+ * <p>
+ * Поиск выполняется без учёта регистра символов US-ASCII, так же как в регулярных выражениях
+ * с флагом {@link java.util.regex.Pattern#CASE_INSENSITIVE}.
+ *
+ * @author Алексей Каленчуков
+ */
+final class LiteralIndex
+{
+	/**
+	 * Классы символов US-ASCII.
+	 * <p>
+	 * Символы, которые не встречаются ни в одном литерале, относятся к классу {@code 0}.
+	 */
+	private final int @NotNull [] classes;
+
+	/**
+	 * Количество классов символов.
+	 */
+	private final int classCount;
+
+	/**
+	 * Таблица переходов автомата размером {@code количество состояний * classCount}.
+	 */
+	private final int @NotNull [] transitions;
+
+	/**
+	 * Идентификаторы литералов, которые найдены при переходе в состояние.
+	 */
+	private final int @NotNull [] @Nullable [] outputs;
+
+	/**
+	 * Конструктор для {@code LiteralIndex}.
+	 *
+	 * @param literals литералы, где индекс литерала в коллекции является его идентификатором.
+	 * Значения {@code null} пропускаются.
+	 * @throws NullPointerException если в качестве {@code literals} передан {@code null}.
+	 * @throws IllegalArgumentException если литерал пустой или содержит символы вне US-ASCII.
+	 */
+	LiteralIndex(@NotNull final List<@Nullable String> literals)
+	{
+		Objects.requireNonNull(literals);
+
+		this.classes = new int[128];
+		int classCount = 1;
+
+		for (String literal : literals)
+		{
+			if (literal == null) {
+				continue;
+			}
+
+			if (literal.isEmpty()) {
+				throw new IllegalArgumentException("Пустой литерал.");
+			}
+
+			for (int i = 0; i < literal.length(); i++)
+			{
+				char symbol = LiteralIndex.fold(literal.charAt(i));
+
+				if (symbol >= 128) {
+					throw new IllegalArgumentException("Литерал содержит символы вне US-ASCII: " + literal);
+				}
+
+				if (this.classes[symbol] == 0)
+				{
+					this.classes[symbol] = classCount++;
+
+					if (symbol >= 'a' && symbol <= 'z') {
+						this.classes[symbol - 'a' + 'A'] = this.classes[symbol];
+					}
+				}
+			}
+		}
+
+		this.classCount = classCount;
+
+		// Построение бора
+		List<int[]> children = new ArrayList<>();
+		List<List<Integer>> found = new ArrayList<>();
+		children.add(new int[classCount]);
+		found.add(new ArrayList<>());
+
+		for (int id = 0; id < literals.size(); id++)
+		{
+			String literal = literals.get(id);
+
+			if (literal == null) {
+				continue;
+			}
+
+			int state = 0;
+
+			for (int i = 0; i < literal.length(); i++)
+			{
+				int symbolClass = this.classes[literal.charAt(i)];
+
+				if (children.get(state)[symbolClass] == 0)
+				{
+					children.get(state)[symbolClass] = children.size();
+					children.add(new int[classCount]);
+					found.add(new ArrayList<>());
+				}
+
+				state = children.get(state)[symbolClass];
+			}
+
+			found.get(state).add(id);
+		}
+
+		// Построение переходов по суффиксным ссылкам в ширину
+		int stateCount = children.size();
+		int[] transitions = new int[stateCount * classCount];
+		int[] links = new int[stateCount];
+		Deque<Integer> queue = new ArrayDeque<>();
+
+		for (int symbolClass = 1; symbolClass < classCount; symbolClass++)
+		{
+			int child = children.get(0)[symbolClass];
+			transitions[symbolClass] = child;
+
+			if (child != 0) {
+				queue.add(child);
+			}
+		}
+
+		while (!queue.isEmpty())
+		{
+			int state = queue.poll();
+			found.get(state).addAll(found.get(links[state]));
+
+			for (int symbolClass = 1; symbolClass < classCount; symbolClass++)
+			{
+				int child = children.get(state)[symbolClass];
+				int fallback = transitions[links[state] * classCount + symbolClass];
+
+				if (child == 0)
+				{
+					transitions[state * classCount + symbolClass] = fallback;
+				}
+				else
+				{
+					transitions[state * classCount + symbolClass] = child;
+					links[child] = fallback;
+					queue.add(child);
+				}
+			}
+		}
+
+		this.transitions = transitions;
+		this.outputs = new int[stateCount][];
+
+		for (int state = 0; state < stateCount; state++)
+		{
+			List<Integer> ids = found.get(state);
+
+			if (!ids.isEmpty()) {
+				this.outputs[state] = ids.stream().distinct().mapToInt(Integer::intValue).toArray();
+			}
+		}
+	}
+
+	/**
+	 * Конструктор для {@code LiteralIndex} из готовых таблиц автомата.
+	 *
+	 * @param classes классы символов US-ASCII.
+	 * @param classCount количество классов символов.
+	 * @param transitions таблица переходов автомата.
+	 * @param outputs идентификаторы литералов, которые найдены при переходе в состояние.
+	 */
+	private LiteralIndex(final int @NotNull [] classes,
+						 final int classCount,
+						 final int @NotNull [] transitions,
+						 final int @NotNull [] @Nullable [] outputs)
+	{
+		this.classes = classes;
+		this.classCount = classCount;
+		this.transitions = transitions;
+		this.outputs = outputs;
+	}
+
+	/**
+	 * Записывает таблицы автомата.
+	 *
+	 * @param output получатель таблиц.
+	 * @throws NullPointerException если в качестве {@code output} передан {@code null}.
+	 * @throws IOException если таблицы не удалось записать.
+	 * @see #read(ByteBuffer, int)
+	 */
+	void write(@NotNull final DataOutput output) throws IOException
+	{
+		Objects.requireNonNull(output);
+
+		int stateCount = this.outputs.length;
+
+		output.writeInt(this.classCount);
+		output.writeInt(stateCount);
+
+		for (int symbolClass : this.classes) {
+			output.writeByte(symbolClass);
+		}
+
+		for (int transition : this.transitions) {
+			output.writeInt(transition);
+		}
+
+		for (int[] ids : this.outputs)
+		{
+			output.writeInt(ids == null ? 0 : ids.length);
+
+			if (ids != null)
+			{
+				for (int id : ids) {
+					output.writeInt(id);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Читает таблицы автомата, записанные методом {@link #write(DataOutput)}.
+	 * <p>
+	 * Таблица переходов копируется целиком без проверки каждого перехода, поэтому источник
+	 * должен быть получен из доверенного снимка.
+	 *
+	 * @param buffer источник таблиц.
+	 * @param literalCount количество литералов, включая пропущенные.
+	 * @return индекс литералов.
+	 * @throws NullPointerException если в качестве {@code buffer} передан {@code null}.
+	 * @throws IOException если таблицы повреждены.
+	 */
+	@NotNull
+	static LiteralIndex read(@NotNull final ByteBuffer buffer, final int literalCount) throws IOException
+	{
+		Objects.requireNonNull(buffer);
+
+		try
+		{
+			int classCount = buffer.getInt();
+			int stateCount = buffer.getInt();
+
+			if (classCount < 1 || classCount > 128 || stateCount < 1 ||
+				(long) stateCount * classCount * Integer.BYTES > buffer.remaining()) {
+				throw new IOException("Повреждены таблицы индекса литералов.");
+			}
+
+			int[] classes = new int[128];
+
+			for (int symbol = 0; symbol < classes.length; symbol++) {
+				classes[symbol] = LiteralIndex.check(buffer.get(), classCount);
+			}
+
+			int[] transitions = new int[stateCount * classCount];
+
+			buffer.asIntBuffer().get(transitions);
+			buffer.position(buffer.position() + transitions.length * Integer.BYTES);
+
+			int[][] outputs = new int[stateCount][];
+
+			for (int state = 0; state < stateCount; state++)
+			{
+				int count = buffer.getInt();
+
+				if (count < 0 || count > buffer.remaining()) {
+					throw new IOException("Повреждены таблицы индекса литералов.");
+				}
+
+				if (count > 0)
+				{
+					outputs[state] = new int[count];
+
+					for (int index = 0; index < count; index++) {
+						outputs[state][index] = LiteralIndex.check(buffer.getInt(), literalCount);
+					}
+				}
+			}
+
+			return new LiteralIndex(classes, classCount, transitions, outputs);
+		}
+		catch (BufferUnderflowException exception)
+		{
+			throw new IOException("Повреждены таблицы индекса литералов.", exception);
+		}
+	}
+
+	/**
+	 * Отмечает идентификаторы всех литералов, которые содержатся в строке.
+	 *
+	 * @param text строка для поиска.
+	 * @param found набор, в котором отмечаются идентификаторы найденных литералов.
+	 * @throws NullPointerException если в качестве {@code text} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code found} передан {@code null}.
+	 */
+	void collect(@NotNull final CharSequence text, @NotNull final BitSet found)
+	{
+		Objects.requireNonNull(text);
+		Objects.requireNonNull(found);
+
+		int state = 0;
+
+		for (int i = 0; i < text.length(); i++)
+		{
+			char symbol = text.charAt(i);
+			int symbolClass = symbol < 128 ? this.classes[symbol] : 0;
+
+			state = this.transitions[state * this.classCount + symbolClass];
+
+			if (this.outputs[state] != null)
+			{
+				for (int id : this.outputs[state]) {
+					found.set(id);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Проверяет, что значение таблицы автомата находится в допустимых пределах.
+	 *
+	 * @param value значение.
+	 * @param limit верхняя граница значения, не включая её.
+	 * @return значение.
+	 * @throws IOException если значение вне допустимых пределов.
+	 */
+	private static int check(final int value, final int limit) throws IOException
+	{
+		if (value < 0 || value >= limit) {
+			throw new IOException("Повреждены таблицы индекса литералов.");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Приводит символ US-ASCII к нижнему регистру.
+	 *
+	 * @param symbol символ.
+	 * @return символ в нижнем регистре.
+	 */
+	static char fold(final char symbol)
+	{
+		if (symbol >= 'A' && symbol <= 'Z') {
+			return (char) (symbol - 'A' + 'a');
+		}
+
+		return symbol;
+	}
+}
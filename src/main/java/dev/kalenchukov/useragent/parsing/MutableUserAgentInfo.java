@@ -0,0 +1,516 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Класс изменяемой информации о клиенте, которая заполняется парсером повторно.
+ * <p>
+ * Объект принадлежит вызывающему коду и передаётся в {@link UserAgentParsing#parse(CharSequence, MutableUserAgentInfo)}
+ * при каждом парсинге. Версии и модель хранятся не строками, а границами в буфере {@link #getBuffer()},
+ * поэтому парсинг строки user-agent из символов US-ASCII не создаёт новых объектов, если результат есть в кэше
+ * или определяется механизмом {@link ParserSettings.Engine#REGEX} без бюджета проверки правил.
+ * <p>
+ * Буфер содержит отформатированную строку user-agent и вслед за ней значения версий и модели,
+ * либо только значения, если результат взят из кэша. Содержимое буфера и границы значений
+ * действительны до следующего парсинга в этот объект.
+ * <p>
+ * Объект не предназначен для совместного использования несколькими потоками.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class MutableUserAgentInfo
+{
+	/**
+	 * Буфер с отформатированной строкой user-agent и значениями.
+	 */
+	@NotNull
+	private final StringBuilder buffer;
+
+	/**
+	 * Тип браузера.
+	 */
+	@NotNull
+	private BrowserType browser;
+
+	/**
+	 * Индекс первого символа версии браузера в буфере.
+	 */
+	private int browserVersionStart;
+
+	/**
+	 * Индекс символа после версии браузера в буфере.
+	 */
+	private int browserVersionEnd;
+
+	/**
+	 * Тип устройства.
+	 */
+	@NotNull
+	private DeviceType device;
+
+	/**
+	 * Индекс первого символа модели устройства в буфере.
+	 */
+	private int deviceModelStart;
+
+	/**
+	 * Индекс символа после модели устройства в буфере.
+	 */
+	private int deviceModelEnd;
+
+	/**
+	 * Тип операционной системы.
+	 */
+	@NotNull
+	private OperatingSystemType operatingSystem;
+
+	/**
+	 * Индекс первого символа версии операционной системы в буфере.
+	 */
+	private int operatingSystemVersionStart;
+
+	/**
+	 * Индекс символа после версии операционной системы в буфере.
+	 */
+	private int operatingSystemVersionEnd;
+
+	/**
+	 * Исчерпан ли бюджет проверки правил.
+	 */
+	private boolean budgetExceeded;
+
+	/**
+	 * Конструктор для {@code MutableUserAgentInfo}.
+	 * <p>
+	 * Созданный объект содержит информацию о клиенте, который не удалось определить.
+	 */
+	public MutableUserAgentInfo()
+	{
+		this.buffer = new StringBuilder();
+		this.clear();
+	}
+
+	/**
+	 * Возвращает тип браузера.
+	 *
+	 * @return тип браузера.
+	 */
+	@NotNull
+	public BrowserType getBrowser()
+	{
+		return this.browser;
+	}
+
+	/**
+	 * Возвращает версию браузера.
+	 * <p>
+	 * Метод создаёт новую строку. Без создания строки версия доступна через {@link #getBrowserVersionStart()},
+	 * {@link #getBrowserVersionEnd()} и {@link #getPackedBrowserVersion()}.
+	 *
+	 * @return версия браузера, или {@code null} если версия браузера не определена.
+	 */
+	@Nullable
+	public String getBrowserVersion()
+	{
+		return this.value(this.browserVersionStart, this.browserVersionEnd);
+	}
+
+	/**
+	 * Возвращает индекс первого символа версии браузера в буфере {@link #getBuffer()}.
+	 *
+	 * @return индекс первого символа, или {@code -1} если версия браузера не определена.
+	 */
+	public int getBrowserVersionStart()
+	{
+		return this.browserVersionStart;
+	}
+
+	/**
+	 * Возвращает индекс символа после версии браузера в буфере {@link #getBuffer()}.
+	 *
+	 * @return индекс символа после версии, или {@code -1} если версия браузера не определена.
+	 */
+	public int getBrowserVersionEnd()
+	{
+		return this.browserVersionEnd;
+	}
+
+	/**
+	 * Возвращает версию браузера, упакованную {@link PackedVersion}.
+	 *
+	 * @return упакованная версия браузера, или {@link PackedVersion#NONE} если версия не определена
+	 * или не начинается с цифры.
+	 */
+	public long getPackedBrowserVersion()
+	{
+		return this.packed(this.browserVersionStart, this.browserVersionEnd);
+	}
+
+	/**
+	 * Возвращает тип устройства.
+	 *
+	 * @return тип устройства.
+	 */
+	@NotNull
+	public DeviceType getDevice()
+	{
+		return this.device;
+	}
+
+	/**
+	 * Возвращает модель устройства.
+	 * <p>
+	 * Метод создаёт новую строку. Без создания строки модель доступна через {@link #getDeviceModelStart()}
+	 * и {@link #getDeviceModelEnd()}.
+	 *
+	 * @return модель устройства, или {@code null} если модель устройства не определена.
+	 */
+	@Nullable
+	public String getDeviceModel()
+	{
+		return this.value(this.deviceModelStart, this.deviceModelEnd);
+	}
+
+	/**
+	 * Возвращает индекс первого символа модели устройства в буфере {@link #getBuffer()}.
+	 *
+	 * @return индекс первого символа, или {@code -1} если модель устройства не определена.
+	 */
+	public int getDeviceModelStart()
+	{
+		return this.deviceModelStart;
+	}
+
+	/**
+	 * Возвращает индекс символа после модели устройства в буфере {@link #getBuffer()}.
+	 *
+	 * @return индекс символа после модели, или {@code -1} если модель устройства не определена.
+	 */
+	public int getDeviceModelEnd()
+	{
+		return this.deviceModelEnd;
+	}
+
+	/**
+	 * Возвращает тип операционной системы.
+	 *
+	 * @return тип операционной системы.
+	 */
+	@NotNull
+	public OperatingSystemType getOperatingSystem()
+	{
+		return this.operatingSystem;
+	}
+
+	/**
+	 * Возвращает версию операционной системы.
+	 * <p>
+	 * Метод создаёт новую строку. Без создания строки версия доступна через
+	 * {@link #getOperatingSystemVersionStart()}, {@link #getOperatingSystemVersionEnd()}
+	 * и {@link #getPackedOperatingSystemVersion()}.
+	 *
+	 * @return версия операционной системы, или {@code null} если версия операционной системы не определена.
+	 */
+	@Nullable
+	public String getOperatingSystemVersion()
+	{
+		return this.value(this.operatingSystemVersionStart, this.operatingSystemVersionEnd);
+	}
+
+	/**
+	 * Возвращает индекс первого символа версии операционной системы в буфере {@link #getBuffer()}.
+	 *
+	 * @return индекс первого символа, или {@code -1} если версия операционной системы не определена.
+	 */
+	public int getOperatingSystemVersionStart()
+	{
+		return this.operatingSystemVersionStart;
+	}
+
+	/**
+	 * Возвращает индекс символа после версии операционной системы в буфере {@link #getBuffer()}.
+	 *
+	 * @return индекс символа после версии, или {@code -1} если версия операционной системы не определена.
+	 */
+	public int getOperatingSystemVersionEnd()
+	{
+		return this.operatingSystemVersionEnd;
+	}
+
+	/**
+	 * Возвращает версию операционной системы, упакованную {@link PackedVersion}.
+	 *
+	 * @return упакованная версия операционной системы, или {@link PackedVersion#NONE} если версия не определена
+	 * или не начинается с цифры.
+	 */
+	public long getPackedOperatingSystemVersion()
+	{
+		return this.packed(this.operatingSystemVersionStart, this.operatingSystemVersionEnd);
+	}
+
+	/**
+	 * Проверяет, был ли исчерпан бюджет проверки правил.
+	 *
+	 * @return {@code true} если бюджет проверки правил исчерпан, иначе {@code false}.
+	 * @see UserAgentInfo#isBudgetExceeded()
+	 */
+	public boolean isBudgetExceeded()
+	{
+		return this.budgetExceeded;
+	}
+
+	/**
+	 * Возвращает буфер, в котором находятся версии и модель.
+	 * <p>
+	 * Буфер изменяется при следующем парсинге в этот объект, поэтому его не следует сохранять.
+	 *
+	 * @return буфер.
+	 */
+	@NotNull
+	public CharSequence getBuffer()
+	{
+		return this.buffer;
+	}
+
+	/**
+	 * Возвращает неизменяемую информацию о клиенте с теми же значениями.
+	 *
+	 * @return неизменяемая информация о клиенте.
+	 */
+	@NotNull
+	public UserAgentInfo toUserAgentInfo()
+	{
+		return new UserAgentInfo(
+			new Detection<>(this.browser, this.getBrowserVersion()),
+			new Detection<>(this.device, this.getDeviceModel()),
+			new Detection<>(this.operatingSystem, this.getOperatingSystemVersion()),
+			this.budgetExceeded
+		);
+	}
+
+	/**
+	 * Очищает информацию о клиенте и возвращает буфер для записи отформатированной строки user-agent.
+	 *
+	 * @return пустой буфер.
+	 */
+	@NotNull
+	StringBuilder clear()
+	{
+		this.buffer.setLength(0);
+		this.browser = BrowserType.UNKNOWN;
+		this.browserVersionStart = -1;
+		this.browserVersionEnd = -1;
+		this.device = DeviceType.UNKNOWN;
+		this.deviceModelStart = -1;
+		this.deviceModelEnd = -1;
+		this.operatingSystem = OperatingSystemType.UNKNOWN;
+		this.operatingSystemVersionStart = -1;
+		this.operatingSystemVersionEnd = -1;
+		this.budgetExceeded = false;
+
+		return this.buffer;
+	}
+
+	/**
+	 * Устанавливает значения из неизменяемой информации о клиенте.
+	 * <p>
+	 * Значения дописываются в конец буфера.
+	 *
+	 * @param userAgentInfo информация о клиенте.
+	 * @throws NullPointerException если в качестве {@code userAgentInfo} передан {@code null}.
+	 */
+	void set(@NotNull final UserAgentInfo userAgentInfo)
+	{
+		Objects.requireNonNull(userAgentInfo);
+
+		String browserVersion = userAgentInfo.getBrowserVersion();
+		String deviceModel = userAgentInfo.getDeviceModel();
+		String operatingSystemVersion = userAgentInfo.getOperatingSystemVersion();
+
+		this.setBrowser(userAgentInfo.getBrowser(), browserVersion, 0, browserVersion == null ? -1 : browserVersion.length());
+		this.setDevice(userAgentInfo.getDevice(), deviceModel, 0, deviceModel == null ? -1 : deviceModel.length());
+		this.setOperatingSystem(
+			userAgentInfo.getOperatingSystem(),
+			operatingSystemVersion, 0, operatingSystemVersion == null ? -1 : operatingSystemVersion.length()
+		);
+		this.budgetExceeded = userAgentInfo.isBudgetExceeded();
+	}
+
+	/**
+	 * Устанавливает браузер.
+	 * <p>
+	 * Версия дописывается в конец буфера так же, как её возвращает {@link Browser}:
+	 * подчёркивания заменяются точками, а пробельные символы в начале и в конце удаляются.
+	 *
+	 * @param type тип браузера.
+	 * @param text строка, содержащая версию.
+	 * @param start индекс первого символа версии, или {@code -1} если версии нет.
+	 * @param end индекс символа после версии, или {@code -1} если версии нет.
+	 */
+	void setBrowser(@NotNull final BrowserType type, @Nullable final CharSequence text, final int start, final int end)
+	{
+		this.browser = type;
+		this.browserVersionStart = this.append(text, start, end, true);
+		this.browserVersionEnd = this.browserVersionStart < 0 ? -1 : this.buffer.length();
+	}
+
+	/**
+	 * Устанавливает устройство.
+	 * <p>
+	 * Модель дописывается в конец буфера так же, как её возвращает {@link Device}:
+	 * пробельные символы в начале и в конце удаляются.
+	 *
+	 * @param type тип устройства.
+	 * @param text строка, содержащая модель.
+	 * @param start индекс первого символа модели, или {@code -1} если модели нет.
+	 * @param end индекс символа после модели, или {@code -1} если модели нет.
+	 */
+	void setDevice(@NotNull final DeviceType type, @Nullable final CharSequence text, final int start, final int end)
+	{
+		this.device = type;
+		this.deviceModelStart = this.append(text, start, end, false);
+		this.deviceModelEnd = this.deviceModelStart < 0 ? -1 : this.buffer.length();
+	}
+
+	/**
+	 * Устанавливает операционную систему.
+	 * <p>
+	 * Версия дописывается в конец буфера так же, как её возвращает {@link OperatingSystem}:
+	 * подчёркивания заменяются точками, а пробельные символы в начале и в конце удаляются.
+	 *
+	 * @param type тип операционной системы.
+	 * @param text строка, содержащая версию.
+	 * @param start индекс первого символа версии, или {@code -1} если версии нет.
+	 * @param end индекс символа после версии, или {@code -1} если версии нет.
+	 */
+	void setOperatingSystem(@NotNull final OperatingSystemType type,
+							@Nullable final CharSequence text,
+							final int start,
+							final int end)
+	{
+		this.operatingSystem = type;
+		this.operatingSystemVersionStart = this.append(text, start, end, true);
+		this.operatingSystemVersionEnd = this.operatingSystemVersionStart < 0 ? -1 : this.buffer.length();
+	}
+
+	/**
+	 * Устанавливает признак исчерпания бюджета проверки правил.
+	 *
+	 * @param budgetExceeded исчерпан ли бюджет проверки правил.
+	 */
+	void setBudgetExceeded(final boolean budgetExceeded)
+	{
+		this.budgetExceeded = budgetExceeded;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public String toString()
+	{
+		return "MutableUserAgentInfo{" +
+			"browser=" + this.browser +
+			", browserVersion=" + this.getBrowserVersion() +
+			", device=" + this.device +
+			", deviceModel=" + this.getDeviceModel() +
+			", operatingSystem=" + this.operatingSystem +
+			", operatingSystemVersion=" + this.getOperatingSystemVersion() +
+			", budgetExceeded=" + this.budgetExceeded +
+			"}";
+	}
+
+	/**
+	 * Дописывает значение в конец буфера без пробельных символов в начале и в конце.
+	 * <p>
+	 * Строка {@code text} может быть самим буфером, если значение находится до его конца.
+	 *
+	 * @param text строка, содержащая значение.
+	 * @param start индекс первого символа значения, или {@code -1} если значения нет.
+	 * @param end индекс символа после значения, или {@code -1} если значения нет.
+	 * @param version заменять ли подчёркивания точками.
+	 * @return индекс первого символа значения в буфере, или {@code -1} если значения нет.
+	 */
+	private int append(@Nullable final CharSequence text, int start, int end, final boolean version)
+	{
+		if (text == null || start < 0) {
+			return -1;
+		}
+
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+
+		while (end > start && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		int position = this.buffer.length();
+
+		for (int index = start; index < end; index++)
+		{
+			char symbol = text.charAt(index);
+			this.buffer.append(version && symbol == '_' ? '.' : symbol);
+		}
+
+		return position;
+	}
+
+	/**
+	 * Возвращает значение из буфера.
+	 *
+	 * @param start индекс первого символа значения.
+	 * @param end индекс символа после значения.
+	 * @return значение, или {@code null} если значения нет.
+	 */
+	@Nullable
+	private String value(final int start, final int end)
+	{
+		return start < 0 ? null : this.buffer.substring(start, end);
+	}
+
+	/**
+	 * Возвращает упакованную версию из буфера.
+	 *
+	 * @param start индекс первого символа версии.
+	 * @param end индекс символа после версии.
+	 * @return упакованная версия, или {@link PackedVersion#NONE} если версии нет.
+	 */
+	private long packed(final int start, final int end)
+	{
+		return start < 0 ? PackedVersion.NONE : PackedVersion.pack(this.buffer, start, end);
+	}
+}
@@ -30,7 +30,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Класс определяющий операционную систему.
@@ -39,6 +38,12 @@ import java.util.regex.Pattern;
  */
 public final class OperatingSystem
 {
+	/**
+	 * Название группы регулярного выражения, содержащей версию операционной системы.
+	 */
+	@NotNull
+	static final String GROUP = "version";
+
 	/**
 	 * Строка user-agent.
 	 */
@@ -59,12 +64,6 @@ public final class OperatingSystem
 	@NotNull
 	private OperatingSystemType operatingSystem;
 
-	/**
-	 * Список регулярных выражений для определения типа операционной системы.
-	 */
-	@NotNull
-	private final Map<@NotNull String, @NotNull OperatingSystemType> regExpOperatingSystems;
-
 	/**
 	 * Конструктор для {@code Device}.
 	 */
@@ -73,7 +72,6 @@ public final class OperatingSystem
 		this.userAgent = null;
 		this.version = null;
 		this.operatingSystem = OperatingSystemType.UNKNOWN;
-		this.regExpOperatingSystems = this.getRegExpOperatingSystems();
 	}
 
 	/**
@@ -124,119 +122,63 @@ public final class OperatingSystem
 	{
 		if (this.userAgent != null)
 		{
-			Pattern pattern;
-			Matcher matcher;
+			RuleTable<OperatingSystemType> rules = UserAgentRules.getDefault().getOperatingSystemRules();
+			Detection<OperatingSystemType> detection = OperatingSystem.detect(rules, this.userAgent);
 
-			for (Map.Entry<String, OperatingSystemType> regExp : regExpOperatingSystems.entrySet())
-			{
-				pattern = Pattern.compile(regExp.getKey(), Pattern.CASE_INSENSITIVE);
-				matcher = pattern.matcher(this.userAgent);
+			this.operatingSystem = detection.getType();
+			this.version = detection.getValue();
+		}
+	}
 
-				if (matcher.matches())
-				{
-					if (matcher.groupCount() > 0) {
-						this.version = matcher.group("version").replace("_", ".").trim();
-					}
+	/**
+	 * Определяет операционную систему по строке user-agent.
+	 * <p>
+	 * Метод не изменяет состояние объектов и может вызываться одновременно из нескольких потоков.
+	 *
+	 * @param rules таблица правил.
+	 * @param userAgent строка user-agent.
+	 * @return результат определения операционной системы.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 */
+	@NotNull
+	static Detection<@NotNull OperatingSystemType> detect(@NotNull final RuleTable<@NotNull OperatingSystemType> rules,
+														  @NotNull final CharSequence userAgent)
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(userAgent);
+
+		Matcher matcher;
 
-					this.operatingSystem = regExp.getValue();
-					break;
+		for (Rule<OperatingSystemType> rule : rules.select(userAgent))
+		{
+			matcher = rule.matcher(userAgent);
+
+			if (matcher.matches())
+			{
+				String version = null;
+
+				if (matcher.groupCount() > 0) {
+					version = matcher.group(GROUP);
 				}
+
+				return OperatingSystem.detection(rule.getType(), version);
 			}
 		}
+
+		return new Detection<>(OperatingSystemType.UNKNOWN, null);
 	}
 
 	/**
-	 * Возвращает список шаблонов регулярных выражений для определения операционной системы.
+	 * Возвращает результат определения операционной системы по значению группы {@link #GROUP}.
 	 *
-	 * @return коллекцию строк регулярных выражений для операционных систем.
+	 * @param type тип операционной системы.
+	 * @param version значение группы, или {@code null} если группа не участвовала в совпадении.
+	 * @return результат определения операционной системы.
 	 */
 	@NotNull
-	private Map<@NotNull String, @NotNull OperatingSystemType> getRegExpOperatingSystems()
+	static Detection<@NotNull OperatingSystemType> detection(@NotNull final OperatingSystemType type, @Nullable final String version)
 	{
-		Map<String, OperatingSystemType> regExpOperatingSystems = new LinkedHashMap<>();
-
-		regExpOperatingSystems.put(".*Tizen/(?<version>[0-9.]+).*", OperatingSystemType.TIZEN);
-		regExpOperatingSystems.put(".*KAIOS/(?<version>[0-9.]+).*", OperatingSystemType.KAIOS);
-		regExpOperatingSystems.put(".*SunOS (?<version>[0-9.]+).*", OperatingSystemType.SOLARIS);
-		regExpOperatingSystems.put(".*webOS.TV-(?<version>[0-9.]+).*", OperatingSystemType.WEBOS);
-		regExpOperatingSystems.put(".*webOS/(?<version>[0-9.]+).*", OperatingSystemType.WEBOS);
-		regExpOperatingSystems.put(".*kubuntu/(?<version>[0-9.]+).*", OperatingSystemType.KUBUNTU);
-		regExpOperatingSystems.put(".*mandriva linux/(?<version>[0-9.]+).*", OperatingSystemType.MANDRIVA_LINUX);
-		regExpOperatingSystems.put(".*asplinux/(?<version>[0-9.]+).*", OperatingSystemType.ASPLINUX);
-		regExpOperatingSystems.put(".*suse/(?<version>[0-9.]+).*", OperatingSystemType.OPENSUSE);
-		regExpOperatingSystems.put(".*bada/(?<version>[0-9.]+).*", OperatingSystemType.BADA);
-		regExpOperatingSystems.put(".*darwin (?<version>[0-9.]+).*", OperatingSystemType.DARWIN);
-		regExpOperatingSystems.put(".*darwin/(?<version>[0-9.]+).*", OperatingSystemType.DARWIN);
-		regExpOperatingSystems.put(".*netbsd (?<version>[0-9.]+).*", OperatingSystemType.NETBSD);
-		regExpOperatingSystems.put(".*amigaos (?<version>[0-9.]+).*", OperatingSystemType.AMIGAOS);
-		regExpOperatingSystems.put(".*windows phone os (?<version>[0-9.]+).*", OperatingSystemType.WINDOWS_PHONE);
-		regExpOperatingSystems.put(".*windows phone (?<version>[0-9.]+).*", OperatingSystemType.WINDOWS_PHONE);
-		regExpOperatingSystems.put(".*windows ce (?<version>[0-9.]+).*", OperatingSystemType.WINDOWS_CE);
-		regExpOperatingSystems.put(".*fedora/(?<version>[0-9.]+).*", OperatingSystemType.FEDORA);
-		regExpOperatingSystems.put(".*linux mint/(?<version>[0-9.]+).*", OperatingSystemType.LINUX_MINT);
-		regExpOperatingSystems.put(".*profile/midp-(?<version>[0-9.]+).*", OperatingSystemType.MIDP);
-		regExpOperatingSystems.put(".*midp-(?<version>[0-9.]+).*", OperatingSystemType.MIDP);
-		regExpOperatingSystems.put(".*centos/(?<version>[0-9.]+).*", OperatingSystemType.CENTOS);
-		regExpOperatingSystems.put(".*red hat/(?<version>[0-9.]+).*", OperatingSystemType.RED_HAT);
-		regExpOperatingSystems.put(".*CPU OS (?<version>[0-9._]+).*", OperatingSystemType.TV_OS);
-		regExpOperatingSystems.put(".*ubuntu/(?<version>[0-9.]+).*", OperatingSystemType.UBUNTU);
-		regExpOperatingSystems.put(".*iPad;CPU OS (?<version>[0-9_]+).*", OperatingSystemType.IOS);
-		regExpOperatingSystems.put(".*iPod;CPU OS (?<version>[0-9_]+).*", OperatingSystemType.IOS);
-		regExpOperatingSystems.put(".*iPhone OS (?<version>[0-9_]+).*", OperatingSystemType.IOS);
-		regExpOperatingSystems.put(".*iPhone/(?<version>[0-9_]+).*", OperatingSystemType.IOS);
-		regExpOperatingSystems.put(".*iPad/(?<version>[0-9_]+).*", OperatingSystemType.IOS);
-		regExpOperatingSystems.put(".*iOS (?<version>[0-9_]+).*", OperatingSystemType.IOS);
-		regExpOperatingSystems.put(".*macintosh;os x (?<version>[0-9._]+).*", OperatingSystemType.MAC_OS_X);
-		regExpOperatingSystems.put(".*mac os x (?<version>[0-9._]+).*", OperatingSystemType.MAC_OS_X);
-		regExpOperatingSystems.put(".*windowsnt(?<version>[0-9.]+).*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*win(?<version>95).*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*win(?<version>98).*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*winnt(?<version>[0-9.]+).*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*windows nt (?<version>[0-9.]+).*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*windows (?<version>[0-9.]+).*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*windows (?<version>me).*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*windows (?<version>xp).*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*android (?<version>[0-9.]+).*", OperatingSystemType.ANDROID);
-
-		regExpOperatingSystems.put(".*Tizen.*", OperatingSystemType.TIZEN);
-		regExpOperatingSystems.put(".*MAUI.*", OperatingSystemType.MAUI);
-		regExpOperatingSystems.put(".*CrOS.*", OperatingSystemType.CHROME_OS);
-		regExpOperatingSystems.put(".*mac_powerpc.*", OperatingSystemType.MAC_OS_9);
-		regExpOperatingSystems.put(".*PPC Mac OS X;.*", OperatingSystemType.MAC_OS_X);
-		regExpOperatingSystems.put(".*webOS.*", OperatingSystemType.WEBOS);
-		regExpOperatingSystems.put(".*j2me/midp.*", OperatingSystemType.MIDP);
-		regExpOperatingSystems.put(".*profile/midp.*", OperatingSystemType.MIDP);
-		regExpOperatingSystems.put(".*fedora.*", OperatingSystemType.FEDORA);
-		regExpOperatingSystems.put(".*openbsd.*", OperatingSystemType.OPENBSD);
-		regExpOperatingSystems.put(".*linux mint.*", OperatingSystemType.LINUX_MINT);
-		regExpOperatingSystems.put(".*freebsd.*", OperatingSystemType.FREEBSD);
-		regExpOperatingSystems.put(".*gentoo.*", OperatingSystemType.LINUX_GENTOO);
-		regExpOperatingSystems.put(".*slackware.*", OperatingSystemType.SLACKWARE_LINUX);
-		regExpOperatingSystems.put(".*windows ce.*", OperatingSystemType.WINDOWS_CE);
-		regExpOperatingSystems.put(".*beos.*", OperatingSystemType.BEOS);
-		regExpOperatingSystems.put(".*windows phone.*", OperatingSystemType.WINDOWS_PHONE);
-		regExpOperatingSystems.put(".*symbian.*", OperatingSystemType.SYMBIAN_OS);
-		regExpOperatingSystems.put(".*symbos.*", OperatingSystemType.SYMBIAN_OS);
-		regExpOperatingSystems.put(".*SunOS.*", OperatingSystemType.SOLARIS);
-		regExpOperatingSystems.put(".*opensolaris.*", OperatingSystemType.SOLARIS);
-		regExpOperatingSystems.put(".*amigaos.*", OperatingSystemType.AMIGAOS);
-		regExpOperatingSystems.put(".*haiku.*", OperatingSystemType.HAIKU);
-		regExpOperatingSystems.put(".*windows mobile.*", OperatingSystemType.WINDOWS_MOBILE);
-		regExpOperatingSystems.put(".*darwin.*", OperatingSystemType.DARWIN);
-		regExpOperatingSystems.put(".*netbsd.*", OperatingSystemType.NETBSD);
-		regExpOperatingSystems.put(".*blackberry.*", OperatingSystemType.BLACKBERRY_OS);
-		regExpOperatingSystems.put(".*bada.*", OperatingSystemType.BADA);
-		regExpOperatingSystems.put(".*kubuntu.*", OperatingSystemType.KUBUNTU);
-		regExpOperatingSystems.put(".*centos.*", OperatingSystemType.CENTOS);
-		regExpOperatingSystems.put(".*red hat.*", OperatingSystemType.RED_HAT);
-		regExpOperatingSystems.put(".*ppc mac os x.*", OperatingSystemType.MAC_OS_X);
-		regExpOperatingSystems.put(".*mac os x.*", OperatingSystemType.MAC_OS_X);
-		regExpOperatingSystems.put(".*macintosh.*", OperatingSystemType.MAC_OS_X);
-		regExpOperatingSystems.put(".*ubuntu.*", OperatingSystemType.UBUNTU);
-		regExpOperatingSystems.put(".*windows.*", OperatingSystemType.WINDOWS);
-		regExpOperatingSystems.put(".*android.*", OperatingSystemType.ANDROID);
-		regExpOperatingSystems.put(".*linux.*", OperatingSystemType.LINUX);
-
-		return regExpOperatingSystems;
+		return new Detection<>(type, version == null ? null : version.replace("_", ".").trim());
 	}
+
 }
@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Класс неизменяемой компактной информации о клиенте.
+ * <p>
+ * Типы браузера, устройства и операционной системы хранятся порядковыми номерами констант перечислений,
+ * а версии — числами, упакованными {@link PackedVersion}. Объект не содержит строк, поэтому подходит
+ * для хранения и сравнения большого количества результатов, например в столбцовом хранилище.
+ * Модель устройства и версии без цифр, например {@code XP}, в компактную информацию не входят.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class PackedUserAgentInfo
+{
+	/**
+	 * Типы браузеров по порядковому номеру.
+	 */
+	private static final BrowserType @NotNull [] BROWSERS = BrowserType.values();
+
+	/**
+	 * Типы устройств по порядковому номеру.
+	 */
+	private static final DeviceType @NotNull [] DEVICES = DeviceType.values();
+
+	/**
+	 * Типы операционных систем по порядковому номеру.
+	 */
+	private static final OperatingSystemType @NotNull [] OPERATING_SYSTEMS = OperatingSystemType.values();
+
+	/**
+	 * Порядковый номер типа браузера.
+	 */
+	private final short browser;
+
+	/**
+	 * Упакованная версия браузера.
+	 */
+	private final long browserVersion;
+
+	/**
+	 * Порядковый номер типа устройства.
+	 */
+	private final short device;
+
+	/**
+	 * Порядковый номер типа операционной системы.
+	 */
+	private final short operatingSystem;
+
+	/**
+	 * Упакованная версия операционной системы.
+	 */
+	private final long operatingSystemVersion;
+
+	/**
+	 * Исчерпан ли бюджет проверки правил.
+	 */
+	private final boolean budgetExceeded;
+
+	/**
+	 * Конструктор для {@code PackedUserAgentInfo}.
+	 *
+	 * @param userAgentInfo информация о клиенте.
+	 * @throws NullPointerException если в качестве {@code userAgentInfo} передан {@code null}.
+	 */
+	public PackedUserAgentInfo(@NotNull final UserAgentInfo userAgentInfo)
+	{
+		Objects.requireNonNull(userAgentInfo);
+
+		this.browser = (short) userAgentInfo.getBrowser().ordinal();
+		this.browserVersion = PackedVersion.pack(userAgentInfo.getBrowserVersion());
+		this.device = (short) userAgentInfo.getDevice().ordinal();
+		this.operatingSystem = (short) userAgentInfo.getOperatingSystem().ordinal();
+		this.operatingSystemVersion = PackedVersion.pack(userAgentInfo.getOperatingSystemVersion());
+		this.budgetExceeded = userAgentInfo.isBudgetExceeded();
+	}
+
+	/**
+	 * Возвращает тип браузера.
+	 *
+	 * @return тип браузера.
+	 */
+	@NotNull
+	public BrowserType getBrowser()
+	{
+		return BROWSERS[this.browser];
+	}
+
+	/**
+	 * Возвращает порядковый номер типа браузера в {@link BrowserType}.
+	 *
+	 * @return порядковый номер типа браузера.
+	 */
+	public int getBrowserOrdinal()
+	{
+		return this.browser;
+	}
+
+	/**
+	 * Возвращает упакованную версию браузера.
+	 *
+	 * @return упакованная версия браузера, или {@link PackedVersion#NONE} если версия не определена.
+	 */
+	public long getBrowserVersion()
+	{
+		return this.browserVersion;
+	}
+
+	/**
+	 * Возвращает тип устройства.
+	 *
+	 * @return тип устройства.
+	 */
+	@NotNull
+	public DeviceType getDevice()
+	{
+		return DEVICES[this.device];
+	}
+
+	/**
+	 * Возвращает порядковый номер типа устройства в {@link DeviceType}.
+	 *
+	 * @return порядковый номер типа устройства.
+	 */
+	public int getDeviceOrdinal()
+	{
+		return this.device;
+	}
+
+	/**
+	 * Возвращает тип операционной системы.
+	 *
+	 * @return тип операционной системы.
+	 */
+	@NotNull
+	public OperatingSystemType getOperatingSystem()
+	{
+		return OPERATING_SYSTEMS[this.operatingSystem];
+	}
+
+	/**
+	 * Возвращает порядковый номер типа операционной системы в {@link OperatingSystemType}.
+	 *
+	 * @return порядковый номер типа операционной системы.
+	 */
+	public int getOperatingSystemOrdinal()
+	{
+		return this.operatingSystem;
+	}
+
+	/**
+	 * Возвращает упакованную версию операционной системы.
+	 *
+	 * @return упакованная версия операционной системы, или {@link PackedVersion#NONE} если версия не определена.
+	 */
+	public long getOperatingSystemVersion()
+	{
+		return this.operatingSystemVersion;
+	}
+
+	/**
+	 * Возвращает признак исчерпания бюджета проверки правил.
+	 *
+	 * @return {@code true} если бюджет проверки правил был исчерпан, иначе {@code false}.
+	 * @see UserAgentInfo#isBudgetExceeded()
+	 */
+	public boolean isBudgetExceeded()
+	{
+		return this.budgetExceeded;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param o {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(@Nullable final Object o)
+	{
+		if (this == o) {
+			return true;
+		}
+
+		if (!(o instanceof PackedUserAgentInfo other)) {
+			return false;
+		}
+
+		return this.browser == other.browser &&
+			this.browserVersion == other.browserVersion &&
+			this.device == other.device &&
+			this.operatingSystem == other.operatingSystem &&
+			this.operatingSystemVersion == other.operatingSystemVersion &&
+			this.budgetExceeded == other.budgetExceeded;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		int result = this.browser;
+		result = 31 * result + Long.hashCode(this.browserVersion);
+		result = 31 * result + this.device;
+		result = 31 * result + this.operatingSystem;
+		result = 31 * result + Long.hashCode(this.operatingSystemVersion);
+		result = 31 * result + Boolean.hashCode(this.budgetExceeded);
+
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public String toString()
+	{
+		return "PackedUserAgentInfo{" +
+			"browser=" + this.getBrowser() +
+			", browserVersion=" + PackedVersion.toString(this.browserVersion) +
+			", device=" + this.getDevice() +
+			", operatingSystem=" + this.getOperatingSystem() +
+			", operatingSystemVersion=" + PackedVersion.toString(this.operatingSystemVersion) +
+			", budgetExceeded=" + this.budgetExceeded +
+			"}";
+	}
+}
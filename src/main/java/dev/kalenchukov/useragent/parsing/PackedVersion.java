@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Класс упаковки номера версии в число {@code long}.
+ * <p>
+ * Старший, младший номера версии и номер исправления занимают по 21 биту, начиная со старших,
+ * поэтому упакованные версии сравниваются как обычные числа: {@code 89.0.4389 < 118.0.0}.
+ * Отсутствующие номера считаются равными нулю, а номера больше {@value #MAX_COMPONENT}
+ * заменяются на {@value #MAX_COMPONENT}. Версия без номеров упаковывается в {@link #NONE},
+ * которая меньше любой другой версии.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class PackedVersion
+{
+	/**
+	 * Упакованная версия, у которой нет ни одного номера.
+	 */
+	public static final long NONE = -1L;
+
+	/**
+	 * Максимальное значение номера версии.
+	 */
+	public static final int MAX_COMPONENT = (1 << 21) - 1;
+
+	/**
+	 * Количество бит одного номера версии.
+	 */
+	private static final int BITS = 21;
+
+	/**
+	 * Конструктор для {@code PackedVersion}.
+	 */
+	private PackedVersion()
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Упаковывает номера версии.
+	 *
+	 * @param major старший номер версии.
+	 * @param minor младший номер версии.
+	 * @param patch номер исправления.
+	 * @return упакованная версия.
+	 * @throws IllegalArgumentException если номер отрицательный или больше {@link #MAX_COMPONENT}.
+	 */
+	public static long pack(final int major, final int minor, final int patch)
+	{
+		if (major < 0 || major > MAX_COMPONENT || minor < 0 || minor > MAX_COMPONENT ||
+			patch < 0 || patch > MAX_COMPONENT) {
+			throw new IllegalArgumentException("Номер версии должен быть от 0 до " + MAX_COMPONENT + ".");
+		}
+
+		return ((long) major << (BITS * 2)) | ((long) minor << BITS) | patch;
+	}
+
+	/**
+	 * Упаковывает версию из строки.
+	 * <p>
+	 * Из строки берутся первые три номера, разделённые точкой или подчёркиванием.
+	 * Разбор останавливается на первом символе, который не является цифрой или разделителем.
+	 *
+	 * @param version строка версии, например {@code 89.0.4389.105}.
+	 * @return упакованная версия, или {@link #NONE} если строка не начинается с цифры или равна {@code null}.
+	 */
+	public static long pack(@Nullable final CharSequence version)
+	{
+		if (version == null) {
+			return NONE;
+		}
+
+		return PackedVersion.pack(version, 0, version.length());
+	}
+
+	/**
+	 * Упаковывает версию из части строки без создания промежуточной строки.
+	 *
+	 * @param text строка, содержащая версию.
+	 * @param start индекс первого символа версии.
+	 * @param end индекс символа после версии.
+	 * @return упакованная версия, или {@link #NONE} если версия не начинается с цифры.
+	 * @throws NullPointerException если в качестве {@code text} передан {@code null}.
+	 * @throws IndexOutOfBoundsException если индексы выходят за границы строки или {@code start} больше {@code end}.
+	 * @see #pack(CharSequence)
+	 */
+	public static long pack(@NotNull final CharSequence text, final int start, final int end)
+	{
+		Objects.checkFromToIndex(start, end, text.length());
+
+		if (start == end || !PackedVersion.isDigit(text.charAt(start))) {
+			return NONE;
+		}
+
+		long packed = 0;
+		int component = 0;
+		int value = 0;
+
+		for (int index = start; index < end && component < 3; index++)
+		{
+			char symbol = text.charAt(index);
+
+			if (PackedVersion.isDigit(symbol))
+			{
+				value = Math.min(MAX_COMPONENT, value * 10 + (symbol - '0'));
+				continue;
+			}
+
+			if (symbol != '.' && symbol != '_') {
+				break;
+			}
+
+			packed |= (long) value << (BITS * (2 - component));
+			component++;
+			value = 0;
+		}
+
+		if (component < 3) {
+			packed |= (long) value << (BITS * (2 - component));
+		}
+
+		return packed;
+	}
+
+	/**
+	 * Возвращает старший номер упакованной версии.
+	 *
+	 * @param version упакованная версия.
+	 * @return старший номер версии, или {@code 0} для {@link #NONE}.
+	 */
+	public static int getMajor(final long version)
+	{
+		return PackedVersion.component(version, 0);
+	}
+
+	/**
+	 * Возвращает младший номер упакованной версии.
+	 *
+	 * @param version упакованная версия.
+	 * @return младший номер версии, или {@code 0} для {@link #NONE}.
+	 */
+	public static int getMinor(final long version)
+	{
+		return PackedVersion.component(version, 1);
+	}
+
+	/**
+	 * Возвращает номер исправления упакованной версии.
+	 *
+	 * @param version упакованная версия.
+	 * @return номер исправления, или {@code 0} для {@link #NONE}.
+	 */
+	public static int getPatch(final long version)
+	{
+		return PackedVersion.component(version, 2);
+	}
+
+	/**
+	 * Возвращает строковое представление упакованной версии.
+	 *
+	 * @param version упакованная версия.
+	 * @return версия в виде {@code major.minor.patch}, или {@code null} для {@link #NONE}.
+	 */
+	@Nullable
+	public static String toString(final long version)
+	{
+		if (version == NONE) {
+			return null;
+		}
+
+		return PackedVersion.getMajor(version) + "." + PackedVersion.getMinor(version) + "." +
+			PackedVersion.getPatch(version);
+	}
+
+	/**
+	 * Возвращает номер упакованной версии.
+	 *
+	 * @param version упакованная версия.
+	 * @param component порядковый номер номера версии, начиная со старшего.
+	 * @return номер версии, или {@code 0} для {@link #NONE}.
+	 */
+	private static int component(final long version, final int component)
+	{
+		if (version == NONE) {
+			return 0;
+		}
+
+		return (int) (version >>> (BITS * (2 - component))) & MAX_COMPONENT;
+	}
+
+	/**
+	 * Проверяет, является ли символ цифрой US-ASCII.
+	 *
+	 * @param symbol символ.
+	 * @return {@code true} если символ является цифрой, иначе {@code false}.
+	 */
+	private static boolean isDigit(final char symbol)
+	{
+		return symbol >= '0' && symbol <= '9';
+	}
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Класс настроек парсера строки user-agent.
+ * <p>
+ * Настройки копируются в {@link UserAgentParser} при его создании, поэтому последующие
+ * изменения объекта настроек не влияют на уже созданные парсеры.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class ParserSettings
+{
+	/**
+	 * Кэш результатов парсинга.
+	 */
+	@Nullable
+	private UserAgentCache cache;
+
+	/**
+	 * Механизм определения.
+	 */
+	@NotNull
+	private Engine engine;
+
+	/**
+	 * Ссылка на набор правил.
+	 */
+	@NotNull
+	private UserAgentRulesHolder rules;
+
+	/**
+	 * Бюджет проверки правил.
+	 */
+	private long matchBudget;
+
+	/**
+	 * Максимальная проверяемая длина строки user-agent.
+	 */
+	private int maxLength;
+
+	/**
+	 * Действие со строкой user-agent длиннее максимальной.
+	 */
+	@NotNull
+	private Overflow overflow;
+
+	/**
+	 * Метрики правил.
+	 */
+	@Nullable
+	private RuleMetrics ruleMetrics;
+
+	/**
+	 * Теневая проверка механизма определения.
+	 */
+	@Nullable
+	private ShadowMode shadowMode;
+
+	/**
+	 * Пул строк версий и моделей.
+	 */
+	@Nullable
+	private StringPool stringPool;
+
+	/**
+	 * Конструктор для {@code ParserSettings}.
+	 */
+	public ParserSettings()
+	{
+		this.cache = null;
+		this.engine = Engine.REGEX;
+		this.rules = new UserAgentRulesHolder(UserAgentRules.getDefault());
+		this.matchBudget = 0;
+		this.maxLength = 0;
+		this.overflow = Overflow.TRUNCATE;
+		this.ruleMetrics = null;
+		this.shadowMode = null;
+		this.stringPool = null;
+	}
+
+	/**
+	 * Устанавливает кэш результатов парсинга.
+	 * <p>
+	 * Один кэш может использоваться несколькими парсерами с одинаковыми настройками.
+	 *
+	 * @param cache кэш результатов парсинга, или {@code null} чтобы не использовать кэш.
+	 */
+	public void setCache(@Nullable final UserAgentCache cache)
+	{
+		this.cache = cache;
+	}
+
+	/**
+	 * Возвращает кэш результатов парсинга.
+	 *
+	 * @return кэш результатов парсинга, или {@code null} если кэш не используется.
+	 */
+	@Nullable
+	public UserAgentCache getCache()
+	{
+		return this.cache;
+	}
+
+	/**
+	 * Устанавливает механизм определения браузера, устройства и операционной системы.
+	 *
+	 * @param engine механизм определения.
+	 * @throws NullPointerException если в качестве {@code engine} передан {@code null}.
+	 */
+	public void setEngine(@NotNull final Engine engine)
+	{
+		Objects.requireNonNull(engine);
+
+		this.engine = engine;
+	}
+
+	/**
+	 * Возвращает механизм определения браузера, устройства и операционной системы.
+	 *
+	 * @return механизм определения.
+	 */
+	@NotNull
+	public Engine getEngine()
+	{
+		return this.engine;
+	}
+
+	/**
+	 * Устанавливает набор правил определения браузера, устройства и операционной системы.
+	 *
+	 * @param rules набор правил.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 * @see UserAgentRules#load(java.nio.file.Path)
+	 */
+	public void setRules(@NotNull final UserAgentRules rules)
+	{
+		Objects.requireNonNull(rules);
+
+		this.rules = new UserAgentRulesHolder(rules);
+	}
+
+	/**
+	 * Устанавливает изменяемую ссылку на набор правил определения браузера, устройства и операционной системы.
+	 * <p>
+	 * Парсеры, созданные с этими настройками, используют текущий набор правил ссылки
+	 * и переходят на новый набор сразу после его замены.
+	 *
+	 * @param rules ссылка на набор правил.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 */
+	public void setRules(@NotNull final UserAgentRulesHolder rules)
+	{
+		Objects.requireNonNull(rules);
+
+		this.rules = rules;
+	}
+
+	/**
+	 * Возвращает текущий набор правил определения браузера, устройства и операционной системы.
+	 *
+	 * @return набор правил, по умолчанию — встроенный набор {@link UserAgentRules#getDefault()}.
+	 */
+	@NotNull
+	public UserAgentRules getRules()
+	{
+		return this.rules.get();
+	}
+
+	/**
+	 * Возвращает ссылку на набор правил определения браузера, устройства и операционной системы.
+	 *
+	 * @return ссылка на набор правил.
+	 */
+	@NotNull
+	public UserAgentRulesHolder getRulesHolder()
+	{
+		return this.rules;
+	}
+
+	/**
+	 * Устанавливает бюджет проверки правил одной строки user-agent.
+	 * <p>
+	 * Бюджет — количество обращений к символам строки при проверке правил всех характеристик,
+	 * а при проверке способом {@link Engine#AUTOMATON} также количество шагов автомата.
+	 * Если бюджет исчерпан, оставшиеся характеристики не определяются, а в результате парсинга
+	 * устанавливается признак {@link UserAgentInfo#isBudgetExceeded()}. Это ограничивает время
+	 * парсинга специально составленных строк, вызывающих длительный перебор с возвратами.
+	 *
+	 * @param matchBudget бюджет проверки правил, или {@code 0} чтобы не ограничивать проверку.
+	 * @throws IllegalArgumentException если значение {@code matchBudget} отрицательное.
+	 */
+	public void setMatchBudget(final long matchBudget)
+	{
+		if (matchBudget < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.matchBudget = matchBudget;
+	}
+
+	/**
+	 * Возвращает бюджет проверки правил одной строки user-agent.
+	 *
+	 * @return бюджет проверки правил, или {@code 0} если проверка не ограничена.
+	 */
+	public long getMatchBudget()
+	{
+		return this.matchBudget;
+	}
+
+	/**
+	 * Устанавливает максимальную проверяемую длину строки user-agent.
+	 * <p>
+	 * Строка длиннее максимальной обрезается или не определяется в зависимости от {@link #setOverflow(Overflow)}.
+	 *
+	 * @param maxLength максимальная длина строки в символах, или {@code 0} чтобы не ограничивать длину.
+	 * @throws IllegalArgumentException если значение {@code maxLength} отрицательное.
+	 */
+	public void setMaxLength(final int maxLength)
+	{
+		if (maxLength < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Возвращает максимальную проверяемую длину строки user-agent.
+	 *
+	 * @return максимальная длина строки в символах, или {@code 0} если длина не ограничена.
+	 */
+	public int getMaxLength()
+	{
+		return this.maxLength;
+	}
+
+	/**
+	 * Устанавливает действие со строкой user-agent длиннее максимальной.
+	 *
+	 * @param overflow действие со строкой длиннее максимальной.
+	 * @throws NullPointerException если в качестве {@code overflow} передан {@code null}.
+	 */
+	public void setOverflow(@NotNull final Overflow overflow)
+	{
+		Objects.requireNonNull(overflow);
+
+		this.overflow = overflow;
+	}
+
+	/**
+	 * Возвращает действие со строкой user-agent длиннее максимальной.
+	 *
+	 * @return действие со строкой длиннее максимальной.
+	 */
+	@NotNull
+	public Overflow getOverflow()
+	{
+		return this.overflow;
+	}
+
+	/**
+	 * Устанавливает метрики правил определения.
+	 * <p>
+	 * Метрики собираются при проверке правил способом {@link Engine#REGEX}. Одни метрики
+	 * могут использоваться несколькими парсерами, тогда их значения суммируются.
+	 *
+	 * @param ruleMetrics метрики правил, или {@code null} чтобы не собирать метрики.
+	 */
+	public void setRuleMetrics(@Nullable final RuleMetrics ruleMetrics)
+	{
+		this.ruleMetrics = ruleMetrics;
+	}
+
+	/**
+	 * Возвращает метрики правил определения.
+	 *
+	 * @return метрики правил, или {@code null} если метрики не собираются.
+	 */
+	@Nullable
+	public RuleMetrics getRuleMetrics()
+	{
+		return this.ruleMetrics;
+	}
+
+	/**
+	 * Устанавливает теневую проверку механизма определения.
+	 * <p>
+	 * Выборка разобранных строк user-agent в фоне определяется эталонным и проверяемым механизмами,
+	 * а результаты сравниваются. Результаты парсинга от теневой проверки не зависят.
+	 *
+	 * @param shadowMode теневая проверка, или {@code null} чтобы не выполнять теневую проверку.
+	 */
+	public void setShadowMode(@Nullable final ShadowMode shadowMode)
+	{
+		this.shadowMode = shadowMode;
+	}
+
+	/**
+	 * Возвращает теневую проверку механизма определения.
+	 *
+	 * @return теневая проверка, или {@code null} если теневая проверка не выполняется.
+	 */
+	@Nullable
+	public ShadowMode getShadowMode()
+	{
+		return this.shadowMode;
+	}
+
+	/**
+	 * Устанавливает пул строк версий и моделей.
+	 * <p>
+	 * Версии браузера и операционной системы и модели устройства в результатах парсинга заменяются
+	 * равными строками из пула, поэтому многие хранимые результаты ссылаются на одни и те же строки.
+	 * Один пул может использоваться несколькими парсерами.
+	 *
+	 * @param stringPool пул строк, или {@code null} чтобы не использовать пул.
+	 */
+	public void setStringPool(@Nullable final StringPool stringPool)
+	{
+		this.stringPool = stringPool;
+	}
+
+	/**
+	 * Возвращает пул строк версий и моделей.
+	 *
+	 * @return пул строк, или {@code null} если пул не используется.
+	 */
+	@Nullable
+	public StringPool getStringPool()
+	{
+		return this.stringPool;
+	}
+
+	/**
+	 * Механизмы определения браузера, устройства и операционной системы.
+	 * <p>
+	 * Механизмы возвращают одинаковые результаты и различаются только производительностью.
+	 */
+	public enum Engine
+	{
+		/**
+		 * Правила-кандидаты проверяются регулярными выражениями поочерёдно в порядке приоритета.
+		 */
+		REGEX,
+
+		/**
+		 * Правила-кандидаты всех характеристик проверяются одновременно за один проход
+		 * объединённого автомата. Если все правила набора компилируются в автомат, как правила
+		 * встроенного набора, время определения линейно зависит от длины строки user-agent
+		 * и не подвержено катастрофическому перебору с возвратами. Правила с конструкциями,
+		 * которые автомат не поддерживает, проверяются регулярными выражениями.
+		 */
+		AUTOMATON
+	}
+
+	/**
+	 * Действия со строкой user-agent длиннее максимальной.
+	 */
+	public enum Overflow
+	{
+		/**
+		 * Проверяется только начало строки максимальной длины.
+		 */
+		TRUNCATE,
+
+		/**
+		 * Браузер, устройство и операционная система строки не определяются.
+		 */
+		REJECT
+	}
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+/**
+ * Класс механизма определения, проверяющего правила-кандидаты регулярными выражениями
+ * поочерёдно в порядке приоритета.
+ * <p>
+ * При определении нескольких характеристик правила-кандидаты браузера, устройства и операционной
+ * системы находятся за один общий проход по строке {@link CandidateScan}, а не отдельным проходом
+ * для каждой таблицы правил.
+ * <p>
+ * При определении в {@link MutableUserAgentInfo} каждый поток повторно использует свои объекты
+ * {@link Matcher}, сбрасывая их методом {@link Matcher#reset(CharSequence)}, поэтому новые объекты не создаются.
+ * <p>
+ * При заданных {@link RuleMetrics} каждое определение учитывается в том же цикле проверки правил-кандидатов:
+ * совпавшее правило или его отсутствие, количество проверенных правил и время проверки.
+ *
+ * @author Алексей Каленчуков
+ */
+final class RegexEngine extends DetectionEngine
+{
+	/**
+	 * Номер таблицы правил браузеров в {@link CandidateScan}.
+	 */
+	private static final int BROWSER = 0;
+
+	/**
+	 * Номер таблицы правил устройств в {@link CandidateScan}.
+	 */
+	private static final int DEVICE = 1;
+
+	/**
+	 * Номер таблицы правил операционных систем в {@link CandidateScan}.
+	 */
+	private static final int OPERATING_SYSTEM = 2;
+
+	/**
+	 * Набор правил.
+	 */
+	@NotNull
+	private final UserAgentRules rules;
+
+	/**
+	 * Рабочие данные текущего потока.
+	 */
+	@NotNull
+	private final ThreadLocal<@NotNull Scratch> scratch;
+
+	/**
+	 * Учёт определений браузера.
+	 */
+	@Nullable
+	private final RuleMetrics.Recorder browser;
+
+	/**
+	 * Учёт определений устройства.
+	 */
+	@Nullable
+	private final RuleMetrics.Recorder device;
+
+	/**
+	 * Учёт определений операционной системы.
+	 */
+	@Nullable
+	private final RuleMetrics.Recorder operatingSystem;
+
+	/**
+	 * Конструктор для {@code RegexEngine}.
+	 *
+	 * @param rules набор правил.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 */
+	RegexEngine(@NotNull final UserAgentRules rules)
+	{
+		this(rules, null);
+	}
+
+	/**
+	 * Конструктор для {@code RegexEngine} с учётом определений.
+	 *
+	 * @param rules набор правил.
+	 * @param metrics метрики правил, или {@code null} если учёт не нужен.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 */
+	RegexEngine(@NotNull final UserAgentRules rules, @Nullable final RuleMetrics metrics)
+	{
+		Objects.requireNonNull(rules);
+
+		this.rules = rules;
+		this.scratch = ThreadLocal.withInitial(() -> new Scratch(rules));
+
+		if (metrics == null)
+		{
+			this.browser = null;
+			this.device = null;
+			this.operatingSystem = null;
+		}
+		else
+		{
+			this.browser = metrics.recorder(UserAgentDimension.BROWSER, rules.getBrowserRules());
+			this.device = metrics.recorder(UserAgentDimension.DEVICE, rules.getDeviceRules());
+			this.operatingSystem = metrics.recorder(UserAgentDimension.OPERATING_SYSTEM, rules.getOperatingSystemRules());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentRules getRules()
+	{
+		return this.rules;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull BrowserType> detectBrowser(@NotNull final CharSequence userAgent)
+	{
+		RuleTable<BrowserType> browserRules = this.rules.getBrowserRules();
+		Scratch scratch = this.scratch.get();
+
+		browserRules.candidates(userAgent, scratch.candidates);
+
+		int index = RegexEngine.match(
+			browserRules, userAgent, scratch.browser, scratch.candidates, 0, this.browser
+		);
+
+		if (index < 0) {
+			return UNKNOWN_BROWSER;
+		}
+
+		return Browser.detection(
+			browserRules.getRules().get(index).getType(), RegexEngine.group(scratch.browser[index], Browser.GROUP)
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull DeviceType> detectDevice(@NotNull final CharSequence userAgent)
+	{
+		RuleTable<DeviceType> deviceRules = this.rules.getDeviceRules();
+		Scratch scratch = this.scratch.get();
+
+		deviceRules.candidates(userAgent, scratch.candidates);
+
+		int index = RegexEngine.match(
+			deviceRules, userAgent, scratch.device, scratch.candidates, 0, this.device
+		);
+
+		if (index < 0) {
+			return UNKNOWN_DEVICE;
+		}
+
+		return Device.detection(
+			deviceRules.getRules().get(index).getType(), RegexEngine.group(scratch.device[index], Device.GROUP)
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	Detection<@NotNull OperatingSystemType> detectOperatingSystem(@NotNull final CharSequence userAgent)
+	{
+		RuleTable<OperatingSystemType> operatingSystemRules = this.rules.getOperatingSystemRules();
+		Scratch scratch = this.scratch.get();
+
+		operatingSystemRules.candidates(userAgent, scratch.candidates);
+
+		int index = RegexEngine.match(
+			operatingSystemRules, userAgent, scratch.operatingSystem, scratch.candidates, 0, this.operatingSystem
+		);
+
+		if (index < 0) {
+			return UNKNOWN_OPERATING_SYSTEM;
+		}
+
+		return OperatingSystem.detection(
+			operatingSystemRules.getRules().get(index).getType(),
+			RegexEngine.group(scratch.operatingSystem[index], OperatingSystem.GROUP)
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @param dimensions {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	UserAgentInfo detect(@NotNull final CharSequence userAgent, @NotNull final Set<@NotNull UserAgentDimension> dimensions)
+	{
+		CandidateScan candidateScan = this.rules.getCandidateScan();
+		Scratch scratch = this.scratch.get();
+
+		candidateScan.candidates(userAgent, scratch.candidates);
+
+		Detection<BrowserType> browser = UNKNOWN_BROWSER;
+		Detection<DeviceType> device = UNKNOWN_DEVICE;
+		Detection<OperatingSystemType> operatingSystem = UNKNOWN_OPERATING_SYSTEM;
+
+		if (dimensions.contains(UserAgentDimension.BROWSER))
+		{
+			RuleTable<BrowserType> browserRules = this.rules.getBrowserRules();
+			int index = RegexEngine.match(
+				browserRules, userAgent, scratch.browser, scratch.candidates, candidateScan.offset(BROWSER), this.browser
+			);
+
+			if (index >= 0)
+			{
+				browser = Browser.detection(
+					browserRules.getRules().get(index).getType(), RegexEngine.group(scratch.browser[index], Browser.GROUP)
+				);
+			}
+		}
+
+		if (dimensions.contains(UserAgentDimension.DEVICE))
+		{
+			RuleTable<DeviceType> deviceRules = this.rules.getDeviceRules();
+			int index = RegexEngine.match(
+				deviceRules, userAgent, scratch.device, scratch.candidates, candidateScan.offset(DEVICE), this.device
+			);
+
+			if (index >= 0)
+			{
+				device = Device.detection(
+					deviceRules.getRules().get(index).getType(), RegexEngine.group(scratch.device[index], Device.GROUP)
+				);
+			}
+		}
+
+		if (dimensions.contains(UserAgentDimension.OPERATING_SYSTEM))
+		{
+			RuleTable<OperatingSystemType> operatingSystemRules = this.rules.getOperatingSystemRules();
+			int index = RegexEngine.match(
+				operatingSystemRules, userAgent, scratch.operatingSystem, scratch.candidates,
+				candidateScan.offset(OPERATING_SYSTEM), this.operatingSystem
+			);
+
+			if (index >= 0)
+			{
+				operatingSystem = OperatingSystem.detection(
+					operatingSystemRules.getRules().get(index).getType(),
+					RegexEngine.group(scratch.operatingSystem[index], OperatingSystem.GROUP)
+				);
+			}
+		}
+
+		return new UserAgentInfo(browser, device, operatingSystem);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgentInfo {@inheritDoc}
+	 */
+	@Override
+	void detect(@NotNull final MutableUserAgentInfo userAgentInfo)
+	{
+		CharSequence userAgent = userAgentInfo.getBuffer();
+		CandidateScan candidateScan = this.rules.getCandidateScan();
+		Scratch scratch = this.scratch.get();
+
+		RuleTable<BrowserType> browserRules = this.rules.getBrowserRules();
+		RuleTable<DeviceType> deviceRules = this.rules.getDeviceRules();
+		RuleTable<OperatingSystemType> operatingSystemRules = this.rules.getOperatingSystemRules();
+
+		candidateScan.candidates(userAgent, scratch.candidates);
+
+		int browser = RegexEngine.match(
+			browserRules, userAgent, scratch.browser, scratch.candidates, candidateScan.offset(BROWSER), this.browser
+		);
+		int device = RegexEngine.match(
+			deviceRules, userAgent, scratch.device, scratch.candidates, candidateScan.offset(DEVICE), this.device
+		);
+		int operatingSystem = RegexEngine.match(
+			operatingSystemRules, userAgent, scratch.operatingSystem, scratch.candidates,
+			candidateScan.offset(OPERATING_SYSTEM), this.operatingSystem
+		);
+
+		if (browser >= 0)
+		{
+			Matcher matcher = scratch.browser[browser];
+
+			userAgentInfo.setBrowser(
+				browserRules.getRules().get(browser).getType(), userAgent,
+				RegexEngine.start(matcher, Browser.GROUP), RegexEngine.end(matcher, Browser.GROUP)
+			);
+		}
+
+		if (device >= 0)
+		{
+			Matcher matcher = scratch.device[device];
+
+			userAgentInfo.setDevice(
+				deviceRules.getRules().get(device).getType(), userAgent,
+				RegexEngine.start(matcher, Device.GROUP), RegexEngine.end(matcher, Device.GROUP)
+			);
+		}
+
+		if (operatingSystem >= 0)
+		{
+			Matcher matcher = scratch.operatingSystem[operatingSystem];
+
+			userAgentInfo.setOperatingSystem(
+				operatingSystemRules.getRules().get(operatingSystem).getType(), userAgent,
+				RegexEngine.start(matcher, OperatingSystem.GROUP), RegexEngine.end(matcher, OperatingSystem.GROUP)
+			);
+		}
+	}
+
+	/**
+	 * Находит первое правило-кандидат в порядке приоритета, которому соответствует строка user-agent.
+	 * <p>
+	 * Объект {@link Matcher} правила создаётся при первой проверке и затем сбрасывается на новую строку.
+	 * Если задан учёт, в него записываются совпавшее правило, количество проверенных правил и время проверки.
+	 *
+	 * @param rules таблица правил.
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param matchers объекты {@link Matcher} правил таблицы по индексу правила.
+	 * @param candidates идентификаторы правил-кандидатов, найденные {@link CandidateScan}.
+	 * @param offset смещение диапазона идентификаторов таблицы правил.
+	 * @param recorder учёт определений, или {@code null} если учёт не нужен.
+	 * @param <T> тип значения, которое определяют правила.
+	 * @return индекс совпавшего правила, или {@code -1} если совпадений нет.
+	 */
+	private static <T extends Enum<T>> int match(@NotNull final RuleTable<T> rules,
+												 @NotNull final CharSequence userAgent,
+												 @Nullable final Matcher @NotNull [] matchers,
+												 @NotNull final BitSet candidates,
+												 final int offset,
+												 @Nullable final RuleMetrics.Recorder recorder)
+	{
+		long start = recorder == null ? 0 : System.nanoTime();
+		int limit = offset + matchers.length;
+		int evaluated = 0;
+
+		for (int id = candidates.nextSetBit(offset); id >= 0 && id < limit; id = candidates.nextSetBit(id + 1))
+		{
+			int index = id - offset;
+			Matcher matcher = matchers[index];
+
+			if (matcher == null)
+			{
+				matcher = rules.getRules().get(index).matcher(userAgent);
+				matchers[index] = matcher;
+			}
+			else
+			{
+				matcher.reset(userAgent);
+			}
+
+			evaluated++;
+
+			if (matcher.matches())
+			{
+				if (recorder != null) {
+					recorder.record(index, rules.getRules().get(index).getRegExp(), evaluated, System.nanoTime() - start);
+				}
+
+				return index;
+			}
+		}
+
+		if (recorder != null) {
+			recorder.record(-1, null, evaluated, System.nanoTime() - start);
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Возвращает значение группы в совпадении.
+	 *
+	 * @param matcher объект {@link Matcher} после успешной проверки.
+	 * @param group название группы.
+	 * @return значение группы, или {@code null} если в регулярном выражении нет групп
+	 * или группа не участвовала в совпадении.
+	 */
+	@Nullable
+	private static String group(@NotNull final Matcher matcher, @NotNull final String group)
+	{
+		return matcher.groupCount() > 0 ? matcher.group(group) : null;
+	}
+
+	/**
+	 * Возвращает индекс начала группы в совпадении.
+	 *
+	 * @param matcher объект {@link Matcher} после успешной проверки.
+	 * @param group название группы.
+	 * @return индекс начала группы, или {@code -1} если в регулярном выражении нет групп
+	 * или группа не участвовала в совпадении.
+	 */
+	private static int start(@NotNull final Matcher matcher, @NotNull final String group)
+	{
+		return matcher.groupCount() > 0 ? matcher.start(group) : -1;
+	}
+
+	/**
+	 * Возвращает индекс конца группы в совпадении.
+	 *
+	 * @param matcher объект {@link Matcher} после успешной проверки.
+	 * @param group название группы.
+	 * @return индекс символа после группы, или {@code -1} если в регулярном выражении нет групп
+	 * или группа не участвовала в совпадении.
+	 */
+	private static int end(@NotNull final Matcher matcher, @NotNull final String group)
+	{
+		return matcher.groupCount() > 0 ? matcher.end(group) : -1;
+	}
+
+	/**
+	 * Класс рабочих данных механизма для одного потока.
+	 * <p>
+	 * Объекты {@link Matcher} хранят ссылку на последнюю проверенную строку до следующей проверки.
+	 */
+	private static final class Scratch
+	{
+		/**
+		 * Множество идентификаторов правил-кандидатов всех таблиц.
+		 */
+		@NotNull
+		private final BitSet candidates;
+
+		/**
+		 * Объекты {@link Matcher} правил браузеров.
+		 */
+		@Nullable
+		private final Matcher @NotNull [] browser;
+
+		/**
+		 * Объекты {@link Matcher} правил устройств.
+		 */
+		@Nullable
+		private final Matcher @NotNull [] device;
+
+		/**
+		 * Объекты {@link Matcher} правил операционных систем.
+		 */
+		@Nullable
+		private final Matcher @NotNull [] operatingSystem;
+
+		/**
+		 * Конструктор для {@code Scratch}.
+		 *
+		 * @param rules набор правил.
+		 */
+		private Scratch(@NotNull final UserAgentRules rules)
+		{
+			int browser = rules.getBrowserRules().getRules().size();
+			int device = rules.getDeviceRules().getRules().size();
+			int operatingSystem = rules.getOperatingSystemRules().getRules().size();
+
+			this.candidates = new BitSet(browser + device + operatingSystem);
+			this.browser = new Matcher[browser];
+			this.device = new Matcher[device];
+			this.operatingSystem = new Matcher[operatingSystem];
+		}
+	}
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Класс правила определения по строке user-agent.
+ *
+ * @param <T> тип значения, которое определяет правило.
+ * @author Алексей Каленчуков
+ */
+final class Rule<T extends Enum<T>>
+{
+	/**
+	 * Регулярное выражение правила.
+	 */
+	@NotNull
+	private final String regExp;
+
+	/**
+	 * Скомпилированное регулярное выражение правила, или {@code null} если выражение ещё не скомпилировано.
+	 */
+	@Nullable
+	private volatile Pattern pattern;
+
+	/**
+	 * Значение, которое определяет правило.
+	 */
+	@NotNull
+	private final T type;
+
+	/**
+	 * Литерал, который обязательно содержится в любой строке, соответствующей правилу.
+	 */
+	@Nullable
+	private final String literal;
+
+	/**
+	 * Конструктор для {@code Rule}.
+	 *
+	 * @param regExp регулярное выражение правила.
+	 * @param type значение, которое определяет правило.
+	 * @throws NullPointerException если в качестве {@code regExp} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code type} передан {@code null}.
+	 */
+	Rule(@NotNull final String regExp, @NotNull final T type)
+	{
+		Objects.requireNonNull(regExp);
+		Objects.requireNonNull(type);
+
+		this.regExp = regExp;
+		this.pattern = Pattern.compile(regExp, Pattern.CASE_INSENSITIVE);
+		this.type = type;
+		this.literal = Rule.extractLiteral(regExp);
+	}
+
+	/**
+	 * Конструктор для {@code Rule} с заранее выделенным литералом.
+	 * <p>
+	 * Регулярное выражение не проверяется и компилируется при первом обращении,
+	 * поэтому должно быть заранее проверено.
+	 *
+	 * @param regExp проверенное регулярное выражение правила.
+	 * @param type значение, которое определяет правило.
+	 * @param literal литерал правила в нижнем регистре, или {@code null} если литерала нет.
+	 * @throws NullPointerException если в качестве {@code regExp} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code type} передан {@code null}.
+	 */
+	Rule(@NotNull final String regExp, @NotNull final T type, @Nullable final String literal)
+	{
+		Objects.requireNonNull(regExp);
+		Objects.requireNonNull(type);
+
+		this.regExp = regExp;
+		this.pattern = null;
+		this.type = type;
+		this.literal = literal;
+	}
+
+	/**
+	 * Возвращает регулярное выражение правила.
+	 *
+	 * @return регулярное выражение.
+	 */
+	@NotNull
+	String getRegExp()
+	{
+		return this.regExp;
+	}
+
+	/**
+	 * Возвращает скомпилированное регулярное выражение правила.
+	 * <p>
+	 * Выражение может быть скомпилировано одновременно несколькими потоками, все результаты равнозначны.
+	 *
+	 * @return скомпилированное регулярное выражение.
+	 */
+	@NotNull
+	Pattern getPattern()
+	{
+		Pattern pattern = this.pattern;
+
+		if (pattern == null)
+		{
+			pattern = Pattern.compile(this.regExp, Pattern.CASE_INSENSITIVE);
+			this.pattern = pattern;
+		}
+
+		return pattern;
+	}
+
+	/**
+	 * Возвращает значение, которое определяет правило.
+	 *
+	 * @return значение правила.
+	 */
+	@NotNull
+	T getType()
+	{
+		return this.type;
+	}
+
+	/**
+	 * Возвращает литерал, который обязательно содержится в любой строке, соответствующей правилу.
+	 *
+	 * @return литерал в нижнем регистре, или {@code null} если литерал не удалось выделить.
+	 */
+	@Nullable
+	String getLiteral()
+	{
+		return this.literal;
+	}
+
+	/**
+	 * Возвращает сопоставитель правила для строки user-agent.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return сопоставитель регулярного выражения правила.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 */
+	@NotNull
+	Matcher matcher(@NotNull final CharSequence userAgent)
+	{
+		Objects.requireNonNull(userAgent);
+
+		return this.getPattern().matcher(userAgent);
+	}
+
+	/**
+	 * Выделяет из регулярного выражения самый длинный литерал, который обязательно содержится
+	 * в любой строке, соответствующей регулярному выражению.
+	 * <p>
+	 * Рассматриваются только символы вне классов символов и вне групп с квантификаторами или альтернативами.
+	 * Символ, за которым следует квантификатор допускающий отсутствие символа, не считается обязательным.
+	 *
+	 * @param regExp регулярное выражение.
+	 * @return литерал в нижнем регистре, или {@code null} если литерал не удалось выделить.
+	 * @throws NullPointerException если в качестве {@code regExp} передан {@code null}.
+	 */
+	@Nullable
+	static String extractLiteral(@NotNull final String regExp)
+	{
+		Objects.requireNonNull(regExp);
+
+		String longest = "";
+		StringBuilder current = new StringBuilder();
+		int index = 0;
+
+		while (index < regExp.length())
+		{
+			char symbol = regExp.charAt(index);
+			int next;
+			boolean literal = false;
+
+			switch (symbol)
+			{
+				case '\\' -> {
+					if (index + 1 >= regExp.length()) {
+						return null;
+					}
+
+					symbol = regExp.charAt(index + 1);
+
+					if (Character.isLetterOrDigit(symbol) && "sSdDwWbBhHvV".indexOf(symbol) < 0) {
+						return null;
+					}
+
+					literal = !Character.isLetterOrDigit(symbol);
+					next = index + 2;
+				}
+				case '[' -> next = Rule.skipClass(regExp, index) + 1;
+				case '(' -> {
+					int end = Rule.skipGroup(regExp, index);
+
+					if (end < 0) {
+						return null;
+					}
+
+					if (regExp.startsWith("(?=", index) || regExp.startsWith("(?!", index) ||
+						regExp.startsWith("(?<=", index) || regExp.startsWith("(?<!", index))
+					{
+						// Проверки просмотра не поглощают символы
+						index = end + 1;
+						continue;
+					}
+
+					if (!Rule.isQuantifier(regExp, end + 1) && !Rule.hasAlternative(regExp, index, end))
+					{
+						// Содержимое группы без квантификатора продолжает текущую последовательность
+						if (regExp.startsWith("(?<", index)) {
+							index = regExp.indexOf('>', index) + 1;
+						}
+						else if (regExp.startsWith("(?:", index)) {
+							index += 3;
+						}
+						else if (regExp.startsWith("(?", index)) {
+							return null;
+						}
+						else {
+							index++;
+						}
+
+						continue;
+					}
+
+					next = end + 1;
+				}
+				case ')' -> {
+					index++;
+					continue;
+				}
+				case '|' -> {
+					return null;
+				}
+				case '.', '^', '$' -> next = index + 1;
+				default -> {
+					literal = true;
+					next = index + 1;
+				}
+			}
+
+			boolean appended = literal && symbol < 128;
+
+			if (appended) {
+				current.append(LiteralIndex.fold(symbol));
+			}
+			else {
+				longest = Rule.longest(longest, current);
+				current.setLength(0);
+			}
+
+			if (Rule.isQuantifier(regExp, next))
+			{
+				char quantifier = regExp.charAt(next);
+
+				if (appended && (quantifier == '?' || quantifier == '*' || regExp.startsWith("{0", next))) {
+					current.setLength(current.length() - 1);
+				}
+
+				longest = Rule.longest(longest, current);
+				current.setLength(0);
+				next = Rule.skipQuantifier(regExp, next);
+			}
+
+			index = next;
+		}
+
+		longest = Rule.longest(longest, current);
+
+		return longest.isEmpty() ? null : longest;
+	}
+
+	/**
+	 * Возвращает самую длинную из двух строк.
+	 *
+	 * @param longest текущая самая длинная строка.
+	 * @param current проверяемая строка.
+	 * @return самую длинную строку.
+	 */
+	@NotNull
+	private static String longest(@NotNull final String longest, @NotNull final CharSequence current)
+	{
+		return current.length() > longest.length() ? current.toString() : longest;
+	}
+
+	/**
+	 * Проверяет, начинается ли в позиции квантификатор.
+	 *
+	 * @param regExp регулярное выражение.
+	 * @param index позиция в регулярном выражении.
+	 * @return {@code true} если в позиции начинается квантификатор, иначе {@code false}.
+	 */
+	private static boolean isQuantifier(@NotNull final String regExp, final int index)
+	{
+		if (index >= regExp.length()) {
+			return false;
+		}
+
+		char symbol = regExp.charAt(index);
+
+		return symbol == '?' || symbol == '*' || symbol == '+' || symbol == '{';
+	}
+
+	/**
+	 * Возвращает позицию после квантификатора, включая его ленивую или сверхжадную форму.
+	 *
+	 * @param regExp регулярное выражение.
+	 * @param index позиция начала квантификатора.
+	 * @return позицию после квантификатора.
+	 */
+	private static int skipQuantifier(@NotNull final String regExp, int index)
+	{
+		if (regExp.charAt(index) == '{') {
+			index = regExp.indexOf('}', index);
+		}
+
+		index++;
+
+		if (index < regExp.length() && (regExp.charAt(index) == '?' || regExp.charAt(index) == '+')) {
+			index++;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Возвращает позицию закрывающей скобки класса символов.
+	 *
+	 * @param regExp регулярное выражение.
+	 * @param index позиция открывающей скобки класса символов.
+	 * @return позицию закрывающей скобки.
+	 */
+	private static int skipClass(@NotNull final String regExp, int index)
+	{
+		int depth = 0;
+
+		for (; index < regExp.length(); index++)
+		{
+			char symbol = regExp.charAt(index);
+
+			if (symbol == '\\') {
+				index++;
+			}
+			else if (symbol == '[') {
+				depth++;
+			}
+			else if (symbol == ']' && --depth == 0) {
+				return index;
+			}
+		}
+
+		return regExp.length();
+	}
+
+	/**
+	 * Возвращает позицию закрывающей скобки группы.
+	 *
+	 * @param regExp регулярное выражение.
+	 * @param index позиция открывающей скобки группы.
+	 * @return позицию закрывающей скобки, или {@code -1} если группа не закрыта.
+	 */
+	private static int skipGroup(@NotNull final String regExp, int index)
+	{
+		int depth = 0;
+
+		for (; index < regExp.length(); index++)
+		{
+			char symbol = regExp.charAt(index);
+
+			if (symbol == '\\') {
+				index++;
+			}
+			else if (symbol == '[') {
+				index = Rule.skipClass(regExp, index);
+			}
+			else if (symbol == '(') {
+				depth++;
+			}
+			else if (symbol == ')' && --depth == 0) {
+				return index;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Проверяет, содержит ли группа альтернативы на любом уровне вложенности.
+	 *
+	 * @param regExp регулярное выражение.
+	 * @param start позиция открывающей скобки группы.
+	 * @param end позиция закрывающей скобки группы.
+	 * @return {@code true} если группа содержит альтернативы, иначе {@code false}.
+	 */
+	private static boolean hasAlternative(@NotNull final String regExp, final int start, final int end)
+	{
+		for (int index = start; index < end; index++)
+		{
+			char symbol = regExp.charAt(index);
+
+			if (symbol == '\\') {
+				index++;
+			}
+			else if (symbol == '[') {
+				index = Rule.skipClass(regExp, index);
+			}
+			else if (symbol == '|') {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
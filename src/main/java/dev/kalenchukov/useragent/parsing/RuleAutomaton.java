@@ -0,0 +1,1777 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.regex.Matcher;
+
+/**
+ * Класс автомата, объединяющего правила нескольких таблиц правил.
+ * <p>
+ * Регулярные выражения правил компилируются в одну программу недетерминированного автомата,
+ * которая исполняется за один проход по строке user-agent методом Пайка: все правила-кандидаты
+ * всех таблиц проверяются одновременно, а на каждую позицию строки приходится не больше одного
+ * состояния на инструкцию программы. Поэтому время проверки линейно зависит от длины строки
+ * и не зависит от её содержимого.
+ * <p>
+ * Порядок приоритета состояний совпадает с порядком перебора {@link java.util.regex.Pattern},
+ * поэтому для каждой таблицы выбирается то же правило и та же группа, что и при поочерёдной
+ * проверке правил методом {@link Matcher#matches()}. Правила с конструкциями, которые автомат
+ * не поддерживает, проверяются регулярными выражениями после прохода автомата, и время их
+ * проверки линейно не ограничено. Правила встроенного набора компилируются в программу все.
+ * <p>
+ * Большинство правил начинается с {@code .*}. Такой префикс не исполняется как цикл: программа
+ * остальной части правила запускается в каждой позиции, символ которой может начать её совпадение,
+ * причём более поздний запуск получает более высокий приоритет, как и при жадном переборе.
+ * Поэтому на каждый символ строки приходится запуск только тех правил, для которых он может быть первым.
+ *
+ * @author Алексей Каленчуков
+ */
+final class RuleAutomaton
+{
+	/**
+	 * Инструкция сравнения с символом.
+	 */
+	private static final int CHAR = 0;
+
+	/**
+	 * Инструкция сравнения с классом символов.
+	 */
+	private static final int CLASS = 1;
+
+	/**
+	 * Инструкция сравнения с любым символом, кроме символов конца строки.
+	 */
+	private static final int ANY = 2;
+
+	/**
+	 * Инструкция ветвления с приоритетом первой ветви.
+	 */
+	private static final int SPLIT = 3;
+
+	/**
+	 * Инструкция перехода.
+	 */
+	private static final int JUMP = 4;
+
+	/**
+	 * Инструкция сохранения позиции начала или конца группы.
+	 */
+	private static final int SAVE = 5;
+
+	/**
+	 * Инструкция проверки отсутствия литерала в текущей позиции.
+	 */
+	private static final int NOT_AHEAD = 6;
+
+	/**
+	 * Инструкция совпадения правила.
+	 */
+	private static final int MATCH = 7;
+
+	/**
+	 * Инструкция проверки конца строки {@code $}.
+	 */
+	private static final int END = 8;
+
+	/**
+	 * Максимальное количество повторений в квантификаторе.
+	 */
+	private static final int MAX_REPETITIONS = 1000;
+
+	/**
+	 * Количество классов символов, по которым выбираются запускаемые правила:
+	 * символы US-ASCII, остальные символы и остальные символы конца строки.
+	 */
+	private static final int SYMBOLS = 130;
+
+	/**
+	 * Рабочие данные текущего потока.
+	 */
+	@NotNull
+	private final ThreadLocal<@NotNull Scratch> scratch;
+
+	/**
+	 * Таблицы правил.
+	 */
+	@NotNull
+	private final List<@NotNull RuleTable<?>> tables;
+
+	/**
+	 * Коды инструкций.
+	 */
+	private final int @NotNull [] opcodes;
+
+	/**
+	 * Первые аргументы инструкций.
+	 */
+	private final int @NotNull [] arguments;
+
+	/**
+	 * Вторые аргументы инструкций.
+	 */
+	private final int @NotNull [] alternatives;
+
+	/**
+	 * Классы символов.
+	 */
+	@NotNull
+	private final CharClass @NotNull [] classes;
+
+	/**
+	 * Литералы инструкций проверки отсутствия литерала в верхнем регистре.
+	 */
+	@NotNull
+	private final String @NotNull [] literals;
+
+	/**
+	 * Адреса начала программ правил для каждой таблицы, или {@code -1} если правило не скомпилировано.
+	 */
+	private final int @NotNull [] @NotNull [] starts;
+
+	/**
+	 * Названия групп, позиции которых возвращаются для каждой таблицы.
+	 */
+	@NotNull
+	private final String @NotNull [] groups;
+
+	/**
+	 * Содержат ли программы правил для каждой таблицы инструкции сохранения позиций группы.
+	 */
+	private final boolean @NotNull [] @NotNull [] captures;
+
+	/**
+	 * Начинаются ли выражения правил для каждой таблицы с {@code .*}.
+	 */
+	private final boolean @NotNull [] @NotNull [] floating;
+
+	/**
+	 * Правила, начинающиеся с {@code .*}, остальная часть которых может начинаться с символа,
+	 * для символов US-ASCII и двух классов остальных символов.
+	 * <p>
+	 * Каждое правило записано как индекс таблицы, сдвинутый на 16 бит, и индекс правила в таблице.
+	 */
+	private final int @NotNull [] @NotNull [] entries;
+
+	/**
+	 * Правила, начинающиеся с {@code .*}, остальная часть которых может совпасть с пустой строкой.
+	 */
+	private final int @NotNull [] terminals;
+
+	/**
+	 * Конструктор для {@code RuleAutomaton}.
+	 *
+	 * @param tables таблицы правил.
+	 * @param groups названия групп, позиции которых возвращаются для каждой таблицы.
+	 * @throws NullPointerException если в качестве {@code tables} или {@code groups} передан {@code null}.
+	 * @throws IllegalArgumentException если количество таблиц и групп не совпадает.
+	 */
+	RuleAutomaton(@NotNull final List<@NotNull RuleTable<?>> tables, @NotNull final List<@NotNull String> groups)
+	{
+		Objects.requireNonNull(tables);
+		Objects.requireNonNull(groups);
+
+		if (tables.size() != groups.size()) {
+			throw new IllegalArgumentException();
+		}
+
+		this.tables = List.copyOf(tables);
+		this.groups = groups.toArray(String[]::new);
+		this.starts = new int[tables.size()][];
+		this.captures = new boolean[tables.size()][];
+		this.floating = new boolean[tables.size()][];
+
+		Compiler compiler = new Compiler();
+
+		for (int table = 0; table < tables.size(); table++)
+		{
+			List<? extends Rule<?>> rules = tables.get(table).getRules();
+			this.starts[table] = new int[rules.size()];
+			this.captures[table] = new boolean[rules.size()];
+			this.floating[table] = new boolean[rules.size()];
+
+			for (int rule = 0; rule < rules.size(); rule++)
+			{
+				this.starts[table][rule] = compiler.compile(
+					rules.get(rule).getRegExp(), this.groups[table], table, rule
+				);
+				this.captures[table][rule] = compiler.captured;
+				this.floating[table][rule] = compiler.floating;
+			}
+		}
+
+		this.opcodes = compiler.opcodes.toArray();
+		this.arguments = compiler.arguments.toArray();
+		this.alternatives = compiler.alternatives.toArray();
+		this.classes = compiler.classes.toArray(CharClass[]::new);
+		this.literals = compiler.literals.toArray(String[]::new);
+
+		List<List<Integer>> entries = new ArrayList<>();
+		List<Integer> terminals = new ArrayList<>();
+
+		for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+			entries.add(new ArrayList<>());
+		}
+
+		for (int table = 0; table < this.starts.length; table++)
+		{
+			for (int rule = 0; rule < this.starts[table].length; rule++)
+			{
+				if (!this.floating[table][rule] || this.starts[table][rule] < 0) {
+					continue;
+				}
+
+				int entry = table << 16 | rule;
+				IntList first = new IntList();
+
+				if (this.first(this.starts[table][rule], first, new BitSet())) {
+					terminals.add(entry);
+				}
+
+				for (int symbol = 0; symbol < SYMBOLS; symbol++)
+				{
+					for (int index = 0; index < first.size; index++)
+					{
+						if (this.accepts(first.values[index], RuleAutomaton.representative(symbol)))
+						{
+							entries.get(symbol).add(entry);
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		this.entries = entries.stream()
+			.map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+			.toArray(int[][]::new);
+		this.terminals = terminals.stream().mapToInt(Integer::intValue).toArray();
+		this.scratch = ThreadLocal.withInitial(() -> new Scratch(this.opcodes.length));
+	}
+
+	/**
+	 * Проверяет, скомпилировано ли правило в программу автомата.
+	 *
+	 * @param table индекс таблицы.
+	 * @param rule индекс правила в таблице.
+	 * @return {@code true} если правило проверяется автоматом, иначе {@code false}.
+	 */
+	boolean isCompiled(final int table, final int rule)
+	{
+		return this.starts[table][rule] >= 0;
+	}
+
+	/**
+	 * Находит для каждой таблицы первое по приоритету правило-кандидат, которому соответствует строка.
+	 * <p>
+	 * Для каждой таблицы в результат записываются три числа: индекс правила и позиции начала и конца
+	 * группы, или {@code -1} если правило не найдено или группа не участвовала в совпадении.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param candidates правила-кандидаты для каждой таблицы, или {@code null} если таблица не проверяется.
+	 * @return индексы правил и позиции групп.
+	 * @throws NullPointerException если в качестве {@code userAgent} или {@code candidates} передан {@code null}.
+	 * @throws IllegalArgumentException если количество наборов кандидатов не совпадает с количеством таблиц.
+	 */
+	int @NotNull [] run(@NotNull final CharSequence userAgent, @Nullable final BitSet @NotNull [] candidates)
+	{
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(candidates);
+
+		if (candidates.length != this.tables.size()) {
+			throw new IllegalArgumentException();
+		}
+
+		int[] result = new int[3 * candidates.length];
+		Arrays.fill(result, -1);
+
+		this.simulate(this.scratch.get(), userAgent, candidates, result);
+		this.fallback(userAgent, candidates, result);
+
+		return result;
+	}
+
+	/**
+	 * Находит методом Пайка для каждой таблицы первое по приоритету правило-кандидат,
+	 * которому соответствует строка, и позиции его группы.
+	 *
+	 * @param scratch рабочие данные.
+	 * @param userAgent строка user-agent.
+	 * @param candidates правила-кандидаты для каждой таблицы.
+	 * @param result индексы правил и позиции групп.
+	 */
+	private void simulate(@NotNull final Scratch scratch,
+						  @NotNull final CharSequence userAgent,
+						  @Nullable final BitSet @NotNull [] candidates,
+						  final int @NotNull [] result)
+	{
+		ThreadList current = scratch.current;
+		ThreadList next = scratch.next;
+		int length = userAgent.length();
+
+		current.clear();
+		scratch.advance();
+
+		for (int table = 0; table < candidates.length; table++)
+		{
+			if (candidates[table] == null) {
+				continue;
+			}
+
+			for (int rule = candidates[table].nextSetBit(0); rule >= 0; rule = candidates[table].nextSetBit(rule + 1))
+			{
+				if (this.starts[table][rule] >= 0 && !this.floating[table][rule]) {
+					this.follow(scratch, current, this.starts[table][rule], userAgent, 0, -1, -1, result);
+				}
+			}
+		}
+
+		this.launch(scratch, current, userAgent, 0, candidates, result);
+		RuleAutomaton.charge(scratch, userAgent, 0);
+
+		int position = 0;
+		boolean floating = true;
+
+		while (position < length && (floating || current.size > 0))
+		{
+			int codePoint = Character.codePointAt(userAgent, position);
+			int following = position + Character.charCount(codePoint);
+
+			next.clear();
+			scratch.advance();
+
+			if (RuleAutomaton.isLineTerminator(codePoint)) {
+				floating = false;
+			}
+
+			if (floating) {
+				this.launch(scratch, next, userAgent, following, candidates, result);
+			}
+
+			for (int index = 0; index < current.size; index++)
+			{
+				int pc = current.pcs[index];
+
+				if (this.accepts(pc, codePoint))
+				{
+					this.follow(
+						scratch, next, pc + 1, userAgent, following,
+						current.starts[index], current.ends[index], result
+					);
+				}
+			}
+
+			RuleAutomaton.charge(scratch, userAgent, current.size);
+
+			ThreadList swap = current;
+			current = next;
+			next = swap;
+			position = following;
+		}
+
+		scratch.current = current;
+		scratch.next = next;
+	}
+
+	/**
+	 * Запускает в позиции программы правил-кандидатов, начинающихся с {@code .*},
+	 * остальная часть которых может начаться с символа в этой позиции.
+	 *
+	 * @param scratch рабочие данные.
+	 * @param list список состояний.
+	 * @param userAgent строка user-agent.
+	 * @param position позиция в строке.
+	 * @param candidates правила-кандидаты для каждой таблицы.
+	 * @param result индексы правил и позиции групп.
+	 */
+	private void launch(@NotNull final Scratch scratch,
+						@NotNull final ThreadList list,
+						@NotNull final CharSequence userAgent,
+						final int position,
+						@Nullable final BitSet @NotNull [] candidates,
+						final int @NotNull [] result)
+	{
+		int[] entries = position < userAgent.length()
+			? this.entries[RuleAutomaton.symbol(Character.codePointAt(userAgent, position))]
+			: this.terminals;
+
+		for (int entry : entries)
+		{
+			int table = entry >>> 16;
+			int rule = entry & 0xFFFF;
+
+			if (candidates[table] != null && candidates[table].get(rule)) {
+				this.follow(scratch, list, this.starts[table][rule], userAgent, position, -1, -1, result);
+			}
+		}
+	}
+
+	/**
+	 * Собирает инструкции сравнения, достижимые из инструкции без чтения символа,
+	 * без учёта просмотра вперёд.
+	 *
+	 * @param pc адрес инструкции.
+	 * @param reached адреса достигнутых инструкций сравнения.
+	 * @param visited адреса пройденных инструкций.
+	 * @return {@code true} если достижима инструкция совпадения, иначе {@code false}.
+	 */
+	private boolean first(final int pc, @NotNull final IntList reached, @NotNull final BitSet visited)
+	{
+		if (visited.get(pc)) {
+			return false;
+		}
+
+		visited.set(pc);
+
+		return switch (this.opcodes[pc]) {
+			case SPLIT -> this.first(this.arguments[pc], reached, visited) |
+				this.first(this.alternatives[pc], reached, visited);
+			case JUMP -> this.first(this.arguments[pc], reached, visited);
+			case SAVE, NOT_AHEAD, END -> this.first(pc + 1, reached, visited);
+			case MATCH -> true;
+			default -> {
+				reached.add(pc);
+				yield false;
+			}
+		};
+	}
+
+	/**
+	 * Возвращает класс символа, по которому выбираются запускаемые правила.
+	 *
+	 * @param codePoint символ.
+	 * @return класс символа.
+	 */
+	private static int symbol(final int codePoint)
+	{
+		if (codePoint < 128) {
+			return codePoint;
+		}
+
+		return RuleAutomaton.isLineTerminator(codePoint) ? SYMBOLS - 1 : SYMBOLS - 2;
+	}
+
+	/**
+	 * Возвращает представителя класса символа, по которому выбираются запускаемые правила.
+	 *
+	 * @param symbol класс символа.
+	 * @return символ класса.
+	 */
+	private static int representative(final int symbol)
+	{
+		if (symbol < 128) {
+			return symbol;
+		}
+
+		return symbol == SYMBOLS - 1 ? '\u2028' : '\u00A0';
+	}
+
+	/**
+	 * Проверяет, принимает ли инструкция сравнения символ.
+	 *
+	 * @param pc адрес инструкции.
+	 * @param codePoint символ.
+	 * @return {@code true} если символ принят, иначе {@code false}.
+	 */
+	private boolean accepts(final int pc, final int codePoint)
+	{
+		return switch (this.opcodes[pc]) {
+			case CHAR -> this.arguments[pc] == RuleAutomaton.fold(codePoint);
+			case CLASS -> this.classes[this.arguments[pc]].contains(codePoint);
+			case ANY -> !RuleAutomaton.isLineTerminator(codePoint);
+			default -> false;
+		};
+	}
+
+	/**
+	 * Добавляет в список состояния, достижимые из инструкции без чтения символа.
+	 * <p>
+	 * Состояния добавляются в порядке приоритета, и каждая инструкция добавляется не больше одного раза.
+	 *
+	 * @param scratch рабочие данные.
+	 * @param list список состояний.
+	 * @param pc адрес инструкции.
+	 * @param userAgent строка user-agent.
+	 * @param position текущая позиция в строке.
+	 * @param start позиция начала группы.
+	 * @param end позиция конца группы.
+	 * @param result индексы правил и позиции групп.
+	 */
+	private void follow(@NotNull final Scratch scratch,
+						@NotNull final ThreadList list,
+						final int pc,
+						@NotNull final CharSequence userAgent,
+						final int position,
+						final int start,
+						final int end,
+						final int @NotNull [] result)
+	{
+		if (scratch.visited[pc] == scratch.generation) {
+			return;
+		}
+
+		scratch.visited[pc] = scratch.generation;
+		scratch.steps++;
+
+		switch (this.opcodes[pc])
+		{
+			case SPLIT -> {
+				this.follow(scratch, list, this.arguments[pc], userAgent, position, start, end, result);
+				this.follow(scratch, list, this.alternatives[pc], userAgent, position, start, end, result);
+			}
+			case JUMP -> this.follow(scratch, list, this.arguments[pc], userAgent, position, start, end, result);
+			case SAVE -> {
+				if (this.arguments[pc] == 0) {
+					this.follow(scratch, list, pc + 1, userAgent, position, position, end, result);
+				} else {
+					this.follow(scratch, list, pc + 1, userAgent, position, start, position, result);
+				}
+			}
+			case NOT_AHEAD -> {
+				if (!RuleAutomaton.startsWith(userAgent, position, this.literals[this.arguments[pc]])) {
+					this.follow(scratch, list, pc + 1, userAgent, position, start, end, result);
+				}
+			}
+			case END -> {
+				if (RuleAutomaton.isEnd(userAgent, position)) {
+					this.follow(scratch, list, pc + 1, userAgent, position, start, end, result);
+				}
+			}
+			case MATCH -> {
+				int offset = 3 * this.arguments[pc];
+				int rule = this.alternatives[pc];
+
+				if (position == userAgent.length() && (result[offset] < 0 || rule < result[offset]))
+				{
+					result[offset] = rule;
+					result[offset + 1] = start;
+					result[offset + 2] = end;
+				}
+			}
+			default -> list.add(pc, start, end);
+		}
+	}
+
+	/**
+	 * Списывает шаги автомата с бюджета проверки правил, если строка ограничена {@link BudgetedCharSequence}.
+	 * <p>
+	 * Шагами считаются проверки состояний на символе и переходы без чтения символа. Бюджет иначе
+	 * учитывал бы только чтение символов, которых автомат читает по одному на позицию независимо
+	 * от количества состояний.
+	 *
+	 * @param scratch рабочие данные.
+	 * @param userAgent строка user-agent.
+	 * @param states количество проверенных на символе состояний.
+	 * @throws MatchBudgetExceededException если бюджет проверки правил исчерпан.
+	 */
+	private static void charge(@NotNull final Scratch scratch, @NotNull final CharSequence userAgent, final int states)
+	{
+		long steps = scratch.steps + states;
+		scratch.steps = 0;
+
+		if (userAgent instanceof BudgetedCharSequence budgeted) {
+			budgeted.charge(steps);
+		}
+	}
+
+	/**
+	 * Проверяет регулярными выражениями правила, которые не скомпилированы в программу автомата.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param candidates правила-кандидаты для каждой таблицы.
+	 * @param result индексы правил и позиции групп.
+	 */
+	private void fallback(@NotNull final CharSequence userAgent,
+						  @Nullable final BitSet @NotNull [] candidates,
+						  final int @NotNull [] result)
+	{
+		for (int table = 0; table < candidates.length; table++)
+		{
+			if (candidates[table] == null) {
+				continue;
+			}
+
+			int offset = 3 * table;
+			int limit = result[offset] < 0 ? this.starts[table].length : result[offset];
+
+			for (int rule = candidates[table].nextSetBit(0); rule >= 0 && rule < limit; rule = candidates[table].nextSetBit(rule + 1))
+			{
+				if (this.starts[table][rule] >= 0) {
+					continue;
+				}
+
+				Matcher matcher = this.tables.get(table).getRules().get(rule).matcher(userAgent);
+
+				if (matcher.matches())
+				{
+					result[offset] = rule;
+					result[offset + 1] = -1;
+					result[offset + 2] = -1;
+
+					if (matcher.groupCount() > 0)
+					{
+						result[offset + 1] = matcher.start(this.groups[table]);
+						result[offset + 2] = matcher.end(this.groups[table]);
+					}
+
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Проверяет, начинается ли строка в позиции с литерала без учёта регистра US-ASCII.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param position позиция в строке.
+	 * @param literal литерал в верхнем регистре.
+	 * @return {@code true} если строка начинается с литерала, иначе {@code false}.
+	 */
+	private static boolean startsWith(@NotNull final CharSequence userAgent,
+									  final int position,
+									  @NotNull final String literal)
+	{
+		if (userAgent.length() - position < literal.length()) {
+			return false;
+		}
+
+		for (int index = 0; index < literal.length(); index++)
+		{
+			if (RuleAutomaton.fold(userAgent.charAt(position + index)) != literal.charAt(index)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Проверяет, соответствует ли позиция строки {@code $} в {@link java.util.regex.Pattern}
+	 * без флагов {@link java.util.regex.Pattern#MULTILINE} и {@link java.util.regex.Pattern#UNIX_LINES}.
+	 * <p>
+	 * Позиция соответствует, если она является концом строки или за ней следует только
+	 * завершающий символ конца строки.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param position позиция в строке.
+	 * @return {@code true} если позиция соответствует {@code $}, иначе {@code false}.
+	 */
+	private static boolean isEnd(@NotNull final CharSequence userAgent, final int position)
+	{
+		int length = userAgent.length();
+
+		if (position == length) {
+			return true;
+		}
+
+		if (position == length - 2) {
+			return userAgent.charAt(position) == '\r' && userAgent.charAt(position + 1) == '\n';
+		}
+
+		if (position == length - 1)
+		{
+			char symbol = userAgent.charAt(position);
+
+			if (symbol == '\n') {
+				return position == 0 || userAgent.charAt(position - 1) != '\r';
+			}
+
+			return RuleAutomaton.isLineTerminator(symbol);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Приводит символ US-ASCII к верхнему регистру.
+	 *
+	 * @param codePoint символ.
+	 * @return символ в верхнем регистре, или исходный символ если он не является строчной буквой US-ASCII.
+	 */
+	private static int fold(final int codePoint)
+	{
+		return codePoint >= 'a' && codePoint <= 'z' ? codePoint - 'a' + 'A' : codePoint;
+	}
+
+	/**
+	 * Проверяет, является ли символ символом конца строки для {@link java.util.regex.Pattern}.
+	 *
+	 * @param codePoint символ.
+	 * @return {@code true} если символ является символом конца строки, иначе {@code false}.
+	 */
+	private static boolean isLineTerminator(final int codePoint)
+	{
+		return codePoint == '\n' || codePoint == '\r' || codePoint == '\u0085' ||
+			codePoint == '\u2028' || codePoint == '\u2029';
+	}
+
+	/**
+	 * Класс рабочих данных автомата для одного потока.
+	 */
+	private static final class Scratch
+	{
+		/**
+		 * Номера шагов, на которых инструкции были добавлены в список состояний.
+		 */
+		private final int @NotNull [] visited;
+
+		/**
+		 * Номер текущего шага.
+		 */
+		private int generation;
+
+		/**
+		 * Количество переходов без чтения символа с последнего списания с бюджета.
+		 */
+		private long steps;
+
+		/**
+		 * Список состояний текущей позиции.
+		 */
+		@NotNull
+		private ThreadList current;
+
+		/**
+		 * Список состояний следующей позиции.
+		 */
+		@NotNull
+		private ThreadList next;
+
+		/**
+		 * Конструктор для {@code Scratch}.
+		 *
+		 * @param size количество инструкций программы.
+		 */
+		private Scratch(final int size)
+		{
+			this.visited = new int[size];
+			this.generation = 0;
+			this.steps = 0;
+			this.current = new ThreadList(size);
+			this.next = new ThreadList(size);
+		}
+
+		/**
+		 * Начинает новый шаг.
+		 */
+		private void advance()
+		{
+			if (this.generation == Integer.MAX_VALUE)
+			{
+				Arrays.fill(this.visited, 0);
+				this.generation = 0;
+			}
+
+			this.generation++;
+		}
+	}
+
+	/**
+	 * Класс списка состояний автомата.
+	 */
+	private static final class ThreadList
+	{
+		/**
+		 * Адреса инструкций.
+		 */
+		private final int @NotNull [] pcs;
+
+		/**
+		 * Позиции начала группы.
+		 */
+		private final int @NotNull [] starts;
+
+		/**
+		 * Позиции конца группы.
+		 */
+		private final int @NotNull [] ends;
+
+		/**
+		 * Количество состояний.
+		 */
+		private int size;
+
+		/**
+		 * Конструктор для {@code ThreadList}.
+		 *
+		 * @param capacity максимальное количество состояний.
+		 */
+		private ThreadList(final int capacity)
+		{
+			this.pcs = new int[capacity];
+			this.starts = new int[capacity];
+			this.ends = new int[capacity];
+			this.size = 0;
+		}
+
+		/**
+		 * Удаляет все состояния.
+		 */
+		private void clear()
+		{
+			this.size = 0;
+		}
+
+		/**
+		 * Добавляет состояние.
+		 *
+		 * @param pc адрес инструкции.
+		 * @param start позиция начала группы.
+		 * @param end позиция конца группы.
+		 */
+		private void add(final int pc, final int start, final int end)
+		{
+			this.pcs[this.size] = pc;
+			this.starts[this.size] = start;
+			this.ends[this.size] = end;
+			this.size++;
+		}
+	}
+
+	/**
+	 * Класс набора символов.
+	 * <p>
+	 * Символы US-ASCII хранятся с учётом обоих регистров, остальные символы либо
+	 * все входят в набор, либо все не входят.
+	 */
+	private static final class CharClass implements Node
+	{
+		/**
+		 * Символы US-ASCII набора.
+		 */
+		private final boolean @NotNull [] ascii;
+
+		/**
+		 * Входят ли в набор символы за пределами US-ASCII.
+		 */
+		private final boolean other;
+
+		/**
+		 * Конструктор для {@code CharClass}.
+		 *
+		 * @param ascii символы US-ASCII набора.
+		 * @param other входят ли в набор символы за пределами US-ASCII.
+		 */
+		private CharClass(final boolean @NotNull [] ascii, final boolean other)
+		{
+			this.ascii = ascii;
+			this.other = other;
+		}
+
+		/**
+		 * Проверяет, входит ли символ в набор.
+		 *
+		 * @param codePoint символ.
+		 * @return {@code true} если символ входит в набор, иначе {@code false}.
+		 */
+		private boolean contains(final int codePoint)
+		{
+			return codePoint < 128 ? this.ascii[codePoint] : this.other;
+		}
+	}
+
+	/**
+	 * Класс динамического массива целых чисел.
+	 */
+	private static final class IntList
+	{
+		/**
+		 * Элементы.
+		 */
+		private int @NotNull [] values = new int[1024];
+
+		/**
+		 * Количество элементов.
+		 */
+		private int size;
+
+		/**
+		 * Добавляет элемент.
+		 *
+		 * @param value элемент.
+		 */
+		private void add(final int value)
+		{
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+
+			this.values[this.size++] = value;
+		}
+
+		/**
+		 * Заменяет элемент.
+		 *
+		 * @param index индекс элемента.
+		 * @param value элемент.
+		 */
+		private void set(final int index, final int value)
+		{
+			this.values[index] = value;
+		}
+
+		/**
+		 * Возвращает массив элементов.
+		 *
+		 * @return массив элементов.
+		 */
+		private int @NotNull [] toArray()
+		{
+			return Arrays.copyOf(this.values, this.size);
+		}
+	}
+
+	/**
+	 * Класс компилятора регулярных выражений в программу автомата.
+	 * <p>
+	 * Поддерживаются символы, экранированные символы, классы символов без вложенных классов,
+	 * классы {@code \d \w \s} и их отрицания, любой символ {@code .}, квантификаторы
+	 * {@code * + ? {n} {n,} {n,m}} в жадной и ленивой форме, альтернативы, группы,
+	 * негативный просмотр вперёд литерала {@code (?!...)} и конец строки {@code $}.
+	 */
+	private static final class Compiler
+	{
+		/**
+		 * Коды инструкций.
+		 */
+		@NotNull
+		private final IntList opcodes = new IntList();
+
+		/**
+		 * Первые аргументы инструкций.
+		 */
+		@NotNull
+		private final IntList arguments = new IntList();
+
+		/**
+		 * Вторые аргументы инструкций.
+		 */
+		@NotNull
+		private final IntList alternatives = new IntList();
+
+		/**
+		 * Классы символов.
+		 */
+		@NotNull
+		private final List<@NotNull CharClass> classes = new ArrayList<>();
+
+		/**
+		 * Литералы инструкций проверки отсутствия литерала.
+		 */
+		@NotNull
+		private final List<@NotNull String> literals = new ArrayList<>();
+
+		/**
+		 * Содержит ли программа последнего скомпилированного правила инструкции сохранения позиций группы.
+		 */
+		private boolean captured;
+
+		/**
+		 * Начинается ли выражение последнего скомпилированного правила с {@code .*}, которое не входит в программу.
+		 */
+		private boolean floating;
+
+		/**
+		 * Компилирует регулярное выражение правила.
+		 * <p>
+		 * Если выражение содержит неподдерживаемые конструкции, программа не изменяется.
+		 *
+		 * @param regExp регулярное выражение.
+		 * @param group название группы, позиции которой сохраняются.
+		 * @param table индекс таблицы.
+		 * @param rule индекс правила в таблице.
+		 * @return адрес начала программы правила, или {@code -1} если выражение не поддерживается.
+		 */
+		private int compile(@NotNull final String regExp, @NotNull final String group, final int table, final int rule)
+		{
+			Node node;
+
+			try
+			{
+				Parser parser = new Parser(regExp);
+				node = parser.parse();
+			}
+			catch (UnsupportedOperationException exception)
+			{
+				this.captured = false;
+				this.floating = false;
+
+				return -1;
+			}
+
+			this.floating = node instanceof Sequence sequence && !sequence.items().isEmpty() &&
+				sequence.items().get(0).equals(new Repetition(new Any(), 0, -1, true));
+
+			if (this.floating)
+			{
+				List<Node> items = ((Sequence) node).items();
+				node = new Sequence(items.subList(1, items.size()));
+			}
+
+			int start = this.opcodes.size;
+			int classes = this.classes.size();
+			int literals = this.literals.size();
+
+			this.captured = false;
+
+			try
+			{
+				this.emit(node, group);
+			}
+			catch (UnsupportedOperationException exception)
+			{
+				this.captured = false;
+				this.floating = false;
+				this.opcodes.size = start;
+				this.arguments.size = start;
+				this.alternatives.size = start;
+				this.classes.subList(classes, this.classes.size()).clear();
+				this.literals.subList(literals, this.literals.size()).clear();
+
+				return -1;
+			}
+
+			this.add(MATCH, table, rule);
+
+			return start;
+		}
+
+		/**
+		 * Добавляет инструкции узла выражения.
+		 *
+		 * @param node узел выражения.
+		 * @param group название группы, позиции которой сохраняются.
+		 */
+		private void emit(@NotNull final Node node, @NotNull final String group)
+		{
+			if (node instanceof Literal literal)
+			{
+				this.add(CHAR, literal.codePoint(), 0);
+			}
+			else if (node instanceof Any)
+			{
+				this.add(ANY, 0, 0);
+			}
+			else if (node instanceof CharClass charClass)
+			{
+				this.classes.add(charClass);
+				this.add(CLASS, this.classes.size() - 1, 0);
+			}
+			else if (node instanceof NotAhead notAhead)
+			{
+				int index = this.literals.indexOf(notAhead.literal());
+
+				if (index < 0)
+				{
+					index = this.literals.size();
+					this.literals.add(notAhead.literal());
+				}
+
+				this.add(NOT_AHEAD, index, 0);
+			}
+			else if (node instanceof End)
+			{
+				this.add(END, 0, 0);
+			}
+			else if (node instanceof Sequence sequence)
+			{
+				for (Node item : sequence.items()) {
+					this.emit(item, group);
+				}
+			}
+			else if (node instanceof Group capture)
+			{
+				boolean saved = group.equals(capture.name());
+
+				if (saved)
+				{
+					this.add(SAVE, 0, 0);
+					this.captured = true;
+				}
+
+				this.emit(capture.body(), group);
+
+				if (saved) {
+					this.add(SAVE, 1, 0);
+				}
+			}
+			else if (node instanceof Alternation alternation)
+			{
+				this.emitAlternation(alternation, group);
+			}
+			else if (node instanceof Repetition repetition)
+			{
+				this.emitRepetition(repetition, group);
+			}
+		}
+
+		/**
+		 * Добавляет инструкции альтернативы.
+		 *
+		 * @param alternation альтернатива.
+		 * @param group название группы, позиции которой сохраняются.
+		 */
+		private void emitAlternation(@NotNull final Alternation alternation, @NotNull final String group)
+		{
+			List<Integer> jumps = new ArrayList<>();
+			List<Node> branches = alternation.branches();
+
+			for (int index = 0; index < branches.size(); index++)
+			{
+				if (index == branches.size() - 1)
+				{
+					this.emit(branches.get(index), group);
+					break;
+				}
+
+				int split = this.add(SPLIT, 0, 0);
+				this.arguments.set(split, this.opcodes.size);
+				this.emit(branches.get(index), group);
+				jumps.add(this.add(JUMP, 0, 0));
+				this.alternatives.set(split, this.opcodes.size);
+			}
+
+			for (int jump : jumps) {
+				this.arguments.set(jump, this.opcodes.size);
+			}
+		}
+
+		/**
+		 * Добавляет инструкции повторения.
+		 *
+		 * @param repetition повторение.
+		 * @param group название группы, позиции которой сохраняются.
+		 */
+		private void emitRepetition(@NotNull final Repetition repetition, @NotNull final String group)
+		{
+			for (int index = 0; index < repetition.min(); index++) {
+				this.emit(repetition.body(), group);
+			}
+
+			if (repetition.max() < 0)
+			{
+				int split = this.add(SPLIT, 0, 0);
+				this.emit(repetition.body(), group);
+				this.add(JUMP, split, 0);
+				this.branch(split, split + 1, this.opcodes.size, repetition.greedy());
+
+				return;
+			}
+
+			List<Integer> splits = new ArrayList<>();
+
+			for (int index = repetition.min(); index < repetition.max(); index++)
+			{
+				splits.add(this.add(SPLIT, 0, 0));
+				this.emit(repetition.body(), group);
+			}
+
+			for (int split : splits) {
+				this.branch(split, split + 1, this.opcodes.size, repetition.greedy());
+			}
+		}
+
+		/**
+		 * Устанавливает ветви инструкции ветвления.
+		 *
+		 * @param split адрес инструкции ветвления.
+		 * @param body адрес тела повторения.
+		 * @param exit адрес выхода из повторения.
+		 * @param greedy является ли повторение жадным.
+		 */
+		private void branch(final int split, final int body, final int exit, final boolean greedy)
+		{
+			this.arguments.set(split, greedy ? body : exit);
+			this.alternatives.set(split, greedy ? exit : body);
+		}
+
+		/**
+		 * Добавляет инструкцию.
+		 *
+		 * @param opcode код инструкции.
+		 * @param argument первый аргумент.
+		 * @param alternative второй аргумент.
+		 * @return адрес инструкции.
+		 */
+		private int add(final int opcode, final int argument, final int alternative)
+		{
+			this.opcodes.add(opcode);
+			this.arguments.add(argument);
+			this.alternatives.add(alternative);
+
+			return this.opcodes.size - 1;
+		}
+	}
+
+	/**
+	 * Класс разбора регулярного выражения в дерево узлов.
+	 */
+	private static final class Parser
+	{
+		/**
+		 * Регулярное выражение.
+		 */
+		@NotNull
+		private final String regExp;
+
+		/**
+		 * Текущая позиция в выражении.
+		 */
+		private int position;
+
+		/**
+		 * Конструктор для {@code Parser}.
+		 *
+		 * @param regExp регулярное выражение.
+		 */
+		private Parser(@NotNull final String regExp)
+		{
+			this.regExp = regExp;
+			this.position = 0;
+		}
+
+		/**
+		 * Разбирает выражение.
+		 *
+		 * @return корневой узел выражения.
+		 * @throws UnsupportedOperationException если выражение содержит неподдерживаемые конструкции.
+		 */
+		@NotNull
+		private Node parse()
+		{
+			Node node = this.parseAlternation();
+
+			if (this.position < this.regExp.length()) {
+				throw new UnsupportedOperationException();
+			}
+
+			return node;
+		}
+
+		/**
+		 * Разбирает альтернативу.
+		 *
+		 * @return узел альтернативы или последовательности.
+		 */
+		@NotNull
+		private Node parseAlternation()
+		{
+			List<Node> branches = new ArrayList<>();
+			branches.add(this.parseSequence());
+
+			while (this.position < this.regExp.length() && this.regExp.charAt(this.position) == '|')
+			{
+				this.position++;
+				branches.add(this.parseSequence());
+			}
+
+			return branches.size() == 1 ? branches.get(0) : new Alternation(branches);
+		}
+
+		/**
+		 * Разбирает последовательность.
+		 *
+		 * @return узел последовательности.
+		 */
+		@NotNull
+		private Node parseSequence()
+		{
+			List<Node> items = new ArrayList<>();
+
+			while (this.position < this.regExp.length())
+			{
+				char symbol = this.regExp.charAt(this.position);
+
+				if (symbol == '|' || symbol == ')') {
+					break;
+				}
+
+				items.add(this.parseQuantifier(this.parseAtom()));
+			}
+
+			return new Sequence(items);
+		}
+
+		/**
+		 * Разбирает квантификатор после узла.
+		 *
+		 * @param atom узел.
+		 * @return узел повторения, или исходный узел если квантификатора нет.
+		 */
+		@NotNull
+		private Node parseQuantifier(@NotNull final Node atom)
+		{
+			if (this.position >= this.regExp.length()) {
+				return atom;
+			}
+
+			int min;
+			int max;
+
+			switch (this.regExp.charAt(this.position))
+			{
+				case '*' -> { min = 0; max = -1; this.position++; }
+				case '+' -> { min = 1; max = -1; this.position++; }
+				case '?' -> { min = 0; max = 1; this.position++; }
+				case '{' -> {
+					int close = this.regExp.indexOf('}', this.position);
+
+					if (close < 0) {
+						throw new UnsupportedOperationException();
+					}
+
+					String[] bounds = this.regExp.substring(this.position + 1, close).split(",", -1);
+
+					try
+					{
+						min = Integer.parseInt(bounds[0]);
+						max = bounds.length == 1 ? min : bounds[1].isEmpty() ? -1 : Integer.parseInt(bounds[1]);
+					}
+					catch (NumberFormatException exception)
+					{
+						throw new UnsupportedOperationException(exception);
+					}
+
+					if (bounds.length > 2 || min > MAX_REPETITIONS || max > MAX_REPETITIONS || (max >= 0 && max < min)) {
+						throw new UnsupportedOperationException();
+					}
+
+					this.position = close + 1;
+				}
+				default -> {
+					return atom;
+				}
+			}
+
+			if (atom instanceof NotAhead || atom instanceof End) {
+				throw new UnsupportedOperationException();
+			}
+
+			boolean greedy = true;
+
+			if (this.position < this.regExp.length())
+			{
+				char modifier = this.regExp.charAt(this.position);
+
+				if (modifier == '+') {
+					throw new UnsupportedOperationException();
+				}
+
+				if (modifier == '?')
+				{
+					greedy = false;
+					this.position++;
+				}
+			}
+
+			return new Repetition(atom, min, max, greedy);
+		}
+
+		/**
+		 * Разбирает элемент последовательности.
+		 *
+		 * @return узел элемента.
+		 */
+		@NotNull
+		private Node parseAtom()
+		{
+			int codePoint = this.regExp.codePointAt(this.position);
+			this.position += Character.charCount(codePoint);
+
+			return switch (codePoint) {
+				case '(' -> this.parseGroup();
+				case '[' -> this.parseClass();
+				case '.' -> new Any();
+				case '\\' -> this.parseEscape(false);
+				case '$' -> new End();
+				case '^', '*', '+', '?', '{' -> throw new UnsupportedOperationException();
+				default -> new Literal(RuleAutomaton.fold(codePoint));
+			};
+		}
+
+		/**
+		 * Разбирает группу после открывающей скобки.
+		 *
+		 * @return узел группы или просмотра вперёд.
+		 */
+		@NotNull
+		private Node parseGroup()
+		{
+			String name = null;
+			boolean notAhead = false;
+
+			if (this.regExp.startsWith("?<", this.position) &&
+				!this.regExp.startsWith("?<=", this.position) &&
+				!this.regExp.startsWith("?<!", this.position))
+			{
+				int close = this.regExp.indexOf('>', this.position);
+
+				if (close < 0) {
+					throw new UnsupportedOperationException();
+				}
+
+				name = this.regExp.substring(this.position + 2, close);
+				this.position = close + 1;
+			}
+			else if (this.regExp.startsWith("?:", this.position))
+			{
+				this.position += 2;
+			}
+			else if (this.regExp.startsWith("?!", this.position))
+			{
+				notAhead = true;
+				this.position += 2;
+			}
+			else if (this.regExp.startsWith("?", this.position))
+			{
+				throw new UnsupportedOperationException();
+			}
+
+			Node body = this.parseAlternation();
+
+			if (this.position >= this.regExp.length() || this.regExp.charAt(this.position) != ')') {
+				throw new UnsupportedOperationException();
+			}
+
+			this.position++;
+
+			if (notAhead) {
+				return new NotAhead(Parser.toLiteral(body));
+			}
+
+			return new Group(name, body);
+		}
+
+		/**
+		 * Разбирает класс символов после открывающей скобки.
+		 *
+		 * @return узел класса символов.
+		 */
+		@NotNull
+		private Node parseClass()
+		{
+			boolean[] ascii = new boolean[128];
+			boolean negated = false;
+			boolean other = false;
+
+			if (this.position < this.regExp.length() && this.regExp.charAt(this.position) == '^')
+			{
+				negated = true;
+				this.position++;
+			}
+
+			boolean first = true;
+
+			while (true)
+			{
+				if (this.position >= this.regExp.length()) {
+					throw new UnsupportedOperationException();
+				}
+
+				char symbol = this.regExp.charAt(this.position);
+
+				if (symbol == ']')
+				{
+					if (first) {
+						throw new UnsupportedOperationException();
+					}
+
+					this.position++;
+					break;
+				}
+
+				if (symbol == '[' || this.regExp.startsWith("&&", this.position)) {
+					throw new UnsupportedOperationException();
+				}
+
+				first = false;
+				this.position++;
+
+				int low;
+
+				if (symbol == '\\')
+				{
+					Node escape = this.parseEscape(true);
+
+					if (escape instanceof CharClass charClass)
+					{
+						for (int index = 0; index < 128; index++) {
+							ascii[index] |= charClass.ascii[index];
+						}
+
+						other |= charClass.other;
+						continue;
+					}
+
+					low = ((Literal) escape).codePoint();
+				}
+				else
+				{
+					low = symbol;
+				}
+
+				int high = low;
+
+				if (this.position + 1 < this.regExp.length() &&
+					this.regExp.charAt(this.position) == '-' &&
+					this.regExp.charAt(this.position + 1) != ']')
+				{
+					this.position++;
+					char bound = this.regExp.charAt(this.position++);
+
+					if (bound == '[') {
+						throw new UnsupportedOperationException();
+					}
+
+					high = bound == '\\' ? ((Literal) this.requireLiteral(this.parseEscape(true))).codePoint() : bound;
+
+					if (high < low) {
+						throw new UnsupportedOperationException();
+					}
+				}
+
+				for (int codePoint = low; codePoint <= high; codePoint++)
+				{
+					if (codePoint < 128)
+					{
+						ascii[codePoint] = true;
+						ascii[RuleAutomaton.fold(codePoint)] = true;
+
+						if (codePoint >= 'A' && codePoint <= 'Z') {
+							ascii[codePoint - 'A' + 'a'] = true;
+						}
+					}
+					else
+					{
+						throw new UnsupportedOperationException();
+					}
+				}
+			}
+
+			if (negated)
+			{
+				for (int index = 0; index < 128; index++) {
+					ascii[index] = !ascii[index];
+				}
+
+				other = !other;
+			}
+
+			return new CharClass(ascii, other);
+		}
+
+		/**
+		 * Проверяет, что узел является символом.
+		 *
+		 * @param node узел.
+		 * @return узел символа.
+		 */
+		@NotNull
+		private Node requireLiteral(@NotNull final Node node)
+		{
+			if (!(node instanceof Literal)) {
+				throw new UnsupportedOperationException();
+			}
+
+			return node;
+		}
+
+		/**
+		 * Разбирает экранированный символ после обратной косой черты.
+		 *
+		 * @param inClass находится ли символ внутри класса символов.
+		 * @return узел символа или класса символов.
+		 */
+		@NotNull
+		private Node parseEscape(final boolean inClass)
+		{
+			if (this.position >= this.regExp.length()) {
+				throw new UnsupportedOperationException();
+			}
+
+			char symbol = this.regExp.charAt(this.position++);
+
+			return switch (symbol) {
+				case 't' -> new Literal('\t');
+				case 'n' -> new Literal('\n');
+				case 'r' -> new Literal('\r');
+				case 'f' -> new Literal('\f');
+				case 'd', 'D' -> Parser.predefined("0123456789", symbol == 'D');
+				case 'w', 'W' -> Parser.predefined(
+					"abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_0123456789", symbol == 'W'
+				);
+				case 's', 'S' -> Parser.predefined(" \t\n\u000B\f\r", symbol == 'S');
+				default -> {
+					if (Character.isLetterOrDigit(symbol) || symbol >= 128) {
+						throw new UnsupportedOperationException();
+					}
+
+					yield new Literal(symbol);
+				}
+			};
+		}
+
+		/**
+		 * Возвращает предопределённый класс символов.
+		 *
+		 * @param symbols символы класса.
+		 * @param negated является ли класс отрицанием.
+		 * @return узел класса символов.
+		 */
+		@NotNull
+		private static CharClass predefined(@NotNull final String symbols, final boolean negated)
+		{
+			boolean[] ascii = new boolean[128];
+
+			for (int index = 0; index < symbols.length(); index++) {
+				ascii[symbols.charAt(index)] = true;
+			}
+
+			if (negated)
+			{
+				for (int index = 0; index < 128; index++) {
+					ascii[index] = !ascii[index];
+				}
+			}
+
+			return new CharClass(ascii, negated);
+		}
+
+		/**
+		 * Возвращает литерал, которому соответствует узел.
+		 *
+		 * @param node узел.
+		 * @return литерал в верхнем регистре.
+		 * @throws UnsupportedOperationException если узел соответствует не только литералу.
+		 */
+		@NotNull
+		private static String toLiteral(@NotNull final Node node)
+		{
+			if (!(node instanceof Sequence sequence)) {
+				throw new UnsupportedOperationException();
+			}
+
+			StringBuilder literal = new StringBuilder();
+
+			for (Node item : sequence.items())
+			{
+				if (!(item instanceof Literal symbol) || symbol.codePoint() >= 128) {
+					throw new UnsupportedOperationException();
+				}
+
+				literal.append((char) symbol.codePoint());
+			}
+
+			if (literal.length() == 0) {
+				throw new UnsupportedOperationException();
+			}
+
+			return literal.toString();
+		}
+	}
+
+	/**
+	 * Интерфейс узла дерева регулярного выражения.
+	 */
+	private interface Node
+	{
+	}
+
+	/**
+	 * Узел символа.
+	 *
+	 * @param codePoint символ в верхнем регистре US-ASCII.
+	 */
+	private record Literal(int codePoint) implements Node
+	{
+	}
+
+	/**
+	 * Узел любого символа, кроме символов конца строки.
+	 */
+	private record Any() implements Node
+	{
+	}
+
+	/**
+	 * Узел негативного просмотра вперёд литерала.
+	 *
+	 * @param literal литерал в верхнем регистре.
+	 */
+	private record NotAhead(@NotNull String literal) implements Node
+	{
+	}
+
+	/**
+	 * Узел конца строки {@code $}.
+	 */
+	private record End() implements Node
+	{
+	}
+
+	/**
+	 * Узел последовательности.
+	 *
+	 * @param items элементы последовательности.
+	 */
+	private record Sequence(@NotNull List<@NotNull Node> items) implements Node
+	{
+	}
+
+	/**
+	 * Узел группы.
+	 *
+	 * @param name название группы, или {@code null} если группа не именована.
+	 * @param body содержимое группы.
+	 */
+	private record Group(@Nullable String name, @NotNull Node body) implements Node
+	{
+	}
+
+	/**
+	 * Узел альтернативы.
+	 *
+	 * @param branches ветви альтернативы в порядке приоритета.
+	 */
+	private record Alternation(@NotNull List<@NotNull Node> branches) implements Node
+	{
+	}
+
+	/**
+	 * Узел повторения.
+	 *
+	 * @param body повторяемый узел.
+	 * @param min минимальное количество повторений.
+	 * @param max максимальное количество повторений, или {@code -1} если оно не ограничено.
+	 * @param greedy является ли повторение жадным.
+	 */
+	private record Repetition(@NotNull Node body, int min, int max, boolean greedy) implements Node
+	{
+	}
+}
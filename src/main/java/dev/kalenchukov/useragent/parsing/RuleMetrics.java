@@ -0,0 +1,488 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Класс метрик правил определения браузера, устройства и операционной системы.
+ * <p>
+ * Метрики собираются парсером, в {@link ParserSettings} которого заданы метрики, при проверке правил
+ * регулярными выражениями {@link ParserSettings.Engine#REGEX}: количество совпадений каждого правила,
+ * количество правил, проверенных до совпадения, и время определения каждой характеристики.
+ * Без заданных метрик парсер проверяет правила без учёта, и метрики ничего не стоят.
+ * <p>
+ * Счётчики построены на {@link LongAdder} и могут обновляться одновременно из любого количества потоков.
+ * Совпадения учитываются по регулярному выражению правила, поэтому сохраняются для тех же правил
+ * после замены набора правил через {@link UserAgentRulesHolder}.
+ * <p>
+ * Метрики доступны через JMX после регистрации объекта в {@link java.lang.management.ManagementFactory#getPlatformMBeanServer()}
+ * под именем {@link #OBJECT_NAME}, а каждое определение передаётся получателям {@link RuleMetricsListener}.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class RuleMetrics implements RuleMetricsMXBean
+{
+	/**
+	 * Имя объекта метрик в JMX по умолчанию.
+	 */
+	@NotNull
+	public static final String OBJECT_NAME = "dev.kalenchukov.useragent.parsing:type=RuleMetrics";
+
+	/**
+	 * Пустой массив получателей событий.
+	 */
+	private static final RuleMetricsListener @NotNull [] NO_LISTENERS = new RuleMetricsListener[0];
+
+	/**
+	 * Счётчики по характеристикам.
+	 */
+	@NotNull
+	private final Map<@NotNull UserAgentDimension, @NotNull Counters> counters;
+
+	/**
+	 * Получатели событий определения.
+	 */
+	private volatile RuleMetricsListener @NotNull [] listeners;
+
+	/**
+	 * Конструктор для {@code RuleMetrics}.
+	 */
+	public RuleMetrics()
+	{
+		this.counters = new EnumMap<>(UserAgentDimension.class);
+		this.listeners = NO_LISTENERS;
+
+		for (UserAgentDimension dimension : UserAgentDimension.values()) {
+			this.counters.put(dimension, new Counters());
+		}
+	}
+
+	/**
+	 * Добавляет получателя событий определения.
+	 *
+	 * @param listener получатель событий.
+	 * @throws NullPointerException если в качестве {@code listener} передан {@code null}.
+	 */
+	public synchronized void addListener(@NotNull final RuleMetricsListener listener)
+	{
+		Objects.requireNonNull(listener);
+
+		RuleMetricsListener[] listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+
+		this.listeners = listeners;
+	}
+
+	/**
+	 * Удаляет получателя событий определения.
+	 *
+	 * @param listener получатель событий.
+	 * @throws NullPointerException если в качестве {@code listener} передан {@code null}.
+	 */
+	public synchronized void removeListener(@NotNull final RuleMetricsListener listener)
+	{
+		Objects.requireNonNull(listener);
+
+		List<RuleMetricsListener> listeners = new ArrayList<>(Arrays.asList(this.listeners));
+
+		if (listeners.remove(listener)) {
+			this.listeners = listeners.toArray(NO_LISTENERS);
+		}
+	}
+
+	/**
+	 * Возвращает количество определений характеристики.
+	 *
+	 * @param dimension характеристика.
+	 * @return количество определений.
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	public long getDetectionCount(@NotNull final UserAgentDimension dimension)
+	{
+		return this.counters(dimension).detections.sum();
+	}
+
+	/**
+	 * Возвращает количество определений характеристики без совпавшего правила.
+	 *
+	 * @param dimension характеристика.
+	 * @return количество определений без совпавшего правила.
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	public long getMissCount(@NotNull final UserAgentDimension dimension)
+	{
+		return this.counters(dimension).misses.sum();
+	}
+
+	/**
+	 * Возвращает количество проверенных регулярными выражениями правил характеристики.
+	 * <p>
+	 * Отношение к {@link #getDetectionCount(UserAgentDimension)} показывает, сколько правил
+	 * в среднем проверяется до совпадения.
+	 *
+	 * @param dimension характеристика.
+	 * @return количество проверенных правил.
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	public long getEvaluatedRuleCount(@NotNull final UserAgentDimension dimension)
+	{
+		return this.counters(dimension).evaluated.sum();
+	}
+
+	/**
+	 * Возвращает наибольшее количество правил характеристики, проверенных за одно определение.
+	 *
+	 * @param dimension характеристика.
+	 * @return наибольшее количество проверенных правил.
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	public long getMaxEvaluatedRules(@NotNull final UserAgentDimension dimension)
+	{
+		return this.counters(dimension).maxEvaluated.get();
+	}
+
+	/**
+	 * Возвращает время определения характеристики.
+	 *
+	 * @param dimension характеристика.
+	 * @return время определения в наносекундах.
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	public long getTimeNanos(@NotNull final UserAgentDimension dimension)
+	{
+		return this.counters(dimension).nanos.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param dimension {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	@NotNull
+	@Override
+	public Map<@NotNull String, @NotNull Long> getRuleHits(@NotNull final UserAgentDimension dimension)
+	{
+		Counters counters = this.counters(dimension);
+		Map<String, Long> hits = new LinkedHashMap<>();
+
+		for (String regExp : counters.regExps) {
+			hits.put(regExp, counters.hits.get(regExp).sum());
+		}
+
+		return hits;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public Map<@NotNull UserAgentDimension, @NotNull Long> getDetectionCounts()
+	{
+		return this.collect(this::getDetectionCount);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public Map<@NotNull UserAgentDimension, @NotNull Long> getMissCounts()
+	{
+		return this.collect(this::getMissCount);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public Map<@NotNull UserAgentDimension, @NotNull Long> getEvaluatedRuleCounts()
+	{
+		return this.collect(this::getEvaluatedRuleCount);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public Map<@NotNull UserAgentDimension, @NotNull Long> getMaxEvaluatedRules()
+	{
+		return this.collect(this::getMaxEvaluatedRules);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public Map<@NotNull UserAgentDimension, @NotNull Long> getTimeNanos()
+	{
+		return this.collect(this::getTimeNanos);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param dimension {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	@NotNull
+	@Override
+	public List<@NotNull String> getUnusedRules(@NotNull final UserAgentDimension dimension)
+	{
+		List<String> unused = new ArrayList<>();
+
+		for (Map.Entry<String, Long> hits : this.getRuleHits(dimension).entrySet())
+		{
+			if (hits.getValue() == 0) {
+				unused.add(hits.getKey());
+			}
+		}
+
+		return unused;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Обнуление выполняется без блокировок, поэтому определения, выполняемые одновременно с ним,
+	 * могут быть учтены частично.
+	 */
+	@Override
+	public void reset()
+	{
+		for (Counters counters : this.counters.values())
+		{
+			counters.detections.reset();
+			counters.misses.reset();
+			counters.evaluated.reset();
+			counters.maxEvaluated.reset();
+			counters.nanos.reset();
+
+			for (LongAdder hits : counters.hits.values()) {
+				hits.reset();
+			}
+		}
+	}
+
+	/**
+	 * Возвращает учёт определений характеристики по таблице правил.
+	 * <p>
+	 * Правила таблицы становятся текущими правилами характеристики.
+	 *
+	 * @param dimension характеристика.
+	 * @param rules таблица правил.
+	 * @return учёт определений.
+	 */
+	@NotNull
+	Recorder recorder(@NotNull final UserAgentDimension dimension, @NotNull final RuleTable<?> rules)
+	{
+		Counters counters = this.counters(dimension);
+		List<String> regExps = new ArrayList<>(rules.getRules().size());
+		LongAdder[] hits = new LongAdder[rules.getRules().size()];
+
+		for (int index = 0; index < hits.length; index++)
+		{
+			String regExp = rules.getRules().get(index).getRegExp();
+
+			regExps.add(regExp);
+			hits[index] = counters.hits.computeIfAbsent(regExp, key -> new LongAdder());
+		}
+
+		counters.regExps = List.copyOf(regExps);
+
+		return new Recorder(dimension, counters, hits);
+	}
+
+	/**
+	 * Возвращает счётчики характеристики.
+	 *
+	 * @param dimension характеристика.
+	 * @return счётчики.
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	@NotNull
+	private Counters counters(@NotNull final UserAgentDimension dimension)
+	{
+		Objects.requireNonNull(dimension);
+
+		return this.counters.get(dimension);
+	}
+
+	/**
+	 * Собирает значения метрики по характеристикам.
+	 *
+	 * @param metric метрика характеристики.
+	 * @return значения метрики по характеристикам.
+	 */
+	@NotNull
+	private Map<@NotNull UserAgentDimension, @NotNull Long> collect(@NotNull final ToLongFunction<@NotNull UserAgentDimension> metric)
+	{
+		Map<UserAgentDimension, Long> values = new EnumMap<>(UserAgentDimension.class);
+
+		for (UserAgentDimension dimension : UserAgentDimension.values()) {
+			values.put(dimension, metric.applyAsLong(dimension));
+		}
+
+		return values;
+	}
+
+	/**
+	 * Класс учёта определений одной характеристики по одной таблице правил.
+	 */
+	final class Recorder
+	{
+		/**
+		 * Характеристика.
+		 */
+		@NotNull
+		private final UserAgentDimension dimension;
+
+		/**
+		 * Счётчики характеристики.
+		 */
+		@NotNull
+		private final Counters counters;
+
+		/**
+		 * Счётчики совпадений по индексу правила в таблице.
+		 */
+		private final LongAdder @NotNull [] hits;
+
+		/**
+		 * Конструктор для {@code Recorder}.
+		 *
+		 * @param dimension характеристика.
+		 * @param counters счётчики характеристики.
+		 * @param hits счётчики совпадений по индексу правила в таблице.
+		 */
+		private Recorder(@NotNull final UserAgentDimension dimension,
+						 @NotNull final Counters counters,
+						 final LongAdder @NotNull [] hits)
+		{
+			this.dimension = dimension;
+			this.counters = counters;
+			this.hits = hits;
+		}
+
+		/**
+		 * Учитывает определение характеристики.
+		 *
+		 * @param rule индекс совпавшего правила в таблице, или {@code -1} если ни одно правило не совпало.
+		 * @param regExp регулярное выражение совпавшего правила, или {@code null} если ни одно правило не совпало.
+		 * @param evaluatedRules количество проверенных правил.
+		 * @param nanos время определения в наносекундах.
+		 */
+		void record(final int rule, @Nullable final String regExp, final int evaluatedRules, final long nanos)
+		{
+			this.counters.detections.increment();
+			this.counters.evaluated.add(evaluatedRules);
+			this.counters.maxEvaluated.accumulate(evaluatedRules);
+			this.counters.nanos.add(nanos);
+
+			if (rule < 0) {
+				this.counters.misses.increment();
+			}
+			else {
+				this.hits[rule].increment();
+			}
+
+			for (RuleMetricsListener listener : RuleMetrics.this.listeners) {
+				listener.onDetection(this.dimension, regExp, evaluatedRules, nanos);
+			}
+		}
+	}
+
+	/**
+	 * Класс счётчиков одной характеристики.
+	 */
+	private static final class Counters
+	{
+		/**
+		 * Количество определений.
+		 */
+		@NotNull
+		private final LongAdder detections = new LongAdder();
+
+		/**
+		 * Количество определений без совпавшего правила.
+		 */
+		@NotNull
+		private final LongAdder misses = new LongAdder();
+
+		/**
+		 * Количество проверенных правил.
+		 */
+		@NotNull
+		private final LongAdder evaluated = new LongAdder();
+
+		/**
+		 * Наибольшее количество правил, проверенных за одно определение.
+		 */
+		@NotNull
+		private final LongAccumulator maxEvaluated = new LongAccumulator(Math::max, 0);
+
+		/**
+		 * Время определения в наносекундах.
+		 */
+		@NotNull
+		private final LongAdder nanos = new LongAdder();
+
+		/**
+		 * Количество совпадений по регулярному выражению правила.
+		 */
+		@NotNull
+		private final Map<@NotNull String, @NotNull LongAdder> hits = new ConcurrentHashMap<>();
+
+		/**
+		 * Регулярные выражения текущих правил в порядке приоритета.
+		 */
+		@NotNull
+		private volatile List<@NotNull String> regExps = List.of();
+	}
+}
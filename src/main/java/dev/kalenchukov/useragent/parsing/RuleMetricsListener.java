@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Интерфейс получателя событий определения характеристик клиента от {@link RuleMetrics}.
+ * <p>
+ * Получатель позволяет передавать метрики правил в любую систему мониторинга
+ * без зависимости библиотеки от неё. Метод вызывается в потоке парсинга после каждого
+ * определения характеристики, поэтому должен выполняться быстро и не выбрасывать исключений.
+ *
+ * @author Алексей Каленчуков
+ */
+@FunctionalInterface
+public interface RuleMetricsListener
+{
+	/**
+	 * Вызывается после определения характеристики клиента.
+	 *
+	 * @param dimension определённая характеристика.
+	 * @param regExp регулярное выражение совпавшего правила, или {@code null} если ни одно правило не совпало.
+	 * @param evaluatedRules количество проверенных регулярными выражениями правил.
+	 * @param nanos время определения в наносекундах.
+	 */
+	void onDetection(@NotNull UserAgentDimension dimension, @Nullable String regExp, int evaluatedRules, long nanos);
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Интерфейс управления метриками правил определения через JMX.
+ * <p>
+ * Характеристики задаются константами {@link UserAgentDimension}, которые в JMX представлены их названиями.
+ *
+ * @author Алексей Каленчуков
+ * @see RuleMetrics
+ */
+public interface RuleMetricsMXBean
+{
+	/**
+	 * Возвращает количество определений по характеристикам.
+	 *
+	 * @return количество определений по характеристикам.
+	 */
+	@NotNull
+	Map<@NotNull UserAgentDimension, @NotNull Long> getDetectionCounts();
+
+	/**
+	 * Возвращает количество определений без совпавшего правила по характеристикам.
+	 *
+	 * @return количество определений без совпавшего правила по характеристикам.
+	 */
+	@NotNull
+	Map<@NotNull UserAgentDimension, @NotNull Long> getMissCounts();
+
+	/**
+	 * Возвращает количество проверенных регулярными выражениями правил по характеристикам.
+	 *
+	 * @return количество проверенных правил по характеристикам.
+	 */
+	@NotNull
+	Map<@NotNull UserAgentDimension, @NotNull Long> getEvaluatedRuleCounts();
+
+	/**
+	 * Возвращает наибольшее количество правил, проверенных за одно определение, по характеристикам.
+	 *
+	 * @return наибольшее количество проверенных правил по характеристикам.
+	 */
+	@NotNull
+	Map<@NotNull UserAgentDimension, @NotNull Long> getMaxEvaluatedRules();
+
+	/**
+	 * Возвращает время определения в наносекундах по характеристикам.
+	 *
+	 * @return время определения по характеристикам.
+	 */
+	@NotNull
+	Map<@NotNull UserAgentDimension, @NotNull Long> getTimeNanos();
+
+	/**
+	 * Возвращает количество совпадений правил текущего набора в порядке их приоритета.
+	 *
+	 * @param dimension характеристика.
+	 * @return количество совпадений по регулярным выражениям правил.
+	 */
+	@NotNull
+	Map<@NotNull String, @NotNull Long> getRuleHits(@NotNull UserAgentDimension dimension);
+
+	/**
+	 * Возвращает правила текущего набора, которые ни разу не совпали.
+	 *
+	 * @param dimension характеристика.
+	 * @return регулярные выражения правил без совпадений в порядке их приоритета.
+	 */
+	@NotNull
+	List<@NotNull String> getUnusedRules(@NotNull UserAgentDimension dimension);
+
+	/**
+	 * Обнуляет все метрики.
+	 */
+	void reset();
+}
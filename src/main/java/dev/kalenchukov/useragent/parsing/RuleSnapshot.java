@@ -0,0 +1,289 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Класс двоичного снимка набора правил.
+ * <p>
+ * Снимок содержит версию набора, правила каждого раздела в порядке приоритета вместе с выделенными
+ * литералами и таблицы индексов литералов. При чтении снимка не нужно разбирать текст правил,
+ * выделять литералы и строить индексы, а регулярные выражения, проверенные при создании снимка,
+ * компилируются при первой проверке правила.
+ * <p>
+ * Снимок встроенного набора правил создаётся при сборке методом {@link #main(String[])}
+ * и хранит контрольную сумму файла правил, по которой обнаруживается устаревший снимок.
+ *
+ * @author Алексей Каленчуков
+ */
+final class RuleSnapshot
+{
+	/**
+	 * Название ресурса снимка встроенного набора правил.
+	 */
+	@NotNull
+	static final String RESOURCE = "rules.bin";
+
+	/**
+	 * Сигнатура снимка.
+	 */
+	private static final int MAGIC = 0x55415253;
+
+	/**
+	 * Версия формата снимка.
+	 */
+	private static final int FORMAT = 1;
+
+	/**
+	 * Конструктор для {@code RuleSnapshot}.
+	 */
+	private RuleSnapshot()
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Создаёт снимок набора правил из файла правил.
+	 * <p>
+	 * Вызывается при сборке.
+	 *
+	 * @param args путь к файлу правил и путь к файлу снимка.
+	 * @throws IllegalArgumentException если количество аргументов не равно двум.
+	 * @throws IOException если файл правил не удалось прочитать, он содержит ошибки,
+	 * или снимок не удалось записать.
+	 */
+	public static void main(@NotNull final String @NotNull [] args) throws IOException
+	{
+		if (args.length != 2) {
+			throw new IllegalArgumentException("Ожидаются путь к файлу правил и путь к файлу снимка.");
+		}
+
+		byte[] source = Files.readAllBytes(Path.of(args[0]));
+		UserAgentRules rules = UserAgentRules.load(new ByteArrayInputStream(source));
+
+		try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(Path.of(args[1]))))
+		{
+			RuleSnapshot.write(rules, RuleSnapshot.checksum(source), output);
+		}
+	}
+
+	/**
+	 * Возвращает контрольную сумму файла правил.
+	 *
+	 * @param source содержимое файла правил.
+	 * @return контрольная сумма.
+	 * @throws NullPointerException если в качестве {@code source} передан {@code null}.
+	 */
+	static long checksum(final byte @NotNull [] source)
+	{
+		Objects.requireNonNull(source);
+
+		CRC32 checksum = new CRC32();
+		checksum.update(source);
+
+		return checksum.getValue();
+	}
+
+	/**
+	 * Записывает снимок набора правил.
+	 *
+	 * @param rules набор правил.
+	 * @param checksum контрольная сумма файла, из которого загружен набор правил.
+	 * @param stream получатель снимка.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code stream} передан {@code null}.
+	 * @throws IOException если снимок не удалось записать.
+	 */
+	static void write(@NotNull final UserAgentRules rules, final long checksum, @NotNull final OutputStream stream) throws IOException
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(stream);
+
+		DataOutputStream output = new DataOutputStream(stream);
+		output.writeInt(MAGIC);
+		output.writeInt(FORMAT);
+		output.writeLong(checksum);
+		RuleSnapshot.writeString(output, rules.getVersion());
+		RuleSnapshot.writeTable(output, rules.getBrowserRules());
+		RuleSnapshot.writeTable(output, rules.getDeviceRules());
+		RuleSnapshot.writeTable(output, rules.getOperatingSystemRules());
+		output.flush();
+	}
+
+	/**
+	 * Читает снимок набора правил.
+	 *
+	 * @param buffer снимок.
+	 * @param checksum ожидаемая контрольная сумма файла правил.
+	 * @return набор правил.
+	 * @throws NullPointerException если в качестве {@code buffer} передан {@code null}.
+	 * @throws IOException если снимок повреждён, имеет другой формат или создан из другого файла правил.
+	 */
+	@NotNull
+	static UserAgentRules read(@NotNull final ByteBuffer buffer, final long checksum) throws IOException
+	{
+		Objects.requireNonNull(buffer);
+
+		try
+		{
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+				throw new IOException("Неизвестный формат снимка правил.");
+			}
+
+			if (buffer.getLong() != checksum) {
+				throw new IOException("Снимок правил создан из другого файла правил.");
+			}
+
+			String version = RuleSnapshot.readString(buffer);
+			RuleTable<BrowserType> browserRules = RuleSnapshot.readTable(buffer, BrowserType.class);
+			RuleTable<DeviceType> deviceRules = RuleSnapshot.readTable(buffer, DeviceType.class);
+			RuleTable<OperatingSystemType> operatingSystemRules =
+				RuleSnapshot.readTable(buffer, OperatingSystemType.class);
+
+			if (buffer.hasRemaining()) {
+				throw new IOException("Снимок правил повреждён.");
+			}
+
+			return new UserAgentRules(version, browserRules, deviceRules, operatingSystemRules);
+		}
+		catch (BufferUnderflowException | IllegalArgumentException exception)
+		{
+			throw new IOException("Снимок правил повреждён.", exception);
+		}
+	}
+
+	/**
+	 * Записывает таблицу правил.
+	 *
+	 * @param output получатель снимка.
+	 * @param table таблица правил.
+	 * @param <T> тип значения, которое определяют правила.
+	 * @throws IOException если таблицу не удалось записать.
+	 */
+	private static <T extends Enum<T>> void writeTable(@NotNull final DataOutputStream output,
+													   @NotNull final RuleTable<T> table) throws IOException
+	{
+		List<Rule<T>> rules = table.getRules();
+		output.writeInt(rules.size());
+
+		for (Rule<T> rule : rules)
+		{
+			RuleSnapshot.writeString(output, rule.getType().name());
+			RuleSnapshot.writeString(output, rule.getRegExp());
+			output.writeBoolean(rule.getLiteral() != null);
+
+			if (rule.getLiteral() != null) {
+				RuleSnapshot.writeString(output, rule.getLiteral());
+			}
+		}
+
+		table.getLiteralIndex().write(output);
+	}
+
+	/**
+	 * Читает таблицу правил.
+	 *
+	 * @param buffer снимок.
+	 * @param type класс значения, которое определяют правила.
+	 * @param <T> тип значения, которое определяют правила.
+	 * @return таблица правил.
+	 * @throws IOException если таблица повреждена.
+	 * @throws IllegalArgumentException если значение правила неизвестно.
+	 */
+	@NotNull
+	private static <T extends Enum<T>> RuleTable<T> readTable(@NotNull final ByteBuffer buffer,
+															  @NotNull final Class<T> type) throws IOException
+	{
+		int count = buffer.getInt();
+
+		if (count < 0 || count > buffer.remaining()) {
+			throw new IOException("Снимок правил повреждён.");
+		}
+
+		List<Rule<T>> rules = new ArrayList<>(count);
+
+		for (int index = 0; index < count; index++)
+		{
+			T value = Enum.valueOf(type, RuleSnapshot.readString(buffer));
+			String regExp = RuleSnapshot.readString(buffer);
+			String literal = buffer.get() != 0 ? RuleSnapshot.readString(buffer) : null;
+
+			rules.add(new Rule<>(regExp, value, literal));
+		}
+
+		return new RuleTable<>(rules, LiteralIndex.read(buffer, count));
+	}
+
+	/**
+	 * Записывает строку в кодировке UTF-8 с предшествующей длиной.
+	 *
+	 * @param output получатель снимка.
+	 * @param value строка.
+	 * @throws IOException если строку не удалось записать.
+	 */
+	private static void writeString(@NotNull final DataOutputStream output, @NotNull final String value) throws IOException
+	{
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Читает строку, записанную методом {@link #writeString(DataOutputStream, String)}.
+	 *
+	 * @param buffer снимок.
+	 * @return строка.
+	 * @throws IOException если строка повреждена.
+	 */
+	@NotNull
+	private static String readString(@NotNull final ByteBuffer buffer) throws IOException
+	{
+		int length = buffer.getInt();
+
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IOException("Снимок правил повреждён.");
+		}
+
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
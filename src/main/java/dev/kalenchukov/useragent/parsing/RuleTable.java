@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Класс неизменяемой таблицы правил определения по строке user-agent.
+ * <p>
+ * Регулярные выражения компилируются один раз при создании таблицы, после чего
+ * таблица может использоваться совместно из любого количества потоков.
+ * <p>
+ * Из каждого правила выделяется обязательный литерал, по которым строится {@link LiteralIndex}.
+ * За один проход по строке user-agent индекс находит правила-кандидаты, и только они
+ * проверяются регулярными выражениями в исходном порядке приоритета.
+ *
+ * @param <T> тип значения, которое определяют правила.
+ * @author Алексей Каленчуков
+ */
+final class RuleTable<T extends Enum<T>>
+{
+	/**
+	 * Правила в порядке их приоритета.
+	 */
+	@NotNull
+	private final List<@NotNull Rule<T>> rules;
+
+	/**
+	 * Индекс литералов правил, где идентификатор литерала равен индексу правила.
+	 */
+	@NotNull
+	private final LiteralIndex literalIndex;
+
+	/**
+	 * Индексы правил без литерала, которые являются кандидатами для любой строки.
+	 */
+	@NotNull
+	private final BitSet unconditional;
+
+	/**
+	 * Конструктор для {@code RuleTable}.
+	 *
+	 * @param regExps регулярные выражения и определяемые ими значения в порядке приоритета.
+	 * @throws NullPointerException если в качестве {@code regExps} передан {@code null}.
+	 */
+	RuleTable(@NotNull final Map<@NotNull String, @NotNull T> regExps)
+	{
+		Objects.requireNonNull(regExps);
+
+		List<Rule<T>> rules = new ArrayList<>(regExps.size());
+
+		for (Map.Entry<String, T> regExp : regExps.entrySet()) {
+			rules.add(new Rule<>(regExp.getKey(), regExp.getValue()));
+		}
+
+		this.rules = Collections.unmodifiableList(rules);
+
+		List<String> literals = new ArrayList<>(rules.size());
+		this.unconditional = new BitSet(rules.size());
+
+		for (int index = 0; index < rules.size(); index++)
+		{
+			String literal = rules.get(index).getLiteral();
+			literals.add(literal);
+
+			if (literal == null) {
+				this.unconditional.set(index);
+			}
+		}
+
+		this.literalIndex = new LiteralIndex(literals);
+	}
+
+	/**
+	 * Конструктор для {@code RuleTable} с заранее построенным индексом литералов.
+	 *
+	 * @param rules правила в порядке приоритета.
+	 * @param literalIndex индекс литералов правил, где идентификатор литерала равен индексу правила.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code literalIndex} передан {@code null}.
+	 */
+	RuleTable(@NotNull final List<@NotNull Rule<T>> rules, @NotNull final LiteralIndex literalIndex)
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(literalIndex);
+
+		this.rules = List.copyOf(rules);
+		this.literalIndex = literalIndex;
+		this.unconditional = new BitSet(rules.size());
+
+		for (int index = 0; index < rules.size(); index++)
+		{
+			if (rules.get(index).getLiteral() == null) {
+				this.unconditional.set(index);
+			}
+		}
+	}
+
+	/**
+	 * Возвращает правила в порядке их приоритета.
+	 *
+	 * @return неизменяемую коллекцию правил.
+	 */
+	@NotNull
+	List<@NotNull Rule<T>> getRules()
+	{
+		return this.rules;
+	}
+
+	/**
+	 * Возвращает индекс литералов правил.
+	 *
+	 * @return индекс литералов.
+	 */
+	@NotNull
+	LiteralIndex getLiteralIndex()
+	{
+		return this.literalIndex;
+	}
+
+	/**
+	 * Возвращает правила-кандидаты для строки user-agent в порядке их приоритета.
+	 * <p>
+	 * Правила, литерал которых не содержится в строке, не могут ей соответствовать и пропускаются.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return коллекцию правил-кандидатов.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 */
+	@NotNull
+	List<@NotNull Rule<T>> select(@NotNull final CharSequence userAgent)
+	{
+		BitSet candidates = this.candidates(userAgent);
+		List<Rule<T>> rules = new ArrayList<>(candidates.cardinality());
+
+		for (int index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+			rules.add(this.rules.get(index));
+		}
+
+		return rules;
+	}
+
+	/**
+	 * Возвращает индексы правил-кандидатов для строки user-agent.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return индексы правил-кандидатов.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 */
+	@NotNull
+	BitSet candidates(@NotNull final CharSequence userAgent)
+	{
+		Objects.requireNonNull(userAgent);
+
+		BitSet candidates = (BitSet) this.unconditional.clone();
+		this.literalIndex.collect(userAgent, candidates);
+
+		return candidates;
+	}
+
+	/**
+	 * Записывает индексы правил-кандидатов для строки user-agent в указанное множество.
+	 * <p>
+	 * Прежнее содержимое множества удаляется. Повторно используемое множество
+	 * позволяет выбирать кандидатов без создания новых объектов.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param candidates множество, в которое записываются индексы правил-кандидатов.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code candidates} передан {@code null}.
+	 */
+	void candidates(@NotNull final CharSequence userAgent, @NotNull final BitSet candidates)
+	{
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(candidates);
+
+		candidates.clear();
+		candidates.or(this.unconditional);
+		this.literalIndex.collect(userAgent, candidates);
+	}
+}
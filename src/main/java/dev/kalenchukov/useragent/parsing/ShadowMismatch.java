@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Класс расхождения результатов механизмов определения, найденного {@link ShadowMode}.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class ShadowMismatch
+{
+	/**
+	 * Отформатированная строка user-agent.
+	 */
+	@NotNull
+	private final String userAgent;
+
+	/**
+	 * Результат эталонного механизма.
+	 */
+	@NotNull
+	private final UserAgentInfo expected;
+
+	/**
+	 * Результат проверяемого механизма.
+	 */
+	@NotNull
+	private final UserAgentInfo actual;
+
+	/**
+	 * Характеристики, по которым результаты расходятся.
+	 */
+	@NotNull
+	private final Set<@NotNull UserAgentDimension> dimensions;
+
+	/**
+	 * Конструктор для {@code ShadowMismatch}.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param expected результат эталонного механизма.
+	 * @param actual результат проверяемого механизма.
+	 * @param dimensions характеристики, по которым результаты расходятся.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code expected} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code actual} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code dimensions} передан {@code null}.
+	 */
+	ShadowMismatch(@NotNull final String userAgent,
+				   @NotNull final UserAgentInfo expected,
+				   @NotNull final UserAgentInfo actual,
+				   @NotNull final Set<@NotNull UserAgentDimension> dimensions)
+	{
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(expected);
+		Objects.requireNonNull(actual);
+		Objects.requireNonNull(dimensions);
+
+		this.userAgent = userAgent;
+		this.expected = expected;
+		this.actual = actual;
+		this.dimensions = Collections.unmodifiableSet(dimensions);
+	}
+
+	/**
+	 * Возвращает отформатированную строку user-agent.
+	 *
+	 * @return отформатированная строка user-agent.
+	 */
+	@NotNull
+	public String getUserAgent()
+	{
+		return this.userAgent;
+	}
+
+	/**
+	 * Возвращает результат эталонного механизма, проверяющего правила регулярными выражениями.
+	 *
+	 * @return результат эталонного механизма.
+	 */
+	@NotNull
+	public UserAgentInfo getExpected()
+	{
+		return this.expected;
+	}
+
+	/**
+	 * Возвращает результат проверяемого механизма.
+	 *
+	 * @return результат проверяемого механизма.
+	 */
+	@NotNull
+	public UserAgentInfo getActual()
+	{
+		return this.actual;
+	}
+
+	/**
+	 * Возвращает характеристики, по которым результаты расходятся.
+	 *
+	 * @return неизменяемое множество характеристик.
+	 */
+	@NotNull
+	public Set<@NotNull UserAgentDimension> getDimensions()
+	{
+		return this.dimensions;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public String toString()
+	{
+		return "ShadowMismatch{" +
+			"userAgent=" + this.userAgent +
+			", dimensions=" + this.dimensions +
+			", expected=" + this.expected +
+			", actual=" + this.actual +
+			"}";
+	}
+}
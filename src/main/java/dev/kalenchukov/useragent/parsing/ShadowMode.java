@@ -0,0 +1,443 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Класс теневой проверки механизма определения на реальных строках user-agent.
+ * <p>
+ * Парсер, в {@link ParserSettings} которого задана теневая проверка, передаёт ей случайную выборку
+ * разобранных строк. Каждая строка выборки в фоновом {@link Executor} определяется эталонным механизмом,
+ * проверяющим все правила регулярными выражениями по порядку без отбора кандидатов по литералам,
+ * и проверяемым механизмом, после чего результаты сравниваются по каждой характеристике.
+ * Парсинг не ждёт сравнения, а результат парсинга не зависит от теневой проверки.
+ * <p>
+ * Количество одновременно ожидающих и выполняемых сравнений ограничено: строка, для которой
+ * предел достигнут, не проверяется и учитывается как отклонённая, поэтому при высокой нагрузке
+ * сравнения не накапливаются. По умолчанию сравнения выполняются в отдельном потоке теневой проверки,
+ * а не в общем пуле приложения.
+ * <p>
+ * Количество совпадений и расхождений считается по характеристикам, а последние расхождения
+ * хранятся в ограниченном кольцевом буфере. Строки, результат которых взят из кэша, не проверяются.
+ * Одна теневая проверка может использоваться несколькими парсерами.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class ShadowMode
+{
+	/**
+	 * Наибольшее количество одновременных сравнений по умолчанию.
+	 */
+	public static final int DEFAULT_MAX_PENDING = 1024;
+
+	/**
+	 * Время простоя, после которого поток исполнителя по умолчанию завершается, в секундах.
+	 */
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	/**
+	 * Проверяемый механизм определения.
+	 */
+	@NotNull
+	private final ParserSettings.Engine engine;
+
+	/**
+	 * Доля проверяемых строк.
+	 */
+	private final double sampleRate;
+
+	/**
+	 * Исполнитель сравнений.
+	 */
+	@NotNull
+	private final Executor executor;
+
+	/**
+	 * Наибольшее количество хранимых расхождений.
+	 */
+	private final int capacity;
+
+	/**
+	 * Разрешения на сравнения, ожидающие выполнения или выполняемые.
+	 */
+	@NotNull
+	private final Semaphore pending;
+
+	/**
+	 * Последние расхождения от старых к новым.
+	 */
+	@NotNull
+	private final Deque<@NotNull ShadowMismatch> mismatches;
+
+	/**
+	 * Количество совпадений по характеристикам.
+	 */
+	@NotNull
+	private final Map<@NotNull UserAgentDimension, @NotNull LongAdder> agreements;
+
+	/**
+	 * Количество расхождений по характеристикам.
+	 */
+	@NotNull
+	private final Map<@NotNull UserAgentDimension, @NotNull LongAdder> disagreements;
+
+	/**
+	 * Количество строк, отклонённых исполнителем.
+	 */
+	@NotNull
+	private final LongAdder rejectedCount;
+
+	/**
+	 * Механизмы по последнему использованному набору правил.
+	 */
+	@Nullable
+	private volatile Engines engines;
+
+	/**
+	 * Конструктор для {@code ShadowMode} со сравнением в отдельном потоке теневой проверки.
+	 * <p>
+	 * Поток создаётся при первом сравнении, является демоном и завершается после простоя.
+	 * Одновременно выполняется или ожидает не больше {@link #DEFAULT_MAX_PENDING} сравнений.
+	 *
+	 * @param engine проверяемый механизм определения.
+	 * @param sampleRate доля проверяемых строк от {@code 0} до {@code 1}.
+	 * @param capacity наибольшее количество хранимых расхождений.
+	 * @throws NullPointerException если в качестве {@code engine} передан {@code null}.
+	 * @throws IllegalArgumentException если {@code sampleRate} вне диапазона от {@code 0} до {@code 1}.
+	 * @throws IllegalArgumentException если {@code capacity} меньше {@code 1}.
+	 */
+	public ShadowMode(@NotNull final ParserSettings.Engine engine, final double sampleRate, final int capacity)
+	{
+		this(engine, sampleRate, capacity, ShadowMode.createExecutor(), DEFAULT_MAX_PENDING);
+	}
+
+	/**
+	 * Конструктор для {@code ShadowMode} с не больше {@link #DEFAULT_MAX_PENDING} одновременными сравнениями.
+	 *
+	 * @param engine проверяемый механизм определения.
+	 * @param sampleRate доля проверяемых строк от {@code 0} до {@code 1}.
+	 * @param capacity наибольшее количество хранимых расхождений.
+	 * @param executor исполнитель сравнений.
+	 * @throws NullPointerException если в качестве {@code engine} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code executor} передан {@code null}.
+	 * @throws IllegalArgumentException если {@code sampleRate} вне диапазона от {@code 0} до {@code 1}.
+	 * @throws IllegalArgumentException если {@code capacity} меньше {@code 1}.
+	 */
+	public ShadowMode(@NotNull final ParserSettings.Engine engine,
+					  final double sampleRate,
+					  final int capacity,
+					  @NotNull final Executor executor)
+	{
+		this(engine, sampleRate, capacity, executor, DEFAULT_MAX_PENDING);
+	}
+
+	/**
+	 * Конструктор для {@code ShadowMode}.
+	 *
+	 * @param engine проверяемый механизм определения.
+	 * @param sampleRate доля проверяемых строк от {@code 0} до {@code 1}.
+	 * @param capacity наибольшее количество хранимых расхождений.
+	 * @param executor исполнитель сравнений.
+	 * @param maxPending наибольшее количество сравнений, ожидающих выполнения или выполняемых.
+	 * @throws NullPointerException если в качестве {@code engine} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code executor} передан {@code null}.
+	 * @throws IllegalArgumentException если {@code sampleRate} вне диапазона от {@code 0} до {@code 1}.
+	 * @throws IllegalArgumentException если {@code capacity} или {@code maxPending} меньше {@code 1}.
+	 */
+	public ShadowMode(@NotNull final ParserSettings.Engine engine,
+					  final double sampleRate,
+					  final int capacity,
+					  @NotNull final Executor executor,
+					  final int maxPending)
+	{
+		Objects.requireNonNull(engine);
+		Objects.requireNonNull(executor);
+
+		if (!(sampleRate >= 0 && sampleRate <= 1)) {
+			throw new IllegalArgumentException("Доля проверяемых строк должна быть от 0 до 1.");
+		}
+
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Количество хранимых расхождений должно быть больше 0.");
+		}
+
+		if (maxPending < 1) {
+			throw new IllegalArgumentException("Количество одновременных сравнений должно быть больше 0.");
+		}
+
+		this.engine = engine;
+		this.sampleRate = sampleRate;
+		this.capacity = capacity;
+		this.executor = executor;
+		this.pending = new Semaphore(maxPending);
+		this.mismatches = new ArrayDeque<>(capacity);
+		this.agreements = new EnumMap<>(UserAgentDimension.class);
+		this.disagreements = new EnumMap<>(UserAgentDimension.class);
+		this.rejectedCount = new LongAdder();
+		this.engines = null;
+
+		for (UserAgentDimension dimension : UserAgentDimension.values())
+		{
+			this.agreements.put(dimension, new LongAdder());
+			this.disagreements.put(dimension, new LongAdder());
+		}
+	}
+
+	/**
+	 * Возвращает проверяемый механизм определения.
+	 *
+	 * @return проверяемый механизм определения.
+	 */
+	@NotNull
+	public ParserSettings.Engine getEngine()
+	{
+		return this.engine;
+	}
+
+	/**
+	 * Возвращает долю проверяемых строк.
+	 *
+	 * @return доля проверяемых строк от {@code 0} до {@code 1}.
+	 */
+	public double getSampleRate()
+	{
+		return this.sampleRate;
+	}
+
+	/**
+	 * Возвращает количество совпадений результатов по характеристике.
+	 *
+	 * @param dimension характеристика.
+	 * @return количество совпадений.
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	public long getAgreementCount(@NotNull final UserAgentDimension dimension)
+	{
+		Objects.requireNonNull(dimension);
+
+		return this.agreements.get(dimension).sum();
+	}
+
+	/**
+	 * Возвращает количество расхождений результатов по характеристике.
+	 *
+	 * @param dimension характеристика.
+	 * @return количество расхождений.
+	 * @throws NullPointerException если в качестве {@code dimension} передан {@code null}.
+	 */
+	public long getDisagreementCount(@NotNull final UserAgentDimension dimension)
+	{
+		Objects.requireNonNull(dimension);
+
+		return this.disagreements.get(dimension).sum();
+	}
+
+	/**
+	 * Возвращает количество строк выборки, которые не были проверены, потому что достигнут предел
+	 * одновременных сравнений или исполнитель отказался их принять.
+	 *
+	 * @return количество отклонённых строк.
+	 */
+	public long getRejectedCount()
+	{
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Возвращает последние расхождения.
+	 *
+	 * @return расхождения от старых к новым, не больше указанного в конструкторе количества.
+	 */
+	@NotNull
+	public synchronized List<@NotNull ShadowMismatch> getMismatches()
+	{
+		return List.copyOf(this.mismatches);
+	}
+
+	/**
+	 * Передаёт отформатированную строку user-agent на теневую проверку, если она попала в выборку.
+	 *
+	 * @param rules набор правил, по которому разобрана строка.
+	 * @param userAgent отформатированная непустая строка user-agent.
+	 */
+	void offer(@NotNull final UserAgentRules rules, @NotNull final CharSequence userAgent)
+	{
+		if (this.sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+			return;
+		}
+
+		if (!this.pending.tryAcquire())
+		{
+			this.rejectedCount.increment();
+			return;
+		}
+
+		String formatted = userAgent.toString();
+
+		try
+		{
+			this.executor.execute(() -> this.run(rules, formatted));
+		}
+		catch (RejectedExecutionException exception)
+		{
+			this.pending.release();
+			this.rejectedCount.increment();
+		}
+	}
+
+	/**
+	 * Выполняет сравнение и освобождает разрешение на него.
+	 *
+	 * @param rules набор правил.
+	 * @param userAgent отформатированная строка user-agent.
+	 */
+	private void run(@NotNull final UserAgentRules rules, @NotNull final String userAgent)
+	{
+		try
+		{
+			this.compare(rules, userAgent);
+		}
+		finally
+		{
+			this.pending.release();
+		}
+	}
+
+	/**
+	 * Определяет характеристики клиента обоими механизмами и сравнивает результаты.
+	 *
+	 * @param rules набор правил.
+	 * @param userAgent отформатированная строка user-agent.
+	 */
+	void compare(@NotNull final UserAgentRules rules, @NotNull final String userAgent)
+	{
+		Engines engines = this.engines;
+
+		if (engines == null || engines.reference().getRules() != rules)
+		{
+			engines = new Engines(
+				new CascadeEngine(rules),
+				switch (this.engine) {
+					case REGEX -> new RegexEngine(rules);
+					case AUTOMATON -> new AutomatonEngine(rules);
+				}
+			);
+			this.engines = engines;
+		}
+
+		this.record(
+			userAgent,
+			engines.reference().detect(userAgent, DetectionEngine.ALL_DIMENSIONS),
+			engines.candidate().detect(userAgent, DetectionEngine.ALL_DIMENSIONS)
+		);
+	}
+
+	/**
+	 * Учитывает результаты обоих механизмов.
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @param expected результат эталонного механизма.
+	 * @param actual результат проверяемого механизма.
+	 */
+	void record(@NotNull final String userAgent,
+				@NotNull final UserAgentInfo expected,
+				@NotNull final UserAgentInfo actual)
+	{
+		Set<UserAgentDimension> dimensions = EnumSet.noneOf(UserAgentDimension.class);
+
+		if (expected.getBrowser() != actual.getBrowser() ||
+			!Objects.equals(expected.getBrowserVersion(), actual.getBrowserVersion())) {
+			dimensions.add(UserAgentDimension.BROWSER);
+		}
+
+		if (expected.getDevice() != actual.getDevice() ||
+			!Objects.equals(expected.getDeviceModel(), actual.getDeviceModel())) {
+			dimensions.add(UserAgentDimension.DEVICE);
+		}
+
+		if (expected.getOperatingSystem() != actual.getOperatingSystem() ||
+			!Objects.equals(expected.getOperatingSystemVersion(), actual.getOperatingSystemVersion())) {
+			dimensions.add(UserAgentDimension.OPERATING_SYSTEM);
+		}
+
+		for (UserAgentDimension dimension : UserAgentDimension.values()) {
+			(dimensions.contains(dimension) ? this.disagreements : this.agreements).get(dimension).increment();
+		}
+
+		if (dimensions.isEmpty()) {
+			return;
+		}
+
+		synchronized (this)
+		{
+			if (this.mismatches.size() == this.capacity) {
+				this.mismatches.removeFirst();
+			}
+
+			this.mismatches.addLast(new ShadowMismatch(userAgent, expected, actual, dimensions));
+		}
+	}
+
+	/**
+	 * Создаёт исполнитель сравнений по умолчанию.
+	 * <p>
+	 * Исполнитель использует один поток-демон, который завершается после простоя. Очередь
+	 * исполнителя не ограничивается, так как количество сравнений ограничивает {@link #pending}.
+	 *
+	 * @return исполнитель сравнений.
+	 */
+	@NotNull
+	private static Executor createExecutor()
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+			runnable -> {
+				Thread thread = new Thread(runnable, "user-agent-shadow-mode");
+				thread.setDaemon(true);
+
+				return thread;
+			}
+		);
+		executor.allowCoreThreadTimeOut(true);
+
+		return executor;
+	}
+
+	/**
+	 * Эталонный и проверяемый механизмы по одному набору правил.
+	 *
+	 * @param reference эталонный механизм.
+	 * @param candidate проверяемый механизм.
+	 */
+	private record Engines(@NotNull DetectionEngine reference, @NotNull DetectionEngine candidate)
+	{
+	}
+}
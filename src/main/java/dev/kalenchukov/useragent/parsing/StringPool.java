@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Класс ограниченного по размеру пула строк для повторного использования одинаковых
+ * версий и моделей из результатов парсинга.
+ * <p>
+ * Значения групп регулярных выражений создаются заново при каждом парсинге, поэтому при хранении
+ * большого количества результатов одинаковые версии и модели занимают память многократно.
+ * Пул возвращает ранее сохранённый экземпляр равной строки, и результаты ссылаются на одну строку.
+ * <p>
+ * Пул не связан с пулом строк JVM ({@link String#intern()}) и содержит не больше заданного
+ * количества строк. Каждая строка занимает ячейку по своему хеш-коду, а новая строка вытесняет
+ * прежнюю строку той же ячейки, поэтому часто встречающиеся значения остаются в пуле, а редкие
+ * постепенно вытесняются. Вытесненная строка продолжает использоваться ссылающимися на неё результатами.
+ * <p>
+ * Пул не использует блокировок и может использоваться одновременно из любого количества потоков.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class StringPool
+{
+	/**
+	 * Ячейки пула.
+	 */
+	@NotNull
+	private final AtomicReferenceArray<@Nullable String> slots;
+
+	/**
+	 * Количество попаданий.
+	 */
+	@NotNull
+	private final LongAdder hitCount;
+
+	/**
+	 * Количество промахов.
+	 */
+	@NotNull
+	private final LongAdder missCount;
+
+	/**
+	 * Конструктор для {@code StringPool}.
+	 *
+	 * @param maximumSize максимальное количество строк.
+	 * @throws IllegalArgumentException если {@code maximumSize} меньше единицы.
+	 */
+	public StringPool(final int maximumSize)
+	{
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Размер пула должен быть больше нуля.");
+		}
+
+		this.slots = new AtomicReferenceArray<>(maximumSize);
+		this.hitCount = new LongAdder();
+		this.missCount = new LongAdder();
+	}
+
+	/**
+	 * Возвращает экземпляр строки из пула.
+	 * <p>
+	 * Если в пуле есть равная строка, возвращается она, иначе переданная строка
+	 * сохраняется в пуле и возвращается.
+	 *
+	 * @param value строка.
+	 * @return равную строку из пула, или {@code null} если в качестве {@code value} передан {@code null}.
+	 */
+	@Nullable
+	public String intern(@Nullable final String value)
+	{
+		if (value == null) {
+			return null;
+		}
+
+		int slot = this.slotFor(value);
+		String pooled = this.slots.get(slot);
+
+		if (value.equals(pooled))
+		{
+			this.hitCount.increment();
+
+			return pooled;
+		}
+
+		this.slots.set(slot, value);
+		this.missCount.increment();
+
+		return value;
+	}
+
+	/**
+	 * Возвращает количество попаданий в пул.
+	 * <p>
+	 * Каждое попадание означает, что результат парсинга ссылается на строку из пула
+	 * вместо собственной копии.
+	 *
+	 * @return количество попаданий.
+	 */
+	public long getHitCount()
+	{
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Возвращает количество промахов пула.
+	 *
+	 * @return количество промахов.
+	 */
+	public long getMissCount()
+	{
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Возвращает текущее количество строк.
+	 *
+	 * @return количество строк.
+	 */
+	public int size()
+	{
+		int size = 0;
+
+		for (int slot = 0; slot < this.slots.length(); slot++)
+		{
+			if (this.slots.get(slot) != null) {
+				size++;
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Удаляет все строки.
+	 * <p>
+	 * Счётчики попаданий и промахов не сбрасываются.
+	 */
+	public void clear()
+	{
+		for (int slot = 0; slot < this.slots.length(); slot++) {
+			this.slots.set(slot, null);
+		}
+	}
+
+	/**
+	 * Возвращает ячейку для строки.
+	 *
+	 * @param value строка.
+	 * @return индекс ячейки.
+	 */
+	private int slotFor(@NotNull final String value)
+	{
+		int spread = value.hashCode() * 0x9E3779B9;
+
+		return Math.floorMod(spread ^ (spread >>> 16), this.slots.length());
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Класс пакетного парсинга строк user-agent.
+ * <p>
+ * Одинаковые строки пакета разбираются один раз, уникальные строки делятся на части,
+ * которые разбираются параллельно. Результаты возвращаются в порядке исходных строк.
+ *
+ * @author Алексей Каленчуков
+ */
+final class UserAgentBatch
+{
+	/**
+	 * Количество уникальных строк user-agent в одной задаче.
+	 */
+	static final int CHUNK_SIZE = 256;
+
+	/**
+	 * Уникальные строки user-agent.
+	 */
+	@NotNull
+	private final String @NotNull [] unique;
+
+	/**
+	 * Индексы уникальных строк user-agent для каждой исходной строки.
+	 */
+	private final int @NotNull [] positions;
+
+	/**
+	 * Конструктор для {@code UserAgentBatch}.
+	 *
+	 * @param userAgents строки user-agent.
+	 * @throws NullPointerException если в качестве {@code userAgents} или одной из строк передан {@code null}.
+	 */
+	UserAgentBatch(@NotNull final List<? extends @NotNull CharSequence> userAgents)
+	{
+		Objects.requireNonNull(userAgents);
+
+		Map<String, Integer> indexes = new HashMap<>();
+		List<String> unique = new ArrayList<>();
+
+		this.positions = new int[userAgents.size()];
+
+		int position = 0;
+
+		for (CharSequence userAgent : userAgents)
+		{
+			String key = Objects.requireNonNull(userAgent).toString();
+			Integer index = indexes.putIfAbsent(key, unique.size());
+
+			if (index == null)
+			{
+				index = unique.size();
+				unique.add(key);
+			}
+
+			this.positions[position++] = index;
+		}
+
+		this.unique = unique.toArray(String[]::new);
+	}
+
+	/**
+	 * Возвращает количество уникальных строк user-agent.
+	 *
+	 * @return количество уникальных строк user-agent.
+	 */
+	int getUniqueCount()
+	{
+		return this.unique.length;
+	}
+
+	/**
+	 * Разбирает строки user-agent.
+	 * <p>
+	 * Если уникальных строк не больше {@link #CHUNK_SIZE}, они разбираются в вызывающем потоке.
+	 *
+	 * @param parser функция парсинга одной строки user-agent.
+	 * @param executor исполнитель задач.
+	 * @return информация о клиентах в порядке исходных строк.
+	 */
+	@NotNull
+	List<@NotNull UserAgentInfo> parse(@NotNull final Function<@NotNull String, @NotNull UserAgentInfo> parser,
+									   @NotNull final Executor executor)
+	{
+		Objects.requireNonNull(parser);
+		Objects.requireNonNull(executor);
+
+		UserAgentInfo[] results = new UserAgentInfo[this.unique.length];
+
+		if (this.unique.length <= CHUNK_SIZE)
+		{
+			this.parse(parser, results, 0, this.unique.length);
+		}
+		else
+		{
+			CompletableFuture<?>[] tasks = new CompletableFuture<?>[(this.unique.length + CHUNK_SIZE - 1) / CHUNK_SIZE];
+
+			for (int task = 0; task < tasks.length; task++)
+			{
+				int from = task * CHUNK_SIZE;
+				int to = Math.min(from + CHUNK_SIZE, this.unique.length);
+
+				tasks[task] = CompletableFuture.runAsync(() -> this.parse(parser, results, from, to), executor);
+			}
+
+			try
+			{
+				CompletableFuture.allOf(tasks).join();
+			}
+			catch (CompletionException exception)
+			{
+				if (exception.getCause() instanceof RuntimeException cause) {
+					throw cause;
+				}
+
+				throw exception;
+			}
+		}
+
+		UserAgentInfo[] ordered = new UserAgentInfo[this.positions.length];
+
+		for (int position = 0; position < this.positions.length; position++) {
+			ordered[position] = results[this.positions[position]];
+		}
+
+		return List.of(ordered);
+	}
+
+	/**
+	 * Разбирает часть уникальных строк user-agent.
+	 *
+	 * @param parser функция парсинга одной строки user-agent.
+	 * @param results массив результатов.
+	 * @param from индекс первой строки, включительно.
+	 * @param to индекс последней строки, не включительно.
+	 */
+	private void parse(@NotNull final Function<@NotNull String, @NotNull UserAgentInfo> parser,
+					   @NotNull final UserAgentInfo @NotNull [] results,
+					   final int from,
+					   final int to)
+	{
+		for (int index = from; index < to; index++) {
+			results[index] = parser.apply(this.unique[index]);
+		}
+	}
+}
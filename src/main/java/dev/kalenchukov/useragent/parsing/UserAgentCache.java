@@ -0,0 +1,479 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс ограниченного по размеру кэша результатов парсинга по строке user-agent.
+ * <p>
+ * Кэш разделён на сегменты с отдельными блокировками, поэтому один экземпляр может
+ * использоваться одновременно из любого количества потоков. Количество элементов
+ * никогда не превышает заданного размера, а строки длиннее {@link #MAX_KEY_LENGTH}
+ * не кэшируются вовсе.
+ * <p>
+ * Каждый результат хранится вместе с набором правил, по которому он получен, и возвращается
+ * только при парсинге по тому же набору, поэтому после замены набора правил в {@link UserAgentRulesHolder}
+ * прежние результаты не используются и постепенно вытесняются.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class UserAgentCache
+{
+	/**
+	 * Максимальная длина строки user-agent, результат парсинга которой помещается в кэш.
+	 */
+	public static final int MAX_KEY_LENGTH = 1024;
+
+	/**
+	 * Максимальное количество сегментов.
+	 */
+	private static final int MAX_SEGMENTS = 16;
+
+	/**
+	 * Политика вытеснения.
+	 */
+	@NotNull
+	private final EvictionPolicy evictionPolicy;
+
+	/**
+	 * Сегменты кэша.
+	 */
+	@NotNull
+	private final Segment @NotNull [] segments;
+
+	/**
+	 * Количество попаданий.
+	 */
+	@NotNull
+	private final LongAdder hitCount;
+
+	/**
+	 * Количество промахов.
+	 */
+	@NotNull
+	private final LongAdder missCount;
+
+	/**
+	 * Количество вытесненных или не допущенных в кэш элементов.
+	 */
+	@NotNull
+	private final LongAdder evictionCount;
+
+	/**
+	 * Конструктор для {@code UserAgentCache} с политикой вытеснения {@link EvictionPolicy#LRU}.
+	 *
+	 * @param maximumSize максимальное количество элементов.
+	 * @throws IllegalArgumentException если {@code maximumSize} меньше единицы.
+	 */
+	public UserAgentCache(final int maximumSize)
+	{
+		this(maximumSize, EvictionPolicy.LRU);
+	}
+
+	/**
+	 * Конструктор для {@code UserAgentCache}.
+	 *
+	 * @param maximumSize максимальное количество элементов.
+	 * @param evictionPolicy политика вытеснения.
+	 * @throws IllegalArgumentException если {@code maximumSize} меньше единицы.
+	 * @throws NullPointerException если в качестве {@code evictionPolicy} передан {@code null}.
+	 */
+	public UserAgentCache(final int maximumSize, @NotNull final EvictionPolicy evictionPolicy)
+	{
+		Objects.requireNonNull(evictionPolicy);
+
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Размер кэша должен быть больше нуля.");
+		}
+
+		int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+
+		this.evictionPolicy = evictionPolicy;
+		this.segments = new Segment[segmentCount];
+		this.hitCount = new LongAdder();
+		this.missCount = new LongAdder();
+		this.evictionCount = new LongAdder();
+
+		// Остаток от деления распределяется по первым сегментам, чтобы общая ёмкость была равна maximumSize
+		for (int index = 0; index < segmentCount; index++) {
+			this.segments[index] = new Segment(maximumSize / segmentCount + (index < maximumSize % segmentCount ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Возвращает политику вытеснения.
+	 *
+	 * @return политику вытеснения.
+	 */
+	@NotNull
+	public EvictionPolicy getEvictionPolicy()
+	{
+		return this.evictionPolicy;
+	}
+
+	/**
+	 * Возвращает количество попаданий в кэш.
+	 *
+	 * @return количество попаданий.
+	 */
+	public long getHitCount()
+	{
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Возвращает количество промахов кэша.
+	 *
+	 * @return количество промахов.
+	 */
+	public long getMissCount()
+	{
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Возвращает количество вытесненных элементов.
+	 * <p>
+	 * Для политики {@link EvictionPolicy#TINY_LFU} учитываются также элементы, которые не были допущены в кэш.
+	 *
+	 * @return количество вытесненных элементов.
+	 */
+	public long getEvictionCount()
+	{
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Возвращает текущее количество элементов.
+	 *
+	 * @return количество элементов.
+	 */
+	public int size()
+	{
+		int size = 0;
+
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Удаляет все элементы.
+	 * <p>
+	 * Счётчики попаданий, промахов и вытеснений не сбрасываются.
+	 */
+	public void clear()
+	{
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * Возвращает результат парсинга из кэша.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param rules набор правил, по которому выполняется парсинг.
+	 * @return результат парсинга по набору правил {@code rules}, или {@code null} если такого результата нет в кэше.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 */
+	@Nullable
+	UserAgentInfo get(@NotNull final String userAgent, @NotNull final UserAgentRules rules)
+	{
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(rules);
+
+		if (userAgent.length() > MAX_KEY_LENGTH) {
+			return null;
+		}
+
+		int hash = UserAgentCache.spread(userAgent.hashCode());
+		UserAgentInfo userAgentInfo = this.segmentFor(hash).get(userAgent, hash, rules);
+
+		if (userAgentInfo == null) {
+			this.missCount.increment();
+		}
+		else {
+			this.hitCount.increment();
+		}
+
+		return userAgentInfo;
+	}
+
+	/**
+	 * Помещает результат парсинга в кэш.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param rules набор правил, по которому получен результат парсинга.
+	 * @param userAgentInfo результат парсинга.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code userAgentInfo} передан {@code null}.
+	 */
+	void put(@NotNull final String userAgent,
+			 @NotNull final UserAgentRules rules,
+			 @NotNull final UserAgentInfo userAgentInfo)
+	{
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(userAgentInfo);
+
+		if (userAgent.length() > MAX_KEY_LENGTH) {
+			return;
+		}
+
+		int hash = UserAgentCache.spread(userAgent.hashCode());
+
+		if (this.segmentFor(hash).put(userAgent, hash, new Entry(rules, userAgentInfo))) {
+			this.evictionCount.increment();
+		}
+	}
+
+	/**
+	 * Возвращает сегмент для хеш-кода.
+	 *
+	 * @param hash хеш-код строки user-agent.
+	 * @return сегмент кэша.
+	 */
+	@NotNull
+	private Segment segmentFor(final int hash)
+	{
+		return this.segments[(hash >>> 28) & (this.segments.length - 1)];
+	}
+
+	/**
+	 * Перемешивает биты хеш-кода.
+	 *
+	 * @param hash хеш-код.
+	 * @return перемешанный хеш-код.
+	 */
+	private static int spread(final int hash)
+	{
+		int spread = hash * 0x9E3779B9;
+
+		return spread ^ (spread >>> 16);
+	}
+
+	/**
+	 * Политики вытеснения элементов из заполненного кэша.
+	 */
+	public enum EvictionPolicy
+	{
+		/**
+		 * Вытесняется элемент, к которому дольше всего не обращались.
+		 */
+		LRU,
+
+		/**
+		 * Вытесняется элемент, к которому дольше всего не обращались, но новый элемент допускается
+		 * в кэш только если он запрашивается чаще вытесняемого (по вероятностной оценке частоты).
+		 * <p>
+		 * Защищает кэш от вытеснения популярных строк потоком уникальных строк, например от ботов.
+		 */
+		TINY_LFU
+	}
+
+	/**
+	 * Класс сегмента кэша.
+	 */
+	private final class Segment
+	{
+		/**
+		 * Блокировка сегмента.
+		 */
+		@NotNull
+		private final ReentrantLock lock;
+
+		/**
+		 * Элементы в порядке обращения к ним.
+		 */
+		@NotNull
+		private final LinkedHashMap<@NotNull String, @NotNull Entry> entries;
+
+		/**
+		 * Максимальное количество элементов сегмента.
+		 */
+		private final int capacity;
+
+		/**
+		 * Оценка частоты обращений, или {@code null} для политики {@link EvictionPolicy#LRU}.
+		 */
+		@Nullable
+		private final FrequencySketch sketch;
+
+		/**
+		 * Конструктор для {@code Segment}.
+		 *
+		 * @param capacity максимальное количество элементов сегмента.
+		 */
+		private Segment(final int capacity)
+		{
+			this.lock = new ReentrantLock();
+			this.entries = new LinkedHashMap<>(16, 0.75f, true);
+			this.capacity = capacity;
+			this.sketch = UserAgentCache.this.evictionPolicy == EvictionPolicy.TINY_LFU
+				? new FrequencySketch(capacity)
+				: null;
+		}
+
+		/**
+		 * Возвращает результат парсинга из сегмента.
+		 *
+		 * @param userAgent строка user-agent.
+		 * @param hash хеш-код строки user-agent.
+		 * @param rules набор правил, по которому выполняется парсинг.
+		 * @return результат парсинга по набору правил {@code rules}, или {@code null} если такого результата нет в сегменте.
+		 */
+		@Nullable
+		private UserAgentInfo get(@NotNull final String userAgent, final int hash, @NotNull final UserAgentRules rules)
+		{
+			this.lock.lock();
+
+			try
+			{
+				if (this.sketch != null) {
+					this.sketch.increment(hash);
+				}
+
+				Entry entry = this.entries.get(userAgent);
+
+				if (entry == null) {
+					return null;
+				}
+
+				if (entry.rules() != rules)
+				{
+					this.entries.remove(userAgent);
+
+					return null;
+				}
+
+				return entry.userAgentInfo();
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Помещает результат парсинга в сегмент.
+		 *
+		 * @param userAgent строка user-agent.
+		 * @param hash хеш-код строки user-agent.
+		 * @param entry результат парсинга с набором правил.
+		 * @return {@code true} если элемент был вытеснен или не допущен в сегмент, иначе {@code false}.
+		 */
+		private boolean put(@NotNull final String userAgent, final int hash, @NotNull final Entry entry)
+		{
+			this.lock.lock();
+
+			try
+			{
+				if (this.entries.containsKey(userAgent) || this.entries.size() < this.capacity)
+				{
+					this.entries.put(userAgent, entry);
+
+					return false;
+				}
+
+				Iterator<Map.Entry<String, Entry>> eldest = this.entries.entrySet().iterator();
+				String victim = eldest.next().getKey();
+
+				if (this.sketch != null &&
+					this.sketch.frequency(hash) <= this.sketch.frequency(UserAgentCache.spread(victim.hashCode()))) {
+					return true;
+				}
+
+				eldest.remove();
+				this.entries.put(userAgent, entry);
+
+				return true;
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Возвращает количество элементов сегмента.
+		 *
+		 * @return количество элементов.
+		 */
+		private int size()
+		{
+			this.lock.lock();
+
+			try
+			{
+				return this.entries.size();
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Удаляет все элементы сегмента.
+		 */
+		private void clear()
+		{
+			this.lock.lock();
+
+			try
+			{
+				this.entries.clear();
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Результат парсинга с набором правил, по которому он получен.
+	 *
+	 * @param rules набор правил.
+	 * @param userAgentInfo результат парсинга.
+	 */
+	private record Entry(@NotNull UserAgentRules rules, @NotNull UserAgentInfo userAgentInfo)
+	{
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Класс форматирования строки user-agent перед определением браузера, устройства и операционной системы.
+ * <p>
+ * Форматирование выполняется за один проход во временный буфер, который повторно используется потоком.
+ *
+ * @author Алексей Каленчуков
+ */
+final class UserAgentFormatter
+{
+	/**
+	 * Символы, вокруг которых удаляются пробелы.
+	 */
+	@NotNull
+	private static final String SEPARATORS = ".-_#/:;,()[]";
+
+	/**
+	 * Ёмкость буфера, больше которой буфер не сохраняется для повторного использования.
+	 */
+	private static final int MAX_BUFFER_CAPACITY = 4096;
+
+	/**
+	 * Буфер форматирования текущего потока.
+	 */
+	@NotNull
+	private static final ThreadLocal<@NotNull StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+	/**
+	 * Конструктор для {@code UserAgentFormatter}.
+	 */
+	private UserAgentFormatter()
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Форматирует user-agent.
+	 * <ul>
+	 *     <li>Удаляет пробелы вокруг символов {@code . - _ # / : ; , ( ) [ ]}</li>
+	 *     <li>Заменяет множественные пробелы одним пробелом</li>
+	 *     <li>Переводит символы в верхний регистр по правилам локали по умолчанию</li>
+	 *     <li>Удаляет пробельные и управляющие символы в начале и в конце строки</li>
+	 * </ul>
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return отформатированную строку user-agent.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 */
+	@NotNull
+	static String format(@NotNull final CharSequence userAgent)
+	{
+		Objects.requireNonNull(userAgent);
+
+		StringBuilder buffer = BUFFER.get();
+		UserAgentFormatter.format(userAgent, buffer);
+
+		String formatted = buffer.toString();
+
+		if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+			BUFFER.remove();
+		}
+
+		return formatted;
+	}
+
+	/**
+	 * Форматирует user-agent в указанный буфер по правилам {@link #format(CharSequence)}.
+	 * <p>
+	 * Прежнее содержимое буфера удаляется. Для строк из символов US-ASCII новые объекты не создаются.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param buffer буфер, в который записывается отформатированная строка user-agent.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code buffer} передан {@code null}.
+	 */
+	static void format(@NotNull final CharSequence userAgent, @NotNull final StringBuilder buffer)
+	{
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(buffer);
+
+		buffer.setLength(0);
+
+		boolean ascii = true;
+		int length = userAgent.length();
+		int index = 0;
+
+		while (index < length)
+		{
+			char symbol = userAgent.charAt(index);
+
+			if (symbol == ' ')
+			{
+				int end = index + 1;
+
+				while (end < length && userAgent.charAt(end) == ' ') {
+					end++;
+				}
+
+				boolean separated = (buffer.length() > 0 && UserAgentFormatter.isSeparator(buffer.charAt(buffer.length() - 1))) ||
+					(end < length && UserAgentFormatter.isSeparator(userAgent.charAt(end)));
+
+				if (!separated) {
+					buffer.append(' ');
+				}
+
+				index = end;
+				continue;
+			}
+
+			if (symbol >= 128) {
+				ascii = false;
+			}
+
+			buffer.append(symbol);
+			index++;
+		}
+
+		int start = 0;
+		int end = buffer.length();
+
+		while (start < end && buffer.charAt(start) <= ' ') {
+			start++;
+		}
+
+		while (end > start && buffer.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		buffer.setLength(end);
+		buffer.delete(0, start);
+
+		if (ascii && UserAgentFormatter.isSimpleCase(Locale.getDefault()))
+		{
+			for (int position = 0; position < buffer.length(); position++)
+			{
+				char symbol = buffer.charAt(position);
+
+				if (symbol >= 'a' && symbol <= 'z') {
+					buffer.setCharAt(position, (char) (symbol - 'a' + 'A'));
+				}
+			}
+		}
+		else
+		{
+			String formatted = buffer.toString().toUpperCase();
+
+			buffer.setLength(0);
+			buffer.append(formatted);
+		}
+	}
+
+	/**
+	 * Проверяет, является ли символ разделителем, вокруг которого удаляются пробелы.
+	 *
+	 * @param symbol символ.
+	 * @return {@code true} если символ является разделителем, иначе {@code false}.
+	 */
+	private static boolean isSeparator(final char symbol)
+	{
+		return SEPARATORS.indexOf(symbol) >= 0;
+	}
+
+	/**
+	 * Проверяет, совпадает ли в локали перевод символов US-ASCII в верхний регистр с {@link Locale#ROOT}.
+	 * <p>
+	 * Для турецкого, азербайджанского и литовского языков {@link String#toUpperCase()}
+	 * использует особые правила, поэтому для них применяется стандартное преобразование.
+	 *
+	 * @param locale локаль.
+	 * @return {@code true} если перевод в верхний регистр совпадает, иначе {@code false}.
+	 */
+	private static boolean isSimpleCase(@NotNull final Locale locale)
+	{
+		String language = locale.getLanguage();
+
+		return !language.equals("tr") && !language.equals("az") && !language.equals("lt");
+	}
+}
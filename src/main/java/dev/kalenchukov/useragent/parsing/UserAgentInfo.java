@@ -0,0 +1,328 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Класс неизменяемой информации о клиенте, полученной по строке user-agent.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class UserAgentInfo
+{
+	/**
+	 * Информация о клиенте, который не удалось определить.
+	 */
+	@NotNull
+	public static final UserAgentInfo UNKNOWN = new UserAgentInfo(
+		new Detection<>(BrowserType.UNKNOWN, null),
+		new Detection<>(DeviceType.UNKNOWN, null),
+		new Detection<>(OperatingSystemType.UNKNOWN, null)
+	);
+
+	/**
+	 * Тип браузера.
+	 */
+	@NotNull
+	private final BrowserType browser;
+
+	/**
+	 * Версия браузера.
+	 */
+	@Nullable
+	private final String browserVersion;
+
+	/**
+	 * Тип устройства.
+	 */
+	@NotNull
+	private final DeviceType device;
+
+	/**
+	 * Модель устройства.
+	 */
+	@Nullable
+	private final String deviceModel;
+
+	/**
+	 * Тип операционной системы.
+	 */
+	@NotNull
+	private final OperatingSystemType operatingSystem;
+
+	/**
+	 * Версия операционной системы.
+	 */
+	@Nullable
+	private final String operatingSystemVersion;
+
+	/**
+	 * Исчерпан ли бюджет проверки правил.
+	 */
+	private final boolean budgetExceeded;
+
+	/**
+	 * Конструктор для {@code UserAgentInfo}.
+	 *
+	 * @param browser результат определения браузера.
+	 * @param device результат определения устройства.
+	 * @param operatingSystem результат определения операционной системы.
+	 * @throws NullPointerException если в качестве {@code browser} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code device} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code operatingSystem} передан {@code null}.
+	 */
+	UserAgentInfo(@NotNull final Detection<@NotNull BrowserType> browser,
+				  @NotNull final Detection<@NotNull DeviceType> device,
+				  @NotNull final Detection<@NotNull OperatingSystemType> operatingSystem)
+	{
+		this(browser, device, operatingSystem, false);
+	}
+
+	/**
+	 * Конструктор для {@code UserAgentInfo}.
+	 *
+	 * @param browser результат определения браузера.
+	 * @param device результат определения устройства.
+	 * @param operatingSystem результат определения операционной системы.
+	 * @param budgetExceeded исчерпан ли бюджет проверки правил.
+	 * @throws NullPointerException если в качестве {@code browser} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code device} передан {@code null}.
+	 * @throws NullPointerException если в качестве {@code operatingSystem} передан {@code null}.
+	 */
+	UserAgentInfo(@NotNull final Detection<@NotNull BrowserType> browser,
+				  @NotNull final Detection<@NotNull DeviceType> device,
+				  @NotNull final Detection<@NotNull OperatingSystemType> operatingSystem,
+				  final boolean budgetExceeded)
+	{
+		Objects.requireNonNull(browser);
+		Objects.requireNonNull(device);
+		Objects.requireNonNull(operatingSystem);
+
+		this.browser = browser.getType();
+		this.browserVersion = browser.getValue();
+		this.device = device.getType();
+		this.deviceModel = device.getValue();
+		this.operatingSystem = operatingSystem.getType();
+		this.operatingSystemVersion = operatingSystem.getValue();
+		this.budgetExceeded = budgetExceeded;
+	}
+
+	/**
+	 * Возвращает тип браузера.
+	 *
+	 * @return тип браузера.
+	 */
+	@NotNull
+	public BrowserType getBrowser()
+	{
+		return this.browser;
+	}
+
+	/**
+	 * Возвращает название браузера.
+	 *
+	 * @return название браузера, или {@code null} если браузер не определён.
+	 */
+	@Nullable
+	public String getBrowserName()
+	{
+		return this.browser.getName();
+	}
+
+	/**
+	 * Возвращает версию браузера.
+	 *
+	 * @return версия браузера, или {@code null} если версия браузера не определена.
+	 */
+	@Nullable
+	public String getBrowserVersion()
+	{
+		return this.browserVersion;
+	}
+
+	/**
+	 * Возвращает тип устройства.
+	 *
+	 * @return тип устройства.
+	 */
+	@NotNull
+	public DeviceType getDevice()
+	{
+		return this.device;
+	}
+
+	/**
+	 * Возвращает название типа устройства.
+	 *
+	 * @return название типа устройства, или {@code null} если устройство не определено.
+	 */
+	@Nullable
+	public String getDeviceType()
+	{
+		return this.device.getName();
+	}
+
+	/**
+	 * Возвращает модель устройства.
+	 *
+	 * @return модель устройства, или {@code null} если модель устройства не определена.
+	 */
+	@Nullable
+	public String getDeviceModel()
+	{
+		return this.deviceModel;
+	}
+
+	/**
+	 * Возвращает тип операционной системы.
+	 *
+	 * @return тип операционной системы.
+	 */
+	@NotNull
+	public OperatingSystemType getOperatingSystem()
+	{
+		return this.operatingSystem;
+	}
+
+	/**
+	 * Возвращает название операционной системы.
+	 *
+	 * @return название операционной системы, или {@code null} если операционная система не определена.
+	 */
+	@Nullable
+	public String getOperatingSystemName()
+	{
+		return this.operatingSystem.getName();
+	}
+
+	/**
+	 * Возвращает версию операционной системы.
+	 *
+	 * @return версия операционной системы, или {@code null} если версия операционной системы не определена.
+	 */
+	@Nullable
+	public String getOperatingSystemVersion()
+	{
+		return this.operatingSystemVersion;
+	}
+
+	/**
+	 * Возвращает всю информацию о клиенте.
+	 *
+	 * @return коллекция с информацией о клиенте.
+	 */
+	@NotNull
+	public Map<@NotNull String, @Nullable String> getAll()
+	{
+		Map<String, String> allInfo = new HashMap<>();
+
+		allInfo.put("browser_name", this.getBrowserName());
+		allInfo.put("browser_version", this.getBrowserVersion());
+
+		allInfo.put("device_type", this.getDeviceType());
+		allInfo.put("device_model", this.getDeviceModel());
+
+		allInfo.put("operating_system_name", this.getOperatingSystemName());
+		allInfo.put("operating_system_version", this.getOperatingSystemVersion());
+
+		return allInfo;
+	}
+
+	/**
+	 * Проверяет, был ли исчерпан бюджет проверки правил.
+	 * <p>
+	 * Если бюджет исчерпан, характеристики, которые не удалось проверить, не определены.
+	 *
+	 * @return {@code true} если бюджет проверки правил исчерпан, иначе {@code false}.
+	 * @see ParserSettings#setMatchBudget(long)
+	 */
+	public boolean isBudgetExceeded()
+	{
+		return this.budgetExceeded;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param o {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(@Nullable final Object o)
+	{
+		if (this == o) {
+			return true;
+		}
+
+		if (!(o instanceof UserAgentInfo other)) {
+			return false;
+		}
+
+		return this.browser == other.browser &&
+			Objects.equals(this.browserVersion, other.browserVersion) &&
+			this.device == other.device &&
+			Objects.equals(this.deviceModel, other.deviceModel) &&
+			this.operatingSystem == other.operatingSystem &&
+			Objects.equals(this.operatingSystemVersion, other.operatingSystemVersion) &&
+			this.budgetExceeded == other.budgetExceeded;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(
+			this.browser, this.browserVersion,
+			this.device, this.deviceModel,
+			this.operatingSystem, this.operatingSystemVersion,
+			this.budgetExceeded
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public String toString()
+	{
+		return "UserAgentInfo" + this.getAll();
+	}
+}
@@ -0,0 +1,536 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Класс дополнения журналов доступа информацией о клиенте.
+ * <p>
+ * Файл журнала отображается в память частями по границам строк. Части разбираются
+ * параллельно, а результаты выдаются в порядке строк файла, при этом одновременно
+ * обрабатывается ограниченное количество частей, поэтому расход памяти не зависит
+ * от размера файла.
+ * <p>
+ * Строкой user-agent считается поле строки журнала в двойных кавычках с заданным номером,
+ * по умолчанию {@link #COMBINED_USER_AGENT_FIELD} — третье, как в формате combined веб-серверов
+ * nginx и Apache и в формате main веб-сервера nginx, где за user-agent следует поле
+ * {@code "$http_x_forwarded_for"}. Байты поля передаются парсеру без копирования строки журнала,
+ * каждый байт читается как символ ISO-8859-1.
+ * <p>
+ * Значения, дописываемые к строкам журнала в формате TSV, записываются в кодировке UTF-8.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class UserAgentLogEnricher
+{
+	/**
+	 * Размер части файла журнала в байтах.
+	 */
+	static final int CHUNK_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * Номер поля в двойных кавычках со строкой user-agent в формате combined.
+	 */
+	public static final int COMBINED_USER_AGENT_FIELD = 3;
+
+	/**
+	 * Парсер строки user-agent.
+	 */
+	@NotNull
+	private final UserAgentParsing userAgentParser;
+
+	/**
+	 * Исполнитель задач разбора частей файла журнала.
+	 */
+	@NotNull
+	private final Executor executor;
+
+	/**
+	 * Размер части файла журнала в байтах.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * Максимальное количество одновременно обрабатываемых частей файла журнала.
+	 */
+	private final int maxPendingChunks;
+
+	/**
+	 * Номер поля в двойных кавычках со строкой user-agent.
+	 */
+	private final int userAgentField;
+
+	/**
+	 * Конструктор для {@code UserAgentLogEnricher}.
+	 * <p>
+	 * Части файла журнала разбираются в {@link ForkJoinPool#commonPool()}.
+	 *
+	 * @param userAgentParser парсер строки user-agent.
+	 * @throws NullPointerException если в качестве {@code userAgentParser} передан {@code null}.
+	 */
+	public UserAgentLogEnricher(@NotNull final UserAgentParsing userAgentParser)
+	{
+		this(userAgentParser, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Конструктор для {@code UserAgentLogEnricher}.
+	 *
+	 * @param userAgentParser парсер строки user-agent.
+	 * @param executor исполнитель задач разбора частей файла журнала.
+	 * @throws NullPointerException если в качестве {@code userAgentParser} или {@code executor} передан {@code null}.
+	 */
+	public UserAgentLogEnricher(@NotNull final UserAgentParsing userAgentParser, @NotNull final Executor executor)
+	{
+		this(userAgentParser, executor, COMBINED_USER_AGENT_FIELD);
+	}
+
+	/**
+	 * Конструктор для {@code UserAgentLogEnricher}.
+	 *
+	 * @param userAgentParser парсер строки user-agent.
+	 * @param executor исполнитель задач разбора частей файла журнала.
+	 * @param userAgentField номер поля в двойных кавычках со строкой user-agent, начиная с единицы.
+	 * @throws NullPointerException если в качестве {@code userAgentParser} или {@code executor} передан {@code null}.
+	 * @throws IllegalArgumentException если {@code userAgentField} меньше 1.
+	 */
+	public UserAgentLogEnricher(@NotNull final UserAgentParsing userAgentParser,
+								@NotNull final Executor executor,
+								final int userAgentField)
+	{
+		this(userAgentParser, executor, userAgentField, CHUNK_SIZE, 2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Конструктор для {@code UserAgentLogEnricher}.
+	 *
+	 * @param userAgentParser парсер строки user-agent.
+	 * @param executor исполнитель задач разбора частей файла журнала.
+	 * @param userAgentField номер поля в двойных кавычках со строкой user-agent, начиная с единицы.
+	 * @param chunkSize размер части файла журнала в байтах.
+	 * @param maxPendingChunks максимальное количество одновременно обрабатываемых частей файла журнала.
+	 * @throws NullPointerException если в качестве {@code userAgentParser} или {@code executor} передан {@code null}.
+	 * @throws IllegalArgumentException если {@code userAgentField}, {@code chunkSize} или {@code maxPendingChunks} меньше 1.
+	 */
+	UserAgentLogEnricher(@NotNull final UserAgentParsing userAgentParser,
+						 @NotNull final Executor executor,
+						 final int userAgentField,
+						 final int chunkSize,
+						 final int maxPendingChunks)
+	{
+		Objects.requireNonNull(userAgentParser);
+		Objects.requireNonNull(executor);
+
+		if (userAgentField < 1 || chunkSize < 1 || maxPendingChunks < 1) {
+			throw new IllegalArgumentException();
+		}
+
+		this.userAgentParser = userAgentParser;
+		this.executor = executor;
+		this.userAgentField = userAgentField;
+		this.chunkSize = chunkSize;
+		this.maxPendingChunks = maxPendingChunks;
+	}
+
+	/**
+	 * Дополняет строки журнала информацией о клиенте в формате TSV.
+	 * <p>
+	 * Для каждой непустой строки журнала в {@code output} записывается исходная строка и через
+	 * символ табуляции название и версия браузера, тип и модель устройства, название и версия
+	 * операционной системы. Неопределённые значения записываются пустыми.
+	 *
+	 * @param log путь к файлу журнала.
+	 * @param output поток вывода.
+	 * @throws NullPointerException если в качестве {@code log} или {@code output} передан {@code null}.
+	 * @throws IOException если произошла ошибка чтения журнала или записи в поток вывода.
+	 */
+	public void enrich(@NotNull final Path log, @NotNull final OutputStream output) throws IOException
+	{
+		Objects.requireNonNull(log);
+		Objects.requireNonNull(output);
+
+		this.process(log, this::format, output::write);
+	}
+
+	/**
+	 * Дополняет строки журнала информацией о клиенте.
+	 * <p>
+	 * Записи передаются в {@code consumer} в вызывающем потоке в порядке строк журнала.
+	 * Пустые строки пропускаются.
+	 *
+	 * @param log путь к файлу журнала.
+	 * @param consumer получатель записей.
+	 * @throws NullPointerException если в качестве {@code log} или {@code consumer} передан {@code null}.
+	 * @throws IOException если произошла ошибка чтения журнала.
+	 */
+	public void enrich(@NotNull final Path log,
+					   @NotNull final Consumer<@NotNull UserAgentLogRecord> consumer) throws IOException
+	{
+		Objects.requireNonNull(log);
+		Objects.requireNonNull(consumer);
+
+		this.process(log, this::collect, records -> records.forEach(consumer));
+	}
+
+	/**
+	 * Возвращает границы поля строки журнала в двойных кавычках с указанным номером.
+	 * <p>
+	 * Внутри поля обратная косая черта экранирует следующий байт, поэтому экранированные
+	 * кавычки считаются частью поля.
+	 *
+	 * @param buffer буфер.
+	 * @param start индекс первого байта строки.
+	 * @param end индекс байта после последнего байта строки.
+	 * @param field номер поля в двойных кавычках, начиная с единицы.
+	 * @return индекс первого байта поля в старших 32 битах и индекс байта после поля в младших,
+	 * или {@code -1} если поля в кавычках с таким номером нет.
+	 */
+	static long locateField(@NotNull final ByteBuffer buffer, final int start, final int end, final int field)
+	{
+		int number = 0;
+		int position = start;
+
+		while (position < end)
+		{
+			if (buffer.get(position) != '"')
+			{
+				position++;
+				continue;
+			}
+
+			int open = position + 1;
+			int close = open;
+
+			while (close < end && buffer.get(close) != '"') {
+				close += buffer.get(close) == '\\' ? 2 : 1;
+			}
+
+			if (close >= end) {
+				return -1;
+			}
+
+			if (++number == field) {
+				return ((long) open << 32) | close;
+			}
+
+			position = close + 1;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Разбирает файл журнала по частям.
+	 *
+	 * @param log путь к файлу журнала.
+	 * @param task задача разбора части файла журнала.
+	 * @param sink получатель результатов разбора частей в порядке файла.
+	 * @param <R> тип результата разбора части.
+	 * @throws IOException если произошла ошибка чтения журнала или получателя результатов.
+	 */
+	private <R> void process(@NotNull final Path log,
+							 @NotNull final ChunkTask<R> task,
+							 @NotNull final ChunkSink<R> sink) throws IOException
+	{
+		Deque<CompletableFuture<R>> pending = new ArrayDeque<>();
+
+		try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			long position = 0;
+
+			while (position < size)
+			{
+				ByteBuffer chunk = this.map(channel, position, size);
+				long offset = position;
+
+				pending.add(CompletableFuture.supplyAsync(() -> task.apply(chunk, offset), this.executor));
+				position += chunk.limit();
+
+				if (pending.size() >= this.maxPendingChunks) {
+					sink.accept(UserAgentLogEnricher.join(pending.remove()));
+				}
+			}
+		}
+
+		while (!pending.isEmpty()) {
+			sink.accept(UserAgentLogEnricher.join(pending.remove()));
+		}
+	}
+
+	/**
+	 * Отображает в память часть файла журнала, которая заканчивается концом строки или концом файла.
+	 *
+	 * @param channel канал файла журнала.
+	 * @param position смещение начала части.
+	 * @param size размер файла журнала.
+	 * @return буфер части файла журнала.
+	 * @throws IOException если произошла ошибка чтения журнала или строка длиннее {@link Integer#MAX_VALUE} байтов.
+	 */
+	@NotNull
+	private ByteBuffer map(@NotNull final FileChannel channel, final long position, final long size) throws IOException
+	{
+		long length = Math.min(this.chunkSize, size - position);
+
+		while (true)
+		{
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+			if (position + length == size) {
+				return buffer;
+			}
+
+			for (int index = (int) length - 1; index >= 0; index--)
+			{
+				if (buffer.get(index) == '\n') {
+					return buffer.slice(0, index + 1);
+				}
+			}
+
+			if (length == Integer.MAX_VALUE) {
+				throw new IOException("Строка журнала длиннее " + Integer.MAX_VALUE + " байтов");
+			}
+
+			length = Math.min(Math.min(length * 2, Integer.MAX_VALUE), size - position);
+		}
+	}
+
+	/**
+	 * Возвращает результат разбора части файла журнала.
+	 *
+	 * @param future задача разбора части.
+	 * @param <R> тип результата разбора части.
+	 * @return результат разбора части.
+	 */
+	private static <R> R join(@NotNull final CompletableFuture<R> future)
+	{
+		try
+		{
+			return future.join();
+		}
+		catch (CompletionException exception)
+		{
+			if (exception.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+
+			throw exception;
+		}
+	}
+
+	/**
+	 * Разбирает часть файла журнала в записи.
+	 *
+	 * @param chunk буфер части файла журнала.
+	 * @param offset смещение начала части в файле журнала.
+	 * @return записи в порядке строк.
+	 */
+	@NotNull
+	private List<@NotNull UserAgentLogRecord> collect(@NotNull final ByteBuffer chunk, final long offset)
+	{
+		List<UserAgentLogRecord> records = new ArrayList<>();
+
+		this.forEachLine(chunk, (start, end, userAgentInfo) -> records.add(
+			new UserAgentLogRecord(offset + start, end - start, userAgentInfo)
+		));
+
+		return records;
+	}
+
+	/**
+	 * Разбирает часть файла журнала в строки TSV.
+	 *
+	 * @param chunk буфер части файла журнала.
+	 * @param offset смещение начала части в файле журнала.
+	 * @return байты строк TSV.
+	 */
+	private byte @NotNull [] format(@NotNull final ByteBuffer chunk, final long offset)
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream(chunk.limit() + chunk.limit() / 4);
+		byte[][] line = { new byte[256] };
+
+		this.forEachLine(chunk, (start, end, userAgentInfo) -> {
+			int length = end - start;
+
+			if (line[0].length < length) {
+				line[0] = new byte[Math.max(length, line[0].length * 2)];
+			}
+
+			chunk.get(start, line[0], 0, length);
+			output.write(line[0], 0, length);
+
+			UserAgentLogEnricher.writeField(output, userAgentInfo.getBrowserName());
+			UserAgentLogEnricher.writeField(output, userAgentInfo.getBrowserVersion());
+			UserAgentLogEnricher.writeField(output, userAgentInfo.getDeviceType());
+			UserAgentLogEnricher.writeField(output, userAgentInfo.getDeviceModel());
+			UserAgentLogEnricher.writeField(output, userAgentInfo.getOperatingSystemName());
+			UserAgentLogEnricher.writeField(output, userAgentInfo.getOperatingSystemVersion());
+
+			output.write('\n');
+		});
+
+		return output.toByteArray();
+	}
+
+	/**
+	 * Записывает поле TSV с предшествующим символом табуляции.
+	 * <p>
+	 * Значение записывается в кодировке UTF-8, символы табуляции и конца строки в нём заменяются пробелом.
+	 *
+	 * @param output поток вывода.
+	 * @param value значение поля.
+	 */
+	static void writeField(@NotNull final ByteArrayOutputStream output, @Nullable final String value)
+	{
+		output.write('\t');
+
+		if (value == null) {
+			return;
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		for (byte symbol : bytes) {
+			output.write(symbol == '\t' || symbol == '\n' || symbol == '\r' ? ' ' : symbol);
+		}
+	}
+
+	/**
+	 * Разбирает непустые строки части файла журнала.
+	 *
+	 * @param chunk буфер части файла журнала.
+	 * @param consumer получатель результатов разбора строк.
+	 */
+	private void forEachLine(@NotNull final ByteBuffer chunk, @NotNull final LineConsumer consumer)
+	{
+		int limit = chunk.limit();
+		int start = 0;
+
+		while (start < limit)
+		{
+			int end = start;
+
+			while (end < limit && chunk.get(end) != '\n') {
+				end++;
+			}
+
+			int next = end + 1;
+
+			if (end > start && chunk.get(end - 1) == '\r') {
+				end--;
+			}
+
+			if (end > start)
+			{
+				long field = UserAgentLogEnricher.locateField(chunk, start, end, this.userAgentField);
+				UserAgentInfo userAgentInfo = UserAgentInfo.UNKNOWN;
+
+				if (field >= 0)
+				{
+					int from = (int) (field >>> 32);
+					int to = (int) field;
+
+					userAgentInfo = this.userAgentParser.parse(new AsciiCharSequence(chunk, from, to - from));
+				}
+
+				consumer.accept(start, end, userAgentInfo);
+			}
+
+			start = next;
+		}
+	}
+
+	/**
+	 * Интерфейс задачи разбора части файла журнала.
+	 *
+	 * @param <R> тип результата разбора части.
+	 */
+	@FunctionalInterface
+	private interface ChunkTask<R>
+	{
+		/**
+		 * Разбирает часть файла журнала.
+		 *
+		 * @param chunk буфер части файла журнала.
+		 * @param offset смещение начала части в файле журнала.
+		 * @return результат разбора части.
+		 */
+		R apply(@NotNull ByteBuffer chunk, long offset);
+	}
+
+	/**
+	 * Интерфейс получателя результатов разбора частей файла журнала.
+	 *
+	 * @param <R> тип результата разбора части.
+	 */
+	@FunctionalInterface
+	private interface ChunkSink<R>
+	{
+		/**
+		 * Получает результат разбора части.
+		 *
+		 * @param result результат разбора части.
+		 * @throws IOException если произошла ошибка записи результата.
+		 */
+		void accept(R result) throws IOException;
+	}
+
+	/**
+	 * Интерфейс получателя результатов разбора строк журнала.
+	 */
+	@FunctionalInterface
+	private interface LineConsumer
+	{
+		/**
+		 * Получает результат разбора строки.
+		 *
+		 * @param start индекс первого байта строки в части.
+		 * @param end индекс байта после последнего байта строки без символов конца строки.
+		 * @param userAgentInfo информация о клиенте.
+		 */
+		void accept(int start, int end, @NotNull UserAgentInfo userAgentInfo);
+	}
+}
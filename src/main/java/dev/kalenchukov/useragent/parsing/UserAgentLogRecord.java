@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Класс записи журнала доступа, дополненной информацией о клиенте.
+ *
+ * @author Алексей Каленчуков
+ */
+public final class UserAgentLogRecord
+{
+	/**
+	 * Смещение начала строки в файле журнала в байтах.
+	 */
+	private final long offset;
+
+	/**
+	 * Длина строки в байтах без символов конца строки.
+	 */
+	private final int length;
+
+	/**
+	 * Информация о клиенте.
+	 */
+	@NotNull
+	private final UserAgentInfo userAgentInfo;
+
+	/**
+	 * Конструктор для {@code UserAgentLogRecord}.
+	 *
+	 * @param offset смещение начала строки в файле журнала в байтах.
+	 * @param length длина строки в байтах без символов конца строки.
+	 * @param userAgentInfo информация о клиенте.
+	 * @throws NullPointerException если в качестве {@code userAgentInfo} передан {@code null}.
+	 */
+	UserAgentLogRecord(final long offset, final int length, @NotNull final UserAgentInfo userAgentInfo)
+	{
+		Objects.requireNonNull(userAgentInfo);
+
+		this.offset = offset;
+		this.length = length;
+		this.userAgentInfo = userAgentInfo;
+	}
+
+	/**
+	 * Возвращает смещение начала строки в файле журнала.
+	 *
+	 * @return смещение начала строки в байтах.
+	 */
+	public long getOffset()
+	{
+		return this.offset;
+	}
+
+	/**
+	 * Возвращает длину строки.
+	 *
+	 * @return длина строки в байтах без символов конца строки.
+	 */
+	public int getLength()
+	{
+		return this.length;
+	}
+
+	/**
+	 * Возвращает информацию о клиенте.
+	 *
+	 * @return информация о клиенте, или {@link UserAgentInfo#UNKNOWN} если в строке нет поля в кавычках.
+	 */
+	@NotNull
+	public UserAgentInfo getUserAgentInfo()
+	{
+		return this.userAgentInfo;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param o {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(@Nullable final Object o)
+	{
+		if (this == o) {
+			return true;
+		}
+
+		if (!(o instanceof UserAgentLogRecord other)) {
+			return false;
+		}
+
+		return this.offset == other.offset &&
+			this.length == other.length &&
+			this.userAgentInfo.equals(other.userAgentInfo);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(this.offset, this.length, this.userAgentInfo);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public String toString()
+	{
+		return "UserAgentLogRecord{offset=" + this.offset + ", length=" + this.length + ", " + this.userAgentInfo + "}";
+	}
+}
@@ -24,46 +24,166 @@
 
 package dev.kalenchukov.useragent.parsing;
 
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Класс парсинга строки user-agent.
+ * <p>
+ * Методы {@link #parse(CharSequence)} и {@link #parseAll(List)} не изменяют состояние парсера,
+ * поэтому один экземпляр может использоваться одновременно из любого количества потоков без блокировок.
+ * Методы {@link #setUserAgent(String)} и получения отдельных значений сохраняют результат
+ * последнего парсинга в экземпляре и не предназначены для совместного использования.
+ * Без кэша браузер, устройство и операционная система установленной строки определяются
+ * при первом обращении к соответствующим методам и запоминаются.
+ * <p>
+ * Если в {@link ParserSettings} задан {@link UserAgentCache}, результаты парсинга берутся из кэша
+ * по исходной строке user-agent.
+ * <p>
+ * Набор правил берётся из {@link UserAgentRulesHolder} без блокировок один раз на строку user-agent,
+ * поэтому после замены набора правил начатый парсинг завершается по прежнему набору.
  *
  * @author Алексей Каленчуков
  */
 public final class UserAgentParser implements UserAgentParsing
 {
 	/**
-	 * Объект браузера по умолчанию.
+	 * Отформатированная последняя установленная строка user-agent.
 	 */
 	@NotNull
-	private final Browser browser;
+	private String userAgent;
 
 	/**
-	 * Объект устройства по умолчанию.
+	 * Браузер по последней установленной строке user-agent, или {@code null} если ещё не определён.
+	 */
+	@Nullable
+	private Detection<@NotNull BrowserType> browser;
+
+	/**
+	 * Устройство по последней установленной строке user-agent, или {@code null} если ещё не определено.
+	 */
+	@Nullable
+	private Detection<@NotNull DeviceType> device;
+
+	/**
+	 * Операционная система по последней установленной строке user-agent, или {@code null} если ещё не определена.
+	 */
+	@Nullable
+	private Detection<@NotNull OperatingSystemType> operatingSystem;
+
+	/**
+	 * Кэш результатов парсинга.
+	 */
+	@Nullable
+	private final UserAgentCache cache;
+
+	/**
+	 * Механизм определения последней установленной строки user-agent.
 	 */
 	@NotNull
-	private final Device device;
+	private DetectionEngine userAgentEngine;
 
 	/**
-	 * Объект операционной системы по умолчанию.
+	 * Ссылка на набор правил.
 	 */
 	@NotNull
-	private final OperatingSystem operatingSystem;
+	private final UserAgentRulesHolder rules;
+
+	/**
+	 * Тип механизма определения.
+	 */
+	@NotNull
+	private final ParserSettings.Engine engineType;
+
+	/**
+	 * Бюджет проверки правил, или {@code 0} если бюджет не ограничен.
+	 */
+	private final long matchBudget;
+
+	/**
+	 * Метрики правил.
+	 */
+	@Nullable
+	private final RuleMetrics ruleMetrics;
+
+	/**
+	 * Теневая проверка механизма определения.
+	 */
+	@Nullable
+	private final ShadowMode shadowMode;
+
+	/**
+	 * Пул строк версий и моделей.
+	 */
+	@Nullable
+	private final StringPool stringPool;
+
+	/**
+	 * Механизм определения по последнему использованному набору правил.
+	 */
+	@NotNull
+	private volatile DetectionEngine engine;
+
+	/**
+	 * Механизм определения, созданный до замены набора правил, или {@code null} если замены не было.
+	 */
+	@Nullable
+	private volatile DetectionEngine preparedEngine;
+
+	/**
+	 * Максимальная проверяемая длина строки user-agent, или {@code 0} если длина не ограничена.
+	 */
+	private final int maxLength;
+
+	/**
+	 * Действие со строкой user-agent длиннее максимальной.
+	 */
+	@NotNull
+	private final ParserSettings.Overflow overflow;
 
 	/**
 	 * Конструктор для {@code UserAgentParser}.
 	 */
 	public UserAgentParser()
 	{
-		this.browser = new Browser();
-		this.device = new Device();
-		this.operatingSystem = new OperatingSystem();
+		this(new ParserSettings());
+	}
+
+	/**
+	 * Конструктор для {@code UserAgentParser}.
+	 *
+	 * @param settings настройки парсера.
+	 * @throws NullPointerException если в качестве {@code settings} передан {@code null}.
+	 */
+	public UserAgentParser(@NotNull final ParserSettings settings)
+	{
+		Objects.requireNonNull(settings);
+
+		this.userAgent = "";
+		this.browser = DetectionEngine.UNKNOWN_BROWSER;
+		this.device = DetectionEngine.UNKNOWN_DEVICE;
+		this.operatingSystem = DetectionEngine.UNKNOWN_OPERATING_SYSTEM;
+		this.cache = settings.getCache();
+		this.rules = settings.getRulesHolder();
+		this.engineType = settings.getEngine();
+		this.matchBudget = settings.getMatchBudget();
+		this.ruleMetrics = settings.getRuleMetrics();
+		this.shadowMode = settings.getShadowMode();
+		this.stringPool = settings.getStringPool();
+		this.engine = this.createEngine(this.rules.get());
+		this.userAgentEngine = this.engine;
+		this.maxLength = settings.getMaxLength();
+		this.overflow = settings.getOverflow();
+		this.preparedEngine = null;
+		this.rules.register(this);
 	}
 
 	/**
@@ -77,34 +197,211 @@ public final class UserAgentParser implements UserAgentParsing
 	{
 		Objects.requireNonNull(userAgent);
 
-		userAgent = this.format(userAgent);
+		if (this.cache == null)
+		{
+			this.userAgent = this.prepare(userAgent);
+			this.userAgentEngine = this.engine();
+			this.shadow(this.userAgentEngine, this.userAgent);
+			this.browser = null;
+			this.device = null;
+			this.operatingSystem = null;
+		}
+		else
+		{
+			UserAgentInfo userAgentInfo = this.parse(userAgent);
 
-		this.device.setUserAgent(userAgent);
-		this.browser.setUserAgent(userAgent);
-		this.operatingSystem.setUserAgent(userAgent);
+			this.userAgent = "";
+			this.browser = new Detection<>(userAgentInfo.getBrowser(), userAgentInfo.getBrowserVersion());
+			this.device = new Detection<>(userAgentInfo.getDevice(), userAgentInfo.getDeviceModel());
+			this.operatingSystem = new Detection<>(
+				userAgentInfo.getOperatingSystem(), userAgentInfo.getOperatingSystemVersion()
+			);
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 *
+	 * @param userAgent {@inheritDoc}
 	 * @return {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
 	 */
 	@NotNull
 	@Override
-	public Map<@NotNull String, @Nullable String> getAll()
+	public UserAgentInfo parse(@NotNull final CharSequence userAgent)
+	{
+		Objects.requireNonNull(userAgent);
+
+		DetectionEngine engine = this.engine();
+
+		if (this.cache == null) {
+			return this.analyze(engine, userAgent, DetectionEngine.ALL_DIMENSIONS);
+		}
+
+		String key = userAgent.toString();
+
+		UserAgentInfo userAgentInfo = this.cache.get(key, engine.getRules());
+
+		if (userAgentInfo == null)
+		{
+			userAgentInfo = this.analyze(engine, key, DetectionEngine.ALL_DIMENSIONS);
+			this.cache.put(key, engine.getRules(), userAgentInfo);
+		}
+
+		return userAgentInfo;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Если в кэше есть результат парсинга строки, возвращается он со всеми характеристиками.
+	 * Результаты парсинга части характеристик в кэш не сохраняются.
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @param dimensions {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code userAgent} или {@code dimensions} передан {@code null}.
+	 */
+	@NotNull
+	@Override
+	public UserAgentInfo parse(@NotNull final CharSequence userAgent,
+							   @NotNull final Set<@NotNull UserAgentDimension> dimensions)
 	{
-		Map<String, String> allInfo = new HashMap<>();
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(dimensions);
 
-		allInfo.put("browser_name", this.browser.getName());
-		allInfo.put("browser_version", this.browser.getVersion());
+		if (dimensions.containsAll(DetectionEngine.ALL_DIMENSIONS)) {
+			return this.parse(userAgent);
+		}
 
-		allInfo.put("device_type", this.device.getType());
-		allInfo.put("device_model", this.device.getModel());
+		DetectionEngine engine = this.engine();
 
-		allInfo.put("operating_system_name", this.operatingSystem.getName());
-		allInfo.put("operating_system_version", this.operatingSystem.getVersion());
+		if (this.cache != null)
+		{
+			UserAgentInfo userAgentInfo = this.cache.get(userAgent.toString(), engine.getRules());
 
-		return allInfo;
+			if (userAgentInfo != null) {
+				return userAgentInfo;
+			}
+		}
+
+		return this.analyze(engine, userAgent, dimensions);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Если в кэше нет результата парсинга строки, результат сохраняется в кэш
+	 * неизменяемой информацией о клиенте.
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @param userAgentInfo {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code userAgent} или {@code userAgentInfo} передан {@code null}.
+	 */
+	@Override
+	public void parse(@NotNull final CharSequence userAgent, @NotNull final MutableUserAgentInfo userAgentInfo)
+	{
+		Objects.requireNonNull(userAgent);
+		Objects.requireNonNull(userAgentInfo);
+
+		DetectionEngine engine = this.engine();
+
+		if (this.cache == null)
+		{
+			this.analyze(engine, userAgent, userAgentInfo);
+			return;
+		}
+
+		String key = userAgent.toString();
+
+		UserAgentInfo cached = this.cache.get(key, engine.getRules());
+
+		if (cached != null)
+		{
+			userAgentInfo.clear();
+			userAgentInfo.set(cached);
+			return;
+		}
+
+		this.analyze(engine, key, userAgentInfo);
+		this.cache.put(key, engine.getRules(), userAgentInfo.toUserAgentInfo());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @param offset {@inheritDoc}
+	 * @param length {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 * @throws IndexOutOfBoundsException если {@code offset} и {@code length} выходят за границы массива.
+	 */
+	@NotNull
+	@Override
+	public UserAgentInfo parse(final byte @NotNull [] userAgent, final int offset, final int length)
+	{
+		return this.parse(new AsciiCharSequence(userAgent, offset, length));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgent {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 */
+	@NotNull
+	@Override
+	public UserAgentInfo parse(@NotNull final ByteBuffer userAgent)
+	{
+		return this.parse(new AsciiCharSequence(userAgent));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgents {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code userAgents} или одной из строк передан {@code null}.
+	 */
+	@NotNull
+	@Override
+	public List<@NotNull UserAgentInfo> parseAll(@NotNull final List<? extends @NotNull CharSequence> userAgents)
+	{
+		return this.parseAll(userAgents, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param userAgents {@inheritDoc}
+	 * @param executor {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @throws NullPointerException если в качестве {@code userAgents}, одной из строк
+	 * или {@code executor} передан {@code null}.
+	 */
+	@NotNull
+	@Override
+	public List<@NotNull UserAgentInfo> parseAll(@NotNull final List<? extends @NotNull CharSequence> userAgents,
+												 @NotNull final Executor executor)
+	{
+		Objects.requireNonNull(userAgents);
+		Objects.requireNonNull(executor);
+
+		return new UserAgentBatch(userAgents).parse(this::parse, executor);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public Map<@NotNull String, @Nullable String> getAll()
+	{
+		return new UserAgentInfo(this.getBrowser(), this.getDevice(), this.getOperatingSystem()).getAll();
 	}
 
 	/**
@@ -116,7 +413,7 @@ public final class UserAgentParser implements UserAgentParsing
 	@Override
 	public String getBrowserName()
 	{
-		return this.browser.getName();
+		return this.getBrowser().getType().getName();
 	}
 
 	/**
@@ -128,7 +425,7 @@ public final class UserAgentParser implements UserAgentParsing
 	@Override
 	public String getBrowserVersion()
 	{
-		return this.browser.getVersion();
+		return this.getBrowser().getValue();
 	}
 
 	/**
@@ -140,7 +437,7 @@ public final class UserAgentParser implements UserAgentParsing
 	@Override
 	public String getDeviceType()
 	{
-		return this.device.getType();
+		return this.getDevice().getType().getName();
 	}
 
 	/**
@@ -152,7 +449,7 @@ public final class UserAgentParser implements UserAgentParsing
 	@Override
 	public String getDeviceModel()
 	{
-		return this.device.getModel();
+		return this.getDevice().getValue();
 	}
 
 	/**
@@ -164,7 +461,7 @@ public final class UserAgentParser implements UserAgentParsing
 	@Override
 	public String getOperatingSystemName()
 	{
-		return this.operatingSystem.getName();
+		return this.getOperatingSystem().getType().getName();
 	}
 
 	/**
@@ -176,42 +473,269 @@ public final class UserAgentParser implements UserAgentParsing
 	@Override
 	public String getOperatingSystemVersion()
 	{
-		return this.operatingSystem.getVersion();
+		return this.getOperatingSystem().getValue();
+	}
+
+	/**
+	 * Проверяет, исчерпан ли бюджет проверки правил для последней установленной строки user-agent.
+	 * <p>
+	 * Браузер, устройство и операционная система, которые ещё не определены, определяются
+	 * при вызове метода. Если бюджет исчерпан, соответствующие методы получения информации
+	 * возвращают значения неопределённой характеристики.
+	 *
+	 * @return {@code true} если бюджет исчерпан при определении хотя бы одной характеристики, иначе {@code false}.
+	 * @see ParserSettings#setMatchBudget(long)
+	 */
+	public boolean isBudgetExceeded()
+	{
+		boolean browser = this.getBrowser().isBudgetExceeded();
+		boolean device = this.getDevice().isBudgetExceeded();
+		boolean operatingSystem = this.getOperatingSystem().isBudgetExceeded();
+
+		return browser || device || operatingSystem;
+	}
+
+	/**
+	 * Возвращает браузер по последней установленной строке user-agent, определяя его при первом обращении.
+	 *
+	 * @return браузер.
+	 */
+	@NotNull
+	private Detection<@NotNull BrowserType> getBrowser()
+	{
+		if (this.browser == null)
+		{
+			this.browser = this.userAgent.isEmpty()
+				? DetectionEngine.UNKNOWN_BROWSER
+				: this.userAgentEngine.detectBrowser(this.userAgent);
+		}
+
+		return this.browser;
+	}
+
+	/**
+	 * Возвращает устройство по последней установленной строке user-agent, определяя его при первом обращении.
+	 *
+	 * @return устройство.
+	 */
+	@NotNull
+	private Detection<@NotNull DeviceType> getDevice()
+	{
+		if (this.device == null)
+		{
+			this.device = this.userAgent.isEmpty()
+				? DetectionEngine.UNKNOWN_DEVICE
+				: this.userAgentEngine.detectDevice(this.userAgent);
+		}
+
+		return this.device;
+	}
+
+	/**
+	 * Возвращает операционную систему по последней установленной строке user-agent,
+	 * определяя её при первом обращении.
+	 *
+	 * @return операционная система.
+	 */
+	@NotNull
+	private Detection<@NotNull OperatingSystemType> getOperatingSystem()
+	{
+		if (this.operatingSystem == null)
+		{
+			this.operatingSystem = this.userAgent.isEmpty()
+				? DetectionEngine.UNKNOWN_OPERATING_SYSTEM
+				: this.userAgentEngine.detectOperatingSystem(this.userAgent);
+		}
+
+		return this.operatingSystem;
+	}
+
+	/**
+	 * Возвращает механизм определения по текущему набору правил.
+	 * <p>
+	 * Если набор правил заменён, используется механизм, созданный при замене методом {@link #prepare(UserAgentRules)},
+	 * или создаётся механизм по новому набору, а кэш очищается.
+	 * Механизм может быть создан одновременно несколькими потоками, все они равнозначны.
+	 *
+	 * @return механизм определения.
+	 */
+	@NotNull
+	private DetectionEngine engine()
+	{
+		UserAgentRules rules = this.rules.get();
+		DetectionEngine engine = this.engine;
+
+		if (engine.getRules() != rules)
+		{
+			DetectionEngine preparedEngine = this.preparedEngine;
+
+			engine = preparedEngine != null && preparedEngine.getRules() == rules
+				? preparedEngine
+				: this.createEngine(rules);
+			this.engine = engine;
+
+			if (this.cache != null) {
+				this.cache.clear();
+			}
+		}
+
+		return engine;
 	}
 
 	/**
-	 * Форматирует user-agent.
-	 * <ul>
-	 *     <li>Удаляет пробелы между определёнными символами</li>
-	 *     <li>Удаляет множественные пробелы</li>
-	 * </ul>
+	 * Создаёт механизм определения по новому набору правил до его публикации.
+	 * <p>
+	 * Вызывается {@link UserAgentRulesHolder} в потоке, заменяющем набор правил, чтобы механизм
+	 * не создавался в потоке парсинга.
 	 *
+	 * @param rules новый набор правил.
+	 */
+	void prepare(@NotNull final UserAgentRules rules)
+	{
+		this.preparedEngine = this.createEngine(rules);
+	}
+
+	/**
+	 * Возвращает механизм определения, созданный до замены набора правил.
+	 *
+	 * @return механизм определения, или {@code null} если набор правил не заменялся.
+	 */
+	@Nullable
+	DetectionEngine getPreparedEngine()
+	{
+		return this.preparedEngine;
+	}
+
+	/**
+	 * Создаёт механизм определения по набору правил.
+	 *
+	 * @param rules набор правил.
+	 * @return механизм определения.
+	 */
+	@NotNull
+	private DetectionEngine createEngine(@NotNull final UserAgentRules rules)
+	{
+		DetectionEngine engine = switch (this.engineType) {
+			case REGEX -> new RegexEngine(rules, this.ruleMetrics);
+			case AUTOMATON -> new AutomatonEngine(rules);
+		};
+
+		if (this.matchBudget > 0) {
+			engine = new BudgetedEngine(engine, this.matchBudget);
+		}
+
+		return this.stringPool == null ? engine : new InterningEngine(engine, this.stringPool);
+	}
+
+	/**
+	 * Определяет указанные характеристики клиента по строке user-agent.
+	 *
+	 * @param engine механизм определения.
 	 * @param userAgent строка user-agent.
-	 * @return отформатированную строку user-agent.
-	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 * @param dimensions определяемые характеристики.
+	 * @return информацию о клиенте.
 	 */
 	@NotNull
-	private String format(@NotNull final String userAgent)
+	private UserAgentInfo analyze(@NotNull final DetectionEngine engine,
+								  @NotNull final CharSequence userAgent,
+								  @NotNull final Set<@NotNull UserAgentDimension> dimensions)
 	{
-		Objects.requireNonNull(userAgent);
+		String formatted = this.prepare(userAgent);
+
+		if (formatted.isEmpty()) {
+			return UserAgentInfo.UNKNOWN;
+		}
+
+		this.shadow(engine, formatted);
+
+		return engine.detect(formatted, dimensions);
+	}
+
+	/**
+	 * Определяет браузер, устройство и операционную систему по строке user-agent
+	 * и записывает их в изменяемую информацию о клиенте.
+	 *
+	 * @param engine механизм определения.
+	 * @param userAgent строка user-agent.
+	 * @param userAgentInfo изменяемая информация о клиенте.
+	 */
+	private void analyze(@NotNull final DetectionEngine engine,
+						 @NotNull final CharSequence userAgent,
+						 @NotNull final MutableUserAgentInfo userAgentInfo)
+	{
+		StringBuilder buffer = userAgentInfo.clear();
+		CharSequence inspected = this.limit(userAgent);
+
+		if (inspected == null) {
+			return;
+		}
+
+		UserAgentFormatter.format(inspected, buffer);
+
+		if (UserAgentPrefilter.rejects(buffer))
+		{
+			buffer.setLength(0);
+			return;
+		}
+
+		this.shadow(engine, buffer);
+		engine.detect(userAgentInfo);
+	}
+
+	/**
+	 * Передаёт отформатированную строку user-agent на теневую проверку, если она задана.
+	 *
+	 * @param engine механизм определения, которым разбирается строка.
+	 * @param formatted отформатированная строка user-agent.
+	 */
+	private void shadow(@NotNull final DetectionEngine engine, @NotNull final CharSequence formatted)
+	{
+		if (this.shadowMode != null && !formatted.isEmpty()) {
+			this.shadowMode.offer(engine.getRules(), formatted);
+		}
+	}
+
+	/**
+	 * Подготавливает строку user-agent к определению характеристик клиента.
+	 * <p>
+	 * Строка ограничивается максимальной длиной и форматируется. Если строка отклонена
+	 * из-за длины или предварительной проверкой {@link UserAgentPrefilter}, возвращается пустая строка.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return отформатированную строку user-agent, или пустую строку если строка отклонена.
+	 */
+	@NotNull
+	private String prepare(@NotNull final CharSequence userAgent)
+	{
+		CharSequence inspected = this.limit(userAgent);
+
+		if (inspected == null) {
+			return "";
+		}
+
+		String formatted = UserAgentFormatter.format(inspected);
+
+		return UserAgentPrefilter.rejects(formatted) ? "" : formatted;
+	}
+
+	/**
+	 * Ограничивает строку user-agent максимальной длиной.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return строку user-agent не длиннее максимальной, или {@code null} если строка отклонена из-за длины.
+	 */
+	@Nullable
+	private CharSequence limit(@NotNull final CharSequence userAgent)
+	{
+		if (this.maxLength > 0 && userAgent.length() > this.maxLength)
+		{
+			if (this.overflow == ParserSettings.Overflow.REJECT) {
+				return null;
+			}
+
+			return userAgent.subSequence(0, this.maxLength);
+		}
 
-		return userAgent
-			.replaceAll("(\s+)?\\.(\s+)?", ".")
-			.replaceAll("(\s+)?-(\s+)?", "-")
-			.replaceAll("(\s+)?_(\s+)?", "_")
-			.replaceAll("(\s+)?#(\s+)?", "#")
-			.replaceAll("(\s+)?/(\s+)?", "/")
-			.replaceAll("(\s+)?:(\s+)?", ":")
-			.replaceAll("(\s+)?;(\s+)?", ";")
-			.replaceAll("(\s+)?,(\s+)?", ",")
-			.replaceAll("(\s+)?\\((\s+)?", "(")
-			.replaceAll("(\s+)?\\)(\s+)?", ")")
-			.replaceAll("(\s+)?\\[(\s+)?", "[")
-			.replaceAll("(\s+)?\\](\s+)?", "]")
-
-			.replaceAll("\s+", " ")
-
-			.toUpperCase()
-			.trim();
+		return userAgent;
 	}
 }
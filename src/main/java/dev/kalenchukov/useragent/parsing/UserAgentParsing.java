@@ -27,11 +27,19 @@ package dev.kalenchukov.useragent.parsing;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Интерфейс для парсинга строки user-agent.
+ * <p>
+ * Реализация интерфейса должна реализовать {@link #parse(CharSequence)}, остальные методы парсинга
+ * без изменения состояния объекта имеют реализации по умолчанию, основанные на нём.
  *
  * @author Алексей Каленчуков
  */
@@ -39,11 +47,149 @@ public interface UserAgentParsing
 {
 	/**
 	 * Устанавливает строку user-agent о которой необходимо возвращать информацию.
+	 * <p>
+	 * Браузер, устройство и операционная система определяются при первом обращении
+	 * к соответствующим методам получения информации.
 	 *
 	 * @param userAgent строка user-agent.
 	 */
 	void setUserAgent(@NotNull String userAgent);
 
+	/**
+	 * Возвращает информацию о клиенте по строке user-agent.
+	 * <p>
+	 * В отличие от {@link #setUserAgent(String)} метод не изменяет состояние объекта.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return неизменяемая информация о клиенте.
+	 */
+	@NotNull
+	UserAgentInfo parse(@NotNull CharSequence userAgent);
+
+	/**
+	 * Возвращает информацию о клиенте по строке user-agent, определяя только указанные характеристики.
+	 * <p>
+	 * Не указанные характеристики не определяются и в результате имеют значение {@code UNKNOWN}.
+	 * Метод не изменяет состояние объекта. Реализация по умолчанию определяет все характеристики
+	 * методом {@link #parse(CharSequence)} и сбрасывает не указанные.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param dimensions определяемые характеристики.
+	 * @return неизменяемая информация о клиенте.
+	 */
+	@NotNull
+	default UserAgentInfo parse(@NotNull final CharSequence userAgent,
+								@NotNull final Set<@NotNull UserAgentDimension> dimensions)
+	{
+		Objects.requireNonNull(dimensions);
+
+		UserAgentInfo userAgentInfo = this.parse(userAgent);
+
+		return new UserAgentInfo(
+			dimensions.contains(UserAgentDimension.BROWSER)
+				? new Detection<>(userAgentInfo.getBrowser(), userAgentInfo.getBrowserVersion())
+				: DetectionEngine.UNKNOWN_BROWSER,
+			dimensions.contains(UserAgentDimension.DEVICE)
+				? new Detection<>(userAgentInfo.getDevice(), userAgentInfo.getDeviceModel())
+				: DetectionEngine.UNKNOWN_DEVICE,
+			dimensions.contains(UserAgentDimension.OPERATING_SYSTEM)
+				? new Detection<>(userAgentInfo.getOperatingSystem(), userAgentInfo.getOperatingSystemVersion())
+				: DetectionEngine.UNKNOWN_OPERATING_SYSTEM,
+			userAgentInfo.isBudgetExceeded()
+		);
+	}
+
+	/**
+	 * Записывает информацию о клиенте по строке user-agent в изменяемую информацию о клиенте.
+	 * <p>
+	 * Объект {@code userAgentInfo} принадлежит вызывающему коду и может повторно использоваться
+	 * для парсинга других строк, что позволяет не создавать новых объектов на каждую строку.
+	 * Метод не изменяет состояние парсера. Реализация по умолчанию копирует результат
+	 * метода {@link #parse(CharSequence)} и поэтому создаёт объекты.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @param userAgentInfo изменяемая информация о клиенте, в которую записывается результат.
+	 */
+	default void parse(@NotNull final CharSequence userAgent, @NotNull final MutableUserAgentInfo userAgentInfo)
+	{
+		Objects.requireNonNull(userAgentInfo);
+
+		UserAgentInfo parsed = this.parse(userAgent);
+
+		userAgentInfo.clear();
+		userAgentInfo.set(parsed);
+	}
+
+	/**
+	 * Возвращает информацию о клиенте по строке user-agent в кодировке US-ASCII из части массива байтов.
+	 * <p>
+	 * Байты не копируются и не преобразуются в строку, а читаются через {@link AsciiCharSequence}.
+	 * Метод не изменяет состояние объекта.
+	 *
+	 * @param userAgent массив байтов, содержащий строку user-agent.
+	 * @param offset индекс первого байта строки user-agent.
+	 * @param length количество байтов строки user-agent.
+	 * @return неизменяемая информация о клиенте.
+	 */
+	@NotNull
+	default UserAgentInfo parse(final byte @NotNull [] userAgent, final int offset, final int length)
+	{
+		return this.parse(new AsciiCharSequence(userAgent, offset, length));
+	}
+
+	/**
+	 * Возвращает информацию о клиенте по строке user-agent в кодировке US-ASCII из буфера
+	 * от его позиции до границы.
+	 * <p>
+	 * Буфер может быть прямым. Байты не копируются и не преобразуются в строку,
+	 * а читаются через {@link AsciiCharSequence}. Позиция и границы буфера не изменяются.
+	 * Метод не изменяет состояние объекта.
+	 *
+	 * @param userAgent буфер, содержащий строку user-agent.
+	 * @return неизменяемая информация о клиенте.
+	 */
+	@NotNull
+	default UserAgentInfo parse(@NotNull final ByteBuffer userAgent)
+	{
+		return this.parse(new AsciiCharSequence(userAgent));
+	}
+
+	/**
+	 * Возвращает информацию о клиентах по строкам user-agent.
+	 * <p>
+	 * Одинаковые строки разбираются один раз, уникальные строки разбираются параллельно
+	 * в {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+	 * Метод не изменяет состояние объекта.
+	 *
+	 * @param userAgents строки user-agent.
+	 * @return неизменяемый список информации о клиентах в порядке строк {@code userAgents}.
+	 */
+	@NotNull
+	default List<@NotNull UserAgentInfo> parseAll(@NotNull final List<? extends @NotNull CharSequence> userAgents)
+	{
+		return this.parseAll(userAgents, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Возвращает информацию о клиентах по строкам user-agent.
+	 * <p>
+	 * Одинаковые строки разбираются один раз, уникальные строки разбираются параллельно
+	 * задачами в {@code executor}. Метод не изменяет состояние объекта.
+	 *
+	 * @param userAgents строки user-agent.
+	 * @param executor исполнитель задач парсинга.
+	 * @return неизменяемый список информации о клиентах в порядке строк {@code userAgents}.
+	 */
+	@NotNull
+	default List<@NotNull UserAgentInfo> parseAll(@NotNull final List<? extends @NotNull CharSequence> userAgents,
+												  @NotNull final Executor executor)
+	{
+		Objects.requireNonNull(userAgents);
+		Objects.requireNonNull(executor);
+
+		return new UserAgentBatch(userAgents).parse(this::parse, executor);
+	}
+
 	/**
 	 * Возвращает всю информацию о строке user-agent.
 	 *
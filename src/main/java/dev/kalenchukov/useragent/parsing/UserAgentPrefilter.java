@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Класс предварительной проверки строки user-agent перед определением браузера, устройства
+ * и операционной системы.
+ * <p>
+ * Проверка за один проход отсеивает строки, которым не может соответствовать ни одно правило,
+ * и строки, которые не могут быть значением заголовка HTTP, чтобы не проверять их правилами.
+ *
+ * @author Алексей Каленчуков
+ */
+final class UserAgentPrefilter
+{
+	/**
+	 * Конструктор для {@code UserAgentPrefilter}.
+	 */
+	private UserAgentPrefilter()
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Проверяет, нужно ли отклонить строку user-agent без проверки правилами.
+	 * <p>
+	 * Строка отклоняется, если она:
+	 * <ul>
+	 *     <li>не содержит ни одной буквы US-ASCII — каждое правило требует хотя бы одну такую букву,
+	 *     поэтому пустые, числовые и состоящие из знаков препинания строки не определяются</li>
+	 *     <li>содержит управляющие символы, кроме табуляции, — такие символы недопустимы
+	 *     в значении заголовка HTTP и встречаются в двоичных данных</li>
+	 * </ul>
+	 *
+	 * @param userAgent отформатированная строка user-agent.
+	 * @return {@code true} если строку нужно отклонить, иначе {@code false}.
+	 * @throws NullPointerException если в качестве {@code userAgent} передан {@code null}.
+	 */
+	static boolean rejects(@NotNull final CharSequence userAgent)
+	{
+		Objects.requireNonNull(userAgent);
+
+		boolean letter = false;
+
+		for (int index = 0; index < userAgent.length(); index++)
+		{
+			char symbol = userAgent.charAt(index);
+
+			if (symbol < ' ' && symbol != '\t' || symbol == '\u007F') {
+				return true;
+			}
+
+			if (symbol >= 'A' && symbol <= 'Z' || symbol >= 'a' && symbol <= 'z') {
+				letter = true;
+			}
+		}
+
+		return !letter;
+	}
+}
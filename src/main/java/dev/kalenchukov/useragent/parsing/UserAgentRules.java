@@ -0,0 +1,524 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Класс неизменяемого набора правил определения браузера, устройства и операционной системы.
+ * <p>
+ * Правила хранятся в текстовом файле в кодировке UTF-8. Первая значимая строка файла содержит версию
+ * набора правил: {@code version <версия>}. Далее следуют разделы {@code [browser]}, {@code [device]}
+ * и {@code [operating_system]}, каждая строка которых — правило: название константы
+ * {@link BrowserType}, {@link DeviceType} или {@link OperatingSystemType}, символ табуляции
+ * и регулярное выражение. Правила раздела проверяются в порядке следования, выражение проверяется
+ * без учёта регистра и должно соответствовать всей отформатированной строке user-agent.
+ * Версия браузера и операционной системы сохраняется группой {@code version}, модель устройства —
+ * группой {@code model}. Пустые строки и строки, начинающиеся с {@code #}, пропускаются.
+ * <p>
+ * Регулярные выражения компилируются при загрузке набора, поэтому один набор следует
+ * использовать всеми парсерами.
+ *
+ * @author Алексей Каленчуков
+ * @see ParserSettings#setRules(UserAgentRules)
+ * @see UserAgentRulesHolder
+ */
+public final class UserAgentRules
+{
+	/**
+	 * Название ресурса встроенного набора правил.
+	 */
+	@NotNull
+	private static final String RESOURCE = "rules.txt";
+
+	/**
+	 * Префикс строки версии набора правил.
+	 */
+	@NotNull
+	private static final String VERSION = "version ";
+
+	/**
+	 * Версия набора правил.
+	 */
+	@NotNull
+	private final String version;
+
+	/**
+	 * Таблица правил браузеров.
+	 */
+	@NotNull
+	private final RuleTable<@NotNull BrowserType> browserRules;
+
+	/**
+	 * Таблица правил устройств.
+	 */
+	@NotNull
+	private final RuleTable<@NotNull DeviceType> deviceRules;
+
+	/**
+	 * Таблица правил операционных систем.
+	 */
+	@NotNull
+	private final RuleTable<@NotNull OperatingSystemType> operatingSystemRules;
+
+	/**
+	 * Автомат правил, или {@code null} если автомат ещё не создан.
+	 */
+	@Nullable
+	private volatile RuleAutomaton automaton;
+
+	/**
+	 * Общий поиск правил-кандидатов, или {@code null} если он ещё не создан.
+	 */
+	@Nullable
+	private volatile CandidateScan candidateScan;
+
+	/**
+	 * Конструктор для {@code UserAgentRules}.
+	 *
+	 * @param version версия набора правил.
+	 * @param browserRules таблица правил браузеров.
+	 * @param deviceRules таблица правил устройств.
+	 * @param operatingSystemRules таблица правил операционных систем.
+	 */
+	UserAgentRules(@NotNull final String version,
+				   @NotNull final RuleTable<@NotNull BrowserType> browserRules,
+				   @NotNull final RuleTable<@NotNull DeviceType> deviceRules,
+				   @NotNull final RuleTable<@NotNull OperatingSystemType> operatingSystemRules)
+	{
+		this.version = version;
+		this.browserRules = browserRules;
+		this.deviceRules = deviceRules;
+		this.operatingSystemRules = operatingSystemRules;
+		this.automaton = null;
+		this.candidateScan = null;
+	}
+
+	/**
+	 * Возвращает встроенный набор правил.
+	 * <p>
+	 * Набор загружается один раз при первом обращении из двоичного снимка, созданного при сборке,
+	 * а если снимка нет или он устарел — из файла правил.
+	 *
+	 * @return встроенный набор правил.
+	 */
+	@NotNull
+	public static UserAgentRules getDefault()
+	{
+		return Holder.DEFAULT;
+	}
+
+	/**
+	 * Загружает набор правил из файла.
+	 *
+	 * @param path путь к файлу правил.
+	 * @return набор правил.
+	 * @throws NullPointerException если в качестве {@code path} передан {@code null}.
+	 * @throws IOException если файл не удалось прочитать или он содержит ошибки.
+	 */
+	@NotNull
+	public static UserAgentRules load(@NotNull final Path path) throws IOException
+	{
+		Objects.requireNonNull(path);
+
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+		{
+			return UserAgentRules.read(reader);
+		}
+	}
+
+	/**
+	 * Загружает набор правил из потока.
+	 * <p>
+	 * Поток читается до конца и не закрывается.
+	 *
+	 * @param stream поток правил в кодировке UTF-8.
+	 * @return набор правил.
+	 * @throws NullPointerException если в качестве {@code stream} передан {@code null}.
+	 * @throws IOException если поток не удалось прочитать или он содержит ошибки.
+	 */
+	@NotNull
+	public static UserAgentRules load(@NotNull final InputStream stream) throws IOException
+	{
+		Objects.requireNonNull(stream);
+
+		return UserAgentRules.read(new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Возвращает версию набора правил.
+	 *
+	 * @return версия набора правил.
+	 */
+	@NotNull
+	public String getVersion()
+	{
+		return this.version;
+	}
+
+	/**
+	 * Возвращает таблицу правил браузеров.
+	 *
+	 * @return таблица правил браузеров.
+	 */
+	@NotNull
+	RuleTable<@NotNull BrowserType> getBrowserRules()
+	{
+		return this.browserRules;
+	}
+
+	/**
+	 * Возвращает таблицу правил устройств.
+	 *
+	 * @return таблица правил устройств.
+	 */
+	@NotNull
+	RuleTable<@NotNull DeviceType> getDeviceRules()
+	{
+		return this.deviceRules;
+	}
+
+	/**
+	 * Возвращает таблицу правил операционных систем.
+	 *
+	 * @return таблица правил операционных систем.
+	 */
+	@NotNull
+	RuleTable<@NotNull OperatingSystemType> getOperatingSystemRules()
+	{
+		return this.operatingSystemRules;
+	}
+
+	/**
+	 * Возвращает автомат правил браузеров, устройств и операционных систем.
+	 * <p>
+	 * Автомат создаётся при первом обращении.
+	 *
+	 * @return автомат правил.
+	 */
+	@NotNull
+	RuleAutomaton getAutomaton()
+	{
+		RuleAutomaton automaton = this.automaton;
+
+		if (automaton == null)
+		{
+			synchronized (this)
+			{
+				automaton = this.automaton;
+
+				if (automaton == null)
+				{
+					automaton = new RuleAutomaton(
+						List.of(this.browserRules, this.deviceRules, this.operatingSystemRules),
+						List.of(Browser.GROUP, Device.GROUP, OperatingSystem.GROUP)
+					);
+					this.automaton = automaton;
+				}
+			}
+		}
+
+		return automaton;
+	}
+
+	/**
+	 * Возвращает общий поиск правил-кандидатов браузеров, устройств и операционных систем.
+	 * <p>
+	 * Таблицы правил имеют номера {@code 0}, {@code 1} и {@code 2} соответственно.
+	 * Поиск создаётся при первом обращении.
+	 *
+	 * @return общий поиск правил-кандидатов.
+	 */
+	@NotNull
+	CandidateScan getCandidateScan()
+	{
+		CandidateScan candidateScan = this.candidateScan;
+
+		if (candidateScan == null)
+		{
+			synchronized (this)
+			{
+				candidateScan = this.candidateScan;
+
+				if (candidateScan == null)
+				{
+					candidateScan = new CandidateScan(
+						List.of(this.browserRules, this.deviceRules, this.operatingSystemRules)
+					);
+					this.candidateScan = candidateScan;
+				}
+			}
+		}
+
+		return candidateScan;
+	}
+
+	/**
+	 * Компилирует регулярные выражения всех правил, которые ещё не скомпилированы.
+	 */
+	void compile()
+	{
+		for (RuleTable<?> table : List.of(this.browserRules, this.deviceRules, this.operatingSystemRules))
+		{
+			for (Rule<?> rule : table.getRules()) {
+				rule.getPattern();
+			}
+		}
+	}
+
+	/**
+	 * Проверяет, создан ли автомат правил.
+	 *
+	 * @return {@code true} если автомат уже создан, иначе {@code false}.
+	 */
+	boolean hasAutomaton()
+	{
+		return this.automaton != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return {@inheritDoc}
+	 */
+	@NotNull
+	@Override
+	public String toString()
+	{
+		return "UserAgentRules{version=" + this.version + "}";
+	}
+
+	/**
+	 * Читает набор правил.
+	 *
+	 * @param reader источник правил.
+	 * @return набор правил.
+	 * @throws IOException если правила не удалось прочитать или они содержат ошибки.
+	 */
+	@NotNull
+	private static UserAgentRules read(@NotNull final BufferedReader reader) throws IOException
+	{
+		Map<String, BrowserType> browsers = new LinkedHashMap<>();
+		Map<String, DeviceType> devices = new LinkedHashMap<>();
+		Map<String, OperatingSystemType> operatingSystems = new LinkedHashMap<>();
+		String version = null;
+		UserAgentDimension section = null;
+		int number = 0;
+		String line;
+
+		while ((line = reader.readLine()) != null)
+		{
+			number++;
+
+			if (line.isBlank() || line.startsWith("#")) {
+				continue;
+			}
+
+			if (version == null)
+			{
+				if (!line.startsWith(VERSION) || line.substring(VERSION.length()).isBlank()) {
+					throw new IOException("Строка " + number + ": ожидается версия набора правил.");
+				}
+
+				version = line.substring(VERSION.length()).trim();
+				continue;
+			}
+
+			if (line.startsWith("[") && line.endsWith("]"))
+			{
+				section = UserAgentRules.section(line.substring(1, line.length() - 1), number);
+				continue;
+			}
+
+			int separator = line.indexOf('\t');
+
+			if (section == null || separator < 0) {
+				throw new IOException("Строка " + number + ": ожидается раздел или правило.");
+			}
+
+			String name = line.substring(0, separator);
+			String regExp = line.substring(separator + 1);
+
+			try
+			{
+				boolean added = switch (section) {
+					case BROWSER -> browsers.putIfAbsent(regExp, BrowserType.valueOf(name)) == null;
+					case DEVICE -> devices.putIfAbsent(regExp, DeviceType.valueOf(name)) == null;
+					case OPERATING_SYSTEM ->
+						operatingSystems.putIfAbsent(regExp, OperatingSystemType.valueOf(name)) == null;
+				};
+
+				if (!added) {
+					throw new IOException("Строка " + number + ": повторяющееся правило.");
+				}
+			}
+			catch (IllegalArgumentException exception)
+			{
+				throw new IOException("Строка " + number + ": неизвестный тип " + name + ".", exception);
+			}
+		}
+
+		if (version == null) {
+			throw new IOException("Не указана версия набора правил.");
+		}
+
+		try
+		{
+			return new UserAgentRules(
+				version, new RuleTable<>(browsers), new RuleTable<>(devices), new RuleTable<>(operatingSystems)
+			);
+		}
+		catch (PatternSyntaxException exception)
+		{
+			throw new IOException("Ошибка в регулярном выражении правила: " + exception.getPattern(), exception);
+		}
+	}
+
+	/**
+	 * Возвращает характеристику клиента по названию раздела.
+	 *
+	 * @param name название раздела.
+	 * @param number номер строки.
+	 * @return характеристика клиента.
+	 * @throws IOException если раздел неизвестен.
+	 */
+	@NotNull
+	private static UserAgentDimension section(@NotNull final String name, final int number) throws IOException
+	{
+		for (UserAgentDimension dimension : UserAgentDimension.values())
+		{
+			if (dimension.name().toLowerCase(Locale.ROOT).equals(name)) {
+				return dimension;
+			}
+		}
+
+		throw new IOException("Строка " + number + ": неизвестный раздел " + name + ".");
+	}
+
+	/**
+	 * Класс отложенной загрузки встроенного набора правил.
+	 * <p>
+	 * Класс может быть инициализирован при сборке образа GraalVM native-image: в этом случае набор правил
+	 * загружается и все регулярные выражения компилируются при сборке, а образ содержит готовый набор.
+	 */
+	private static final class Holder
+	{
+		/**
+		 * Значение системного свойства {@code org.graalvm.nativeimage.imagecode} при сборке образа native-image.
+		 */
+		@NotNull
+		private static final String IMAGE_BUILD_TIME = "buildtime";
+
+		/**
+		 * Встроенный набор правил.
+		 */
+		@NotNull
+		private static final UserAgentRules DEFAULT = Holder.load();
+
+		/**
+		 * Загружает встроенный набор правил.
+		 *
+		 * @return встроенный набор правил.
+		 * @throws UncheckedIOException если ресурс не найден или содержит ошибки.
+		 */
+		@NotNull
+		private static UserAgentRules load()
+		{
+			UserAgentRules rules = Holder.fromResources();
+
+			if (IMAGE_BUILD_TIME.equals(System.getProperty("org.graalvm.nativeimage.imagecode"))) {
+				rules.compile();
+			}
+
+			return rules;
+		}
+
+		/**
+		 * Читает встроенный набор правил из снимка или из файла правил.
+		 *
+		 * @return встроенный набор правил.
+		 * @throws UncheckedIOException если ресурс не найден или содержит ошибки.
+		 */
+		@NotNull
+		private static UserAgentRules fromResources()
+		{
+			try
+			{
+				byte[] source = Holder.read(RESOURCE);
+
+				if (source == null) {
+					throw new FileNotFoundException(RESOURCE);
+				}
+
+				byte[] snapshot = Holder.read(RuleSnapshot.RESOURCE);
+
+				if (snapshot != null)
+				{
+					try
+					{
+						return RuleSnapshot.read(ByteBuffer.wrap(snapshot), RuleSnapshot.checksum(source));
+					}
+					catch (IOException exception)
+					{
+						// Устаревший или повреждённый снимок заменяется файлом правил
+					}
+				}
+
+				return UserAgentRules.load(new ByteArrayInputStream(source));
+			}
+			catch (IOException exception)
+			{
+				throw new UncheckedIOException(exception);
+			}
+		}
+
+		/**
+		 * Читает ресурс целиком.
+		 *
+		 * @param name название ресурса.
+		 * @return содержимое ресурса, или {@code null} если ресурс не найден.
+		 * @throws IOException если ресурс не удалось прочитать.
+		 */
+		private static byte @Nullable [] read(@NotNull final String name) throws IOException
+		{
+			try (InputStream stream = UserAgentRules.class.getResourceAsStream(name))
+			{
+				return stream == null ? null : stream.readAllBytes();
+			}
+		}
+	}
+}
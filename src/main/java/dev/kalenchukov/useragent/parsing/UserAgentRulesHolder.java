@@ -0,0 +1,328 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Класс изменяемой ссылки на набор правил определения браузера, устройства и операционной системы.
+ * <p>
+ * Новый набор правил загружается и компилируется в потоке, вызвавшем {@link #reload()} или {@link #set(UserAgentRules)},
+ * либо в потоке наблюдения за файлом, и публикуется атомарной заменой ссылки. Парсеры получают набор правил
+ * без блокировок один раз на строку user-agent, поэтому начатый парсинг завершается по прежнему набору,
+ * а следующий выполняется по новому. Результаты, сохранённые в {@link UserAgentCache} по прежнему набору,
+ * после замены не возвращаются.
+ * <p>
+ * Механизмы определения парсеров, использующих ссылку, создаются по новому набору правил до замены
+ * в том же потоке, поэтому первый парсинг после замены не ожидает их создания.
+ * <p>
+ * Если новый набор правил не удалось загрузить, продолжает использоваться прежний.
+ *
+ * @author Алексей Каленчуков
+ * @see ParserSettings#setRules(UserAgentRulesHolder)
+ */
+public final class UserAgentRulesHolder implements AutoCloseable
+{
+	/**
+	 * Путь к файлу правил, или {@code null} если набор правил задаётся только методом {@link #set(UserAgentRules)}.
+	 */
+	@Nullable
+	private final Path path;
+
+	/**
+	 * Текущий набор правил.
+	 */
+	@NotNull
+	private final AtomicReference<@NotNull UserAgentRules> rules;
+
+	/**
+	 * Слабые ссылки на парсеры, использующие набор правил.
+	 */
+	@NotNull
+	private final List<@NotNull WeakReference<@NotNull UserAgentParser>> parsers;
+
+	/**
+	 * Служба наблюдения за каталогом файла правил, или {@code null} если наблюдение не запущено.
+	 */
+	@Nullable
+	private WatchService watchService;
+
+	/**
+	 * Ошибка последней загрузки правил потоком наблюдения, или {@code null} если ошибки не было.
+	 */
+	@Nullable
+	private volatile IOException lastError;
+
+	/**
+	 * Конструктор для {@code UserAgentRulesHolder}.
+	 *
+	 * @param rules начальный набор правил.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 */
+	public UserAgentRulesHolder(@NotNull final UserAgentRules rules)
+	{
+		Objects.requireNonNull(rules);
+
+		this.path = null;
+		this.rules = new AtomicReference<>(rules);
+		this.parsers = new ArrayList<>();
+		this.watchService = null;
+		this.lastError = null;
+	}
+
+	/**
+	 * Конструктор для {@code UserAgentRulesHolder}.
+	 * <p>
+	 * Начальный набор правил загружается из файла.
+	 *
+	 * @param path путь к файлу правил.
+	 * @throws NullPointerException если в качестве {@code path} передан {@code null}.
+	 * @throws IOException если файл не удалось прочитать или правила содержат ошибки.
+	 * @see UserAgentRules#load(Path)
+	 */
+	public UserAgentRulesHolder(@NotNull final Path path) throws IOException
+	{
+		Objects.requireNonNull(path);
+
+		this.path = path.toAbsolutePath();
+		this.rules = new AtomicReference<>(UserAgentRules.load(this.path));
+		this.parsers = new ArrayList<>();
+		this.watchService = null;
+		this.lastError = null;
+	}
+
+	/**
+	 * Возвращает текущий набор правил.
+	 *
+	 * @return набор правил.
+	 */
+	@NotNull
+	public UserAgentRules get()
+	{
+		return this.rules.get();
+	}
+
+	/**
+	 * Заменяет текущий набор правил.
+	 * <p>
+	 * Общий поиск правил-кандидатов нового набора и механизмы определения парсеров, использующих
+	 * ссылку, создаются до замены, чтобы парсинг не ожидал их создания. Если автомат текущего набора
+	 * уже создан, автомат нового набора также создаётся до замены.
+	 *
+	 * @param rules новый набор правил.
+	 * @throws NullPointerException если в качестве {@code rules} передан {@code null}.
+	 */
+	public synchronized void set(@NotNull final UserAgentRules rules)
+	{
+		Objects.requireNonNull(rules);
+
+		rules.getCandidateScan();
+
+		if (this.rules.get().hasAutomaton()) {
+			rules.getAutomaton();
+		}
+
+		Iterator<WeakReference<UserAgentParser>> iterator = this.parsers.iterator();
+
+		while (iterator.hasNext())
+		{
+			UserAgentParser parser = iterator.next().get();
+
+			if (parser == null) {
+				iterator.remove();
+			}
+			else {
+				parser.prepare(rules);
+			}
+		}
+
+		this.rules.set(rules);
+	}
+
+	/**
+	 * Регистрирует парсер, механизм определения которого создаётся при замене набора правил.
+	 * <p>
+	 * Парсер хранится по слабой ссылке и не удерживается от сборки мусора.
+	 *
+	 * @param parser парсер.
+	 * @throws NullPointerException если в качестве {@code parser} передан {@code null}.
+	 */
+	synchronized void register(@NotNull final UserAgentParser parser)
+	{
+		Objects.requireNonNull(parser);
+
+		this.parsers.removeIf(reference -> reference.get() == null);
+		this.parsers.add(new WeakReference<>(parser));
+	}
+
+	/**
+	 * Загружает набор правил из файла повторно и заменяет им текущий набор.
+	 *
+	 * @return новый набор правил.
+	 * @throws IllegalStateException если путь к файлу правил не задан.
+	 * @throws IOException если файл не удалось прочитать или правила содержат ошибки;
+	 * в этом случае текущий набор правил не изменяется.
+	 */
+	@NotNull
+	public UserAgentRules reload() throws IOException
+	{
+		if (this.path == null) {
+			throw new IllegalStateException("Путь к файлу правил не задан.");
+		}
+
+		UserAgentRules rules = UserAgentRules.load(this.path);
+		this.set(rules);
+
+		return rules;
+	}
+
+	/**
+	 * Запускает наблюдение за файлом правил.
+	 * <p>
+	 * При создании или изменении файла набор правил загружается повторно в отдельном потоке-демоне.
+	 * Ошибка загрузки не прерывает наблюдение и доступна через {@link #getLastError()}.
+	 * Повторный вызов при запущенном наблюдении ничего не делает.
+	 *
+	 * @throws IllegalStateException если путь к файлу правил не задан.
+	 * @throws IOException если наблюдение за каталогом файла правил не удалось запустить.
+	 */
+	public synchronized void watch() throws IOException
+	{
+		if (this.path == null) {
+			throw new IllegalStateException("Путь к файлу правил не задан.");
+		}
+
+		if (this.watchService != null) {
+			return;
+		}
+
+		WatchService watchService = this.path.getFileSystem().newWatchService();
+
+		try
+		{
+			this.path.getParent().register(
+				watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY
+			);
+		}
+		catch (IOException exception)
+		{
+			watchService.close();
+
+			throw exception;
+		}
+
+		Thread watcher = new Thread(() -> this.watch(watchService), "user-agent-rules-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+
+		this.watchService = watchService;
+	}
+
+	/**
+	 * Возвращает ошибку последней загрузки правил потоком наблюдения.
+	 *
+	 * @return ошибку загрузки, или {@code null} если последняя загрузка была успешной или не выполнялась.
+	 */
+	@Nullable
+	public IOException getLastError()
+	{
+		return this.lastError;
+	}
+
+	/**
+	 * Останавливает наблюдение за файлом правил.
+	 * <p>
+	 * Текущий набор правил остаётся доступным.
+	 *
+	 * @throws IOException если службу наблюдения не удалось закрыть.
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (this.watchService != null)
+		{
+			this.watchService.close();
+			this.watchService = null;
+		}
+	}
+
+	/**
+	 * Ожидает изменения файла правил и загружает набор правил повторно до закрытия службы наблюдения.
+	 *
+	 * @param watchService служба наблюдения за каталогом файла правил.
+	 */
+	private void watch(@NotNull final WatchService watchService)
+	{
+		Path fileName = Objects.requireNonNull(this.path).getFileName();
+
+		while (true)
+		{
+			WatchKey key;
+
+			try
+			{
+				key = watchService.take();
+			}
+			catch (ClosedWatchServiceException | InterruptedException exception)
+			{
+				return;
+			}
+
+			boolean changed = false;
+
+			for (WatchEvent<?> event : key.pollEvents())
+			{
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+					changed = true;
+				}
+			}
+
+			key.reset();
+
+			if (changed)
+			{
+				try
+				{
+					this.reload();
+					this.lastError = null;
+				}
+				catch (IOException exception)
+				{
+					this.lastError = exception;
+				}
+			}
+		}
+	}
+}
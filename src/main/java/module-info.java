@@ -3,7 +3,9 @@
  */
 module dev.kalenchukov.useragent.parsing
 {
+	requires java.management;
 	requires org.jetbrains.annotations;
 
 	exports dev.kalenchukov.useragent.parsing;
+	exports dev.kalenchukov.useragent.parsing.resources;
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link AsciiCharSequence}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class AsciiCharSequenceTest
+{
+	private static final ByteBuffer BUFFER = ByteBuffer.wrap("\"Mozilla/5.0 (X11)\"".getBytes(StandardCharsets.US_ASCII));
+
+	/**
+	 * Проверка метода {@link AsciiCharSequence#length()}.
+	 */
+	@Test
+	public void length()
+	{
+		CharSequence charSequence = new AsciiCharSequence(BUFFER, 1, 17);
+
+		int actual = charSequence.length();
+
+		assertThat(actual).isEqualTo(17);
+	}
+
+	/**
+	 * Проверка метода {@link AsciiCharSequence#charAt(int)}.
+	 */
+	@Test
+	public void charAt()
+	{
+		CharSequence charSequence = new AsciiCharSequence(BUFFER, 1, 17);
+
+		assertThat(charSequence.charAt(0)).isEqualTo('M');
+		assertThat(charSequence.charAt(16)).isEqualTo(')');
+		assertThatThrownBy(() -> charSequence.charAt(17)).isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	/**
+	 * Проверка метода {@link AsciiCharSequence#charAt(int)} с байтом вне US-ASCII.
+	 */
+	@Test
+	public void charAtWithLatin1()
+	{
+		CharSequence charSequence = new AsciiCharSequence(ByteBuffer.wrap(new byte[] { (byte) 0xE9 }), 0, 1);
+
+		char actual = charSequence.charAt(0);
+
+		assertThat(actual).isEqualTo('é');
+	}
+
+	/**
+	 * Проверка метода {@link AsciiCharSequence#subSequence(int, int)}.
+	 */
+	@Test
+	public void subSequence()
+	{
+		CharSequence charSequence = new AsciiCharSequence(BUFFER, 1, 17);
+
+		CharSequence actual = charSequence.subSequence(0, 7);
+
+		assertThat(actual.toString()).isEqualTo("Mozilla");
+	}
+
+	/**
+	 * Проверка метода {@link AsciiCharSequence#toString()}.
+	 */
+	@Test
+	public void testToString()
+	{
+		CharSequence charSequence = new AsciiCharSequence(BUFFER, 1, 17);
+
+		String actual = charSequence.toString();
+
+		assertThat(actual).isEqualTo("Mozilla/5.0 (X11)");
+		assertThat(BUFFER.position()).isZero();
+	}
+
+	/**
+	 * Проверка конструктора {@link AsciiCharSequence#AsciiCharSequence(byte[], int, int)}.
+	 */
+	@Test
+	public void constructorWithBytes()
+	{
+		byte[] bytes = "\"Mozilla/5.0 (X11)\"".getBytes(StandardCharsets.US_ASCII);
+
+		CharSequence charSequence = new AsciiCharSequence(bytes, 1, 17);
+
+		assertThat(charSequence.toString()).isEqualTo("Mozilla/5.0 (X11)");
+		assertThatThrownBy(() -> new AsciiCharSequence(bytes, 10, 100))
+			.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	/**
+	 * Проверка конструктора {@link AsciiCharSequence#AsciiCharSequence(ByteBuffer)} с прямым буфером.
+	 */
+	@Test
+	public void constructorWithDirectBuffer()
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER.capacity());
+		buffer.put(BUFFER.duplicate()).position(1).limit(18);
+
+		CharSequence charSequence = new AsciiCharSequence(buffer);
+
+		assertThat(charSequence.toString()).isEqualTo("Mozilla/5.0 (X11)");
+		assertThat(buffer.position()).isEqualTo(1);
+		assertThat(buffer.limit()).isEqualTo(18);
+	}
+
+	/**
+	 * Проверка конструктора {@link AsciiCharSequence} с границами вне буфера.
+	 */
+	@Test
+	public void constructorWithOutOfBounds()
+	{
+		assertThatThrownBy(() -> new AsciiCharSequence(BUFFER, 10, 100))
+			.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+}
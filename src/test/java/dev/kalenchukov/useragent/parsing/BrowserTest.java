@@ -83,4 +83,20 @@ public class BrowserTest
 
 		assertThat(actualVersion).isEqualTo("89.0.4389.105");
 	}
+
+	/**
+	 * Проверка метода {@link Browser#getName()} со строкой браузера Baidu.
+	 */
+	@Test
+	public void getNameWithBaiduBrowser()
+	{
+		Browser browser = new Browser();
+		browser.setUserAgent(
+			"Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.36 (KHTML, like Gecko) " +
+			"Chrome/47.0.2526.106 BIDUBrowser/8.7 Safari/537.36"
+		);
+
+		assertThat(browser.getName()).isEqualTo("Baidu");
+		assertThat(browser.getVersion()).isEqualTo("8.7");
+	}
 }
\ No newline at end of file
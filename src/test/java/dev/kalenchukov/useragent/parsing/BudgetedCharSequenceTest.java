@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link BudgetedCharSequence}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class BudgetedCharSequenceTest
+{
+	/**
+	 * Проверка метода {@link BudgetedCharSequence#charAt(int)}.
+	 */
+	@Test
+	public void charAt()
+	{
+		BudgetedCharSequence charSequence = new BudgetedCharSequence("MOZILLA", 2);
+
+		assertThat(charSequence.charAt(0)).isEqualTo('M');
+		assertThat(charSequence.charAt(6)).isEqualTo('A');
+		assertThat(charSequence.getRemaining()).isZero();
+		assertThatThrownBy(() -> charSequence.charAt(1)).isInstanceOf(MatchBudgetExceededException.class);
+	}
+
+	/**
+	 * Проверка метода {@link BudgetedCharSequence#charge(long)}.
+	 */
+	@Test
+	public void charge()
+	{
+		BudgetedCharSequence charSequence = new BudgetedCharSequence("MOZILLA", 5);
+
+		charSequence.charge(3);
+
+		assertThat(charSequence.getRemaining()).isEqualTo(2);
+		assertThatThrownBy(() -> charSequence.charge(3)).isInstanceOf(MatchBudgetExceededException.class);
+		assertThatThrownBy(() -> charSequence.charAt(0)).isInstanceOf(MatchBudgetExceededException.class);
+	}
+
+	/**
+	 * Проверка метода {@link BudgetedCharSequence#subSequence(int, int)}.
+	 */
+	@Test
+	public void subSequence()
+	{
+		BudgetedCharSequence charSequence = new BudgetedCharSequence("MOZILLA/5.0", 0);
+
+		CharSequence actual = charSequence.subSequence(8, 11);
+
+		assertThat(actual.toString()).isEqualTo("5.0");
+		assertThat(charSequence.length()).isEqualTo(11);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link CandidateScan}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class CandidateScanTest
+{
+	/**
+	 * Проверка метода {@link CandidateScan#offset(int)}.
+	 */
+	@Test
+	public void offset()
+	{
+		CandidateScan candidateScan = new CandidateScan(List.of(
+			new RuleTable<>(Map.of(".*Firefox.*", BrowserType.FIREFOX)),
+			new RuleTable<>(Map.of(".*HbbTV.*", DeviceType.TV))
+		));
+
+		assertThat(candidateScan.offset(0)).isEqualTo(0);
+		assertThat(candidateScan.offset(1)).isEqualTo(1);
+		assertThatThrownBy(() -> candidateScan.offset(2)).isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	/**
+	 * Проверка метода {@link CandidateScan#candidates(CharSequence, BitSet)}.
+	 */
+	@Test
+	public void candidates()
+	{
+		Map<String, BrowserType> browsers = new LinkedHashMap<>();
+		browsers.put(".*Firefox.*", BrowserType.FIREFOX);
+		browsers.put(".*Chrome.*", BrowserType.GOOGLE_CHROME);
+		Map<String, DeviceType> devices = new LinkedHashMap<>();
+		devices.put(".*HbbTV.*", DeviceType.TV);
+		devices.put(".*", DeviceType.PC);
+		devices.put(".*Android.*", DeviceType.MOBILE);
+		CandidateScan candidateScan = new CandidateScan(List.of(new RuleTable<>(browsers), new RuleTable<>(devices)));
+		BitSet candidates = new BitSet();
+		candidates.set(1);
+
+		candidateScan.candidates("linux; android 13 chrome/118.0", candidates);
+
+		assertThat(candidates.stream()).containsExactly(1, 3, 4);
+	}
+
+	/**
+	 * Проверка метода {@link CandidateScan#candidates(CharSequence, BitSet)}
+	 * на соответствие кандидатам каждой таблицы правил.
+	 */
+	@Test
+	public void candidatesOfDefaultRules()
+	{
+		UserAgentRules rules = UserAgentRules.getDefault();
+		List<RuleTable<?>> tables = List.of(
+			rules.getBrowserRules(), rules.getDeviceRules(), rules.getOperatingSystemRules()
+		);
+		CandidateScan candidateScan = rules.getCandidateScan();
+		String userAgent = UserAgentFormatter.format(
+			"Mozilla/5.0 (Linux; Android 6.0.1; SM-A300FU Build/MMB29M; wv) AppleWebKit/537.36 " +
+			"(KHTML, like Gecko) Version/4.0 Chrome/118.0.0.0 Mobile Safari/537.36"
+		);
+		BitSet candidates = new BitSet();
+
+		candidateScan.candidates(userAgent, candidates);
+
+		for (int table = 0; table < tables.size(); table++)
+		{
+			int offset = candidateScan.offset(table);
+			int limit = offset + tables.get(table).getRules().size();
+
+			assertThat(candidates.get(offset, limit)).isEqualTo(tables.get(table).candidates(userAgent));
+		}
+	}
+}
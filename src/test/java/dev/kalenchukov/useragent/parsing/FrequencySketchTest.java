@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link FrequencySketch}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class FrequencySketchTest
+{
+	/**
+	 * Проверка метода {@link FrequencySketch#increment(int)}.
+	 */
+	@Test
+	public void increment()
+	{
+		FrequencySketch sketch = new FrequencySketch(64);
+
+		for (int i = 0; i < 5; i++) {
+			sketch.increment(42);
+		}
+
+		assertThat(sketch.frequency(42)).isEqualTo(5);
+		assertThat(sketch.frequency(43)).isLessThan(5);
+	}
+
+	/**
+	 * Проверка максимального значения метода {@link FrequencySketch#frequency(int)}.
+	 */
+	@Test
+	public void frequencyMaximum()
+	{
+		FrequencySketch sketch = new FrequencySketch(64);
+
+		for (int i = 0; i < 100; i++) {
+			sketch.increment(42);
+		}
+
+		assertThat(sketch.frequency(42)).isEqualTo(15);
+	}
+
+	/**
+	 * Проверка уменьшения счётчиков вдвое.
+	 */
+	@Test
+	public void reset()
+	{
+		FrequencySketch sketch = new FrequencySketch(1);
+
+		for (int i = 0; i < 10; i++) {
+			sketch.increment(42);
+		}
+
+		assertThat(sketch.frequency(42)).isBetween(1, 5);
+	}
+}
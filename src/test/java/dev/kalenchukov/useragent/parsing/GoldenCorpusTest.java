@@ -0,0 +1,280 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс регрессионной проверки парсинга на эталонном наборе строк user-agent.
+ * <p>
+ * Метки эталонного набора записаны по результатам самого парсинга, а не проверены независимо,
+ * поэтому набор обнаруживает изменения результатов, но не подтверждает их правильность.
+ * Строки с заведомо неверными метками отмечены в наборе комментарием с правильным значением.
+ *
+ * @author Алексей Каленчуков
+ */
+public class GoldenCorpusTest
+{
+	private static final String CORPUS = "golden-corpus.tsv.gz";
+
+	private static final int CACHE_SIZE = 1024;
+
+	/**
+	 * Проверка методов парсинга {@link UserAgentParser} на эталонном наборе.
+	 * <p>
+	 * Каждая строка набора разбирается каждым механизмом определения через каждый способ вызова,
+	 * и результат должен совпадать с записанным в наборе.
+	 */
+	@ParameterizedTest(name = "{0} {1}")
+	@MethodSource("parsers")
+	public void parse(@NotNull final ParserSettings.Engine engine, @NotNull final EntryPoint entryPoint) throws IOException
+	{
+		ParserSettings settings = new ParserSettings();
+		settings.setEngine(engine);
+
+		if (entryPoint == EntryPoint.CACHE) {
+			settings.setCache(new UserAgentCache(CACHE_SIZE));
+		}
+
+		UserAgentParser userAgentParser = new UserAgentParser(settings);
+		MutableUserAgentInfo mutableUserAgentInfo = new MutableUserAgentInfo();
+		List<String> mismatches = new ArrayList<>();
+
+		for (String[] entry : load())
+		{
+			String userAgent = entry[0];
+			UserAgentInfo expected = expected(entry);
+
+			UserAgentInfo actual = switch (entryPoint)
+			{
+				case STRING -> userAgentParser.parse(userAgent);
+				case CACHE -> {
+					userAgentParser.parse(userAgent);
+					yield userAgentParser.parse(userAgent);
+				}
+				case MUTABLE -> {
+					userAgentParser.parse(userAgent, mutableUserAgentInfo);
+					yield mutableUserAgentInfo.toUserAgentInfo();
+				}
+				case BYTES -> {
+					byte[] bytes = ("\t" + userAgent + "\t").getBytes(StandardCharsets.US_ASCII);
+					yield userAgentParser.parse(bytes, 1, bytes.length - 2);
+				}
+				case BYTE_BUFFER -> {
+					byte[] bytes = userAgent.getBytes(StandardCharsets.US_ASCII);
+					ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1);
+					buffer.put((byte) '\t').put(bytes).position(1);
+					yield userAgentParser.parse(buffer);
+				}
+			};
+
+			if (!expected.equals(actual)) {
+				mismatches.add(userAgent + ": " + expected + " != " + actual);
+			}
+		}
+
+		assertThat(mismatches).isEmpty();
+	}
+
+	/**
+	 * Проверка механизма {@link CascadeEngine} на эталонном наборе.
+	 * <p>
+	 * Механизм проверяет все правила без отбора кандидатов, поэтому совпадение с набором
+	 * подтверждает, что отбор кандидатов в остальных механизмах не теряет правил.
+	 */
+	@Test
+	public void cascade() throws IOException
+	{
+		DetectionEngine engine = new CascadeEngine(UserAgentRules.getDefault());
+		List<String> mismatches = new ArrayList<>();
+
+		for (String[] entry : load())
+		{
+			UserAgentInfo expected = expected(entry);
+			UserAgentInfo actual = engine.detect(UserAgentFormatter.format(entry[0]), DetectionEngine.ALL_DIMENSIONS);
+
+			if (!expected.equals(actual)) {
+				mismatches.add(entry[0] + ": " + expected + " != " + actual);
+			}
+		}
+
+		assertThat(mismatches).isEmpty();
+	}
+
+	/**
+	 * Проверка полноты эталонного набора.
+	 * <p>
+	 * Набор должен содержать каждый тип, который может определить набор правил по умолчанию,
+	 * а также неопределённые значения.
+	 */
+	@Test
+	public void coverage() throws IOException
+	{
+		Set<Object> expected = new HashSet<>();
+		expected.add(BrowserType.UNKNOWN);
+		expected.add(DeviceType.UNKNOWN);
+		expected.add(OperatingSystemType.UNKNOWN);
+
+		UserAgentRules rules = UserAgentRules.getDefault();
+		rules.getBrowserRules().getRules().forEach(rule -> expected.add(rule.getType()));
+		rules.getDeviceRules().getRules().forEach(rule -> expected.add(rule.getType()));
+		rules.getOperatingSystemRules().getRules().forEach(rule -> expected.add(rule.getType()));
+
+		Set<Object> actual = new HashSet<>();
+
+		for (String[] entry : load())
+		{
+			actual.add(BrowserType.valueOf(entry[1]));
+			actual.add(DeviceType.valueOf(entry[3]));
+			actual.add(OperatingSystemType.valueOf(entry[5]));
+		}
+
+		assertThat(actual).containsAll(expected);
+	}
+
+	/**
+	 * Возвращает аргументы проверки методов парсинга.
+	 *
+	 * @return поток аргументов: механизм определения и способ вызова.
+	 */
+	@NotNull
+	private static Stream<@NotNull Arguments> parsers()
+	{
+		return Arrays.stream(ParserSettings.Engine.values())
+			.flatMap(engine -> Arrays.stream(EntryPoint.values()).map(entryPoint -> Arguments.of(engine, entryPoint)));
+	}
+
+	/**
+	 * Загружает эталонный набор строк user-agent.
+	 *
+	 * @return записи набора, каждая из семи значений.
+	 */
+	@NotNull
+	private static List<@NotNull String @NotNull []> load() throws IOException
+	{
+		List<String[]> entries = new ArrayList<>();
+
+		try (InputStream stream = GoldenCorpusTest.class.getResourceAsStream(CORPUS))
+		{
+			assertThat(stream).isNotNull();
+
+			BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new GZIPInputStream(stream), StandardCharsets.UTF_8)
+			);
+
+			String line;
+
+			while ((line = reader.readLine()) != null)
+			{
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+
+				String[] entry = line.split("\t", -1);
+
+				assertThat(entry).hasSize(7);
+				entries.add(entry);
+			}
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Возвращает информацию о клиенте, записанную в эталонном наборе.
+	 *
+	 * @param entry запись набора.
+	 * @return информация о клиенте.
+	 */
+	@NotNull
+	private static UserAgentInfo expected(@NotNull final String @NotNull [] entry)
+	{
+		return new UserAgentInfo(
+			new Detection<>(BrowserType.valueOf(entry[1]), value(entry[2])),
+			new Detection<>(DeviceType.valueOf(entry[3]), value(entry[4])),
+			new Detection<>(OperatingSystemType.valueOf(entry[5]), value(entry[6]))
+		);
+	}
+
+	/**
+	 * Возвращает значение записи.
+	 *
+	 * @param value значение записи.
+	 * @return значение, или {@code null} если значение пустое.
+	 */
+	@Nullable
+	private static String value(@NotNull final String value)
+	{
+		return value.isEmpty() ? null : value;
+	}
+
+	/**
+	 * Способы вызова парсинга.
+	 */
+	private enum EntryPoint
+	{
+		/**
+		 * Метод {@link UserAgentParser#parse(CharSequence)}.
+		 */
+		STRING,
+
+		/**
+		 * Метод {@link UserAgentParser#parse(CharSequence)} с кэшем, повторный вызов.
+		 */
+		CACHE,
+
+		/**
+		 * Метод {@link UserAgentParser#parse(CharSequence, MutableUserAgentInfo)}.
+		 */
+		MUTABLE,
+
+		/**
+		 * Метод {@link UserAgentParser#parse(byte[], int, int)}.
+		 */
+		BYTES,
+
+		/**
+		 * Метод {@link UserAgentParser#parse(ByteBuffer)}.
+		 */
+		BYTE_BUFFER
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link LiteralIndex}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class LiteralIndexTest
+{
+	/**
+	 * Проверка метода {@link LiteralIndex#collect(CharSequence, BitSet)}.
+	 */
+	@Test
+	public void collect()
+	{
+		LiteralIndex literalIndex = new LiteralIndex(List.of("he", "she", "his", "hers"));
+		BitSet found = new BitSet();
+
+		literalIndex.collect("USHERS", found);
+
+		assertThat(found.stream().toArray()).containsExactly(0, 1, 3);
+	}
+
+	/**
+	 * Проверка метода {@link LiteralIndex#collect(CharSequence, BitSet)} с пропущенными литералами.
+	 */
+	@Test
+	public void collectWithNull()
+	{
+		LiteralIndex literalIndex = new LiteralIndex(Arrays.asList(null, "windows nt ", "win"));
+		BitSet found = new BitSet();
+
+		literalIndex.collect("Mozilla/5.0 (Windows NT 10.0; Win64; x64)", found);
+
+		assertThat(found.stream().toArray()).containsExactly(1, 2);
+	}
+
+	/**
+	 * Проверка метода {@link LiteralIndex#collect(CharSequence, BitSet)} с символами вне US-ASCII.
+	 */
+	@Test
+	public void collectWithNonAscii()
+	{
+		LiteralIndex literalIndex = new LiteralIndex(List.of("ab"));
+		BitSet found = new BitSet();
+
+		literalIndex.collect("aЯb", found);
+
+		assertThat(found.isEmpty()).isTrue();
+	}
+
+	/**
+	 * Проверка конструктора {@link LiteralIndex} с пустым литералом.
+	 */
+	@Test
+	public void constructorWithEmptyLiteral()
+	{
+		assertThatThrownBy(() -> new LiteralIndex(List.of(""))).isInstanceOf(IllegalArgumentException.class);
+	}
+}
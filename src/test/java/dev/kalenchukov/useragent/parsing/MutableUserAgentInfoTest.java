@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link MutableUserAgentInfo}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class MutableUserAgentInfoTest
+{
+	private static final UserAgentInfo USER_AGENT_INFO = new UserAgentInfo(
+		new Detection<>(BrowserType.SAFARI, "17.0"),
+		new Detection<>(DeviceType.MOBILE, "IPHONE"),
+		new Detection<>(OperatingSystemType.IOS, "17.0.3")
+	);
+
+	/**
+	 * Проверка конструктора {@link MutableUserAgentInfo#MutableUserAgentInfo()}.
+	 */
+	@Test
+	public void constructor()
+	{
+		MutableUserAgentInfo userAgentInfo = new MutableUserAgentInfo();
+
+		assertThat(userAgentInfo.toUserAgentInfo()).isEqualTo(UserAgentInfo.UNKNOWN);
+		assertThat(userAgentInfo.getBrowserVersionStart()).isEqualTo(-1);
+		assertThat(userAgentInfo.getPackedBrowserVersion()).isEqualTo(PackedVersion.NONE);
+		assertThat(userAgentInfo.getBuffer()).isEmpty();
+	}
+
+	/**
+	 * Проверка метода {@link MutableUserAgentInfo#toUserAgentInfo()}.
+	 */
+	@Test
+	public void toUserAgentInfo()
+	{
+		MutableUserAgentInfo userAgentInfo = new MutableUserAgentInfo();
+		userAgentInfo.set(USER_AGENT_INFO);
+
+		assertThat(userAgentInfo.toUserAgentInfo()).isEqualTo(USER_AGENT_INFO);
+		assertThat(userAgentInfo.getBrowser()).isEqualTo(BrowserType.SAFARI);
+		assertThat(userAgentInfo.getPackedOperatingSystemVersion()).isEqualTo(PackedVersion.pack(17, 0, 3));
+		assertThat(userAgentInfo.getBuffer().subSequence(
+			userAgentInfo.getDeviceModelStart(), userAgentInfo.getDeviceModelEnd()
+		).toString()).isEqualTo("IPHONE");
+	}
+
+	/**
+	 * Проверка метода {@link MutableUserAgentInfo#setOperatingSystem(OperatingSystemType, CharSequence, int, int)}
+	 * со значением из буфера.
+	 */
+	@Test
+	public void setOperatingSystem()
+	{
+		MutableUserAgentInfo userAgentInfo = new MutableUserAgentInfo();
+		userAgentInfo.clear().append("CPU IPHONE OS 17_0_3 LIKE MAC OS X");
+
+		userAgentInfo.setOperatingSystem(OperatingSystemType.IOS, userAgentInfo.getBuffer(), 13, 21);
+
+		assertThat(userAgentInfo.getOperatingSystemVersion()).isEqualTo("17.0.3");
+		assertThat(userAgentInfo.getOperatingSystemVersionStart()).isEqualTo(34);
+		assertThat(userAgentInfo.getOperatingSystemVersionEnd()).isEqualTo(40);
+		assertThat(userAgentInfo.getBuffer().toString()).startsWith("CPU IPHONE OS 17_0_3 LIKE");
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки конфигурации сборки образа GraalVM native-image.
+ *
+ * @author Алексей Каленчуков
+ */
+public class NativeImageConfigurationTest
+{
+	private static final String DIRECTORY = "/META-INF/native-image/dev.kalenchukov/useragent-parsing/";
+
+	/**
+	 * Проверка классов, инициализируемых при сборке образа.
+	 */
+	@Test
+	public void initializeAtBuildTime() throws IOException, ClassNotFoundException
+	{
+		Properties properties = new Properties();
+
+		try (InputStream stream = NativeImageConfigurationTest.class.getResourceAsStream(DIRECTORY + "native-image.properties"))
+		{
+			assertThat(stream).isNotNull();
+			properties.load(stream);
+		}
+
+		String args = properties.getProperty("Args");
+
+		assertThat(args).startsWith("--initialize-at-build-time=");
+
+		for (String name : args.substring("--initialize-at-build-time=".length()).split(","))
+		{
+			Class<?> type = Class.forName(name.trim(), false, NativeImageConfigurationTest.class.getClassLoader());
+
+			assertThat(type.getPackageName()).startsWith("dev.kalenchukov.useragent.parsing");
+		}
+	}
+
+	/**
+	 * Проверка ресурсов, включаемых в образ.
+	 */
+	@Test
+	public void resources() throws IOException
+	{
+		String config;
+
+		try (InputStream stream = NativeImageConfigurationTest.class.getResourceAsStream(DIRECTORY + "resource-config.json"))
+		{
+			assertThat(stream).isNotNull();
+			config = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+
+		Matcher matcher = Pattern.compile("\\\\\\\\Q(.+?)\\\\\\\\E").matcher(config);
+		int count = 0;
+
+		while (matcher.find())
+		{
+			assertThat(NativeImageConfigurationTest.class.getResource("/" + matcher.group(1))).isNotNull();
+			count++;
+		}
+
+		assertThat(count).isEqualTo(2);
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link PackedUserAgentInfo}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class PackedUserAgentInfoTest
+{
+	private static final UserAgentInfo USER_AGENT_INFO = new UserAgentInfo(
+		new Detection<>(BrowserType.FIREFOX, "118.0"),
+		new Detection<>(DeviceType.PC, null),
+		new Detection<>(OperatingSystemType.WINDOWS, "XP")
+	);
+
+	/**
+	 * Проверка конструктора {@link PackedUserAgentInfo#PackedUserAgentInfo(UserAgentInfo)}.
+	 */
+	@Test
+	public void constructor()
+	{
+		PackedUserAgentInfo packedUserAgentInfo = new PackedUserAgentInfo(USER_AGENT_INFO);
+
+		assertThat(packedUserAgentInfo.getBrowser()).isEqualTo(BrowserType.FIREFOX);
+		assertThat(packedUserAgentInfo.getBrowserOrdinal()).isEqualTo(BrowserType.FIREFOX.ordinal());
+		assertThat(packedUserAgentInfo.getBrowserVersion()).isEqualTo(PackedVersion.pack(118, 0, 0));
+		assertThat(packedUserAgentInfo.getDevice()).isEqualTo(DeviceType.PC);
+		assertThat(packedUserAgentInfo.getDeviceOrdinal()).isEqualTo(DeviceType.PC.ordinal());
+		assertThat(packedUserAgentInfo.getOperatingSystem()).isEqualTo(OperatingSystemType.WINDOWS);
+		assertThat(packedUserAgentInfo.getOperatingSystemOrdinal()).isEqualTo(OperatingSystemType.WINDOWS.ordinal());
+		assertThat(packedUserAgentInfo.getOperatingSystemVersion()).isEqualTo(PackedVersion.NONE);
+		assertThat(packedUserAgentInfo.isBudgetExceeded()).isFalse();
+	}
+
+	/**
+	 * Проверка метода {@link PackedUserAgentInfo#equals(Object)}.
+	 */
+	@Test
+	public void testEquals()
+	{
+		PackedUserAgentInfo packedUserAgentInfo = new PackedUserAgentInfo(USER_AGENT_INFO);
+
+		assertThat(packedUserAgentInfo).isEqualTo(new PackedUserAgentInfo(USER_AGENT_INFO));
+		assertThat(packedUserAgentInfo).hasSameHashCodeAs(new PackedUserAgentInfo(USER_AGENT_INFO));
+		assertThat(packedUserAgentInfo).isNotEqualTo(new PackedUserAgentInfo(UserAgentInfo.UNKNOWN));
+	}
+}
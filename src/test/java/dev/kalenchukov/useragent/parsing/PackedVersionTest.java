@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link PackedVersion}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class PackedVersionTest
+{
+	/**
+	 * Проверка метода {@link PackedVersion#pack(CharSequence)}.
+	 */
+	@Test
+	public void pack()
+	{
+		long version = PackedVersion.pack("89.0.4389.105");
+
+		assertThat(PackedVersion.getMajor(version)).isEqualTo(89);
+		assertThat(PackedVersion.getMinor(version)).isEqualTo(0);
+		assertThat(PackedVersion.getPatch(version)).isEqualTo(4389);
+		assertThat(version).isEqualTo(PackedVersion.pack(89, 0, 4389));
+		assertThat(PackedVersion.pack("10_15_7")).isEqualTo(PackedVersion.pack(10, 15, 7));
+		assertThat(PackedVersion.pack("118")).isEqualTo(PackedVersion.pack(118, 0, 0));
+		assertThat(PackedVersion.pack("6.0 beta")).isEqualTo(PackedVersion.pack(6, 0, 0));
+		assertThat(PackedVersion.pack("20100101")).isEqualTo(PackedVersion.pack(PackedVersion.MAX_COMPONENT, 0, 0));
+	}
+
+	/**
+	 * Проверка метода {@link PackedVersion#pack(CharSequence, int, int)}.
+	 */
+	@Test
+	public void packRange()
+	{
+		String text = "CHROME/89.0.4389.105 MOBILE";
+
+		assertThat(PackedVersion.pack(text, 7, 20)).isEqualTo(PackedVersion.pack(89, 0, 4389));
+		assertThat(PackedVersion.pack(text, 7, 9)).isEqualTo(PackedVersion.pack(89, 0, 0));
+		assertThat(PackedVersion.pack(text, 7, 7)).isEqualTo(PackedVersion.NONE);
+		assertThat(PackedVersion.pack(text, 0, 6)).isEqualTo(PackedVersion.NONE);
+		assertThatThrownBy(() -> PackedVersion.pack(text, 7, 100)).isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	/**
+	 * Проверка метода {@link PackedVersion#pack(CharSequence)} со строкой без номеров.
+	 */
+	@Test
+	public void packWithoutDigits()
+	{
+		assertThat(PackedVersion.pack((CharSequence) null)).isEqualTo(PackedVersion.NONE);
+		assertThat(PackedVersion.pack("")).isEqualTo(PackedVersion.NONE);
+		assertThat(PackedVersion.pack("XP")).isEqualTo(PackedVersion.NONE);
+		assertThat(PackedVersion.getMajor(PackedVersion.NONE)).isZero();
+		assertThat(PackedVersion.toString(PackedVersion.NONE)).isNull();
+	}
+
+	/**
+	 * Проверка метода {@link PackedVersion#pack(int, int, int)}.
+	 */
+	@Test
+	public void packComponents()
+	{
+		assertThat(PackedVersion.pack(0, 0, 0)).isGreaterThan(PackedVersion.NONE);
+		assertThat(PackedVersion.pack(89, 0, 4389)).isLessThan(PackedVersion.pack(118, 0, 0));
+		assertThat(PackedVersion.pack(10, 15, 7)).isLessThan(PackedVersion.pack(10, 16, 0));
+		assertThat(PackedVersion.pack(
+			PackedVersion.MAX_COMPONENT, PackedVersion.MAX_COMPONENT, PackedVersion.MAX_COMPONENT
+		)).isPositive();
+		assertThatThrownBy(() -> PackedVersion.pack(-1, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> PackedVersion.pack(0, PackedVersion.MAX_COMPONENT + 1, 0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	/**
+	 * Проверка метода {@link PackedVersion#toString(long)}.
+	 */
+	@Test
+	public void testToString()
+	{
+		assertThat(PackedVersion.toString(PackedVersion.pack("17.1"))).isEqualTo("17.1.0");
+	}
+}
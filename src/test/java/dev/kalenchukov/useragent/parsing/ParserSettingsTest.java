@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link ParserSettings}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class ParserSettingsTest
+{
+	/**
+	 * Проверка метода {@link ParserSettings#setCache(UserAgentCache)}.
+	 */
+	@Test
+	public void setCache()
+	{
+		ParserSettings settings = new ParserSettings();
+		UserAgentCache cache = new UserAgentCache(16);
+
+		assertThat(settings.getCache()).isNull();
+
+		settings.setCache(cache);
+
+		assertThat(settings.getCache()).isSameAs(cache);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setEngine(ParserSettings.Engine)}.
+	 */
+	@Test
+	public void setEngine()
+	{
+		ParserSettings settings = new ParserSettings();
+
+		assertThat(settings.getEngine()).isEqualTo(ParserSettings.Engine.REGEX);
+
+		settings.setEngine(ParserSettings.Engine.AUTOMATON);
+
+		assertThat(settings.getEngine()).isEqualTo(ParserSettings.Engine.AUTOMATON);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setMatchBudget(long)}.
+	 */
+	@Test
+	public void setMatchBudget()
+	{
+		ParserSettings settings = new ParserSettings();
+
+		assertThat(settings.getMatchBudget()).isZero();
+
+		settings.setMatchBudget(1_000_000);
+
+		assertThat(settings.getMatchBudget()).isEqualTo(1_000_000L);
+		assertThatThrownBy(() -> settings.setMatchBudget(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setMaxLength(int)}.
+	 */
+	@Test
+	public void setMaxLength()
+	{
+		ParserSettings settings = new ParserSettings();
+
+		assertThat(settings.getMaxLength()).isZero();
+
+		settings.setMaxLength(512);
+
+		assertThat(settings.getMaxLength()).isEqualTo(512);
+		assertThatThrownBy(() -> settings.setMaxLength(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setOverflow(ParserSettings.Overflow)}.
+	 */
+	@Test
+	public void setOverflow()
+	{
+		ParserSettings settings = new ParserSettings();
+
+		assertThat(settings.getOverflow()).isEqualTo(ParserSettings.Overflow.TRUNCATE);
+
+		settings.setOverflow(ParserSettings.Overflow.REJECT);
+
+		assertThat(settings.getOverflow()).isEqualTo(ParserSettings.Overflow.REJECT);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setRules(UserAgentRules)}.
+	 */
+	@Test
+	public void setRules()
+	{
+		ParserSettings settings = new ParserSettings();
+
+		assertThat(settings.getRules()).isSameAs(UserAgentRules.getDefault());
+		assertThatThrownBy(() -> settings.setRules((UserAgentRules) null)).isInstanceOf(NullPointerException.class);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setRules(UserAgentRulesHolder)}.
+	 */
+	@Test
+	public void setRulesHolder()
+	{
+		UserAgentRulesHolder rules = new UserAgentRulesHolder(UserAgentRules.getDefault());
+		ParserSettings settings = new ParserSettings();
+		settings.setRules(rules);
+
+		assertThat(settings.getRulesHolder()).isSameAs(rules);
+		assertThat(settings.getRules()).isSameAs(UserAgentRules.getDefault());
+		assertThatThrownBy(() -> settings.setRules((UserAgentRulesHolder) null)).isInstanceOf(NullPointerException.class);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setRuleMetrics(RuleMetrics)}.
+	 */
+	@Test
+	public void setRuleMetrics()
+	{
+		ParserSettings settings = new ParserSettings();
+		RuleMetrics ruleMetrics = new RuleMetrics();
+
+		assertThat(settings.getRuleMetrics()).isNull();
+
+		settings.setRuleMetrics(ruleMetrics);
+
+		assertThat(settings.getRuleMetrics()).isSameAs(ruleMetrics);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setShadowMode(ShadowMode)}.
+	 */
+	@Test
+	public void setShadowMode()
+	{
+		ParserSettings settings = new ParserSettings();
+		ShadowMode shadowMode = new ShadowMode(ParserSettings.Engine.AUTOMATON, 0.01, 100);
+
+		assertThat(settings.getShadowMode()).isNull();
+
+		settings.setShadowMode(shadowMode);
+
+		assertThat(settings.getShadowMode()).isSameAs(shadowMode);
+	}
+
+	/**
+	 * Проверка метода {@link ParserSettings#setStringPool(StringPool)}.
+	 */
+	@Test
+	public void setStringPool()
+	{
+		ParserSettings settings = new ParserSettings();
+		StringPool stringPool = new StringPool(1024);
+
+		assertThat(settings.getStringPool()).isNull();
+
+		settings.setStringPool(stringPool);
+
+		assertThat(settings.getStringPool()).isSameAs(stringPool);
+	}
+}
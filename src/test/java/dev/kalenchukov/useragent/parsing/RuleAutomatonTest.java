@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link RuleAutomaton}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class RuleAutomatonTest
+{
+	private static final List<String> USER_AGENTS = List.of(
+		"Mozilla/5.0 (Linux; Android 6.0.1; SM-A300FU Build/MMB29M; wv) AppleWebKit/537.36 " +
+			"(KHTML, like Gecko) Version/4.0 Chrome/89.0.4389.105 Mobile Safari/537.36",
+		"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0",
+		"Mozilla/5.0 (iPhone; CPU iPhone OS 16_6 like Mac OS X) AppleWebKit/605.1.15 " +
+			"(KHTML, like Gecko) Version/16.6 Mobile/15E148 Safari/604.1",
+		"Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 " +
+			"(KHTML, like Gecko) Chrome/117.0.0.0 Safari/537.36 Edg/117.0.2045.47",
+		"Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) " +
+			"Chrome/116.0.0.0 Safari/537.36 OPR/102.0.0.0",
+		"Mozilla/5.0 (SMART-TV; Linux; Tizen 6.0) AppleWebKit/537.36 (KHTML, like Gecko) " +
+			"SamsungBrowser/4.0 Chrome/76.0.3809.146 TV Safari/537.36",
+		"Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+		"Dalvik/2.1.0 (Linux; U; Android 11; Redmi Note 8 Pro Build/RP1A.200720.011)"
+	);
+
+	/**
+	 * Проверка метода {@link RuleAutomaton#run(CharSequence, BitSet[])}.
+	 */
+	@Test
+	public void run()
+	{
+		Map<String, BrowserType> regExps = new LinkedHashMap<>();
+		regExps.put(".*Edg/(?<version>[0-9.]+).*", BrowserType.EDGE);
+		regExps.put(".*Chrome/(?<version>[0-9.]+).*", BrowserType.GOOGLE_CHROME);
+		RuleTable<BrowserType> ruleTable = new RuleTable<>(regExps);
+		RuleAutomaton automaton = new RuleAutomaton(List.of(ruleTable), List.of("version"));
+		String userAgent = "MOZILLA/5.0 CHROME/117.0 SAFARI/537.36";
+
+		int[] actualResult = automaton.run(userAgent, new BitSet[]{ruleTable.candidates(userAgent)});
+
+		assertThat(actualResult).containsExactly(1, 19, 24);
+		assertThat(automaton.isCompiled(0, 0)).isTrue();
+		assertThat(automaton.isCompiled(0, 1)).isTrue();
+	}
+
+	/**
+	 * Проверка метода {@link RuleAutomaton#run(CharSequence, BitSet[])} с выбором последнего вхождения
+	 * после жадного {@code .*}, как при проверке регулярным выражением.
+	 */
+	@Test
+	public void runWithGreedyPrefix()
+	{
+		RuleTable<BrowserType> ruleTable = new RuleTable<>(Map.of(".*V/(?<version>[0-9]+).*", BrowserType.GOOGLE_CHROME));
+		RuleAutomaton automaton = new RuleAutomaton(List.of(ruleTable), List.of("version"));
+		String userAgent = "V/1 V/22 X";
+
+		int[] actualResult = automaton.run(userAgent, new BitSet[]{ruleTable.candidates(userAgent)});
+
+		assertThat(actualResult).containsExactly(0, 6, 8);
+	}
+
+	/**
+	 * Проверка метода {@link RuleAutomaton#run(CharSequence, BitSet[])} с правилом,
+	 * которое не компилируется в программу автомата.
+	 */
+	@Test
+	public void runWithUnsupportedRule()
+	{
+		Map<String, DeviceType> regExps = new LinkedHashMap<>();
+		regExps.put("^HbbTV/(?<model>[0-9.]+).*", DeviceType.TV);
+		regExps.put(".*Android.*", DeviceType.MOBILE);
+		RuleTable<DeviceType> ruleTable = new RuleTable<>(regExps);
+		RuleAutomaton automaton = new RuleAutomaton(List.of(ruleTable), List.of("model"));
+		String userAgent = "HBBTV/1.5 ANDROID";
+
+		int[] actualResult = automaton.run(userAgent, new BitSet[]{ruleTable.candidates(userAgent)});
+
+		assertThat(automaton.isCompiled(0, 0)).isFalse();
+		assertThat(actualResult).containsExactly(0, 6, 9);
+	}
+
+	/**
+	 * Проверка метода {@link RuleAutomaton#run(CharSequence, BitSet[])} с концом строки {@code $}.
+	 */
+	@Test
+	public void runWithEnd()
+	{
+		RuleTable<DeviceType> ruleTable = new RuleTable<>(Map.of(".*Build/.*\\)$", DeviceType.MOBILE));
+		RuleAutomaton automaton = new RuleAutomaton(List.of(ruleTable), List.of("model"));
+
+		assertThat(automaton.isCompiled(0, 0)).isTrue();
+
+		for (String userAgent : List.of("A BUILD/X)", "A BUILD/X) ", "A BUILD/X)\n", "A BUILD/X)\r\n", "A BUILD/X)$"))
+		{
+			int[] actualResult = automaton.run(userAgent, new BitSet[]{ruleTable.candidates(userAgent)});
+
+			assertThat(actualResult[0]).as(userAgent).isEqualTo(this.expected(ruleTable, userAgent));
+		}
+	}
+
+	/**
+	 * Проверка метода {@link RuleAutomaton#isCompiled(int, int)} для правил встроенного набора.
+	 * <p>
+	 * Все правила встроенного набора должны компилироваться в программу автомата, иначе
+	 * время их проверки не ограничено линейно.
+	 */
+	@Test
+	public void isCompiledWithDefaultRules()
+	{
+		UserAgentRules rules = UserAgentRules.getDefault();
+		RuleAutomaton automaton = rules.getAutomaton();
+		List<RuleTable<?>> tables = List.of(
+			rules.getBrowserRules(), rules.getDeviceRules(), rules.getOperatingSystemRules()
+		);
+		List<String> fallbacks = new ArrayList<>();
+
+		for (int table = 0; table < tables.size(); table++)
+		{
+			List<? extends Rule<?>> list = tables.get(table).getRules();
+
+			for (int rule = 0; rule < list.size(); rule++)
+			{
+				if (!automaton.isCompiled(table, rule)) {
+					fallbacks.add(list.get(rule).getRegExp());
+				}
+			}
+		}
+
+		assertThat(fallbacks).isEmpty();
+	}
+
+	/**
+	 * Проверка метода {@link RuleAutomaton#run(CharSequence, BitSet[])} со строкой, проверка которой
+	 * регулярным выражением требует квадратичного времени.
+	 */
+	@Test
+	public void runWithCraftedUserAgent()
+	{
+		UserAgentRules rules = UserAgentRules.getDefault();
+		RuleAutomaton automaton = rules.getAutomaton();
+		String userAgent = UserAgentFormatter.format("Android 1;x" + "Build/".repeat(500));
+		BitSet[] candidates = {null, rules.getDeviceRules().candidates(userAgent), null};
+
+		int[] actualResult = automaton.run(userAgent, candidates);
+
+		assertThat(actualResult[3]).isEqualTo(this.expected(rules.getDeviceRules(), userAgent));
+	}
+
+	/**
+	 * Проверка метода {@link RuleAutomaton#run(CharSequence, BitSet[])} на совпадение результатов
+	 * с поочерёдной проверкой правил регулярными выражениями.
+	 */
+	@Test
+	public void runWithRuleTables()
+	{
+		UserAgentRules rules = UserAgentRules.getDefault();
+		RuleAutomaton automaton = rules.getAutomaton();
+
+		for (String value : USER_AGENTS)
+		{
+			String userAgent = UserAgentFormatter.format(value);
+			BitSet[] candidates = {
+				rules.getBrowserRules().candidates(userAgent),
+				rules.getDeviceRules().candidates(userAgent),
+				rules.getOperatingSystemRules().candidates(userAgent)
+			};
+
+			int[] actualResult = automaton.run(userAgent, candidates);
+
+			assertThat(actualResult[0]).isEqualTo(this.expected(rules.getBrowserRules(), userAgent));
+			assertThat(actualResult[3]).isEqualTo(this.expected(rules.getDeviceRules(), userAgent));
+			assertThat(actualResult[6]).isEqualTo(this.expected(rules.getOperatingSystemRules(), userAgent));
+		}
+	}
+
+	/**
+	 * Возвращает индекс первого правила таблицы, которому соответствует строка.
+	 *
+	 * @param ruleTable таблица правил.
+	 * @param userAgent строка user-agent.
+	 * @return индекс правила, или {@code -1} если правило не найдено.
+	 */
+	private int expected(final RuleTable<?> ruleTable, final String userAgent)
+	{
+		List<? extends Rule<?>> rules = ruleTable.getRules();
+
+		for (int rule = 0; rule < rules.size(); rule++)
+		{
+			if (rules.get(rule).matcher(userAgent).matches()) {
+				return rule;
+			}
+		}
+
+		return -1;
+	}
+}
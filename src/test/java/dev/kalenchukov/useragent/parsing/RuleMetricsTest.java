@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link RuleMetrics}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class RuleMetricsTest
+{
+	private static final String USER_AGENT =
+		"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0";
+
+	/**
+	 * Проверка метода {@link RuleMetrics#getRuleHits(UserAgentDimension)}.
+	 */
+	@Test
+	public void getRuleHits()
+	{
+		RuleMetrics ruleMetrics = new RuleMetrics();
+		UserAgentParsing userAgentParser = RuleMetricsTest.parser(ruleMetrics);
+
+		userAgentParser.parse(USER_AGENT);
+		userAgentParser.parse(USER_AGENT);
+		userAgentParser.parse("curl/7.88.1");
+
+		Map<String, Long> hits = ruleMetrics.getRuleHits(UserAgentDimension.BROWSER);
+
+		assertThat(hits).hasSize(UserAgentRules.getDefault().getBrowserRules().getRules().size());
+		assertThat(hits.values().stream().mapToLong(Long::longValue).sum())
+			.isEqualTo(3 - ruleMetrics.getMissCount(UserAgentDimension.BROWSER));
+		assertThat(hits).containsValue(2L);
+		assertThat(ruleMetrics.getDetectionCount(UserAgentDimension.BROWSER)).isEqualTo(3L);
+		assertThat(ruleMetrics.getEvaluatedRuleCount(UserAgentDimension.BROWSER)).isPositive();
+		assertThat(ruleMetrics.getMaxEvaluatedRules(UserAgentDimension.BROWSER)).isPositive();
+		assertThat(ruleMetrics.getTimeNanos(UserAgentDimension.BROWSER)).isPositive();
+		assertThat(ruleMetrics.getUnusedRules(UserAgentDimension.BROWSER)).hasSize(hits.size() - 1);
+	}
+
+	/**
+	 * Проверка метода {@link RuleMetrics#getDetectionCount(UserAgentDimension)} при парсинге
+	 * в {@link MutableUserAgentInfo}.
+	 */
+	@Test
+	public void getDetectionCountMutable()
+	{
+		RuleMetrics ruleMetrics = new RuleMetrics();
+		ParserSettings settings = new ParserSettings();
+		settings.setRuleMetrics(ruleMetrics);
+
+		new UserAgentParser(settings).parse(USER_AGENT, new MutableUserAgentInfo());
+
+		assertThat(ruleMetrics.getDetectionCount(UserAgentDimension.BROWSER)).isEqualTo(1L);
+		assertThat(ruleMetrics.getDetectionCount(UserAgentDimension.DEVICE)).isEqualTo(1L);
+		assertThat(ruleMetrics.getDetectionCount(UserAgentDimension.OPERATING_SYSTEM)).isEqualTo(1L);
+		assertThat(ruleMetrics.getRuleHits(UserAgentDimension.BROWSER)).containsValue(1L);
+	}
+
+	/**
+	 * Проверка метода {@link RuleMetrics#addListener(RuleMetricsListener)}.
+	 */
+	@Test
+	public void addListener()
+	{
+		RuleMetrics ruleMetrics = new RuleMetrics();
+		List<UserAgentDimension> dimensions = new ArrayList<>();
+		RuleMetricsListener listener = (dimension, regExp, evaluatedRules, nanos) -> dimensions.add(dimension);
+		UserAgentParsing userAgentParser = RuleMetricsTest.parser(ruleMetrics);
+
+		ruleMetrics.addListener(listener);
+		userAgentParser.parse(USER_AGENT);
+		ruleMetrics.removeListener(listener);
+		userAgentParser.parse(USER_AGENT);
+
+		assertThat(dimensions).containsExactly(
+			UserAgentDimension.BROWSER, UserAgentDimension.DEVICE, UserAgentDimension.OPERATING_SYSTEM
+		);
+	}
+
+	/**
+	 * Проверка метода {@link RuleMetrics#reset()}.
+	 */
+	@Test
+	public void reset()
+	{
+		RuleMetrics ruleMetrics = new RuleMetrics();
+		RuleMetricsTest.parser(ruleMetrics).parse(USER_AGENT);
+
+		ruleMetrics.reset();
+
+		assertThat(ruleMetrics.getDetectionCounts()).containsOnly(
+			Map.entry(UserAgentDimension.BROWSER, 0L), Map.entry(UserAgentDimension.DEVICE, 0L),
+			Map.entry(UserAgentDimension.OPERATING_SYSTEM, 0L)
+		);
+		assertThat(ruleMetrics.getRuleHits(UserAgentDimension.DEVICE)).doesNotContainValue(1L);
+	}
+
+	/**
+	 * Проверка интерфейса {@link RuleMetricsMXBean} в JMX.
+	 */
+	@Test
+	public void registerMBean() throws Exception
+	{
+		RuleMetrics ruleMetrics = new RuleMetrics();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(RuleMetrics.OBJECT_NAME + ",name=test");
+		RuleMetricsTest.parser(ruleMetrics).parse(USER_AGENT);
+
+		server.registerMBean(ruleMetrics, name);
+
+		try
+		{
+			Object unusedRules = server.invoke(
+				name, "getUnusedRules", new Object[] { "OPERATING_SYSTEM" }, new String[] { String.class.getName() }
+			);
+
+			assertThat(server.getAttribute(name, "DetectionCounts")).isNotNull();
+			assertThat((String[]) unusedRules).hasSize(
+				UserAgentRules.getDefault().getOperatingSystemRules().getRules().size() - 1
+			);
+		}
+		finally
+		{
+			server.unregisterMBean(name);
+		}
+	}
+
+	/**
+	 * Создаёт парсер с метриками правил.
+	 *
+	 * @param ruleMetrics метрики правил.
+	 * @return парсер.
+	 */
+	private static UserAgentParsing parser(final RuleMetrics ruleMetrics)
+	{
+		ParserSettings settings = new ParserSettings();
+		settings.setRuleMetrics(ruleMetrics);
+
+		return new UserAgentParser(settings);
+	}
+}
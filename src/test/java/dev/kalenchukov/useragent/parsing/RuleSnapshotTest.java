@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Класс проверки методов класса {@link RuleSnapshot}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class RuleSnapshotTest
+{
+	private static final String USER_AGENT =
+		"Mozilla/5.0 (Linux; Android 6.0.1; SM-A300FU Build/MMB29M; wv) AppleWebKit/537.36 " +
+			"(KHTML, like Gecko) Version/4.0 Chrome/89.0.4389.105 Mobile Safari/537.36";
+
+	/**
+	 * Проверка метода {@link RuleSnapshot#read(ByteBuffer, long)}.
+	 */
+	@Test
+	public void read() throws IOException
+	{
+		UserAgentRules expected = UserAgentRules.getDefault();
+
+		UserAgentRules actual = RuleSnapshot.read(ByteBuffer.wrap(this.write(expected, 42L)), 42L);
+
+		assertThat(actual.getVersion()).isEqualTo(expected.getVersion());
+		assertThat(actual.getBrowserRules().getRules())
+			.extracting(Rule::getType, Rule::getRegExp, Rule::getLiteral)
+			.isEqualTo(
+				expected.getBrowserRules().getRules().stream()
+					.map(rule -> tuple(rule.getType(), rule.getRegExp(), rule.getLiteral()))
+					.toList()
+			);
+		assertThat(actual.getDeviceRules().getRules()).hasSameSizeAs(expected.getDeviceRules().getRules());
+		assertThat(actual.getOperatingSystemRules().getRules())
+			.hasSameSizeAs(expected.getOperatingSystemRules().getRules());
+		assertThat(actual.getDeviceRules().candidates(USER_AGENT.toUpperCase()))
+			.isEqualTo(expected.getDeviceRules().candidates(USER_AGENT.toUpperCase()));
+	}
+
+	/**
+	 * Проверка метода {@link RuleSnapshot#read(ByteBuffer, long)} с парсером.
+	 */
+	@Test
+	public void readWithParser() throws IOException
+	{
+		UserAgentRules rules = RuleSnapshot.read(ByteBuffer.wrap(this.write(UserAgentRules.getDefault(), 0L)), 0L);
+		ParserSettings settings = new ParserSettings();
+		settings.setRules(rules);
+
+		UserAgentInfo actualUserAgentInfo = new UserAgentParser(settings).parse(USER_AGENT);
+
+		assertThat(actualUserAgentInfo).isEqualTo(new UserAgentParser().parse(USER_AGENT));
+	}
+
+	/**
+	 * Проверка метода {@link RuleSnapshot#read(ByteBuffer, long)} с устаревшим или повреждённым снимком.
+	 */
+	@Test
+	public void readWithErrors() throws IOException
+	{
+		byte[] snapshot = this.write(UserAgentRules.getDefault(), 42L);
+
+		assertThatThrownBy(() -> RuleSnapshot.read(ByteBuffer.wrap(snapshot), 43L))
+			.isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> RuleSnapshot.read(ByteBuffer.wrap(Arrays.copyOf(snapshot, snapshot.length / 2)), 42L))
+			.isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> RuleSnapshot.read(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }), 42L))
+			.isInstanceOf(IOException.class);
+	}
+
+	/**
+	 * Записывает снимок набора правил.
+	 *
+	 * @param rules набор правил.
+	 * @param checksum контрольная сумма файла правил.
+	 * @return снимок.
+	 * @throws IOException если снимок не удалось записать.
+	 */
+	private byte[] write(final UserAgentRules rules, final long checksum) throws IOException
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		RuleSnapshot.write(rules, checksum, output);
+
+		return output.toByteArray();
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link RuleTable}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class RuleTableTest
+{
+	/**
+	 * Проверка метода {@link RuleTable#getRules()}.
+	 */
+	@Test
+	public void getRules()
+	{
+		Map<String, DeviceType> regExps = new LinkedHashMap<>();
+		regExps.put(".*HbbTV.*", DeviceType.TV);
+		regExps.put(".*Android.*", DeviceType.MOBILE);
+		RuleTable<DeviceType> ruleTable = new RuleTable<>(regExps);
+
+		List<Rule<DeviceType>> actualRules = ruleTable.getRules();
+
+		assertThat(actualRules).extracting(Rule::getType).containsExactly(DeviceType.TV, DeviceType.MOBILE);
+		assertThat(actualRules.get(0).matcher("hbbtv/1.1.1").matches()).isTrue();
+	}
+
+	/**
+	 * Проверка метода {@link RuleTable#getRules()} на неизменяемость.
+	 */
+	@Test
+	public void getRulesUnmodifiable()
+	{
+		RuleTable<DeviceType> ruleTable = new RuleTable<>(Map.of(".*HbbTV.*", DeviceType.TV));
+
+		List<Rule<DeviceType>> actualRules = ruleTable.getRules();
+
+		assertThatThrownBy(actualRules::clear).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	/**
+	 * Проверка метода {@link RuleTable#select(CharSequence)}.
+	 */
+	@Test
+	public void select()
+	{
+		Map<String, DeviceType> regExps = new LinkedHashMap<>();
+		regExps.put(".*HbbTV.*", DeviceType.TV);
+		regExps.put(".*[0-9]+x[0-9]+.*", DeviceType.PC);
+		regExps.put(".*Android.*", DeviceType.MOBILE);
+		regExps.put(".*Linux.*", DeviceType.PC);
+		RuleTable<DeviceType> ruleTable = new RuleTable<>(regExps);
+
+		List<Rule<DeviceType>> actualRules = ruleTable.select("MOZILLA/5.0 (LINUX;ANDROID 13)");
+
+		assertThat(actualRules).extracting(Rule::getType).containsExactly(DeviceType.PC, DeviceType.MOBILE, DeviceType.PC);
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link Rule}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class RuleTest
+{
+	/**
+	 * Проверка метода {@link Rule#matcher(CharSequence)}.
+	 */
+	@Test
+	public void matcher()
+	{
+		Rule<BrowserType> rule = new Rule<>(".*yabrowser/(?<version>[0-9.]+).*", BrowserType.YANDEX_BROWSER);
+
+		assertThat(rule.matcher("CHROME/116.0 YABROWSER/23.9.0 SAFARI/537.36").matches()).isTrue();
+		assertThat(rule.matcher("CHROME/116.0 SAFARI/537.36").matches()).isFalse();
+	}
+
+	/**
+	 * Проверка метода {@link Rule#getLiteral()}.
+	 */
+	@Test
+	public void getLiteral()
+	{
+		Rule<BrowserType> rule = new Rule<>(".*YaBrowser/(?<version>[0-9.]+).*", BrowserType.YANDEX_BROWSER);
+
+		String actualLiteral = rule.getLiteral();
+
+		assertThat(actualLiteral).isEqualTo("yabrowser/");
+	}
+
+	/**
+	 * Проверка метода {@link Rule#extractLiteral(String)} с экранированными символами.
+	 */
+	@Test
+	public void extractLiteralWithEscape()
+	{
+		String actualLiteral = Rule.extractLiteral(".*LG NetCast\\.TV.*");
+
+		assertThat(actualLiteral).isEqualTo("lg netcast.tv");
+	}
+
+	/**
+	 * Проверка метода {@link Rule#extractLiteral(String)} с группой без квантификатора.
+	 */
+	@Test
+	public void extractLiteralWithGroup()
+	{
+		String actualLiteral = Rule.extractLiteral(".*\\((?<model>iPod) touch;.*");
+
+		assertThat(actualLiteral).isEqualTo("(ipod touch;");
+	}
+
+	/**
+	 * Проверка метода {@link Rule#extractLiteral(String)} с необязательными символами.
+	 */
+	@Test
+	public void extractLiteralWithOptional()
+	{
+		String actualLiteral = Rule.extractLiteral(".*abcd?ef([a-z]+xyzxyz)?.*");
+
+		assertThat(actualLiteral).isEqualTo("abc");
+	}
+
+	/**
+	 * Проверка метода {@link Rule#extractLiteral(String)} с проверкой просмотра вперёд.
+	 */
+	@Test
+	public void extractLiteralWithLookahead()
+	{
+		String actualLiteral = Rule.extractLiteral(".*Android [0-9.]+;(?<model>(?!Build)[a-z]+)Build/.*");
+
+		assertThat(actualLiteral).isEqualTo("android ");
+	}
+
+	/**
+	 * Проверка метода {@link Rule#extractLiteral(String)} с альтернативами.
+	 */
+	@Test
+	public void extractLiteralWithAlternative()
+	{
+		String actualLiteral = Rule.extractLiteral(".*(Opera|OPR)/.*");
+
+		assertThat(actualLiteral).isEqualTo("/");
+	}
+
+	/**
+	 * Проверка метода {@link Rule#extractLiteral(String)} без литерала.
+	 */
+	@Test
+	public void extractLiteralWithoutLiteral()
+	{
+		String actualLiteral = Rule.extractLiteral(".*[0-9]+.*");
+
+		assertThat(actualLiteral).isNull();
+	}
+}
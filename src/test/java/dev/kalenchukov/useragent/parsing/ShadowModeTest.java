@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link ShadowMode}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class ShadowModeTest
+{
+	private static final List<String> USER_AGENTS = List.of(
+		"Mozilla/5.0 (Linux; Android 6.0.1; SM-A300FU Build/MMB29M; wv) AppleWebKit/537.36 " +
+			"(KHTML, like Gecko) Version/4.0 Chrome/89.0.4389.105 Mobile Safari/537.36",
+		"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0",
+		"Mozilla/5.0 (iPhone; CPU iPhone OS 17_0_3 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) " +
+			"Version/17.0 Mobile/15E148 Safari/604.1",
+		"curl/7.88.1"
+	);
+
+	private static final UserAgentInfo FIREFOX = new UserAgentInfo(
+		new Detection<>(BrowserType.FIREFOX, "118.0"),
+		new Detection<>(DeviceType.PC, null),
+		new Detection<>(OperatingSystemType.WINDOWS, "10.0")
+	);
+
+	/**
+	 * Проверка метода {@link ShadowMode#getAgreementCount(UserAgentDimension)} при парсинге.
+	 */
+	@Test
+	public void getAgreementCount()
+	{
+		ShadowMode shadowMode = new ShadowMode(ParserSettings.Engine.AUTOMATON, 1, 16, Runnable::run);
+		ParserSettings settings = new ParserSettings();
+		settings.setShadowMode(shadowMode);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+
+		for (String userAgent : USER_AGENTS) {
+			userAgentParser.parse(userAgent);
+		}
+
+		userAgentParser.parse("   ");
+
+		for (UserAgentDimension dimension : UserAgentDimension.values())
+		{
+			assertThat(shadowMode.getAgreementCount(dimension)).isEqualTo(USER_AGENTS.size());
+			assertThat(shadowMode.getDisagreementCount(dimension)).isZero();
+		}
+
+		assertThat(shadowMode.getMismatches()).isEmpty();
+	}
+
+	/**
+	 * Проверка метода {@link ShadowMode#getMismatches()} с ограничением количества расхождений.
+	 */
+	@Test
+	public void getMismatches()
+	{
+		ShadowMode shadowMode = new ShadowMode(ParserSettings.Engine.AUTOMATON, 1, 2, Runnable::run);
+
+		shadowMode.record("A", FIREFOX, UserAgentInfo.UNKNOWN);
+		shadowMode.record("B", FIREFOX, FIREFOX);
+		shadowMode.record("C", FIREFOX, new UserAgentInfo(
+			new Detection<>(BrowserType.FIREFOX, "118.0"),
+			new Detection<>(DeviceType.PC, null),
+			new Detection<>(OperatingSystemType.WINDOWS, "11.0")
+		));
+		shadowMode.record("D", UserAgentInfo.UNKNOWN, FIREFOX);
+
+		List<ShadowMismatch> mismatches = shadowMode.getMismatches();
+
+		assertThat(mismatches).extracting(ShadowMismatch::getUserAgent).containsExactly("C", "D");
+		assertThat(mismatches.get(0).getDimensions()).containsExactly(UserAgentDimension.OPERATING_SYSTEM);
+		assertThat(shadowMode.getAgreementCount(UserAgentDimension.BROWSER)).isEqualTo(2L);
+		assertThat(shadowMode.getDisagreementCount(UserAgentDimension.OPERATING_SYSTEM)).isEqualTo(3L);
+	}
+
+	/**
+	 * Проверка метода {@link ShadowMode#getRejectedCount()}.
+	 */
+	@Test
+	public void getRejectedCount()
+	{
+		ShadowMode shadowMode = new ShadowMode(ParserSettings.Engine.AUTOMATON, 1, 16, command -> {
+			throw new RejectedExecutionException();
+		});
+
+		shadowMode.offer(UserAgentRules.getDefault(), "CURL/7.88.1");
+
+		assertThat(shadowMode.getRejectedCount()).isEqualTo(1L);
+		assertThat(shadowMode.getAgreementCount(UserAgentDimension.BROWSER)).isZero();
+	}
+
+	/**
+	 * Проверка метода {@link ShadowMode#getRejectedCount()} при достижении предела одновременных сравнений.
+	 */
+	@Test
+	public void getRejectedCountWithMaxPending()
+	{
+		List<Runnable> tasks = new ArrayList<>();
+		ShadowMode shadowMode = new ShadowMode(ParserSettings.Engine.AUTOMATON, 1, 16, tasks::add, 2);
+
+		for (int count = 0; count < 3; count++) {
+			shadowMode.offer(UserAgentRules.getDefault(), "CURL/7.88.1");
+		}
+
+		assertThat(tasks).hasSize(2);
+		assertThat(shadowMode.getRejectedCount()).isEqualTo(1L);
+
+		tasks.remove(0).run();
+		shadowMode.offer(UserAgentRules.getDefault(), "CURL/7.88.1");
+
+		assertThat(tasks).hasSize(2);
+		assertThat(shadowMode.getRejectedCount()).isEqualTo(1L);
+		assertThat(shadowMode.getAgreementCount(UserAgentDimension.BROWSER)).isEqualTo(1L);
+	}
+
+	/**
+	 * Проверка конструктора {@link ShadowMode#ShadowMode(ParserSettings.Engine, double, int)}
+	 * со сравнением в потоке теневой проверки.
+	 */
+	@Test
+	public void constructorWithDefaultExecutor() throws InterruptedException
+	{
+		ShadowMode shadowMode = new ShadowMode(ParserSettings.Engine.AUTOMATON, 1, 16);
+
+		shadowMode.offer(UserAgentRules.getDefault(), "CURL/7.88.1");
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+		while (shadowMode.getAgreementCount(UserAgentDimension.BROWSER) == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertThat(shadowMode.getAgreementCount(UserAgentDimension.BROWSER)).isEqualTo(1L);
+	}
+
+	/**
+	 * Проверка конструктора {@link ShadowMode} с нулевой долей проверяемых строк.
+	 */
+	@Test
+	public void constructorWithZeroSampleRate()
+	{
+		ShadowMode shadowMode = new ShadowMode(ParserSettings.Engine.AUTOMATON, 0, 16, Runnable::run);
+
+		shadowMode.offer(UserAgentRules.getDefault(), "CURL/7.88.1");
+
+		assertThat(shadowMode.getAgreementCount(UserAgentDimension.BROWSER)).isZero();
+	}
+
+	/**
+	 * Проверка конструктора {@link ShadowMode} с недопустимыми значениями.
+	 */
+	@Test
+	public void constructorWithInvalidValues()
+	{
+		assertThatThrownBy(() -> new ShadowMode(ParserSettings.Engine.AUTOMATON, 1.5, 16))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ShadowMode(ParserSettings.Engine.AUTOMATON, Double.NaN, 16))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ShadowMode(ParserSettings.Engine.AUTOMATON, 0.5, 0))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ShadowMode(ParserSettings.Engine.AUTOMATON, 0.5, 16, Runnable::run, 0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link StringPool}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class StringPoolTest
+{
+	/**
+	 * Проверка метода {@link StringPool#intern(String)}.
+	 */
+	@Test
+	public void intern()
+	{
+		StringPool stringPool = new StringPool(16);
+		String first = new String("118.0");
+		String second = new String("118.0");
+
+		assertThat(stringPool.intern(first)).isSameAs(first);
+		assertThat(stringPool.intern(second)).isSameAs(first);
+		assertThat(stringPool.getMissCount()).isEqualTo(1L);
+		assertThat(stringPool.getHitCount()).isEqualTo(1L);
+	}
+
+	/**
+	 * Проверка метода {@link StringPool#intern(String)} с {@code null}.
+	 */
+	@Test
+	public void internWithNull()
+	{
+		StringPool stringPool = new StringPool(16);
+
+		assertThat(stringPool.intern(null)).isNull();
+		assertThat(stringPool.getMissCount()).isZero();
+		assertThat(stringPool.size()).isZero();
+	}
+
+	/**
+	 * Проверка метода {@link StringPool#intern(String)} с вытеснением строк.
+	 */
+	@Test
+	public void internWithEviction()
+	{
+		StringPool stringPool = new StringPool(1);
+		String first = new String("SM-A300FU");
+		String second = new String("HRY-LX1");
+
+		stringPool.intern(first);
+		stringPool.intern(second);
+
+		assertThat(stringPool.size()).isEqualTo(1);
+		assertThat(stringPool.intern(new String("HRY-LX1"))).isSameAs(second);
+		assertThat(stringPool.intern(new String("SM-A300FU"))).isNotSameAs(first);
+	}
+
+	/**
+	 * Проверка метода {@link StringPool#size()}.
+	 */
+	@Test
+	public void size()
+	{
+		StringPool stringPool = new StringPool(64);
+
+		for (int index = 0; index < 1000; index++) {
+			stringPool.intern(String.valueOf(index));
+		}
+
+		assertThat(stringPool.size()).isPositive().isLessThanOrEqualTo(64);
+	}
+
+	/**
+	 * Проверка метода {@link StringPool#clear()}.
+	 */
+	@Test
+	public void clear()
+	{
+		StringPool stringPool = new StringPool(16);
+		stringPool.intern("118.0");
+
+		stringPool.clear();
+
+		assertThat(stringPool.size()).isZero();
+		assertThat(stringPool.getMissCount()).isEqualTo(1L);
+	}
+
+	/**
+	 * Проверка конструктора {@link StringPool#StringPool(int)} с некорректным размером.
+	 */
+	@Test
+	public void constructorWithInvalidSize()
+	{
+		assertThatThrownBy(() -> new StringPool(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link UserAgentBatch}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentBatchTest
+{
+	/**
+	 * Проверка метода {@link UserAgentBatch#getUniqueCount()}.
+	 */
+	@Test
+	public void getUniqueCount()
+	{
+		UserAgentBatch batch = new UserAgentBatch(List.of("A", "B", "A", new StringBuilder("B"), "C"));
+
+		int actual = batch.getUniqueCount();
+
+		assertThat(actual).isEqualTo(3);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentBatch#parse(java.util.function.Function, java.util.concurrent.Executor)}.
+	 */
+	@Test
+	public void parse()
+	{
+		List<String> userAgents = new ArrayList<>();
+
+		for (int i = 0; i < UserAgentBatch.CHUNK_SIZE * 5; i++) {
+			userAgents.add("Agent/" + (i % (UserAgentBatch.CHUNK_SIZE * 3)));
+		}
+
+		List<String> parsed = new ArrayList<>();
+		UserAgentBatch batch = new UserAgentBatch(userAgents);
+
+		List<UserAgentInfo> actual = batch.parse(userAgent -> {
+			synchronized (parsed) {
+				parsed.add(userAgent);
+			}
+
+			return new UserAgentInfo(
+				new Detection<>(BrowserType.UNKNOWN, userAgent),
+				new Detection<>(DeviceType.UNKNOWN, null),
+				new Detection<>(OperatingSystemType.UNKNOWN, null)
+			);
+		}, ForkJoinPool.commonPool());
+
+		assertThat(parsed).hasSize(UserAgentBatch.CHUNK_SIZE * 3);
+		assertThat(actual).extracting(UserAgentInfo::getBrowserVersion).isEqualTo(userAgents);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentBatch#parse(java.util.function.Function, java.util.concurrent.Executor)}
+	 * с исключением в функции парсинга.
+	 */
+	@Test
+	public void parseWithException()
+	{
+		String[] userAgents = new String[UserAgentBatch.CHUNK_SIZE * 2];
+		Arrays.setAll(userAgents, i -> "Agent/" + i);
+		UserAgentBatch batch = new UserAgentBatch(List.of(userAgents));
+
+		assertThatThrownBy(() -> batch.parse(userAgent -> {
+			throw new IllegalStateException(userAgent);
+		}, ForkJoinPool.commonPool())).isInstanceOf(IllegalStateException.class);
+	}
+
+	/**
+	 * Проверка конструктора {@link UserAgentBatch} с {@code null} в списке строк.
+	 */
+	@Test
+	public void constructorWithNullElement()
+	{
+		List<String> userAgents = Arrays.asList("A", null);
+
+		assertThatThrownBy(() -> new UserAgentBatch(userAgents)).isInstanceOf(NullPointerException.class);
+	}
+}
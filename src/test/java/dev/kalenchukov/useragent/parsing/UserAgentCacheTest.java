@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link UserAgentCache}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentCacheTest
+{
+	private static final UserAgentInfo USER_AGENT_INFO = new UserAgentInfo(
+		new Detection<>(BrowserType.FIREFOX, "118.0"),
+		new Detection<>(DeviceType.PC, null),
+		new Detection<>(OperatingSystemType.WINDOWS, "10.0")
+	);
+
+	private static final UserAgentRules RULES = UserAgentRules.getDefault();
+
+	/**
+	 * Проверка метода {@link UserAgentCache#get(String, UserAgentRules)}.
+	 */
+	@Test
+	public void get()
+	{
+		UserAgentCache cache = new UserAgentCache(8);
+		cache.put("firefox", RULES, USER_AGENT_INFO);
+
+		assertThat(cache.get("firefox", RULES)).isSameAs(USER_AGENT_INFO);
+		assertThat(cache.get("chrome", RULES)).isNull();
+		assertThat(cache.getHitCount()).isEqualTo(1L);
+		assertThat(cache.getMissCount()).isEqualTo(1L);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentCache#get(String, UserAgentRules)} с другим набором правил.
+	 */
+	@Test
+	public void getWithOtherRules() throws IOException
+	{
+		UserAgentRules otherRules = UserAgentRules.load(
+			new ByteArrayInputStream("version 2\n".getBytes(StandardCharsets.UTF_8))
+		);
+		UserAgentCache cache = new UserAgentCache(8);
+		cache.put("firefox", RULES, USER_AGENT_INFO);
+
+		assertThat(cache.get("firefox", otherRules)).isNull();
+		assertThat(cache.get("firefox", RULES)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentCache#put(String, UserAgentRules, UserAgentInfo)} со слишком длинной строкой.
+	 */
+	@Test
+	public void putWithLongKey()
+	{
+		UserAgentCache cache = new UserAgentCache(8);
+		String userAgent = "x".repeat(UserAgentCache.MAX_KEY_LENGTH + 1);
+
+		cache.put(userAgent, RULES, USER_AGENT_INFO);
+
+		assertThat(cache.size()).isZero();
+	}
+
+	/**
+	 * Проверка вытеснения политикой {@link UserAgentCache.EvictionPolicy#LRU}.
+	 */
+	@Test
+	public void evictLru()
+	{
+		UserAgentCache cache = new UserAgentCache(1);
+		cache.put("first", RULES, USER_AGENT_INFO);
+		cache.put("second", RULES, USER_AGENT_INFO);
+
+		assertThat(cache.get("first", RULES)).isNull();
+		assertThat(cache.get("second", RULES)).isSameAs(USER_AGENT_INFO);
+		assertThat(cache.getEvictionCount()).isEqualTo(1L);
+	}
+
+	/**
+	 * Проверка допуска политикой {@link UserAgentCache.EvictionPolicy#TINY_LFU}.
+	 */
+	@Test
+	public void evictTinyLfu()
+	{
+		UserAgentCache cache = new UserAgentCache(1, UserAgentCache.EvictionPolicy.TINY_LFU);
+		cache.put("popular", RULES, USER_AGENT_INFO);
+
+		for (int i = 0; i < 5; i++) {
+			cache.get("popular", RULES);
+		}
+
+		cache.get("random", RULES);
+		cache.put("random", RULES, USER_AGENT_INFO);
+
+		assertThat(cache.get("popular", RULES)).isSameAs(USER_AGENT_INFO);
+		assertThat(cache.get("random", RULES)).isNull();
+		assertThat(cache.getEvictionCount()).isEqualTo(1L);
+	}
+
+	/**
+	 * Проверка ограничения размера при использовании из нескольких потоков.
+	 */
+	@Test
+	public void sizeConcurrently() throws Exception
+	{
+		UserAgentCache cache = new UserAgentCache(100, UserAgentCache.EvictionPolicy.TINY_LFU);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try
+		{
+			List<Future<?>> results = new ArrayList<>();
+
+			for (int task = 0; task < 4; task++)
+			{
+				int offset = task;
+
+				results.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++)
+					{
+						String userAgent = "bot-" + (i * 4 + offset);
+
+						if (cache.get(userAgent, RULES) == null) {
+							cache.put(userAgent, RULES, USER_AGENT_INFO);
+						}
+					}
+				}));
+			}
+
+			for (Future<?> result : results) {
+				result.get(1, TimeUnit.MINUTES);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		assertThat(cache.size()).isLessThanOrEqualTo(100);
+		assertThat(cache.getMissCount()).isEqualTo(40_000L);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentCache#size()} с размером, не равным степени двойки.
+	 */
+	@Test
+	public void sizeWithUnevenMaximumSize()
+	{
+		UserAgentCache cache = new UserAgentCache(31);
+
+		for (int index = 0; index < 10_000; index++) {
+			cache.put("user-agent " + index, RULES, USER_AGENT_INFO);
+		}
+
+		assertThat(cache.size()).isEqualTo(31);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentCache#clear()}.
+	 */
+	@Test
+	public void clear()
+	{
+		UserAgentCache cache = new UserAgentCache(8);
+		cache.put("firefox", RULES, USER_AGENT_INFO);
+
+		cache.clear();
+
+		assertThat(cache.size()).isZero();
+	}
+
+	/**
+	 * Проверка конструктора {@link UserAgentCache} с некорректным размером.
+	 */
+	@Test
+	public void constructorWithZeroSize()
+	{
+		assertThatThrownBy(() -> new UserAgentCache(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link UserAgentFormatter}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentFormatterTest
+{
+	private static final List<String> USER_AGENTS = List.of(
+		"Mozilla/5.0 (Linux; Android 6.0.1; SM-A300FU Build/MMB29M; wv) AppleWebKit/537.36 " +
+			"(KHTML, like Gecko) Version/4.0 Chrome/89.0.4389.105 Mobile Safari/537.36",
+		"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0",
+		"Mozilla/5.0 (iPhone; CPU iPhone OS 17_0_3 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) " +
+			"Version/17.0 Mobile/15E148 Safari/604.1",
+		"Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+		"Opera/9.80 (Android; Opera Mini/7.5.33361/31.1448; U; en) Presto/2.8.119 Version/11.1010",
+		"  Mozilla / 5.0  ( X11 ;  Linux   x86_64 )  [FBAN/FBIOS ; FBLC/en_US]  ",
+		"\t Mozilla/5.0\t(Windows NT 6.1)\n",
+		"Straße Ärger ıi ǆ ﬀ",
+		""
+	);
+
+	/**
+	 * Символы, из которых составляются случайные строки для сравнения с эталонной реализацией.
+	 */
+	private static final String ALPHABET = "aZz09 .-_#/:;,()[]  \t\n\r\u000BßıiéЯ  😀\u0000";
+
+	/**
+	 * Проверка метода {@link UserAgentFormatter#format(CharSequence)}.
+	 */
+	@Test
+	public void format()
+	{
+		String actualFormatted = UserAgentFormatter.format(USER_AGENTS.get(0));
+
+		assertThat(actualFormatted).isEqualTo(
+			"MOZILLA/5.0(LINUX;ANDROID 6.0.1;SM-A300FU BUILD/MMB29M;WV)APPLEWEBKIT/537.36" +
+				"(KHTML,LIKE GECKO)VERSION/4.0 CHROME/89.0.4389.105 MOBILE SAFARI/537.36"
+		);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentFormatter#format(CharSequence)} с пустой строкой.
+	 */
+	@Test
+	public void formatWithEmpty()
+	{
+		String actualFormatted = UserAgentFormatter.format("   ");
+
+		assertThat(actualFormatted).isEmpty();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentFormatter#format(CharSequence, StringBuilder)}.
+	 */
+	@Test
+	public void formatWithBuffer()
+	{
+		StringBuilder buffer = new StringBuilder("previous");
+
+		for (String userAgent : USER_AGENTS)
+		{
+			UserAgentFormatter.format(userAgent, buffer);
+
+			assertThat(buffer.toString()).isEqualTo(UserAgentFormatter.format(userAgent));
+		}
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentFormatter#format(CharSequence)} на совпадение с форматированием
+	 * регулярными выражениями на большом наборе строк.
+	 */
+	@Test
+	public void formatMatchesRegExp()
+	{
+		Random random = new Random(20231018L);
+
+		for (String userAgent : USER_AGENTS) {
+			assertFormat(userAgent);
+		}
+
+		for (int i = 0; i < 100_000; i++)
+		{
+			StringBuilder userAgent = new StringBuilder();
+			int length = random.nextInt(64);
+
+			for (int position = 0; position < length; position++) {
+				userAgent.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			}
+
+			if (random.nextInt(4) == 0)
+			{
+				String template = USER_AGENTS.get(random.nextInt(USER_AGENTS.size()));
+				int position = random.nextInt(template.length() + 1);
+				userAgent.insert(0, template.substring(0, position)).append(template.substring(position));
+			}
+
+			assertFormat(userAgent.toString());
+		}
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentFormatter#format(CharSequence)} на совпадение с форматированием
+	 * регулярными выражениями для локали с особыми правилами перевода в верхний регистр.
+	 */
+	@Test
+	public void formatMatchesRegExpWithTurkishLocale()
+	{
+		Locale locale = Locale.getDefault();
+
+		try
+		{
+			Locale.setDefault(new Locale("tr", "TR"));
+
+			for (String userAgent : USER_AGENTS) {
+				assertFormat(userAgent);
+			}
+		}
+		finally
+		{
+			Locale.setDefault(locale);
+		}
+	}
+
+	/**
+	 * Проверяет совпадение форматирования с эталонной реализацией.
+	 *
+	 * @param userAgent строка user-agent.
+	 */
+	private static void assertFormat(final String userAgent)
+	{
+		assertThat(UserAgentFormatter.format(userAgent))
+			.as("format(\"%s\")", userAgent)
+			.isEqualTo(formatRegExp(userAgent));
+	}
+
+	/**
+	 * Форматирует user-agent регулярными выражениями, как это делала прежняя реализация парсера.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return отформатированную строку user-agent.
+	 */
+	private static String formatRegExp(final String userAgent)
+	{
+		return userAgent
+			.replaceAll("(\s+)?\\.(\s+)?", ".")
+			.replaceAll("(\s+)?-(\s+)?", "-")
+			.replaceAll("(\s+)?_(\s+)?", "_")
+			.replaceAll("(\s+)?#(\s+)?", "#")
+			.replaceAll("(\s+)?/(\s+)?", "/")
+			.replaceAll("(\s+)?:(\s+)?", ":")
+			.replaceAll("(\s+)?;(\s+)?", ";")
+			.replaceAll("(\s+)?,(\s+)?", ",")
+			.replaceAll("(\s+)?\\((\s+)?", "(")
+			.replaceAll("(\s+)?\\)(\s+)?", ")")
+			.replaceAll("(\s+)?\\[(\s+)?", "[")
+			.replaceAll("(\s+)?\\](\s+)?", "]")
+
+			.replaceAll("\s+", " ")
+
+			.toUpperCase()
+			.trim();
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link UserAgentInfo}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentInfoTest
+{
+	private static final UserAgentInfo USER_AGENT_INFO = new UserAgentInfo(
+		new Detection<>(BrowserType.GOOGLE_CHROME, "89.0.4389.105"),
+		new Detection<>(DeviceType.MOBILE, "SM-A300FU"),
+		new Detection<>(OperatingSystemType.ANDROID, "6.0.1")
+	);
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getBrowser()}.
+	 */
+	@Test
+	public void getBrowser()
+	{
+		BrowserType actualBrowser = USER_AGENT_INFO.getBrowser();
+
+		assertThat(actualBrowser).isEqualTo(BrowserType.GOOGLE_CHROME);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getBrowserName()}.
+	 */
+	@Test
+	public void getBrowserName()
+	{
+		String actualBrowserName = USER_AGENT_INFO.getBrowserName();
+
+		assertThat(actualBrowserName).isEqualTo("Google Chrome");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getBrowserVersion()}.
+	 */
+	@Test
+	public void getBrowserVersion()
+	{
+		String actualBrowserVersion = USER_AGENT_INFO.getBrowserVersion();
+
+		assertThat(actualBrowserVersion).isEqualTo("89.0.4389.105");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getDevice()}.
+	 */
+	@Test
+	public void getDevice()
+	{
+		DeviceType actualDevice = USER_AGENT_INFO.getDevice();
+
+		assertThat(actualDevice).isEqualTo(DeviceType.MOBILE);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getDeviceType()}.
+	 */
+	@Test
+	public void getDeviceType()
+	{
+		String actualDeviceType = USER_AGENT_INFO.getDeviceType();
+
+		assertThat(actualDeviceType).isEqualTo("Mobile");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getDeviceModel()}.
+	 */
+	@Test
+	public void getDeviceModel()
+	{
+		String actualDeviceModel = USER_AGENT_INFO.getDeviceModel();
+
+		assertThat(actualDeviceModel).isEqualTo("SM-A300FU");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getOperatingSystem()}.
+	 */
+	@Test
+	public void getOperatingSystem()
+	{
+		OperatingSystemType actualOperatingSystem = USER_AGENT_INFO.getOperatingSystem();
+
+		assertThat(actualOperatingSystem).isEqualTo(OperatingSystemType.ANDROID);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getOperatingSystemName()}.
+	 */
+	@Test
+	public void getOperatingSystemName()
+	{
+		String actualOperatingSystemName = USER_AGENT_INFO.getOperatingSystemName();
+
+		assertThat(actualOperatingSystemName).isEqualTo("Android");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getOperatingSystemVersion()}.
+	 */
+	@Test
+	public void getOperatingSystemVersion()
+	{
+		String actualOperatingSystemVersion = USER_AGENT_INFO.getOperatingSystemVersion();
+
+		assertThat(actualOperatingSystemVersion).isEqualTo("6.0.1");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#getAll()}.
+	 */
+	@Test
+	public void getAll()
+	{
+		Map<String, String> actualAll = UserAgentInfo.UNKNOWN.getAll();
+
+		assertThat(actualAll).hasSize(6);
+		assertThat(actualAll.values()).containsOnlyNulls();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#isBudgetExceeded()}.
+	 */
+	@Test
+	public void isBudgetExceeded()
+	{
+		UserAgentInfo exceeded = new UserAgentInfo(
+			new Detection<>(BrowserType.UNKNOWN, null),
+			new Detection<>(DeviceType.UNKNOWN, null),
+			new Detection<>(OperatingSystemType.UNKNOWN, null),
+			true
+		);
+
+		assertThat(USER_AGENT_INFO.isBudgetExceeded()).isFalse();
+		assertThat(exceeded.isBudgetExceeded()).isTrue();
+		assertThat(exceeded).isNotEqualTo(UserAgentInfo.UNKNOWN);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentInfo#equals(Object)}.
+	 */
+	@Test
+	public void testEquals()
+	{
+		UserAgentInfo userAgentInfo = new UserAgentInfo(
+			new Detection<>(BrowserType.GOOGLE_CHROME, "89.0.4389.105"),
+			new Detection<>(DeviceType.MOBILE, "SM-A300FU"),
+			new Detection<>(OperatingSystemType.ANDROID, "6.0.1")
+		);
+
+		assertThat(userAgentInfo).isEqualTo(USER_AGENT_INFO).hasSameHashCodeAs(USER_AGENT_INFO);
+		assertThat(userAgentInfo).isNotEqualTo(UserAgentInfo.UNKNOWN);
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link UserAgentLogEnricher}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentLogEnricherTest
+{
+	private static final String CHROME =
+		"Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/118.0.0.0 Safari/537.36";
+
+	private static final String FIREFOX =
+		"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0";
+
+	@TempDir
+	private Path directory;
+
+	/**
+	 * Проверка метода {@link UserAgentLogEnricher#enrich(Path, java.io.OutputStream)}.
+	 */
+	@Test
+	public void enrichToOutputStream() throws Exception
+	{
+		Path log = this.directory.resolve("access.log");
+		String line = UserAgentLogEnricherTest.line(FIREFOX);
+		Files.writeString(log, line + "\r\n\nbroken line\n", StandardCharsets.US_ASCII);
+		UserAgentInfo expected = new UserAgentParser().parse(FIREFOX);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		new UserAgentLogEnricher(new UserAgentParser()).enrich(log, output);
+
+		assertThat(output.toString(StandardCharsets.US_ASCII)).isEqualTo(
+			line + "\t" + expected.getBrowserName() + "\t" + expected.getBrowserVersion() +
+				"\t" + expected.getDeviceType() + "\t\t" + expected.getOperatingSystemName() +
+				"\t" + expected.getOperatingSystemVersion() + "\n" +
+			"broken line\t\t\t\t\t\t\n"
+		);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentLogEnricher#enrich(Path, java.util.function.Consumer)}
+	 * с разбиением файла журнала на множество частей.
+	 */
+	@Test
+	public void enrichToConsumer() throws Exception
+	{
+		Path log = this.directory.resolve("access.log");
+		StringBuilder content = new StringBuilder();
+		List<Long> offsets = new ArrayList<>();
+
+		for (int i = 0; i < 500; i++)
+		{
+			offsets.add((long) content.length());
+			content.append(UserAgentLogEnricherTest.line(i % 2 == 0 ? CHROME : FIREFOX)).append('\n');
+		}
+
+		Files.writeString(log, content, StandardCharsets.US_ASCII);
+		List<UserAgentLogRecord> records = new ArrayList<>();
+
+		new UserAgentLogEnricher(
+			new UserAgentParser(), ForkJoinPool.commonPool(), UserAgentLogEnricher.COMBINED_USER_AGENT_FIELD, 64, 3
+		)
+			.enrich(log, records::add);
+
+		assertThat(records).hasSize(500);
+		assertThat(records).extracting(UserAgentLogRecord::getOffset).isEqualTo(offsets);
+
+		for (int i = 0; i < records.size(); i++)
+		{
+			assertThat(records.get(i).getUserAgentInfo().getBrowser())
+				.isEqualTo(i % 2 == 0 ? BrowserType.GOOGLE_CHROME : BrowserType.FIREFOX);
+		}
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentLogEnricher#enrich(Path, java.util.function.Consumer)}
+	 * с пустым файлом журнала.
+	 */
+	@Test
+	public void enrichWithEmpty() throws Exception
+	{
+		Path log = Files.createFile(this.directory.resolve("access.log"));
+		List<UserAgentLogRecord> records = new ArrayList<>();
+
+		new UserAgentLogEnricher(new UserAgentParser()).enrich(log, records::add);
+
+		assertThat(records).isEmpty();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentLogEnricher#enrich(Path, java.util.function.Consumer)}
+	 * с журналом в формате main веб-сервера nginx.
+	 */
+	@Test
+	public void enrichWithNginxMainFormat() throws Exception
+	{
+		Path log = this.directory.resolve("access.log");
+		String line = UserAgentLogEnricherTest.line(FIREFOX) + " \"203.0.113.7, 198.51.100.2\"";
+		Files.writeString(log, line + "\n", StandardCharsets.US_ASCII);
+		List<UserAgentLogRecord> records = new ArrayList<>();
+
+		new UserAgentLogEnricher(new UserAgentParser()).enrich(log, records::add);
+
+		assertThat(records).hasSize(1);
+		assertThat(records.get(0).getUserAgentInfo()).isEqualTo(new UserAgentParser().parse(FIREFOX));
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentLogEnricher#locateField(ByteBuffer, int, int, int)}.
+	 */
+	@Test
+	public void locateField()
+	{
+		String line = "1.2.3.4 - - \"GET / HTTP/1.1\" 200 5 \"-\" \"Agent \\\"quoted\\\\\" \"10.0.0.1\"";
+		ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+
+		long actual = UserAgentLogEnricher.locateField(buffer, 0, line.length(), 3);
+
+		assertThat(line.substring((int) (actual >>> 32), (int) actual)).isEqualTo("Agent \\\"quoted\\\\");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentLogEnricher#locateField(ByteBuffer, int, int, int)} без поля в кавычках.
+	 */
+	@Test
+	public void locateFieldWithoutQuotes()
+	{
+		String line = "1.2.3.4 - - \"GET / HTTP/1.1\" 200 5 \"-";
+		ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+
+		assertThat(UserAgentLogEnricher.locateField(buffer, 0, line.length(), 2)).isEqualTo(-1L);
+		assertThat(UserAgentLogEnricher.locateField(buffer, 0, line.length(), 3)).isEqualTo(-1L);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentLogEnricher#writeField(ByteArrayOutputStream, String)}.
+	 */
+	@Test
+	public void writeField()
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		UserAgentLogEnricher.writeField(output, "Модель\tX");
+
+		assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("\tМодель X");
+	}
+
+	/**
+	 * Возвращает строку журнала доступа в формате combined.
+	 *
+	 * @param userAgent строка user-agent.
+	 * @return строка журнала.
+	 */
+	private static String line(final String userAgent)
+	{
+		return "127.0.0.1 - - [18/Oct/2026:10:00:00 +0000] \"GET /index.html HTTP/1.1\" 200 512 " +
+			"\"https://example.com/\" \"" + userAgent + "\"";
+	}
+}
@@ -24,9 +24,17 @@
 
 package dev.kalenchukov.useragent.parsing;
 
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
 import org.junit.jupiter.api.Test;
 
-import java.util.Map;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -178,4 +186,503 @@ public class UserAgentParserTest
 
 		assertThat(actualOperatingSystemVersion).isEqualTo("6.0.1");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)}.
+	 */
+	@Test
+	public void parse()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse(USER_AGENT);
+
+		assertThat(actualUserAgentInfo.getBrowserName()).isEqualTo("Google Chrome");
+		assertThat(actualUserAgentInfo.getBrowserVersion()).isEqualTo("89.0.4389.105");
+		assertThat(actualUserAgentInfo.getDeviceType()).isEqualTo("Mobile");
+		assertThat(actualUserAgentInfo.getDeviceModel()).isEqualTo("SM-A300FU");
+		assertThat(actualUserAgentInfo.getOperatingSystemName()).isEqualTo("Android");
+		assertThat(actualUserAgentInfo.getOperatingSystemVersion()).isEqualTo("6.0.1");
+		assertThat(userAgentParser.getBrowserName()).isNull();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с пустой строкой.
+	 */
+	@Test
+	public void parseWithEmpty()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse("   ");
+
+		assertThat(actualUserAgentInfo).isEqualTo(UserAgentInfo.UNKNOWN);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} со строками без букв и с управляющими символами.
+	 */
+	@Test
+	public void parseWithGarbage()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+
+		assertThat(userAgentParser.parse("1234567890")).isEqualTo(UserAgentInfo.UNKNOWN);
+		assertThat(userAgentParser.parse("Mozilla/5.0 \u0000\u0001 Chrome/89.0")).isEqualTo(UserAgentInfo.UNKNOWN);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с обрезкой длинной строки.
+	 */
+	@Test
+	public void parseWithMaxLength()
+	{
+		ParserSettings settings = new ParserSettings();
+		settings.setMaxLength(50);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse(USER_AGENT);
+
+		assertThat(actualUserAgentInfo).isEqualTo(new UserAgentParser().parse(USER_AGENT.substring(0, 50)));
+		assertThat(actualUserAgentInfo.getOperatingSystemName()).isEqualTo("Android");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с отклонением длинной строки.
+	 */
+	@Test
+	public void parseWithMaxLengthReject()
+	{
+		ParserSettings settings = new ParserSettings();
+		settings.setMaxLength(50);
+		settings.setOverflow(ParserSettings.Overflow.REJECT);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+
+		assertThat(userAgentParser.parse(USER_AGENT)).isEqualTo(UserAgentInfo.UNKNOWN);
+		assertThat(userAgentParser.parse(USER_AGENT.substring(0, 50))).isNotEqualTo(UserAgentInfo.UNKNOWN);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с заменой набора правил.
+	 */
+	@Test
+	public void parseWithRulesHolder() throws IOException
+	{
+		UserAgentRules emptyRules = UserAgentRules.load(
+			new ByteArrayInputStream("version 2\n".getBytes(StandardCharsets.UTF_8))
+		);
+		UserAgentRulesHolder rules = new UserAgentRulesHolder(UserAgentRules.getDefault());
+		ParserSettings settings = new ParserSettings();
+		settings.setRules(rules);
+		settings.setCache(new UserAgentCache(16));
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+
+		UserAgentInfo expected = userAgentParser.parse(USER_AGENT);
+		rules.set(emptyRules);
+
+		assertThat(expected).isNotEqualTo(UserAgentInfo.UNKNOWN);
+		assertThat(userAgentParser.parse(USER_AGENT)).isEqualTo(UserAgentInfo.UNKNOWN);
+
+		rules.set(UserAgentRules.getDefault());
+
+		assertThat(userAgentParser.parse(USER_AGENT)).isEqualTo(expected);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} из нескольких потоков.
+	 */
+	@Test
+	public void parseConcurrently() throws Exception
+	{
+		String otherUserAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0";
+		UserAgentParsing userAgentParser = new UserAgentParser();
+		UserAgentInfo expected = userAgentParser.parse(USER_AGENT);
+		UserAgentInfo otherExpected = userAgentParser.parse(otherUserAgent);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try
+		{
+			List<Future<Boolean>> results = new ArrayList<>();
+
+			for (int task = 0; task < 8; task++)
+			{
+				results.add(executor.submit(() -> {
+					for (int i = 0; i < 200; i++)
+					{
+						if (!userAgentParser.parse(USER_AGENT).equals(expected) ||
+							!userAgentParser.parse(otherUserAgent).equals(otherExpected)) {
+							return false;
+						}
+					}
+
+					return true;
+				}));
+			}
+
+			for (Future<Boolean> result : results) {
+				assertThat(result.get(1, TimeUnit.MINUTES)).isTrue();
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с автоматом правил.
+	 */
+	@Test
+	public void parseWithAutomaton()
+	{
+		String otherUserAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0";
+		ParserSettings settings = new ParserSettings();
+		settings.setEngine(ParserSettings.Engine.AUTOMATON);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+		UserAgentParsing regexParser = new UserAgentParser();
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse(USER_AGENT);
+
+		assertThat(actualUserAgentInfo).isEqualTo(regexParser.parse(USER_AGENT));
+		assertThat(actualUserAgentInfo.getDeviceModel()).isEqualTo("SM-A300FU");
+		assertThat(userAgentParser.parse(otherUserAgent)).isEqualTo(regexParser.parse(otherUserAgent));
+		assertThat(userAgentParser.parse(USER_AGENT, EnumSet.of(UserAgentDimension.DEVICE)).getBrowser())
+			.isEqualTo(BrowserType.UNKNOWN);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с бюджетом проверки правил.
+	 */
+	@Test
+	public void parseWithMatchBudget()
+	{
+		String hostileUserAgent = "Mozilla/5.0 (Linux; Android 4.0; en-us; " + "A Build/".repeat(500) + " AppleWebKit";
+		ParserSettings settings = new ParserSettings();
+		settings.setMatchBudget(1_000_000);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse(USER_AGENT);
+		UserAgentInfo actualHostileUserAgentInfo = userAgentParser.parse(hostileUserAgent);
+
+		assertThat(actualUserAgentInfo).isEqualTo(new UserAgentParser().parse(USER_AGENT));
+		assertThat(actualUserAgentInfo.isBudgetExceeded()).isFalse();
+		assertThat(actualHostileUserAgentInfo.isBudgetExceeded()).isTrue();
+		assertThat(actualHostileUserAgentInfo.getBrowser()).isEqualTo(BrowserType.UNKNOWN);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с бюджетом проверки правил автоматом.
+	 * <p>
+	 * Строка читается автоматом по одному разу на символ, но на каждом символе проверяется
+	 * множество состояний, которые тоже списываются с бюджета.
+	 */
+	@Test
+	public void parseWithMatchBudgetAutomaton()
+	{
+		String hostileUserAgent = "Android ".repeat(4096);
+		ParserSettings settings = new ParserSettings();
+		settings.setEngine(ParserSettings.Engine.AUTOMATON);
+		settings.setMatchBudget(1_000_000);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse(USER_AGENT);
+		UserAgentInfo actualHostileUserAgentInfo = userAgentParser.parse(hostileUserAgent);
+
+		assertThat(actualUserAgentInfo).isEqualTo(new UserAgentParser().parse(USER_AGENT));
+		assertThat(actualUserAgentInfo.isBudgetExceeded()).isFalse();
+		assertThat(actualHostileUserAgentInfo.isBudgetExceeded()).isTrue();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#isBudgetExceeded()}.
+	 */
+	@Test
+	public void isBudgetExceeded()
+	{
+		String hostileUserAgent = "Mozilla/5.0 (Linux; Android 4.0; en-us; " + "A Build/".repeat(500) + " AppleWebKit";
+		ParserSettings settings = new ParserSettings();
+		settings.setMatchBudget(1_000_000);
+		UserAgentParser userAgentParser = new UserAgentParser(settings);
+
+		userAgentParser.setUserAgent(USER_AGENT);
+
+		assertThat(userAgentParser.isBudgetExceeded()).isFalse();
+
+		userAgentParser.setUserAgent(hostileUserAgent);
+
+		assertThat(userAgentParser.isBudgetExceeded()).isTrue();
+		assertThat(userAgentParser.getDeviceType()).isEqualTo(DeviceType.UNKNOWN.getName());
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с метриками правил.
+	 */
+	@Test
+	public void parseWithRuleMetrics()
+	{
+		String otherUserAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0";
+		RuleMetrics ruleMetrics = new RuleMetrics();
+		ParserSettings settings = new ParserSettings();
+		settings.setRuleMetrics(ruleMetrics);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+		UserAgentParsing regexParser = new UserAgentParser();
+
+		assertThat(userAgentParser.parse(USER_AGENT)).isEqualTo(regexParser.parse(USER_AGENT));
+		assertThat(userAgentParser.parse(otherUserAgent)).isEqualTo(regexParser.parse(otherUserAgent));
+		assertThat(ruleMetrics.getDetectionCount(UserAgentDimension.OPERATING_SYSTEM)).isEqualTo(2L);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с пулом строк.
+	 */
+	@Test
+	public void parseWithStringPool()
+	{
+		StringPool stringPool = new StringPool(1024);
+		ParserSettings settings = new ParserSettings();
+		settings.setStringPool(stringPool);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+		UserAgentParsing regexParser = new UserAgentParser();
+
+		UserAgentInfo first = userAgentParser.parse(USER_AGENT);
+		UserAgentInfo second = userAgentParser.parse(new StringBuilder(USER_AGENT));
+
+		assertThat(first).isEqualTo(regexParser.parse(USER_AGENT));
+		assertThat(second.getBrowserVersion()).isSameAs(first.getBrowserVersion());
+		assertThat(second.getDeviceModel()).isSameAs(first.getDeviceModel());
+		assertThat(second.getOperatingSystemVersion()).isSameAs(first.getOperatingSystemVersion());
+		assertThat(stringPool.getHitCount()).isEqualTo(3L);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с кэшем.
+	 */	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence)} с кэшем.
+	 */
+	@Test
+	public void parseWithCache()
+	{
+		UserAgentCache cache = new UserAgentCache(16);
+		ParserSettings settings = new ParserSettings();
+		settings.setCache(cache);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+
+		UserAgentInfo first = userAgentParser.parse(USER_AGENT);
+		UserAgentInfo second = userAgentParser.parse(new StringBuilder(USER_AGENT));
+
+		assertThat(second).isSameAs(first);
+		assertThat(cache.getMissCount()).isEqualTo(1L);
+		assertThat(cache.getHitCount()).isEqualTo(1L);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence, MutableUserAgentInfo)}.
+	 */
+	@Test
+	public void parseWithMutableUserAgentInfo()
+	{
+		List<String> userAgents = List.of(
+			USER_AGENT,
+			"Mozilla/5.0 (iPhone; CPU iPhone OS 17_0_3 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) " +
+				"Version/17.0 Mobile/15E148 Safari/604.1",
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0",
+			"   ",
+			"1234567890"
+		);
+		ParserSettings automatonSettings = new ParserSettings();
+		automatonSettings.setEngine(ParserSettings.Engine.AUTOMATON);
+		ParserSettings budgetSettings = new ParserSettings();
+		budgetSettings.setMatchBudget(1_000_000);
+		UserAgentParsing regexParser = new UserAgentParser();
+		MutableUserAgentInfo userAgentInfo = new MutableUserAgentInfo();
+
+		for (UserAgentParsing userAgentParser : List.of(
+			regexParser, new UserAgentParser(automatonSettings), new UserAgentParser(budgetSettings)))
+		{
+			for (String userAgent : userAgents)
+			{
+				userAgentParser.parse(userAgent, userAgentInfo);
+
+				assertThat(userAgentInfo.toUserAgentInfo()).isEqualTo(regexParser.parse(userAgent));
+			}
+		}
+
+		regexParser.parse(USER_AGENT, userAgentInfo);
+
+		assertThat(userAgentInfo.getBuffer().subSequence(
+			userAgentInfo.getBrowserVersionStart(), userAgentInfo.getBrowserVersionEnd()
+		).toString()).isEqualTo("89.0.4389.105");
+		assertThat(userAgentInfo.getPackedOperatingSystemVersion()).isEqualTo(PackedVersion.pack(6, 0, 1));
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence, MutableUserAgentInfo)} с кэшем.
+	 */
+	@Test
+	public void parseWithMutableUserAgentInfoAndCache()
+	{
+		UserAgentCache cache = new UserAgentCache(16);
+		ParserSettings settings = new ParserSettings();
+		settings.setCache(cache);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+		MutableUserAgentInfo userAgentInfo = new MutableUserAgentInfo();
+
+		userAgentParser.parse(USER_AGENT, userAgentInfo);
+		UserAgentInfo first = userAgentInfo.toUserAgentInfo();
+		userAgentParser.parse(USER_AGENT, userAgentInfo);
+
+		assertThat(userAgentInfo.toUserAgentInfo()).isEqualTo(first);
+		assertThat(userAgentParser.parse(USER_AGENT)).isEqualTo(first);
+		assertThat(cache.getMissCount()).isEqualTo(1L);
+		assertThat(cache.getHitCount()).isEqualTo(2L);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(byte[], int, int)}.
+	 */
+	@Test
+	public void parseWithBytes()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+		byte[] bytes = ("User-Agent: " + USER_AGENT + "\r\n").getBytes(StandardCharsets.US_ASCII);
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse(bytes, 12, USER_AGENT.length());
+
+		assertThat(actualUserAgentInfo).isEqualTo(userAgentParser.parse(USER_AGENT));
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(ByteBuffer)} с прямым буфером.
+	 */
+	@Test
+	public void parseWithByteBuffer()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+		byte[] bytes = ("User-Agent: " + USER_AGENT).getBytes(StandardCharsets.US_ASCII);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes).position(12);
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse(buffer);
+
+		assertThat(actualUserAgentInfo).isEqualTo(userAgentParser.parse(USER_AGENT));
+		assertThat(buffer.position()).isEqualTo(12);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parseAll(List)}.
+	 */
+	@Test
+	public void parseAll()
+	{
+		String otherUserAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0";
+		UserAgentParsing userAgentParser = new UserAgentParser();
+		List<String> userAgents = new ArrayList<>();
+		List<UserAgentInfo> expected = new ArrayList<>();
+
+		for (int i = 0; i < 2000; i++)
+		{
+			String userAgent = switch (i % 3) {
+				case 0 -> USER_AGENT;
+				case 1 -> otherUserAgent;
+				default -> "Agent/" + i;
+			};
+
+			userAgents.add(userAgent);
+			expected.add(userAgentParser.parse(userAgent));
+		}
+
+		List<UserAgentInfo> actual = userAgentParser.parseAll(userAgents);
+
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parseAll(List, Executor)}.
+	 */
+	@Test
+	public void parseAllWithExecutor()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+		List<String> userAgents = new ArrayList<>();
+
+		for (int i = 0; i < 1000; i++) {
+			userAgents.add(USER_AGENT + " Build/" + i);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try
+		{
+			List<UserAgentInfo> actual = userAgentParser.parseAll(userAgents, executor);
+
+			assertThat(actual).hasSize(1000);
+			assertThat(actual).allMatch(userAgentInfo -> userAgentInfo.equals(userAgentParser.parse(USER_AGENT)));
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parseAll(List)} с пустым списком.
+	 */
+	@Test
+	public void parseAllWithEmpty()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+
+		List<UserAgentInfo> actual = userAgentParser.parseAll(List.of());
+
+		assertThat(actual).isEmpty();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#setUserAgent(String)} с повторной установкой строки.
+	 */
+	@Test
+	public void setUserAgentTwice()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+		userAgentParser.setUserAgent(USER_AGENT);
+		userAgentParser.getDeviceType();
+
+		userAgentParser.setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0");
+
+		assertThat(userAgentParser.getDeviceType()).isEqualTo("PC");
+		assertThat(userAgentParser.getBrowserName()).isEqualTo("Firefox");
+		assertThat(userAgentParser.getOperatingSystemName()).isEqualTo("Windows");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence, Set)}.
+	 */
+	@Test
+	public void parseWithDimensions()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+		UserAgentInfo expected = userAgentParser.parse(USER_AGENT);
+
+		UserAgentInfo actual = userAgentParser.parse(USER_AGENT, EnumSet.of(UserAgentDimension.DEVICE));
+
+		assertThat(actual.getDevice()).isEqualTo(expected.getDevice());
+		assertThat(actual.getDeviceModel()).isEqualTo(expected.getDeviceModel());
+		assertThat(actual.getBrowser()).isEqualTo(BrowserType.UNKNOWN);
+		assertThat(actual.getBrowserVersion()).isNull();
+		assertThat(actual.getOperatingSystem()).isEqualTo(OperatingSystemType.UNKNOWN);
+		assertThat(actual.getOperatingSystemVersion()).isNull();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParser#parse(CharSequence, Set)} со всеми характеристиками.
+	 */
+	@Test
+	public void parseWithAllDimensions()
+	{
+		UserAgentParsing userAgentParser = new UserAgentParser();
+
+		UserAgentInfo actual = userAgentParser.parse(USER_AGENT, EnumSet.allOf(UserAgentDimension.class));
+
+		assertThat(actual).isEqualTo(userAgentParser.parse(USER_AGENT));
+	}
+}
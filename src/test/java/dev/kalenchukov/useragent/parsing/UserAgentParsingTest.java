@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import dev.kalenchukov.useragent.parsing.resources.OperatingSystemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки реализаций по умолчанию методов интерфейса {@link UserAgentParsing}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentParsingTest
+{
+	private static final UserAgentInfo USER_AGENT_INFO = new UserAgentInfo(
+		new Detection<>(BrowserType.FIREFOX, "118.0"),
+		new Detection<>(DeviceType.PC, null),
+		new Detection<>(OperatingSystemType.WINDOWS, "10.0")
+	);
+
+	/**
+	 * Проверка метода {@link UserAgentParsing#parse(CharSequence, Set)}.
+	 */
+	@Test
+	public void parseWithDimensions()
+	{
+		UserAgentParsing userAgentParser = new FixedParser();
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse("firefox", Set.of(UserAgentDimension.BROWSER));
+
+		assertThat(actualUserAgentInfo.getBrowser()).isEqualTo(BrowserType.FIREFOX);
+		assertThat(actualUserAgentInfo.getBrowserVersion()).isEqualTo("118.0");
+		assertThat(actualUserAgentInfo.getDevice()).isEqualTo(DeviceType.UNKNOWN);
+		assertThat(actualUserAgentInfo.getOperatingSystem()).isEqualTo(OperatingSystemType.UNKNOWN);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParsing#parse(CharSequence, MutableUserAgentInfo)}.
+	 */
+	@Test
+	public void parseWithMutableUserAgentInfo()
+	{
+		UserAgentParsing userAgentParser = new FixedParser();
+		MutableUserAgentInfo userAgentInfo = new MutableUserAgentInfo();
+
+		userAgentParser.parse("firefox", userAgentInfo);
+
+		assertThat(userAgentInfo.toUserAgentInfo()).isEqualTo(USER_AGENT_INFO);
+	}
+
+	/**
+	 * Проверка методов {@link UserAgentParsing#parse(byte[], int, int)} и {@link UserAgentParsing#parse(ByteBuffer)}.
+	 */
+	@Test
+	public void parseWithBytes()
+	{
+		UserAgentParsing userAgentParser = new FixedParser();
+		byte[] userAgent = "firefox".getBytes(StandardCharsets.US_ASCII);
+
+		assertThat(userAgentParser.parse(userAgent, 0, userAgent.length)).isEqualTo(USER_AGENT_INFO);
+		assertThat(userAgentParser.parse(ByteBuffer.wrap(userAgent))).isEqualTo(USER_AGENT_INFO);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentParsing#parseAll(List)}.
+	 */
+	@Test
+	public void parseAll()
+	{
+		UserAgentParsing userAgentParser = new FixedParser();
+
+		List<UserAgentInfo> actualUserAgentInfos = userAgentParser.parseAll(List.of("firefox", "firefox"));
+
+		assertThat(actualUserAgentInfos).containsExactly(USER_AGENT_INFO, USER_AGENT_INFO);
+	}
+
+	/**
+	 * Класс реализации интерфейса, которая реализует только обязательные методы.
+	 */
+	private static final class FixedParser implements UserAgentParsing
+	{
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @param userAgent {@inheritDoc}
+		 * @return {@inheritDoc}
+		 */
+		@NotNull
+		@Override
+		public UserAgentInfo parse(@NotNull final CharSequence userAgent)
+		{
+			return USER_AGENT_INFO;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @param userAgent {@inheritDoc}
+		 */
+		@Override
+		public void setUserAgent(@NotNull final String userAgent)
+		{
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @return {@inheritDoc}
+		 */
+		@NotNull
+		@Override
+		public Map<@NotNull String, @Nullable String> getAll()
+		{
+			return USER_AGENT_INFO.getAll();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @return {@inheritDoc}
+		 */
+		@Nullable
+		@Override
+		public String getBrowserName()
+		{
+			return USER_AGENT_INFO.getBrowserName();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @return {@inheritDoc}
+		 */
+		@Nullable
+		@Override
+		public String getBrowserVersion()
+		{
+			return USER_AGENT_INFO.getBrowserVersion();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @return {@inheritDoc}
+		 */
+		@Nullable
+		@Override
+		public String getDeviceType()
+		{
+			return USER_AGENT_INFO.getDeviceType();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @return {@inheritDoc}
+		 */
+		@Nullable
+		@Override
+		public String getDeviceModel()
+		{
+			return USER_AGENT_INFO.getDeviceModel();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @return {@inheritDoc}
+		 */
+		@Nullable
+		@Override
+		public String getOperatingSystemName()
+		{
+			return USER_AGENT_INFO.getOperatingSystemName();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @return {@inheritDoc}
+		 */
+		@Nullable
+		@Override
+		public String getOperatingSystemVersion()
+		{
+			return USER_AGENT_INFO.getOperatingSystemVersion();
+		}
+	}
+}
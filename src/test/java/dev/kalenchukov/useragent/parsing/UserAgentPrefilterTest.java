@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Класс проверки методов класса {@link UserAgentPrefilter}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentPrefilterTest
+{
+	/**
+	 * Проверка метода {@link UserAgentPrefilter#rejects(CharSequence)}.
+	 */
+	@Test
+	public void rejects()
+	{
+		assertThat(UserAgentPrefilter.rejects("MOZILLA/5.0 (X11;LINUX X86_64)")).isFalse();
+		assertThat(UserAgentPrefilter.rejects("MOZILLA/5.0\tFIREFOX/118.0")).isFalse();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentPrefilter#rejects(CharSequence)} со строками без букв.
+	 */
+	@Test
+	public void rejectsWithoutLetters()
+	{
+		assertThat(UserAgentPrefilter.rejects("")).isTrue();
+		assertThat(UserAgentPrefilter.rejects("1234567890")).isTrue();
+		assertThat(UserAgentPrefilter.rejects("-/(5.0)")).isTrue();
+		assertThat(UserAgentPrefilter.rejects("ЯНДЕКС")).isTrue();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentPrefilter#rejects(CharSequence)} с управляющими символами.
+	 */
+	@Test
+	public void rejectsWithControlCharacters()
+	{
+		assertThat(UserAgentPrefilter.rejects("MOZILLA\u0000/5.0")).isTrue();
+		assertThat(UserAgentPrefilter.rejects("MOZILLA/5.0\u001B[0M")).isTrue();
+		assertThat(UserAgentPrefilter.rejects("MOZILLA\u007F")).isTrue();
+	}
+}
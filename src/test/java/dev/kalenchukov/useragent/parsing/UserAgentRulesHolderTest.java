@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link UserAgentRulesHolder}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentRulesHolderTest
+{
+	private static final String RULES = """
+		version %s
+
+		[browser]
+		FIREFOX	.*Firefox/(?<version>[0-9.]+).*
+		""";
+
+	@TempDir
+	private Path directory;
+
+	/**
+	 * Проверка метода {@link UserAgentRulesHolder#set(UserAgentRules)}.
+	 */
+	@Test
+	public void set()
+	{
+		UserAgentRulesHolder rules = new UserAgentRulesHolder(UserAgentRules.getDefault());
+		UserAgentRules newRules = UserAgentRules.getDefault();
+
+		rules.set(newRules);
+
+		assertThat(rules.get()).isSameAs(newRules);
+		assertThatThrownBy(() -> rules.set(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentRulesHolder#set(UserAgentRules)} с парсером, использующим ссылку.
+	 */
+	@Test
+	public void setWithParser() throws IOException
+	{
+		Path path = this.directory.resolve("rules.txt");
+		Files.writeString(path, RULES.formatted("2"), StandardCharsets.UTF_8);
+		UserAgentRulesHolder rules = new UserAgentRulesHolder(UserAgentRules.getDefault());
+		ParserSettings settings = new ParserSettings();
+		settings.setRules(rules);
+		settings.setEngine(ParserSettings.Engine.AUTOMATON);
+		UserAgentParser userAgentParser = new UserAgentParser(settings);
+		UserAgentRules newRules = UserAgentRules.load(path);
+
+		assertThat(userAgentParser.getPreparedEngine()).isNull();
+
+		rules.set(newRules);
+
+		assertThat(userAgentParser.getPreparedEngine()).isNotNull();
+		assertThat(userAgentParser.getPreparedEngine().getRules()).isSameAs(newRules);
+		assertThat(userAgentParser.parse("Mozilla/5.0 Firefox/99.0").getBrowser()).isEqualTo(BrowserType.FIREFOX);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentRulesHolder#reload()}.
+	 */
+	@Test
+	public void reload() throws IOException
+	{
+		Path path = this.directory.resolve("rules.txt");
+		Files.writeString(path, RULES.formatted("1"), StandardCharsets.UTF_8);
+		UserAgentRulesHolder rules = new UserAgentRulesHolder(path);
+		UserAgentRules oldRules = rules.get();
+
+		Files.writeString(path, RULES.formatted("2"), StandardCharsets.UTF_8);
+
+		assertThat(rules.reload()).isSameAs(rules.get());
+		assertThat(oldRules.getVersion()).isEqualTo("1");
+		assertThat(rules.get().getVersion()).isEqualTo("2");
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentRulesHolder#reload()} с ошибками в правилах.
+	 */
+	@Test
+	public void reloadWithErrors() throws IOException
+	{
+		Path path = this.directory.resolve("rules.txt");
+		Files.writeString(path, RULES.formatted("1"), StandardCharsets.UTF_8);
+		UserAgentRulesHolder rules = new UserAgentRulesHolder(path);
+		UserAgentRules oldRules = rules.get();
+
+		Files.writeString(path, "[browser]\n", StandardCharsets.UTF_8);
+
+		assertThatThrownBy(rules::reload).isInstanceOf(IOException.class);
+		assertThat(rules.get()).isSameAs(oldRules);
+		assertThatThrownBy(() -> new UserAgentRulesHolder(UserAgentRules.getDefault()).reload())
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentRulesHolder#watch()}.
+	 */
+	@Test
+	public void watch() throws Exception
+	{
+		Path path = this.directory.resolve("rules.txt");
+		Files.writeString(path, RULES.formatted("1"), StandardCharsets.UTF_8);
+
+		try (UserAgentRulesHolder rules = new UserAgentRulesHolder(path))
+		{
+			rules.watch();
+			Files.writeString(path, RULES.formatted("2"), StandardCharsets.UTF_8);
+
+			long deadline = System.nanoTime() + 30_000_000_000L;
+
+			while (!rules.get().getVersion().equals("2") && System.nanoTime() < deadline) {
+				Thread.sleep(50);
+			}
+
+			assertThat(rules.get().getVersion()).isEqualTo("2");
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2022-2023 Алексей Каленчуков
+ * GitHub: https://github.com/kalenchukov
+ * E-mail: mailto:aleksey.kalenchukov@yandex.ru
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.kalenchukov.useragent.parsing;
+
+import dev.kalenchukov.useragent.parsing.resources.BrowserType;
+import dev.kalenchukov.useragent.parsing.resources.DeviceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Класс проверки методов класса {@link UserAgentRules}.
+ *
+ * @author Алексей Каленчуков
+ */
+public class UserAgentRulesTest
+{
+	private static final String RULES = """
+		# Тестовый набор правил.
+		version 2023.10-test
+
+		[browser]
+		FIREFOX	.*Firefox/(?<version>[0-9.]+).*
+
+		[device]
+		PC	.*Windows.*
+
+		[operating_system]
+		""";
+
+	@TempDir
+	private Path directory;
+
+	/**
+	 * Проверка метода {@link UserAgentRules#getDefault()}.
+	 */
+	@Test
+	public void getDefault()
+	{
+		UserAgentRules rules = UserAgentRules.getDefault();
+
+		assertThat(rules).isSameAs(UserAgentRules.getDefault());
+		assertThat(rules.getVersion()).isNotBlank();
+		assertThat(rules.getBrowserRules().getRules()).isNotEmpty();
+		assertThat(rules.getDeviceRules().getRules()).isNotEmpty();
+		assertThat(rules.getOperatingSystemRules().getRules()).isNotEmpty();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentRules#load(Path)}.
+	 */
+	@Test
+	public void load() throws IOException
+	{
+		Path path = this.directory.resolve("rules.txt");
+		Files.writeString(path, RULES, StandardCharsets.UTF_8);
+
+		UserAgentRules rules = UserAgentRules.load(path);
+
+		assertThat(rules.getVersion()).isEqualTo("2023.10-test");
+		assertThat(rules.getBrowserRules().getRules()).extracting(Rule::getType).containsExactly(BrowserType.FIREFOX);
+		assertThat(rules.getDeviceRules().getRules()).extracting(Rule::getType).containsExactly(DeviceType.PC);
+		assertThat(rules.getOperatingSystemRules().getRules()).isEmpty();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentRules#load(java.io.InputStream)} с парсером.
+	 */
+	@Test
+	public void loadWithParser() throws IOException
+	{
+		UserAgentRules rules = UserAgentRules.load(new ByteArrayInputStream(RULES.getBytes(StandardCharsets.UTF_8)));
+		ParserSettings settings = new ParserSettings();
+		settings.setRules(rules);
+		UserAgentParsing userAgentParser = new UserAgentParser(settings);
+
+		UserAgentInfo actualUserAgentInfo = userAgentParser.parse(
+			"Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/118.0"
+		);
+
+		assertThat(actualUserAgentInfo.getBrowser()).isEqualTo(BrowserType.FIREFOX);
+		assertThat(actualUserAgentInfo.getBrowserVersion()).isEqualTo("118.0");
+		assertThat(actualUserAgentInfo.getDevice()).isEqualTo(DeviceType.PC);
+		assertThat(actualUserAgentInfo.getOperatingSystemName()).isNull();
+	}
+
+	/**
+	 * Проверка метода {@link UserAgentRules#load(java.io.InputStream)} с ошибками в правилах.
+	 */
+	@Test
+	public void loadWithErrors()
+	{
+		assertThatThrownBy(() -> this.load("[browser]\nFIREFOX\t.*Firefox.*\n"))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("Строка 1");
+		assertThatThrownBy(() -> this.load("version 1\n[browser]\nNETSCAPE_9\t.*Netscape.*\n"))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("NETSCAPE_9");
+		assertThatThrownBy(() -> this.load("version 1\n[robots]\n"))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("robots");
+		assertThatThrownBy(() -> this.load("version 1\n[browser]\nFIREFOX\t.*Firefox/(.*\n"))
+			.isInstanceOf(IOException.class);
+	}
+
+	/**
+	 * Загружает набор правил из строки.
+	 *
+	 * @param content содержимое файла правил.
+	 * @return набор правил.
+	 * @throws IOException если правила содержат ошибки.
+	 */
+	private UserAgentRules load(final String content) throws IOException
+	{
+		return UserAgentRules.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+	}
+}